@@ -53,13 +53,16 @@ import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewsRepository;
 import de.metas.ui.web.view.SqlViewFactory;
+import de.metas.ui.web.view.SqlViewSelectionToDeleteHelper;
 import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewPagesPrefetcher;
 import de.metas.ui.web.view.ViewProfileId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.ViewRowOverridesHelper;
 import de.metas.ui.web.view.descriptor.annotation.ViewColumnHelper;
 import de.metas.ui.web.view.event.JSONViewChanges;
 import de.metas.ui.web.view.event.ViewChanges;
+import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewResult;
 import de.metas.ui.web.websocket.WebSocketConfig;
 import de.metas.ui.web.websocket.WebsocketEventLogRecord;
@@ -195,6 +198,48 @@ public class DebugRestController
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
+	@GetMapping("/views/notificationStats")
+	public Map<String, Object> getViewsNotificationStats()
+	{
+		return viewsRepo.getNotificationStats();
+	}
+
+	@GetMapping("/documents/cacheStats")
+	public Map<String, Object> getDocumentsCacheStats()
+	{
+		return documentCollection.getCacheStats();
+	}
+
+	@GetMapping("/documents/saveStats")
+	public Map<String, Object> getDocumentsSaveStats()
+	{
+		return SqlDocumentsRepository.instance.getSaveStats();
+	}
+
+	@GetMapping("/views/filteredSelectionsCacheStats")
+	public Map<String, Object> getViewFilteredSelectionsCacheStats()
+	{
+		return viewsRepo.getFilteredSelectionsCacheStats();
+	}
+
+	@GetMapping("/views/changesCollector/captureStackTraces")
+	public void setViewChangesCollectorCaptureStackTraces(@RequestParam("enabled") final boolean enabled)
+	{
+		ViewChangesCollector.setCaptureStackTraces(enabled);
+	}
+
+	@GetMapping("/views/prefetchStats")
+	public Map<String, Object> getViewPagesPrefetchStats()
+	{
+		return ViewPagesPrefetcher.getStats();
+	}
+
+	@GetMapping("/views/selectionsCleanupStats")
+	public Map<String, Object> getViewSelectionsCleanupStats()
+	{
+		return SqlViewSelectionToDeleteHelper.getStats();
+	}
+
 	@PostMapping("/viewDefaultProfile/{windowId}")
 	public void setDefaultViewProfile(@PathVariable("windowId") final String windowIdStr, @RequestBody final String profileIdStr)
 	{
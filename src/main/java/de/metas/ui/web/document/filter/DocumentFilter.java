@@ -19,6 +19,7 @@ import de.metas.i18n.ImmutableTranslatableString;
 import de.metas.ui.web.document.filter.DocumentFilterParam.Operator;
 import de.metas.util.Check;
 
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 
 /*
@@ -50,6 +51,7 @@ import lombok.NonNull;
  *
  */
 @Immutable
+@EqualsAndHashCode(exclude = "caption") // required for sharing view selections
 public final class DocumentFilter
 {
 	public static final Builder builder()
@@ -31,6 +31,7 @@ import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.process.view.ViewActionDescriptorsList;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.ViewCloseReason;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.event.ViewChangesCollector;
@@ -386,6 +387,12 @@ public class HUEditorView implements IView
 				.collect(Collectors.toSet());
 	}
 
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.of(I_M_HU.Table_Name);
+	}
+
 	@Override
 	public void notifyRecordsChanged(final TableRecordReferenceSet recordRefs)
 	{
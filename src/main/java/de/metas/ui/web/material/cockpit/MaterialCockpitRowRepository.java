@@ -17,7 +17,6 @@ import org.compiere.util.TimeUtil;
 import org.springframework.stereotype.Repository;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Maps;
 
 import de.metas.material.cockpit.model.I_MD_Cockpit;
 import de.metas.material.cockpit.model.I_MD_Stock;
@@ -27,6 +26,7 @@ import de.metas.ui.web.material.cockpit.filters.StockFilters;
 import de.metas.ui.web.material.cockpit.rowfactory.MaterialCockpitRowFactory;
 import de.metas.ui.web.material.cockpit.rowfactory.MaterialCockpitRowFactory.CreateRowsRequest;
 import de.metas.ui.web.view.AbstractCustomView.IRowsData;
+import de.metas.ui.web.view.ImmutableRowsIndex;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.util.Services;
@@ -78,13 +78,19 @@ public class MaterialCockpitRowRepository
 	{
 		return new IRowsData<MaterialCockpitRow>()
 		{
-			private final ExtendedMemorizingSupplier<List<MaterialCockpitRow>> topLevelRows = //
-					ExtendedMemorizingSupplier.of(() -> retrieveRows(filters));
+			private final ExtendedMemorizingSupplier<ImmutableRowsIndex<MaterialCockpitRow>> rowsIndex = //
+					ExtendedMemorizingSupplier.of(() -> ImmutableRowsIndex.of(retrieveRows(filters)));
 
 			@Override
 			public Map<DocumentId, MaterialCockpitRow> getDocumentId2TopLevelRows()
 			{
-				return Maps.uniqueIndex(topLevelRows.get(), row -> row.getId());
+				return rowsIndex.get().getDocumentId2TopLevelRows();
+			}
+
+			@Override
+			public Map<DocumentId, MaterialCockpitRow> getDocumentId2AllRows()
+			{
+				return rowsIndex.get().getDocumentId2AllRows();
 			}
 
 			@Override
@@ -106,7 +112,7 @@ public class MaterialCockpitRowRepository
 			@Override
 			public void invalidateAll()
 			{
-				topLevelRows.forget();
+				rowsIndex.forget();
 			}
 		};
 	}
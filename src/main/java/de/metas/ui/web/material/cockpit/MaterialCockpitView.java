@@ -17,6 +17,7 @@ import de.metas.ui.web.process.view.ViewActionDescriptorsFactory;
 import de.metas.ui.web.process.view.ViewActionDescriptorsList;
 import de.metas.ui.web.view.AbstractCustomView;
 import de.metas.ui.web.view.IView;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.window.datatypes.DocumentId;
 
@@ -89,6 +90,12 @@ public class MaterialCockpitView extends AbstractCustomView<MaterialCockpitRow>
 		return filters;
 	}
 
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.of(I_MD_Cockpit.Table_Name, I_MD_Stock.Table_Name);
+	}
+
 	@Override
 	protected boolean isEligibleInvalidateEvent(final TableRecordReference recordRef)
 	{
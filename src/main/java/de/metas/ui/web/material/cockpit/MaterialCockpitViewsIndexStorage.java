@@ -1,5 +1,6 @@
 package de.metas.ui.web.material.cockpit;
 
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.compiere.model.I_M_Product;
@@ -99,6 +100,18 @@ public class MaterialCockpitViewsIndexStorage implements IViewsIndexStorage
 		return defaultViewsRepositoryStorage.streamAllViews();
 	}
 
+	@Override
+	public long size()
+	{
+		return defaultViewsRepositoryStorage.size();
+	}
+
+	@Override
+	public Stream<IView> streamViewsByDependentTableNames(final Set<String> tableNames)
+	{
+		return defaultViewsRepositoryStorage.streamViewsByDependentTableNames(tableNames);
+	}
+
 	@Override
 	public void invalidateView(ViewId viewId)
 	{
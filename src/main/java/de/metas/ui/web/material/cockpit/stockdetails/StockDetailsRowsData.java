@@ -6,10 +6,11 @@ import java.util.stream.Stream;
 
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableList;
 
 import de.metas.handlingunits.stock.HUStockInfo;
 import de.metas.ui.web.view.AbstractCustomView.IRowsData;
+import de.metas.ui.web.view.ImmutableRowsIndex;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import lombok.NonNull;
@@ -43,11 +44,11 @@ public class StockDetailsRowsData implements IRowsData<StockDetailsRow>
 		return new StockDetailsRowsData(huStockInfos);
 	}
 
-	private final Map<DocumentId, StockDetailsRow> document2StockDetailsRow;
+	private final ImmutableRowsIndex<StockDetailsRow> rowsIndex;
 
 	private StockDetailsRowsData(@NonNull final Stream<HUStockInfo> huStockInfos)
 	{
-		final ImmutableMap.Builder<DocumentId, StockDetailsRow> builder = ImmutableMap.builder();
+		final ImmutableList.Builder<StockDetailsRow> rows = ImmutableList.builder();
 
 		final Iterator<HUStockInfo> iterator = huStockInfos.iterator();
 		while (iterator.hasNext())
@@ -55,16 +56,28 @@ public class StockDetailsRowsData implements IRowsData<StockDetailsRow>
 			final HUStockInfo huStockInfo = iterator.next();
 			final StockDetailsRow row = StockDetailsRow.of(huStockInfo);
 
-			builder.put(row.getId(), row);
+			rows.add(row);
 		}
 
-		document2StockDetailsRow = builder.build();
+		rowsIndex = ImmutableRowsIndex.of(rows.build());
 	}
 
 	@Override
 	public Map<DocumentId, StockDetailsRow> getDocumentId2TopLevelRows()
 	{
-		return document2StockDetailsRow;
+		return rowsIndex.getDocumentId2TopLevelRows();
+	}
+
+	@Override
+	public Map<DocumentId, StockDetailsRow> getDocumentId2AllRows()
+	{
+		return rowsIndex.getDocumentId2AllRows();
+	}
+
+	@Override
+	public int sizeIfLoaded()
+	{
+		return size(); // rows are loaded when this instance is created
 	}
 
 	@Override
@@ -136,6 +136,19 @@ class PricingConditionsRowData implements IEditableRowsData<PricingConditionsRow
 		return getDocumentId2TopLevelRows();
 	}
 
+	/** Looks up the row directly, because pricing conditions rows have no included rows. */
+	@Override
+	public PricingConditionsRow getById(@NonNull final DocumentId rowId)
+	{
+		final PricingConditionsRow row = rowsById.get(rowId);
+		if (row == null)
+		{
+			throw new EntityNotFoundException("Row not found")
+					.appendParametersToMessage().setParameter("rowId", rowId);
+		}
+		return row;
+	}
+
 	@Override
 	public Collection<PricingConditionsRow> getTopLevelRows()
 	{
@@ -128,6 +128,7 @@ public class PricingConditionsView extends AbstractCustomView<PricingConditionsR
 	public void patchEditableRow(@NonNull final PricingConditionsRowChangeRequest request)
 	{
 		rowsData.patchEditableRow(request);
+		onRowsChanged();
 	}
 
 	@Override
@@ -16,6 +16,7 @@ import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.view.IEditableView;
 import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.event.ViewChangesCollector;
@@ -221,6 +222,15 @@ public class PurchaseView implements IEditableView
 	{
 	}
 
+	/**
+	 * @return {@link ViewDependentTableNames#NONE} because {@link #notifyRecordsChanged(TableRecordReferenceSet)} is not reacting on any change
+	 */
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.NONE;
+	}
+
 	@Override
 	public void patchViewRow(
 			@NonNull final RowEditingContext ctx,
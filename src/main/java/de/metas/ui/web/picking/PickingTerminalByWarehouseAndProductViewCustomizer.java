@@ -1,10 +1,14 @@
 package de.metas.ui.web.picking;
 
+import java.util.Set;
+
 import org.adempiere.ad.service.IADReferenceDAO;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.i18n.ITranslatableString;
 import de.metas.inoutcandidate.model.I_M_Packageable_V;
 import de.metas.picking.model.X_M_Picking_Config;
@@ -118,6 +122,15 @@ public class PickingTerminalByWarehouseAndProductViewCustomizer implements SqlVi
 				I_M_Packageable_V.COLUMNNAME_PreparationDate);
 	}
 
+	@Override
+	public Set<String> getRequiredFieldNames()
+	{
+		return ImmutableSet.of(
+				I_M_Packageable_V.COLUMNNAME_M_Product_ID,
+				I_M_Packageable_V.COLUMNNAME_C_BPartner_Customer_ID,
+				I_M_Packageable_V.COLUMNNAME_C_BPartner_Location_ID);
+	}
+
 	@Override
 	public void customizeViewRow(final ViewRow.Builder rowBuilder)
 	{
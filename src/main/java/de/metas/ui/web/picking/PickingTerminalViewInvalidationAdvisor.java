@@ -19,6 +19,7 @@ import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewInvalidationAdvisor;
 import de.metas.ui.web.view.SqlViewRowIdsOrderedSelectionFactory;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.descriptor.SqlViewKeyColumnNamesMap;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -73,6 +74,12 @@ class PickingTerminalViewInvalidationAdvisor implements IViewInvalidationAdvisor
 				ShipmentScheduleId.toIntSet(shipmentScheduleIds));
 	}
 
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.of(I_M_ShipmentSchedule.Table_Name, I_M_Picking_Candidate.Table_Name);
+	}
+
 	private Set<ShipmentScheduleId> extractShipmentScheduleIds(final TableRecordReferenceSet recordRefs)
 	{
 		if (recordRefs.isEmpty())
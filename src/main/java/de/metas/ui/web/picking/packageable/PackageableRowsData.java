@@ -2,20 +2,21 @@ package de.metas.ui.web.picking.packageable;
 
 import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
-import org.adempiere.util.lang.ExtendedMemorizingSupplier;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.inoutcandidate.api.ShipmentScheduleId;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.ui.web.view.AbstractCustomView.IRowsData;
+import de.metas.ui.web.view.ImmutableRowsIndex;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import lombok.NonNull;
@@ -43,12 +44,17 @@ import lombok.ToString;
  * #L%
  */
 
-@ToString
+@ToString(exclude = { "rowsLoader", "_rowsIndex" })
 final class PackageableRowsData implements IRowsData<PackageableRow>
 {
-	public static PackageableRowsData ofSupplier(final Supplier<List<PackageableRow>> rowsSupplier)
+	/**
+	 * @param rowsLoader loads the rows of the given shipment schedule IDs; it shall return only the shipment schedules which are still packageable
+	 */
+	public static PackageableRowsData of(
+			@NonNull final Set<ShipmentScheduleId> shipmentScheduleIds,
+			@NonNull final Function<Set<ShipmentScheduleId>, List<PackageableRow>> rowsLoader)
 	{
-		return new PackageableRowsData(rowsSupplier);
+		return new PackageableRowsData(ImmutableSet.copyOf(shipmentScheduleIds), rowsLoader);
 	}
 
 	public static PackageableRowsData cast(final IRowsData<PackageableRow> rowsData)
@@ -56,15 +62,20 @@ final class PackageableRowsData implements IRowsData<PackageableRow>
 		return (PackageableRowsData)rowsData;
 	}
 
-	public static final PackageableRowsData EMPTY = new PackageableRowsData(ImmutableList::of);
+	public static final PackageableRowsData EMPTY = new PackageableRowsData(ImmutableSet.of(), ids -> ImmutableList.of());
 
-	private final ExtendedMemorizingSupplier<Map<DocumentId, PackageableRow>> topLevelRows;
+	private final ImmutableSet<ShipmentScheduleId> shipmentScheduleIds;
+	private final Function<Set<ShipmentScheduleId>, List<PackageableRow>> rowsLoader;
+	private ImmutableRowsIndex<PackageableRow> _rowsIndex; // lazy
 
 	private final ImmutableListMultimap<TableRecordReference, DocumentId> initialDocumentIdsByRecordRef;
 
-	private PackageableRowsData(@NonNull final Supplier<List<PackageableRow>> rowsSupplier)
+	private PackageableRowsData(
+			@NonNull final ImmutableSet<ShipmentScheduleId> shipmentScheduleIds,
+			@NonNull final Function<Set<ShipmentScheduleId>, List<PackageableRow>> rowsLoader)
 	{
-		topLevelRows = ExtendedMemorizingSupplier.of(() -> Maps.uniqueIndex(rowsSupplier.get(), PackageableRow::getId));
+		this.shipmentScheduleIds = shipmentScheduleIds;
+		this.rowsLoader = rowsLoader;
 
 		//
 		// Remember initial rows
@@ -76,16 +87,60 @@ final class PackageableRowsData implements IRowsData<PackageableRow>
 				.collect(ImmutableListMultimap.toImmutableListMultimap(PackageableRow::getTableRecordReference, PackageableRow::getId));
 	}
 
+	private synchronized ImmutableRowsIndex<PackageableRow> getRowsIndex()
+	{
+		if (_rowsIndex == null)
+		{
+			_rowsIndex = ImmutableRowsIndex.of(rowsLoader.apply(shipmentScheduleIds));
+		}
+		return _rowsIndex;
+	}
+
 	@Override
 	public Map<DocumentId, PackageableRow> getDocumentId2TopLevelRows()
 	{
-		return topLevelRows.get();
+		return getRowsIndex().getDocumentId2TopLevelRows();
+	}
+
+	@Override
+	public Map<DocumentId, PackageableRow> getDocumentId2AllRows()
+	{
+		return getRowsIndex().getDocumentId2AllRows();
+	}
+
+	@Override
+	public synchronized int sizeIfLoaded()
+	{
+		return _rowsIndex != null ? _rowsIndex.getDocumentId2TopLevelRows().size() : -1;
+	}
+
+	@Override
+	public synchronized void invalidateAll()
+	{
+		_rowsIndex = null;
 	}
 
+	/**
+	 * Reloads only the rows of the given shipment schedules and splices them into the already loaded rows.
+	 */
 	@Override
-	public void invalidateAll()
+	public synchronized void invalidate(@NonNull final DocumentIdsSelection rowIds)
 	{
-		topLevelRows.forget();
+		if (rowIds.isAll())
+		{
+			invalidateAll();
+		}
+		else if (rowIds.isEmpty() || _rowsIndex == null)
+		{
+			// nothing to reload (if the rows were not loaded yet, they will be loaded on demand)
+			return;
+		}
+		else
+		{
+			final Set<ShipmentScheduleId> shipmentScheduleIdsToReload = rowIds.toIds(ShipmentScheduleId::ofRepoId);
+			final List<PackageableRow> reloadedRows = rowsLoader.apply(shipmentScheduleIdsToReload);
+			_rowsIndex = _rowsIndex.replacingRows(rowIds.toSet(), reloadedRows);
+		}
 	}
 
 	@Override
@@ -24,6 +24,7 @@ import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.picking.packageable.PackageableView;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.json.JSONViewDataType;
@@ -236,6 +237,15 @@ public class PickingSlotView implements IView
 
 	}
 
+	/**
+	 * @return {@link ViewDependentTableNames#NONE} because {@link #notifyRecordsChanged(TableRecordReferenceSet)} is not reacting on any change
+	 */
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.NONE;
+	}
+
 	@Override
 	public List<RelatedProcessDescriptor> getAdditionalRelatedProcessDescriptors()
 	{
@@ -58,6 +58,12 @@ final class PackageableRowsData implements IRowsData<PackageableRow>
 		return getPackageableRowsIndex().getRowsIndexedById();
 	}
 
+	@Override
+	public Map<DocumentId, PackageableRow> getDocumentId2AllRows()
+	{
+		return getPackageableRowsIndex().getAllRowsIndexedById();
+	}
+
 	private PackageableRowsIndex getPackageableRowsIndex()
 	{
 		return rowsIndexSupplier.get();
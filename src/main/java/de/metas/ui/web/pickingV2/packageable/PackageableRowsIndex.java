@@ -6,9 +6,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 
 import de.metas.inoutcandidate.api.ShipmentScheduleId;
+import de.metas.ui.web.view.ImmutableRowsIndex;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.util.GuavaCollectors;
 import lombok.NonNull;
@@ -42,12 +42,12 @@ final class PackageableRowsIndex
 		return new PackageableRowsIndex(rows);
 	}
 
-	private final ImmutableMap<DocumentId, PackageableRow> rowsById;
+	private final ImmutableRowsIndex<PackageableRow> rowsIndex;
 	private final ImmutableListMultimap<ShipmentScheduleId, PackageableRow> rowsByShipmentScheduleId;
 
 	private PackageableRowsIndex(final Collection<PackageableRow> rows)
 	{
-		rowsById = Maps.uniqueIndex(rows, PackageableRow::getId);
+		rowsIndex = ImmutableRowsIndex.of(rows);
 		rowsByShipmentScheduleId = rows.stream()
 				.flatMap(row -> row.getShipmentScheduleIds()
 						.stream()
@@ -57,7 +57,12 @@ final class PackageableRowsIndex
 
 	public ImmutableMap<DocumentId, PackageableRow> getRowsIndexedById()
 	{
-		return rowsById;
+		return rowsIndex.getDocumentId2TopLevelRows();
+	}
+
+	public ImmutableMap<DocumentId, PackageableRow> getAllRowsIndexedById()
+	{
+		return rowsIndex.getDocumentId2AllRows();
 	}
 
 	private ImmutableList<PackageableRow> getRowsByShipmentScheduleId(@NonNull final ShipmentScheduleId shipmentScheduleId)
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
@@ -19,6 +20,7 @@ import de.metas.handlingunits.model.I_M_Picking_Candidate;
 import de.metas.handlingunits.picking.PickingCandidate;
 import de.metas.handlingunits.picking.PickingCandidateId;
 import de.metas.handlingunits.picking.PickingCandidateService;
+import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.view.AbstractCustomView.IEditableRowsData;
 import de.metas.ui.web.view.IEditableView.RowEditingContext;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -58,6 +60,7 @@ class ProductsToPickRowsData implements IEditableRowsData<ProductsToPickRow>
 	private final ImmutableList<DocumentId> rowIdsOrdered;
 	private final ConcurrentHashMap<DocumentId, ProductsToPickRow> _rowsById;
 	private volatile boolean rowIdsInvalid;
+	private final Set<DocumentId> rowIdsToRefresh = ConcurrentHashMap.newKeySet();
 
 	@Builder
 	private ProductsToPickRowsData(
@@ -81,23 +84,41 @@ class ProductsToPickRowsData implements IEditableRowsData<ProductsToPickRow>
 	{
 		if (rowIdsInvalid)
 		{
-			final Map<PickingCandidateId, DocumentId> rowIdsByPickingCandidateId = _rowsById.values()
-					.stream()
-					.filter(row -> row.getPickingCandidateId() != null)
-					.collect(ImmutableMap.toImmutableMap(ProductsToPickRow::getPickingCandidateId, ProductsToPickRow::getId));
-
-			final List<PickingCandidate> pickingCandidates = pickingCandidateService.getByIds(rowIdsByPickingCandidateId.keySet());
-
-			pickingCandidates
-					.forEach(pickingCandidate -> _rowsById.compute(
-							rowIdsByPickingCandidateId.get(pickingCandidate.getId()),
-							(rowId, row) -> row.withUpdatesFromPickingCandidateIfNotNull(pickingCandidate)));
-
+			refreshFromPickingCandidates(_rowsById.values());
 			rowIdsInvalid = false;
+			rowIdsToRefresh.clear();
+		}
+		else if (!rowIdsToRefresh.isEmpty())
+		{
+			final ImmutableList<ProductsToPickRow> rowsToRefresh = rowIdsToRefresh.stream()
+					.map(_rowsById::get)
+					.filter(Objects::nonNull)
+					.collect(ImmutableList.toImmutableList());
+			refreshFromPickingCandidates(rowsToRefresh);
+			rowIdsToRefresh.clear();
 		}
 		return _rowsById;
 	}
 
+	private void refreshFromPickingCandidates(final Collection<ProductsToPickRow> rows)
+	{
+		final Map<PickingCandidateId, DocumentId> rowIdsByPickingCandidateId = rows
+				.stream()
+				.filter(row -> row.getPickingCandidateId() != null)
+				.collect(ImmutableMap.toImmutableMap(ProductsToPickRow::getPickingCandidateId, ProductsToPickRow::getId));
+		if (rowIdsByPickingCandidateId.isEmpty())
+		{
+			return;
+		}
+
+		final List<PickingCandidate> pickingCandidates = pickingCandidateService.getByIds(rowIdsByPickingCandidateId.keySet());
+
+		pickingCandidates
+				.forEach(pickingCandidate -> _rowsById.compute(
+						rowIdsByPickingCandidateId.get(pickingCandidate.getId()),
+						(rowId, row) -> row.withUpdatesFromPickingCandidateIfNotNull(pickingCandidate)));
+	}
+
 	public synchronized void changeRow(@NonNull final DocumentId rowId, @NonNull final UnaryOperator<ProductsToPickRow> mapper)
 	{
 		final Map<DocumentId, ProductsToPickRow> rowsById = getRowsById();
@@ -130,6 +151,19 @@ class ProductsToPickRowsData implements IEditableRowsData<ProductsToPickRow>
 				.collect(ImmutableList.toImmutableList());
 	}
 
+	/** Looks up the row directly, because products to pick rows have no included rows. */
+	@Override
+	public ProductsToPickRow getById(@NonNull final DocumentId rowId)
+	{
+		final ProductsToPickRow row = getRowsById().get(rowId);
+		if (row == null)
+		{
+			throw new EntityNotFoundException("Row not found")
+					.appendParametersToMessage().setParameter("rowId", rowId);
+		}
+		return row;
+	}
+
 	@Override
 	public void patchRow(final RowEditingContext ctx, final List<JSONDocumentChangedEvent> fieldChangeRequests)
 	{
@@ -188,4 +222,20 @@ class ProductsToPickRowsData implements IEditableRowsData<ProductsToPickRow>
 	{
 		rowIdsInvalid = true;
 	}
+
+	/**
+	 * Refreshes (lazily) only the given rows from their picking candidates.
+	 */
+	@Override
+	public void invalidate(@NonNull final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isAll())
+		{
+			invalidateAll();
+		}
+		else
+		{
+			rowIdsToRefresh.addAll(rowIds.toSet());
+		}
+	}
 }
@@ -99,6 +99,7 @@ public class ProductsToPickView extends AbstractCustomView<ProductsToPickRow> im
 	public void changeRow(@NonNull final DocumentId rowId, @NonNull final UnaryOperator<ProductsToPickRow> mapper)
 	{
 		rowsData.changeRow(rowId, mapper);
+		onRowsChanged();
 	}
 
 	public boolean isApproved()
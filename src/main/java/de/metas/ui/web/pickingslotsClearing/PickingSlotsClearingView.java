@@ -30,6 +30,7 @@ import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewRow;
 import de.metas.ui.web.view.IViewRowOverrides;
 import de.metas.ui.web.view.ViewCloseReason;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.event.ViewChangesCollector;
@@ -262,6 +263,15 @@ public class PickingSlotsClearingView implements IView, IViewRowOverrides
 
 	}
 
+	/**
+	 * @return {@link ViewDependentTableNames#NONE} because {@link #notifyRecordsChanged(TableRecordReferenceSet)} is not reacting on any change
+	 */
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.NONE;
+	}
+
 	@Override
 	public ViewId getIncludedViewId(final IViewRow row)
 	{
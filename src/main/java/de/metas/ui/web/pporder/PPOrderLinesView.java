@@ -27,6 +27,7 @@ import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewRow;
 import de.metas.ui.web.view.ViewCloseReason;
+import de.metas.ui.web.view.ViewDependentTableNames;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.event.ViewChangesCollector;
@@ -338,6 +339,15 @@ public class PPOrderLinesView implements IView
 		// TODO: notifyRecordsChanged: identify the sub-trees which could be affected and invalidate only those
 	}
 
+	/**
+	 * @return {@link ViewDependentTableNames#NONE} because {@link #notifyRecordsChanged(TableRecordReferenceSet)} is not reacting on any change
+	 */
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.NONE;
+	}
+
 	@Override
 	public List<RelatedProcessDescriptor> getAdditionalRelatedProcessDescriptors()
 	{
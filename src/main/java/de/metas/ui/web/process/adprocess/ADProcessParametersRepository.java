@@ -231,6 +231,12 @@ import de.metas.util.lang.RepoIdAware;
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public int retrieveCount(final DocumentQuery query)
+	{
+		throw new UnsupportedOperationException();
+	}
+
 	private static final class ProcessInfoParameterDocumentValuesSupplier implements DocumentValuesSupplier
 	{
 		private final DocumentId adPInstanceId;
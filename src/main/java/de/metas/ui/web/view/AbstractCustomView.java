@@ -1,9 +1,11 @@
 package de.metas.ui.web.view;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -14,7 +16,6 @@ import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 import org.compiere.util.Evaluatee;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.i18n.ITranslatableString;
@@ -29,6 +30,7 @@ import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.ui.web.window.model.DocumentQueryOrderBys;
 import de.metas.ui.web.window.model.sql.SqlOptions;
@@ -77,6 +79,9 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 	private final DocumentFilterDescriptorsProvider viewFilterDescriptors;
 
+	private final SortedRowsCache<T> sortedRowsCache = new SortedRowsCache<>();
+	private final ViewColumnAggregatesCache columnAggregatesCache = new ViewColumnAggregatesCache();
+
 	/**
 	 *
 	 * @param viewId
@@ -132,10 +137,21 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		return rowsData.size();
 	}
 
+	/**
+	 * Counts the rows only if they are already loaded, because this method is called when the view is put into the views storage
+	 * and it shall not trigger loading lazy rows. Until then, only the base size is counted; the views storage re-weighs the view on access.
+	 */
+	@Override
+	public long getApproximateRetainedSizeInBytes()
+	{
+		return ViewRetainedSizes.estimateForRowsCount(rowsData.sizeIfLoaded());
+	}
+
 	@Override
 	public void invalidateAll()
 	{
 		rowsData.invalidateAll();
+		onRowsChanged();
 		ViewChangesCollector
 				.getCurrentOrAutoflush()
 				.collectFullyChanged(this);
@@ -226,20 +242,63 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 	/**
 	 * Simple in-memory implementation with paging and ordering.
+	 * The sorted rows are cached per order bys for as long as the rows data returns the same top level rows.
 	 */
 	@Override
 	public final ViewResult getPage(final int firstRow, final int pageLength, @NonNull final List<DocumentQueryOrderBy> orderBys)
 	{
-		final List<IViewRow> pageRows = getRows()
-				.stream()
-				.sorted(DocumentQueryOrderBys.asComparator(orderBys))
-				.skip(firstRow >= 0 ? firstRow : 0)
-				.limit(pageLength > 0 ? pageLength : 30)
-				.collect(ImmutableList.toImmutableList());
+		final ImmutableList<T> sortedRows = sortedRowsCache.getOrSort(getRows(), orderBys);
+
+		final int fromIndex = Math.min(firstRow >= 0 ? firstRow : 0, sortedRows.size());
+		final int toIndex = (int)Math.min((long)fromIndex + (pageLength > 0 ? pageLength : 30), sortedRows.size());
+		final List<T> pageRows = sortedRows.subList(fromIndex, toIndex);
 
 		return ViewResult.ofViewAndPage(this, firstRow, pageLength, orderBys, pageRows);
 	}
 
+	/**
+	 * Iterates the in-memory rows directly, without sorting and paging them.
+	 */
+	@Override
+	public void forEachRow(@NonNull final Consumer<IViewRow> consumer)
+	{
+		getRows().forEach(consumer);
+	}
+
+	/**
+	 * Computes the aggregates in a single pass over the rows. The result is cached until the view is invalidated.
+	 */
+	@Override
+	public ViewColumnAggregates getColumnAggregates(
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ViewColumnAggregates.EMPTY;
+		}
+
+		return columnAggregatesCache.getOrCompute(rowIds, widgetTypesByFieldName, () -> {
+			final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(widgetTypesByFieldName);
+			if (rowIds.isAll())
+			{
+				getRows().forEach(calculator::add);
+			}
+			else
+			{
+				streamByIds(rowIds).forEach(calculator::add);
+			}
+			return calculator.build();
+		});
+	}
+
+	/** Shall be called each time the rows were changed, in order to discard the caches computed from them (e.g. column aggregates) */
+	protected final void onRowsChanged()
+	{
+		sortedRowsCache.clear();
+		columnAggregatesCache.clear();
+	}
+
 	@Override
 	public final T getById(@NonNull final DocumentId rowId) throws EntityNotFoundException
 	{
@@ -285,7 +344,8 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 			return; // nothing to do
 		}
 
-		rowsData.invalidateAll();
+		rowsData.invalidate(documentIdsToInvalidate);
+		onRowsChanged();
 		ViewChangesCollector.getCurrentOrAutoflush()
 				.collectRowsChanged(this, documentIdsToInvalidate);
 	}
@@ -308,6 +368,7 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		{
 			final IEditableRowsData<T> editableRowsData = (IEditableRowsData<T>)rowsData;
 			editableRowsData.patchRow(ctx, fieldChangeRequests);
+			onRowsChanged();
 		}
 		else
 		{
@@ -315,33 +376,41 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		}
 	}
 
-	private static class RowsDataTool
+	/**
+	 * Caches the rows sorted by a few recently used order bys.
+	 * The cache is discarded when the top level rows collection it was computed from was replaced (e.g. the rows data memorized a new one).
+	 */
+	private static final class SortedRowsCache<T extends IViewRow>
 	{
-		private static <T extends IViewRow> Map<DocumentId, T> extractAllRows(Collection<T> topLevelRows)
-		{
-			final ImmutableMap.Builder<DocumentId, T> allRows = ImmutableMap.builder();
-			topLevelRows.forEach(topLevelRow -> {
+		private static final int MAX_ORDERINGS = 5;
 
-				allRows.put(topLevelRow.getId(), topLevelRow);
-				allRows.putAll(extractAllIncludedRows(topLevelRow));
-			});
+		private Collection<T> rowsSource;
+		private final LinkedHashMap<List<DocumentQueryOrderBy>, ImmutableList<T>> sortedRowsByOrderBys = new LinkedHashMap<List<DocumentQueryOrderBy>, ImmutableList<T>>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
 
-			return allRows.build();
-		}
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<List<DocumentQueryOrderBy>, ImmutableList<T>> eldest)
+			{
+				return size() > MAX_ORDERINGS;
+			}
+		};
 
-		private static <T extends IViewRow> Map<DocumentId, T> extractAllIncludedRows(@NonNull final T topLevelRow)
+		public synchronized ImmutableList<T> getOrSort(@NonNull final Collection<T> rows, @NonNull final List<DocumentQueryOrderBy> orderBys)
 		{
-			@SuppressWarnings("unchecked")
-			final List<T> includedRows = (List<T>)topLevelRow.getIncludedRows();
-
-			final ImmutableMap.Builder<DocumentId, T> resultOfThisInvocation = ImmutableMap.builder();
-			for (final T includedRow : includedRows)
+			if (rowsSource != rows)
 			{
-				resultOfThisInvocation.put(includedRow.getId(), includedRow);
-				resultOfThisInvocation.putAll(extractAllIncludedRows(includedRow));
+				sortedRowsByOrderBys.clear();
+				rowsSource = rows;
 			}
 
-			return resultOfThisInvocation.build();
+			return sortedRowsByOrderBys.computeIfAbsent(ImmutableList.copyOf(orderBys), effectiveOrderBys -> DocumentQueryOrderBys.sortRows(rows, effectiveOrderBys));
+		}
+
+		public synchronized void clear()
+		{
+			sortedRowsByOrderBys.clear();
+			rowsSource = null;
 		}
 	}
 
@@ -353,14 +422,44 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 		void invalidateAll();
 
+		/**
+		 * Invalidates the given rows.
+		 *
+		 * The default implementation invalidates all rows.
+		 * Implementations which are able to reload only the given rows and splice them into the existing data (see {@link ImmutableRowsIndex#replacingRows(Set, Collection)}) shall override it.
+		 *
+		 * @param rowIds rows which shall be reloaded; might also be {@link DocumentIdsSelection#ALL}
+		 */
+		default void invalidate(final DocumentIdsSelection rowIds)
+		{
+			invalidateAll();
+		}
+
 		default int size()
 		{
 			return getDocumentId2TopLevelRows().size();
 		}
 
+		/**
+		 * Like {@link #size()} but it shall not trigger loading the rows.
+		 *
+		 * The default implementation returns <code>-1</code>. Implementations which know whether their rows are loaded shall override it.
+		 *
+		 * @return top level rows count or <code>-1</code> if the rows were not loaded yet or if that is not known
+		 */
+		default int sizeIfLoaded()
+		{
+			return -1;
+		}
+
+		/**
+		 * Extracts all rows on each call.
+		 * Implementations are advised to override it and return a memorized {@link ImmutableRowsIndex#getDocumentId2AllRows()},
+		 * because this method is called on each {@link #getById(DocumentId)}.
+		 */
 		/* private */default Map<DocumentId, T> getDocumentId2AllRows()
 		{
-			return RowsDataTool.extractAllRows(getDocumentId2TopLevelRows().values());
+			return ImmutableRowsIndex.extractAllRows(getDocumentId2TopLevelRows().values());
 		}
 
 		/** @return all rows (top level and included ones) */
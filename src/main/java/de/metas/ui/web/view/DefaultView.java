@@ -3,12 +3,17 @@ package de.metas.ui.web.view;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -34,7 +39,7 @@ import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.json.JSONDocumentFilter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
-import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.view.SharedViewRowIdsOrderedSelections.SharedSelectionKey;
 import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -92,6 +97,9 @@ public final class DefaultView implements IEditableView
 
 	private static final Logger logger = LogManager.getLogger(DefaultView.class);
 
+	/** Max rows kept in {@link #cache_rowsById} */
+	private static final int ROWS_CACHE_MAX_SIZE = 100;
+
 	private final IViewDataRepository viewDataRepository;
 
 	private final ViewId viewId;
@@ -103,8 +111,11 @@ public final class DefaultView implements IEditableView
 	private final ImmutableSet<DocumentPath> referencingDocumentPaths;
 
 	private final ViewEvaluationCtx viewEvaluationCtx;
+	private final boolean applySecurityRestrictions;
 	private final ExtendedMemorizingSupplier<ViewRowIdsOrderedSelections> selectionsRef;
-	private final AtomicBoolean defaultSelectionDeleteBeforeCreate = new AtomicBoolean(false);
+	private final AtomicBoolean defaultSelectionDeleteBeforeCreate;
+	/** Approximate retained size, computed when the default selection is created; see {@link #getApproximateRetainedSizeInBytes()} */
+	private final AtomicLong approximateRetainedSizeInBytes;
 
 	//
 	// Filters
@@ -122,8 +133,12 @@ public final class DefaultView implements IEditableView
 	//
 	// Caching
 	private final transient CCache<DocumentId, IViewRow> cache_rowsById;
+	@Nullable
+	private final transient ViewPagesPrefetcher pagesPrefetcher;
+	private final transient ViewColumnAggregatesCache columnAggregatesCache;
 
 	private final IViewInvalidationAdvisor viewInvalidationAdvisor;
+	private final ViewDependentTableNames dependentTableNames;
 
 	private DefaultView(final Builder builder)
 	{
@@ -135,6 +150,8 @@ public final class DefaultView implements IEditableView
 		profileId = builder.getProfileId();
 		referencingDocumentPaths = builder.getReferencingDocumentPaths();
 		viewInvalidationAdvisor = builder.getViewInvalidationAdvisor();
+		dependentTableNames = ViewDependentTableNames.of(viewDataRepository.getTableName())
+				.union(viewInvalidationAdvisor.getDependentTableNames());
 
 		//
 		// Filters
@@ -146,8 +163,10 @@ public final class DefaultView implements IEditableView
 		// Selection
 		{
 			viewEvaluationCtx = ViewEvaluationCtx.newInstanceFromCurrentContext();
+			defaultSelectionDeleteBeforeCreate = new AtomicBoolean(false);
+			approximateRetainedSizeInBytes = new AtomicLong(estimateRetainedSizeInBytes(null));
 
-			final boolean applySecurityRestrictions = builder.isApplySecurityRestrictions();
+			applySecurityRestrictions = builder.isApplySecurityRestrictions();
 			selectionsRef = ExtendedMemorizingSupplier.of(() -> {
 				if (defaultSelectionDeleteBeforeCreate.get())
 				{
@@ -162,19 +181,62 @@ public final class DefaultView implements IEditableView
 						applySecurityRestrictions,
 						context);
 
-				return new ViewRowIdsOrderedSelections(defaultSelection);
+				final ViewRowIdsOrderedSelections selections = new ViewRowIdsOrderedSelections(defaultSelection, viewDataRepository);
+				approximateRetainedSizeInBytes.set(estimateRetainedSizeInBytes(selections));
+				return selections;
 			});
 		}
 
 		//
 		// Cache
-		cache_rowsById = CCache.newLRUCache( //
+		cache_rowsById = createRowsByIdCache(viewDataRepository, viewId);
+		pagesPrefetcher = ViewPagesPrefetcher.newInstanceOrNull(builder.getPagesPrefetchMode());
+		columnAggregatesCache = new ViewColumnAggregatesCache();
+
+		logger.debug("View created: {}", this);
+	}
+
+	/**
+	 * Lightweight copy constructor: shares everything with the given view (including the database selections) except the rows cache.
+	 *
+	 * @see #createLightweightCopyOrNull()
+	 */
+	private DefaultView(@NonNull final DefaultView from)
+	{
+		viewId = from.viewId;
+		viewDataRepository = from.viewDataRepository;
+		parentViewId = from.parentViewId;
+		parentRowId = from.parentRowId;
+		viewType = from.viewType;
+		profileId = from.profileId;
+		referencingDocumentPaths = from.referencingDocumentPaths;
+		viewInvalidationAdvisor = from.viewInvalidationAdvisor;
+		dependentTableNames = from.dependentTableNames;
+
+		viewFilterDescriptors = from.viewFilterDescriptors;
+		stickyFilters = from.stickyFilters;
+		filters = from.filters;
+
+		viewEvaluationCtx = from.viewEvaluationCtx;
+		applySecurityRestrictions = from.applySecurityRestrictions;
+		defaultSelectionDeleteBeforeCreate = from.defaultSelectionDeleteBeforeCreate;
+		approximateRetainedSizeInBytes = from.approximateRetainedSizeInBytes;
+		selectionsRef = from.selectionsRef;
+
+		cache_rowsById = createRowsByIdCache(viewDataRepository, viewId);
+		pagesPrefetcher = from.pagesPrefetcher;
+		columnAggregatesCache = from.columnAggregatesCache;
+
+		logger.debug("View lightweight copy created: {}", this);
+	}
+
+	private static CCache<DocumentId, IViewRow> createRowsByIdCache(final IViewDataRepository viewDataRepository, final ViewId viewId)
+	{
+		return CCache.newLRUCache( //
 				viewDataRepository.getTableName() + "#rowById#viewId=" + viewId.getViewId() // cache name
-				, 100 // maxSize
+				, ROWS_CACHE_MAX_SIZE // maxSize
 				, 2 // expireAfterMinutes
 		);
-
-		logger.debug("View created: {}", this);
 	}
 
 	@Override
@@ -307,22 +369,79 @@ public final class DefaultView implements IEditableView
 			return; // already closed
 		}
 
+		cancelPrefetchedPages();
+
 		final ViewRowIdsOrderedSelections selections = selectionsRef.forget();
-		viewDataRepository.scheduleDeleteSelections(selections.getSelectionIds());
+		if (selections != null)
+		{
+			selections.releaseAll(false);
+		}
 
 		logger.debug("View closed with reason={}: {}", reason, this);
 	}
 
+	/**
+	 * The weight is known without loading anything: the rows cache is bounded to {@value #ROWS_CACHE_MAX_SIZE} rows,
+	 * so we count at most that many rows (fewer if the default selection is smaller), plus the row IDs of the in-memory selections
+	 * (i.e. the alternative orderings of small views).
+	 * <p>
+	 * Until the default selection is created the rows cache upper bound is assumed. When the selection is created (or recreated, with a different size)
+	 * and when an in-memory ordering is added or evicted, the value changes and the views storage re-weighs the view on its next access.
+	 */
+	@Override
+	public long getApproximateRetainedSizeInBytes()
+	{
+		return approximateRetainedSizeInBytes.get();
+	}
+
+	private static long estimateRetainedSizeInBytes(@Nullable final ViewRowIdsOrderedSelections selections)
+	{
+		if (selections == null)
+		{
+			return ViewRetainedSizes.estimateForRowsCount(ROWS_CACHE_MAX_SIZE);
+		}
+
+		final long cachedRowsCount = Math.min(selections.getDefaultSelection().getSize(), ROWS_CACHE_MAX_SIZE);
+		return ViewRetainedSizes.estimateForRowsCount(cachedRowsCount)
+				+ ViewRetainedSizes.estimateForRowIdsCount(selections.getInMemoryRowIdsCount());
+	}
+
+	/**
+	 * @return a copy of this view without the cached rows, but which is using the same database selections.
+	 */
+	@Override
+	public DefaultView createLightweightCopyOrNull()
+	{
+		if (closed.get())
+		{
+			return null;
+		}
+
+		return new DefaultView(this);
+	}
+
 	@Override
 	public void invalidateAll()
 	{
+		cancelPrefetchedPages();
 		cache_rowsById.clear();
+		columnAggregatesCache.clear();
 	}
 
 	@Override
 	public void invalidateRowById(final DocumentId rowId)
 	{
+		cancelPrefetchedPages();
 		cache_rowsById.remove(rowId);
+		columnAggregatesCache.clear();
+	}
+
+	private void cancelPrefetchedPages()
+	{
+		if (pagesPrefetcher != null)
+		{
+			pagesPrefetcher.cancelAll();
+		}
 	}
 
 	@Override
@@ -330,7 +449,10 @@ public final class DefaultView implements IEditableView
 	{
 		defaultSelectionDeleteBeforeCreate.set(true);
 		final ViewRowIdsOrderedSelections selections = selectionsRef.forget();
-		viewDataRepository.scheduleDeleteSelections(selections.getSelectionIds());
+		if (selections != null)
+		{
+			selections.releaseAll(true); // stale
+		}
 
 		invalidateAll();
 
@@ -359,11 +481,24 @@ public final class DefaultView implements IEditableView
 		final ViewEvaluationCtx evalCtx = getViewEvaluationCtx();
 		final ViewRowIdsOrderedSelection orderedSelection = getOrderedSelection(orderBys);
 
-		final List<IViewRow> rows = viewDataRepository.retrievePage(evalCtx, orderedSelection, firstRow, pageLength);
+		List<IViewRow> rows = pagesPrefetcher != null ? pagesPrefetcher.getPrefetchedPageOrNull(orderedSelection, firstRow, pageLength) : null;
+		if (rows == null)
+		{
+			rows = viewDataRepository.retrievePage(evalCtx, orderedSelection, firstRow, pageLength);
+		}
 
 		// Add to cache
 		rows.forEach(row -> cache_rowsById.put(row.getId(), row));
 
+		if (pagesPrefetcher != null)
+		{
+			pagesPrefetcher.prefetchNeighborPages(
+					orderedSelection,
+					firstRow,
+					pageLength,
+					(selection, pageFirstRow, pageLengthToLoad) -> viewDataRepository.retrievePage(evalCtx, selection, pageFirstRow, pageLengthToLoad));
+		}
+
 		return ViewResult.builder()
 				.view(this)
 				.firstRow(firstRow)
@@ -374,6 +509,56 @@ public final class DefaultView implements IEditableView
 				.build();
 	}
 
+	/**
+	 * Streams the rows of the default selection directly from database (see {@link IViewDataRepository#forEachRow(ViewEvaluationCtx, ViewRowIdsOrderedSelection, Consumer)}).
+	 */
+	@Override
+	public void forEachRow(@NonNull final Consumer<IViewRow> consumer)
+	{
+		assertNotClosed();
+
+		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		viewDataRepository.forEachRow(getViewEvaluationCtx(), defaultSelection, consumer);
+	}
+
+	/**
+	 * Computes the aggregates using a single SQL aggregate query over view's selection. The result is cached until the view is invalidated.
+	 */
+	@Override
+	public ViewColumnAggregates getColumnAggregates(
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName)
+	{
+		assertNotClosed();
+
+		if (rowIds.isEmpty())
+		{
+			return ViewColumnAggregates.EMPTY;
+		}
+
+		return columnAggregatesCache.getOrCompute(rowIds, widgetTypesByFieldName, () -> {
+			final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+			return viewDataRepository.retrieveColumnAggregates(getViewEvaluationCtx(), defaultSelection, rowIds, widgetTypesByFieldName);
+		});
+	}
+
+	/**
+	 * Groups the rows using a single SQL <code>GROUP BY</code> query over view's selection.
+	 */
+	@Override
+	public ViewRowsGroupsPage getGroupedRows(@NonNull final ViewGroupByRequest request)
+	{
+		assertNotClosed();
+
+		if (request.getRowIds().isEmpty())
+		{
+			return ViewRowsGroupsPage.empty(request.getFirstRow());
+		}
+
+		final ViewRowIdsOrderedSelection defaultSelection = selectionsRef.get().getDefaultSelection();
+		return viewDataRepository.retrieveGroupedRows(getViewEvaluationCtx(), defaultSelection, request);
+	}
+
 	private List<ViewResultColumn> extractViewResultColumns(final List<IViewRow> rows)
 	{
 		if (rows.isEmpty())
@@ -454,10 +639,30 @@ public final class DefaultView implements IEditableView
 
 	private ViewRowIdsOrderedSelection getOrderedSelection(final List<DocumentQueryOrderBy> orderBys)
 	{
-		return selectionsRef.get()
-				.computeIfAbsent(
-						orderBys,
-						(defaultSelection, orderBysImmutable) -> viewDataRepository.createOrderedSelectionFromSelection(getViewEvaluationCtx(), defaultSelection, orderBysImmutable));
+		final ViewRowIdsOrderedSelections selections = selectionsRef.get();
+		return selections.computeIfAbsent(
+				orderBys,
+				(defaultSelection, orderBysImmutable) -> SharedViewRowIdsOrderedSelections.instance.acquire(
+						createSharedSelectionKey(defaultSelection, orderBysImmutable),
+						() -> viewDataRepository.createOrderedSelectionFromSelection(getViewEvaluationCtx(), defaultSelection, orderBysImmutable)),
+				() -> approximateRetainedSizeInBytes.set(estimateRetainedSizeInBytes(selections)));
+	}
+
+	private SharedSelectionKey createSharedSelectionKey(final ViewRowIdsOrderedSelection defaultSelection, final ImmutableList<DocumentQueryOrderBy> orderBys)
+	{
+		final ViewEvaluationCtx viewEvalCtx = getViewEvaluationCtx();
+		return SharedSelectionKey.builder()
+				.sourceSelectionId(defaultSelection.getSelectionId())
+				.windowId(getViewId().getWindowId())
+				.profileId(profileId)
+				.viewType(viewType)
+				.permissionsKey(viewEvalCtx.getPermissionsKey())
+				.loggedUserId(viewEvalCtx.getLoggedUserId())
+				.adLanguage(viewEvalCtx.getAdLanguage())
+				.applySecurityRestrictions(applySecurityRestrictions)
+				.filters(getAllFilters())
+				.orderBys(orderBys)
+				.build();
 	}
 
 	@Override
@@ -506,20 +711,37 @@ public final class DefaultView implements IEditableView
 			throw new UnsupportedOperationException("Streaming all rows is not supported");
 		}
 
-		// NOTE: we get/retrive one by one because we assume the "selected documents" were recently retrieved,
+		// NOTE: we assume the "selected documents" were recently retrieved,
 		// and the records recently retrieved have a big chance to be cached.
+		// The ones which are not cached are retrieved in one go.
+		final Map<DocumentId, IViewRow> rowsById = new HashMap<>();
+		final Set<DocumentId> rowIdsToRetrieve = new LinkedHashSet<>();
+		for (final DocumentId rowId : rowIds.toSet())
+		{
+			final IViewRow row = cache_rowsById.get(rowId);
+			if (row != null)
+			{
+				rowsById.put(rowId, row);
+			}
+			else
+			{
+				rowIdsToRetrieve.add(rowId);
+			}
+		}
+
+		if (!rowIdsToRetrieve.isEmpty())
+		{
+			final List<IViewRow> retrievedRows = viewDataRepository.retrieveByIds(getViewEvaluationCtx(), getViewId(), DocumentIdsSelection.of(rowIdsToRetrieve));
+			for (final IViewRow row : retrievedRows)
+			{
+				cache_rowsById.put(row.getId(), row);
+				rowsById.put(row.getId(), row);
+			}
+		}
+
 		return rowIds.stream()
 				.distinct()
-				.map(rowId -> {
-					try
-					{
-						return getOrRetrieveById(rowId);
-					}
-					catch (final EntityNotFoundException e)
-					{
-						return null;
-					}
-				})
+				.map(rowsById::get)
 				.filter(row -> row != null);
 	}
 
@@ -529,6 +751,12 @@ public final class DefaultView implements IEditableView
 		return viewDataRepository.retrieveModelsByIds(getViewId(), rowIds, modelClass);
 	}
 
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return dependentTableNames;
+	}
+
 	@Override
 	public void notifyRecordsChanged(final TableRecordReferenceSet recordRefs)
 	{
@@ -539,7 +767,10 @@ public final class DefaultView implements IEditableView
 		}
 
 		// Invalidate local rowsById cache
+		// NOTE: also cancel the prefetched pages because they might contain the old versions of the changed rows
+		cancelPrefetchedPages();
 		rowIds.forEach(cache_rowsById::remove);
+		columnAggregatesCache.clear();
 
 		// Collect event
 		// TODO: check which rowIds are contained in this view and fire events only for those
@@ -610,18 +841,36 @@ public final class DefaultView implements IEditableView
 		ViewRowIdsOrderedSelection create(ViewRowIdsOrderedSelection defaultSelection, List<DocumentQueryOrderBy> orderBys);
 	}
 
+	/**
+	 * The default selection of a view, together with the most recently used alternative orderings.
+	 */
 	private static final class ViewRowIdsOrderedSelections
 	{
+		/** Max alternative orderings (i.e. user sorted by some other columns) to keep per view */
+		private static final int MAX_ALTERNATIVE_ORDERINGS = 5;
+
 		@Getter
 		private final ViewRowIdsOrderedSelection defaultSelection;
-		private final ConcurrentHashMap<ImmutableList<DocumentQueryOrderBy>, ViewRowIdsOrderedSelection> selectionsByOrderBys = new ConcurrentHashMap<>();
+		private final IViewDataRepository viewDataRepository;
+
+		/** Alternative orderings, in access order */
+		private final LinkedHashMap<ImmutableList<DocumentQueryOrderBy>, ViewRowIdsOrderedSelection> selectionsByOrderBys = new LinkedHashMap<>(16, 0.75f, true);
 
-		public ViewRowIdsOrderedSelections(@NonNull final ViewRowIdsOrderedSelection defaultSelection)
+		public ViewRowIdsOrderedSelections(
+				@NonNull final ViewRowIdsOrderedSelection defaultSelection,
+				@NonNull final IViewDataRepository viewDataRepository)
 		{
 			this.defaultSelection = defaultSelection;
+			this.viewDataRepository = viewDataRepository;
 		}
 
-		public ViewRowIdsOrderedSelection computeIfAbsent(final List<DocumentQueryOrderBy> orderBys, @NonNull final ViewRowIdsOrderedSelectionFactory factory)
+		/**
+		 * @param onInMemorySelectionsChanged called when an in-memory ordering was added or evicted
+		 */
+		public ViewRowIdsOrderedSelection computeIfAbsent(
+				final List<DocumentQueryOrderBy> orderBys,
+				@NonNull final ViewRowIdsOrderedSelectionFactory factory,
+				@NonNull final Runnable onInMemorySelectionsChanged)
 		{
 			if (orderBys == null || orderBys.isEmpty())
 			{
@@ -633,19 +882,91 @@ public final class DefaultView implements IEditableView
 				return defaultSelection;
 			}
 
-			return selectionsByOrderBys.computeIfAbsent(ImmutableList.copyOf(orderBys), orderBysImmutable -> factory.create(defaultSelection, orderBysImmutable));
+			final ImmutableList<DocumentQueryOrderBy> orderBysImmutable = ImmutableList.copyOf(orderBys);
+			final List<ViewRowIdsOrderedSelection> evictedSelections = new ArrayList<>();
+			final ViewRowIdsOrderedSelection selection;
+			boolean inMemorySelectionsChanged = false;
+			synchronized (this)
+			{
+				final ViewRowIdsOrderedSelection existingSelection = selectionsByOrderBys.get(orderBysImmutable);
+				if (existingSelection != null)
+				{
+					selection = existingSelection;
+				}
+				else
+				{
+					selection = factory.create(defaultSelection, orderBysImmutable);
+					selectionsByOrderBys.put(orderBysImmutable, selection);
+					inMemorySelectionsChanged = selection.isInMemory();
+				}
+
+				final Iterator<ViewRowIdsOrderedSelection> it = selectionsByOrderBys.values().iterator();
+				while (selectionsByOrderBys.size() > MAX_ALTERNATIVE_ORDERINGS && it.hasNext())
+				{
+					final ViewRowIdsOrderedSelection evictedSelection = it.next();
+					evictedSelections.add(evictedSelection);
+					it.remove();
+					inMemorySelectionsChanged |= evictedSelection.isInMemory();
+				}
+			}
+
+			release(evictedSelections, false);
+
+			if (inMemorySelectionsChanged)
+			{
+				onInMemorySelectionsChanged.run();
+			}
+
+			return selection;
+		}
+
+		/** @return how many row IDs are kept in memory by the selections, see {@link ViewRowIdsOrderedSelection#isInMemory()} */
+		public long getInMemoryRowIdsCount()
+		{
+			long count = defaultSelection.isInMemory() ? defaultSelection.getSize() : 0;
+			synchronized (this)
+			{
+				for (final ViewRowIdsOrderedSelection selection : selectionsByOrderBys.values())
+				{
+					if (selection.isInMemory())
+					{
+						count += selection.getSize();
+					}
+				}
+			}
+			return count;
 		}
 
-		public Set<String> getSelectionIds()
+		/**
+		 * Releases the default selection and all alternative orderings.
+		 *
+		 * @param stale true if the selections are known to be outdated
+		 */
+		public void releaseAll(final boolean stale)
 		{
-			final ImmutableSet.Builder<String> selectionIds = ImmutableSet.builder();
-			selectionIds.add(defaultSelection.getSelectionId());
-			for (final ViewRowIdsOrderedSelection selection : new ArrayList<>(selectionsByOrderBys.values()))
+			final List<ViewRowIdsOrderedSelection> selections = new ArrayList<>();
+			selections.add(defaultSelection);
+			synchronized (this)
 			{
-				selectionIds.add(selection.getSelectionId());
+				selections.addAll(selectionsByOrderBys.values());
+				selectionsByOrderBys.clear();
 			}
 
-			return selectionIds.build();
+			release(selections, stale);
+		}
+
+		private void release(final List<ViewRowIdsOrderedSelection> selections, final boolean stale)
+		{
+			if (selections.isEmpty())
+			{
+				return;
+			}
+
+			final Set<String> selectionIdsToDelete = SharedViewRowIdsOrderedSelections.instance.release(selections, stale);
+			if (!selectionIdsToDelete.isEmpty())
+			{
+				viewDataRepository.scheduleDeleteSelections(selectionIdsToDelete);
+			}
 		}
 	}
 
@@ -671,6 +992,8 @@ public final class DefaultView implements IEditableView
 
 		private boolean applySecurityRestrictions = true;
 
+		private ViewPagesPrefetchMode pagesPrefetchMode = ViewPagesPrefetchMode.NONE;
+
 		private Builder(@NonNull final IViewDataRepository viewDataRepository)
 		{
 			this.viewDataRepository = viewDataRepository;
@@ -841,5 +1164,19 @@ public final class DefaultView implements IEditableView
 		{
 			return applySecurityRestrictions;
 		}
+
+		/**
+		 * Enables loading the neighbor pages in background, after a page was served.
+		 */
+		public Builder setPagesPrefetchMode(@NonNull final ViewPagesPrefetchMode pagesPrefetchMode)
+		{
+			this.pagesPrefetchMode = pagesPrefetchMode;
+			return this;
+		}
+
+		private ViewPagesPrefetchMode getPagesPrefetchMode()
+		{
+			return pagesPrefetchMode;
+		}
 	}
 }
@@ -60,4 +60,13 @@ public final class DefaultViewInvalidationAdvisor implements IViewInvalidationAd
 				.collect(ImmutableSet.toImmutableSet());
 	}
 
+	/**
+	 * @return {@link ViewDependentTableNames#NONE} because we are considering only the view's own table
+	 */
+	@Override
+	public ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.NONE;
+	}
+
 }
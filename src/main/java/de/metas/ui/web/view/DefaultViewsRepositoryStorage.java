@@ -1,14 +1,27 @@
 package de.metas.ui.web.view;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 
+import de.metas.logging.LogManager;
 import de.metas.ui.web.window.datatypes.WindowId;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -32,13 +45,98 @@ import lombok.NonNull;
  * #L%
  */
 
+/**
+ * Default views storage.
+ *
+ * Views are kept until they were not accessed for one hour.
+ *
+ * Optionally, the storage can be configured to be memory bounded (see {@link #builder()}):
+ * <ul>
+ * <li>each view is weighed by it's {@link IView#getApproximateRetainedSizeInBytes()}
+ * <li>the total weight of all views is limited to <code>maxTotalWeightInBytes</code>
+ * <li>the total weight of the views of one user is limited to <code>maxWeightPerUserInBytes</code>; if exceeded, the least recently used views of that user are evicted
+ * <li>views which were evicted because of those limits are not closed if they can provide a lightweight copy (see {@link IView#createLightweightCopyOrNull()}),
+ * but the copy is kept aside and it's restored when the view is requested again.
+ * </ul>
+ * <p>
+ * The cache weighs a view only when it's put, so each time a view is accessed it's weighed again and, if the weight changed significantly
+ * (see {@link #REWEIGH_THRESHOLD_FACTOR}), the view is put again (e.g. a custom view which loaded its rows in the meantime).
+ * <p>
+ * Which views are actually bounded:
+ * <ul>
+ * <li>{@link DefaultView}s: weighed by their rows cache upper bound (known when the view is created) and their in-memory selections
+ * <li>views based on {@link AbstractCustomView}: weighed by their rows, but only after the rows were loaded (before that, only the base size is counted)
+ * <li>views which provide their own {@link IViewsIndexStorage} (e.g. HU editor views, purchase views) are not stored here,
+ * so they are not bounded by this storage at all
+ * </ul>
+ */
 // NOTE: don't add it to spring context! i.e. don't annotate it with @Component or similar
 public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 {
-	private final Cache<ViewId, IView> views = CacheBuilder.newBuilder()
-			.expireAfterAccess(1, TimeUnit.HOURS)
-			.removalListener(notification -> onViewRemoved(notification))
-			.build();
+	private static final Logger logger = LogManager.getLogger(DefaultViewsRepositoryStorage.class);
+
+	private static final int EXPIRE_AFTER_ACCESS_MINUTES = 60;
+
+	/** When the current weight of a view is bigger/smaller than it's registered weight by this factor, the view is re-weighed */
+	private static final double REWEIGH_THRESHOLD_FACTOR = 1.5;
+
+	private final long maxTotalWeightInBytes;
+	private final long maxWeightPerUserInBytes;
+
+	private final Cache<ViewId, IView> views;
+	private final ConcurrentHashMap<ViewId, ViewWeightInfo> viewWeightInfos = new ConcurrentHashMap<>();
+	private final Set<ViewId> viewIdsEvictedByUserQuota = ConcurrentHashMap.newKeySet();
+
+	/** Lightweight copies of the views which were evicted because of memory pressure */
+	private final Cache<ViewId, IView> spilledViews;
+
+	private final ViewsByTableNameIndex viewsByTableName = new ViewsByTableNameIndex();
+
+	/** Creates a storage without any memory constraints */
+	public DefaultViewsRepositoryStorage()
+	{
+		this(-1, -1);
+	}
+
+	/**
+	 * @param maxTotalWeightInBytes maximum weight of all views; zero or negative means no limit
+	 * @param maxWeightPerUserInBytes maximum weight of the views of one user; zero or negative means no limit
+	 */
+	@Builder
+	private DefaultViewsRepositoryStorage(
+			final long maxTotalWeightInBytes,
+			final long maxWeightPerUserInBytes)
+	{
+		this.maxTotalWeightInBytes = maxTotalWeightInBytes > 0 ? maxTotalWeightInBytes : -1;
+		this.maxWeightPerUserInBytes = maxWeightPerUserInBytes > 0 ? maxWeightPerUserInBytes : -1;
+
+		final CacheBuilder<Object, Object> viewsCacheBuilder = CacheBuilder.newBuilder()
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES);
+		if (this.maxTotalWeightInBytes > 0)
+		{
+			viewsCacheBuilder
+					.maximumWeight(this.maxTotalWeightInBytes)
+					.weigher((viewId, view) -> weigh((IView)view));
+		}
+		views = viewsCacheBuilder
+				.removalListener(notification -> onViewRemoved(notification))
+				.build();
+
+		spilledViews = CacheBuilder.newBuilder()
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				.removalListener(notification -> onSpilledViewRemoved(notification))
+				.build();
+	}
+
+	private boolean isWeighted()
+	{
+		return maxTotalWeightInBytes > 0 || maxWeightPerUserInBytes > 0;
+	}
+
+	private static int weigh(final IView view)
+	{
+		return Ints.saturatedCast(view.getApproximateRetainedSizeInBytes());
+	}
 
 	@Override
 	public WindowId getWindowId()
@@ -48,21 +146,170 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 
 	private final void onViewRemoved(final RemovalNotification<Object, Object> notification)
 	{
+		// NOTE: replacing a view is handled in put() method
+		if (notification.getCause() == RemovalCause.REPLACED)
+		{
+			return;
+		}
+
+		final ViewId viewId = (ViewId)notification.getKey();
 		final IView view = (IView)notification.getValue();
-		final ViewCloseReason closeReason = ViewCloseReason.fromCacheEvictedFlag(notification.wasEvicted());
+		viewWeightInfos.remove(viewId);
+		viewsByTableName.remove(view);
+
+		final boolean evictedByUserQuota = viewIdsEvictedByUserQuota.remove(viewId);
+		final boolean evictedByMemoryPressure = notification.getCause() == RemovalCause.SIZE || evictedByUserQuota;
+		if (evictedByMemoryPressure && spill(viewId, view))
+		{
+			return;
+		}
+
+		final ViewCloseReason closeReason = ViewCloseReason.fromCacheEvictedFlag(notification.wasEvicted() || evictedByUserQuota);
 		view.close(closeReason);
 	}
 
+	private boolean spill(final ViewId viewId, final IView view)
+	{
+		final IView lightweightView = view.createLightweightCopyOrNull();
+		if (lightweightView == null)
+		{
+			return false;
+		}
+
+		spilledViews.put(viewId, lightweightView);
+		viewsByTableName.add(lightweightView);
+		logger.debug("Spilled view {} because of memory pressure", viewId);
+		return true;
+	}
+
+	private void onSpilledViewRemoved(final RemovalNotification<Object, Object> notification)
+	{
+		// NOTE: explicit removals are happening when the view is restored or closed per user request, see getByIdOrNull() and removeById()
+		if (!notification.wasEvicted())
+		{
+			return;
+		}
+
+		final IView view = (IView)notification.getValue();
+		viewsByTableName.remove(view);
+		view.close(ViewCloseReason.CLEANUP);
+	}
+
 	@Override
 	public void put(@NonNull final IView view)
 	{
-		views.put(view.getViewId(), view);
+		final ViewId viewId = view.getViewId();
+		final ViewWeightInfo weightInfo = ViewWeightInfo.builder()
+				.viewId(viewId)
+				.userId(Env.getAD_User_ID(Env.getCtx()))
+				.weight(weigh(view))
+				.lastAccessMillis(System.currentTimeMillis())
+				.build();
+		put(view, weightInfo);
+	}
+
+	private void put(@NonNull final IView view, @NonNull final ViewWeightInfo weightInfo)
+	{
+		final ViewId viewId = view.getViewId();
+		if (isWeighted())
+		{
+			viewWeightInfos.put(viewId, weightInfo);
+		}
+
+		final IView previousView = views.asMap().put(viewId, view);
+		if (previousView != null && previousView != view)
+		{
+			viewsByTableName.remove(previousView);
+			previousView.close(ViewCloseReason.USER_REQUEST);
+		}
+		viewsByTableName.add(view);
+
+		enforceUserQuota(weightInfo.getUserId(), viewId);
+	}
+
+	private void enforceUserQuota(final int userId, final ViewId viewIdToKeep)
+	{
+		if (maxWeightPerUserInBytes <= 0)
+		{
+			return;
+		}
+
+		final List<ViewWeightInfo> userWeightInfos = viewWeightInfos.values()
+				.stream()
+				.filter(weightInfo -> weightInfo.getUserId() == userId)
+				.sorted(Comparator.comparing(ViewWeightInfo::getLastAccessMillis))
+				.collect(ImmutableList.toImmutableList());
+
+		long userWeight = userWeightInfos.stream().mapToLong(ViewWeightInfo::getWeight).sum();
+		for (final ViewWeightInfo weightInfo : userWeightInfos)
+		{
+			if (userWeight <= maxWeightPerUserInBytes)
+			{
+				break;
+			}
+
+			final ViewId viewId = weightInfo.getViewId();
+			if (viewId.equals(viewIdToKeep))
+			{
+				continue;
+			}
+
+			logger.debug("Evicting view {} because user's quota of {} bytes was exceeded ({} bytes)", viewId, maxWeightPerUserInBytes, userWeight);
+			viewIdsEvictedByUserQuota.add(viewId);
+			views.invalidate(viewId);
+			userWeight -= weightInfo.getWeight();
+		}
 	}
 
 	@Override
 	public IView getByIdOrNull(@NonNull final ViewId viewId)
 	{
-		return views.getIfPresent(viewId);
+		final IView view = views.getIfPresent(viewId);
+		if (view != null)
+		{
+			onViewAccessed(view);
+			return view;
+		}
+
+		return restoreSpilledViewOrNull(viewId);
+	}
+
+	private void onViewAccessed(final IView view)
+	{
+		if (!isWeighted())
+		{
+			return;
+		}
+
+		final ViewWeightInfo weightInfo = viewWeightInfos.get(view.getViewId());
+		if (weightInfo == null)
+		{
+			return;
+		}
+
+		final int currentWeight = weigh(view);
+		if (weightInfo.isReweighNeeded(currentWeight))
+		{
+			// Re-add the view in order to update it's weight
+			put(view, weightInfo.withWeightAndLastAccessNow(currentWeight));
+		}
+		else
+		{
+			viewWeightInfos.put(view.getViewId(), weightInfo.withWeightAndLastAccessNow(weightInfo.getWeight()));
+		}
+	}
+
+	private IView restoreSpilledViewOrNull(final ViewId viewId)
+	{
+		final IView spilledView = spilledViews.asMap().remove(viewId);
+		if (spilledView == null)
+		{
+			return null;
+		}
+
+		put(spilledView);
+		logger.debug("Restored spilled view {}", viewId);
+		return spilledView;
 	}
 
 	@Override
@@ -78,6 +325,13 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 
 		views.invalidate(viewId);
 		views.cleanUp(); // also cleanup to prevent views cache to grow.
+
+		final IView spilledView = spilledViews.asMap().remove(viewId);
+		if (spilledView != null)
+		{
+			viewsByTableName.remove(spilledView);
+			spilledView.close(ViewCloseReason.USER_REQUEST);
+		}
 	}
 
 	@Override
@@ -95,7 +349,43 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 	@Override
 	public Stream<IView> streamAllViews()
 	{
-		return views.asMap().values().stream();
+		return Stream.concat(views.asMap().values().stream(), spilledViews.asMap().values().stream());
+	}
+
+	@Override
+	public long size()
+	{
+		return views.size() + spilledViews.size();
 	}
 
+	@Override
+	public Stream<IView> streamViewsByDependentTableNames(@NonNull final Set<String> tableNames)
+	{
+		return viewsByTableName.streamByTableNames(tableNames);
+	}
+
+	@Value
+	@Builder(toBuilder = true)
+	private static class ViewWeightInfo
+	{
+		@NonNull
+		ViewId viewId;
+		int userId;
+		int weight;
+		long lastAccessMillis;
+
+		public boolean isReweighNeeded(final int currentWeight)
+		{
+			return currentWeight > weight * REWEIGH_THRESHOLD_FACTOR
+					|| currentWeight * REWEIGH_THRESHOLD_FACTOR < weight;
+		}
+
+		public ViewWeightInfo withWeightAndLastAccessNow(final int weight)
+		{
+			return toBuilder()
+					.weight(weight)
+					.lastAccessMillis(System.currentTimeMillis())
+					.build();
+		}
+	}
 }
@@ -1,7 +1,9 @@
 package de.metas.ui.web.view;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -22,6 +24,7 @@ import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.ui.web.window.model.sql.SqlOptions;
 import lombok.NonNull;
@@ -104,6 +107,27 @@ public interface IView
 		// nothing
 	}
 
+	/**
+	 * @return approximate heap size retained by this view; used by memory bounded views storages to weigh the views.
+	 * @see ViewRetainedSizes
+	 */
+	default long getApproximateRetainedSizeInBytes()
+	{
+		return ViewRetainedSizes.VIEW_BASE_SIZE_BYTES;
+	}
+
+	/**
+	 * Called when the view is evicted from storage because of memory pressure.
+	 *
+	 * @return a copy of this view which retains as less memory as possible (e.g. without cached rows) and which can replace this view;
+	 *         or {@code null} if not supported, in which case this view will be closed.
+	 */
+	@Nullable
+	default IView createLightweightCopyOrNull()
+	{
+		return null;
+	}
+
 	int getQueryLimit();
 
 	boolean isQueryLimitHit();
@@ -134,6 +158,78 @@ public interface IView
 
 	ViewResult getPage(int firstRow, int pageLength, List<DocumentQueryOrderBy> orderBys);
 
+	/**
+	 * Iterates all rows, in default order, without keeping them all in memory.
+	 *
+	 * The default implementation is fetching the rows page by page.
+	 */
+	default void forEachRow(@NonNull final Consumer<IViewRow> consumer)
+	{
+		final int pageLength = 500;
+		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of(); // default
+		final long size = size();
+		for (int firstRow = 0; firstRow < size; firstRow += pageLength)
+		{
+			getPage(firstRow, pageLength, orderBys).getPage().forEach(consumer);
+		}
+	}
+
+	/**
+	 * Computes SUM/MIN/MAX/COUNT for the numeric and date fields among the given ones, over the given rows.
+	 *
+	 * The default implementation does a single pass over the rows, without caching.
+	 *
+	 * @param rowIds rows to aggregate; might also be {@link DocumentIdsSelection#ALL}
+	 * @param widgetTypesByFieldName candidate fields; the ones which are neither numeric nor date are skipped
+	 */
+	default ViewColumnAggregates getColumnAggregates(
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ViewColumnAggregates.EMPTY;
+		}
+
+		final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(widgetTypesByFieldName);
+		if (rowIds.isAll())
+		{
+			forEachRow(calculator::add);
+		}
+		else
+		{
+			streamByIds(rowIds).forEach(calculator::add);
+		}
+		return calculator.build();
+	}
+
+	/**
+	 * Groups the given rows by the values of the requested fields and computes the rows count and the aggregates of each group.
+	 *
+	 * The default implementation does a single pass over the rows, hashing them by their group by values.
+	 *
+	 * @return requested page of groups
+	 */
+	default ViewRowsGroupsPage getGroupedRows(@NonNull final ViewGroupByRequest request)
+	{
+		final DocumentIdsSelection rowIds = request.getRowIds();
+		if (rowIds.isEmpty())
+		{
+			return ViewRowsGroupsPage.empty(request.getFirstRow());
+		}
+
+		final ViewRowsGroupsCalculator calculator = ViewRowsGroupsCalculator.of(request);
+		if (rowIds.isAll())
+		{
+			forEachRow(calculator::add);
+		}
+		else
+		{
+			streamByIds(rowIds).forEach(calculator::add);
+		}
+		return calculator.buildPage(request.getFirstRow(), request.getPageLength());
+	}
+
 	default ViewResult getPageWithRowIdsOnly(final int firstRow, final int pageLength, final List<DocumentQueryOrderBy> orderBys)
 	{
 		return getPage(firstRow, pageLength, orderBys);
@@ -198,6 +294,15 @@ public interface IView
 	 */
 	void notifyRecordsChanged(TableRecordReferenceSet recordRefs);
 
+	/**
+	 * @return the tables this view depends on. The view will be notified via {@link #notifyRecordsChanged(TableRecordReferenceSet)} only when records of those tables were changed.
+	 *         The returned value shall not change during view's lifetime.
+	 */
+	default ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.ANY;
+	}
+
 	/** @return actions which were registered particularly for this view instance */
 	default ViewActionDescriptorsList getActions()
 	{
@@ -3,6 +3,7 @@ package de.metas.ui.web.view;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.adempiere.exceptions.DBException;
 
@@ -56,10 +57,33 @@ public interface IViewDataRepository
 
 	IViewRow retrieveById(ViewEvaluationCtx viewEvalCtx, ViewId viewId, DocumentId rowId);
 
+	/**
+	 * Retrieves more rows at once.
+	 *
+	 * @return rows which were found; rows which were not found are silently skipped
+	 */
+	List<IViewRow> retrieveByIds(ViewEvaluationCtx viewEvalCtx, ViewId viewId, DocumentIdsSelection rowIds);
+
 	List<IViewRow> retrievePage(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength) throws DBException;
 
 	List<DocumentId> retrieveRowIdsByPage(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength);
 
+	/**
+	 * Retrieves all rows of given selection, in selection's order, and passes them one by one to given consumer.
+	 * The rows are fetched using a forward only cursor and are not retained, so it's safe to be used for huge selections (e.g. export).
+	 */
+	void forEachRow(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, Consumer<IViewRow> consumer);
+
+	/**
+	 * Computes SUM/MIN/MAX/COUNT for the numeric and date fields among the given ones, over given rows of given selection.
+	 */
+	ViewColumnAggregates retrieveColumnAggregates(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection selection, DocumentIdsSelection rowIds, Map<String, DocumentFieldWidgetType> widgetTypesByFieldName);
+
+	/**
+	 * Groups given rows of given selection and computes the rows count and the aggregates of each group.
+	 */
+	ViewRowsGroupsPage retrieveGroupedRows(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection selection, ViewGroupByRequest request);
+
 	<T> List<T> retrieveModelsByIds(ViewId viewId, DocumentIdsSelection rowIds, Class<T> modelClass);
 
 	ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection fromSelection, List<DocumentQueryOrderBy> orderBys);
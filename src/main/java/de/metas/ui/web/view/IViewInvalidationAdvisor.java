@@ -44,4 +44,12 @@ public interface IViewInvalidationAdvisor
 	WindowId getWindowId();
 
 	Set<DocumentId> findAffectedRowIds(final TableRecordReferenceSet recordRefs, IView view);
+
+	/**
+	 * @return the tables (besides the view's own table) which are relevant for {@link #findAffectedRowIds(TableRecordReferenceSet, IView)}
+	 */
+	default ViewDependentTableNames getDependentTableNames()
+	{
+		return ViewDependentTableNames.ANY;
+	}
 }
@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.util.Set;
 import java.util.stream.Stream;
 
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -53,6 +54,21 @@ public interface IViewsIndexStorage
 
 	Stream<IView> streamAllViews();
 
+	/** @return how many views are currently stored */
+	default long size()
+	{
+		return streamAllViews().count();
+	}
+
+	/**
+	 * @return the views which depend on any of given table names (see {@link IView#getDependentTableNames()}).
+	 *         Implementations are encouraged to override this method and use an index instead of iterating all views.
+	 */
+	default Stream<IView> streamViewsByDependentTableNames(final Set<String> tableNames)
+	{
+		return streamAllViews().filter(view -> view.getDependentTableNames().isMatchingAnyOf(tableNames));
+	}
+
 	void invalidateView(ViewId viewId);
 
 }
@@ -1,6 +1,7 @@
 package de.metas.ui.web.view;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
@@ -97,4 +98,10 @@ public interface IViewsRepository
 	{
 		notifyRecordsChanged(TableRecordReferenceSet.of(tableName, recordId));
 	}
+
+	/** @return statistics about how many views were notified, respectively skipped, by {@link #notifyRecordsChanged(TableRecordReferenceSet)} */
+	Map<String, Object> getNotificationStats();
+
+	/** @return statistics of the cache of filtered selections which are shared between views */
+	Map<String, Object> getFilteredSelectionsCacheStats();
 }
@@ -0,0 +1,176 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Immutable index of a given set of top level rows and all their (recursively) included rows.
+ *
+ * {@link AbstractCustomView.IRowsData} implementations are supposed to build it once per data "generation" (e.g. memorized until {@link AbstractCustomView.IRowsData#invalidateAll()})
+ * instead of extracting all included rows on each row lookup.
+ *
+ * @param <T> view row type
+ */
+@ToString(of = "topLevelRowsById")
+public final class ImmutableRowsIndex<T extends IViewRow>
+{
+	public static <T extends IViewRow> ImmutableRowsIndex<T> of(@NonNull final Collection<T> topLevelRows)
+	{
+		return new ImmutableRowsIndex<>(topLevelRows);
+	}
+
+	public static <T extends IViewRow> ImmutableRowsIndex<T> empty()
+	{
+		return new ImmutableRowsIndex<>(ImmutableMap.of());
+	}
+
+	private final ImmutableMap<DocumentId, T> topLevelRowsById;
+	private final ImmutableMap<DocumentId, T> allRowsById;
+
+	private ImmutableRowsIndex(final Collection<T> topLevelRows)
+	{
+		this(Maps.uniqueIndex(topLevelRows, IViewRow::getId));
+	}
+
+	private ImmutableRowsIndex(final ImmutableMap<DocumentId, T> topLevelRowsById)
+	{
+		this.topLevelRowsById = topLevelRowsById;
+		this.allRowsById = extractAllRows(topLevelRowsById.values());
+	}
+
+	static <T extends IViewRow> ImmutableMap<DocumentId, T> extractAllRows(@NonNull final Collection<T> topLevelRows)
+	{
+		final ImmutableMap.Builder<DocumentId, T> allRows = ImmutableMap.builder();
+		for (final T topLevelRow : topLevelRows)
+		{
+			allRows.put(topLevelRow.getId(), topLevelRow);
+			collectIncludedRows(topLevelRow, allRows);
+		}
+		return allRows.build();
+	}
+
+	private static <T extends IViewRow> void collectIncludedRows(@NonNull final T row, final ImmutableMap.Builder<DocumentId, T> collector)
+	{
+		@SuppressWarnings("unchecked")
+		final Collection<T> includedRows = (Collection<T>)row.getIncludedRows();
+		for (final T includedRow : includedRows)
+		{
+			collector.put(includedRow.getId(), includedRow);
+			collectIncludedRows(includedRow, collector);
+		}
+	}
+
+	/**
+	 * Splices reloaded top level rows into a copy of this index.
+	 *
+	 * @param rowIdsToReplace top level row IDs which were reloaded; those which are not found in {@code newRows} are removed
+	 * @param newRows reloaded rows; they replace the existing rows with the same ID (preserving the position) or are appended if they are not already in this index
+	 */
+	public ImmutableRowsIndex<T> replacingRows(@NonNull final Set<DocumentId> rowIdsToReplace, @NonNull final Collection<T> newRows)
+	{
+		if (rowIdsToReplace.isEmpty() && newRows.isEmpty())
+		{
+			return this;
+		}
+
+		final Map<DocumentId, T> newRowsById = new LinkedHashMap<>();
+		newRows.forEach(newRow -> newRowsById.put(newRow.getId(), newRow));
+
+		final ImmutableList.Builder<T> resultRows = ImmutableList.builder();
+		for (final T row : topLevelRowsById.values())
+		{
+			final DocumentId rowId = row.getId();
+			final T newRow = newRowsById.remove(rowId);
+			if (newRow != null)
+			{
+				resultRows.add(newRow);
+			}
+			else if (!rowIdsToReplace.contains(rowId))
+			{
+				resultRows.add(row);
+			}
+		}
+		resultRows.addAll(newRowsById.values());
+
+		return new ImmutableRowsIndex<>(resultRows.build());
+	}
+
+	public int size()
+	{
+		return topLevelRowsById.size();
+	}
+
+	public ImmutableMap<DocumentId, T> getDocumentId2TopLevelRows()
+	{
+		return topLevelRowsById;
+	}
+
+	public ImmutableMap<DocumentId, T> getDocumentId2AllRows()
+	{
+		return allRowsById;
+	}
+
+	public Collection<T> getTopLevelRows()
+	{
+		return topLevelRowsById.values();
+	}
+
+	/** @return all rows (top level and included ones) */
+	public Collection<T> getAllRows()
+	{
+		return allRowsById.values();
+	}
+
+	@Nullable
+	public T getByIdOrNull(@NonNull final DocumentId rowId)
+	{
+		return allRowsById.get(rowId);
+	}
+
+	/** @return top level or include row */
+	public T getById(@NonNull final DocumentId rowId) throws EntityNotFoundException
+	{
+		final T row = getByIdOrNull(rowId);
+		if (row == null)
+		{
+			throw new EntityNotFoundException("Row not found")
+					.appendParametersToMessage().setParameter("rowId", rowId);
+		}
+		return row;
+	}
+}
@@ -0,0 +1,271 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.security.UserRolePermissionsKey;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Ordered selections (i.e. the database copies of a view selection sorted by some columns) which are shared between views having the same default selection, window, profile, filters and user context.
+ * <p>
+ * An ordered selection is a snapshot of the default selection it was copied from, so it is shared only between views which are using that very default selection.
+ * When the default selection is changed or deleted, the ordered selections copied from it are no longer shared (see {@link #unshareDerivedFrom(String)}).
+ *
+ * Shared selections are reference counted and they are deleted only when they are not used by any view.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+final class SharedViewRowIdsOrderedSelections
+{
+	public static final SharedViewRowIdsOrderedSelections instance = new SharedViewRowIdsOrderedSelections();
+
+	private final HashMap<SharedSelectionKey, SharedSelection> selectionsByKey = new HashMap<>();
+	private final HashMap<String, SharedSelection> selectionsBySelectionId = new HashMap<>();
+
+	private SharedViewRowIdsOrderedSelections()
+	{
+	}
+
+	/**
+	 * Gets the shared selection for given key or creates a new one using given factory.
+	 *
+	 * Each call shall be matched by a {@link #release(Collection, boolean)} call.
+	 */
+	public ViewRowIdsOrderedSelection acquire(@NonNull final SharedSelectionKey key, @NonNull final Supplier<ViewRowIdsOrderedSelection> factory)
+	{
+		synchronized (this)
+		{
+			final SharedSelection sharedSelection = selectionsByKey.get(key);
+			if (sharedSelection != null)
+			{
+				sharedSelection.incrementReferences();
+				return sharedSelection.getSelection();
+			}
+		}
+
+		// NOTE: create it outside of the lock because it might take a while
+		final ViewRowIdsOrderedSelection selection = factory.get();
+
+		// In memory selections are cheap and they rely on the database selection of the view which created them,
+		// so they cannot be shared.
+		if (selection.isInMemory())
+		{
+			return selection;
+		}
+
+		synchronized (this)
+		{
+			// Another view created it meantime => keep ours private
+			if (selectionsByKey.containsKey(key))
+			{
+				return selection;
+			}
+
+			final SharedSelection sharedSelection = new SharedSelection(key, selection);
+			selectionsByKey.put(key, sharedSelection);
+			selectionsBySelectionId.put(selection.getSelectionId(), sharedSelection);
+			return selection;
+		}
+	}
+
+	/**
+	 * Adds a reference to given database selection, without sharing it by key (e.g. the default selection of a view which is also kept by the filtered selections cache).
+	 * If the selection was not known so far, its current owner is counted as a reference too.
+	 *
+	 * Each call shall be matched by a {@link #release(Collection, boolean)} call.
+	 */
+	public synchronized void retain(@NonNull final ViewRowIdsOrderedSelection selection)
+	{
+		if (selection.isInMemory())
+		{
+			return;
+		}
+
+		final String selectionId = selection.getSelectionId();
+		SharedSelection sharedSelection = selectionsBySelectionId.get(selectionId);
+		if (sharedSelection == null)
+		{
+			sharedSelection = new SharedSelection(null, selection); // owner's reference
+			selectionsBySelectionId.put(selectionId, sharedSelection);
+		}
+
+		sharedSelection.incrementReferences();
+	}
+
+	/**
+	 * Forgets given database selection, no matter how many references it still has.
+	 * To be called when the selection is deleted directly by its owner.
+	 * The ordered selections which were copied from it are no longer shared either.
+	 */
+	public synchronized void forget(@NonNull final String selectionId)
+	{
+		final SharedSelection sharedSelection = selectionsBySelectionId.remove(selectionId);
+		if (sharedSelection != null && sharedSelection.getKey() != null)
+		{
+			selectionsByKey.remove(sharedSelection.getKey(), sharedSelection);
+		}
+
+		unshareDerivedFrom(selectionId);
+	}
+
+	/**
+	 * Stops sharing the ordered selections which were copied from given (source) selection, because they no longer reflect it (e.g. rows were added to or removed from the source selection).
+	 * The views which are already using those ordered selections keep their references, so the selections are deleted as usual when they are released.
+	 */
+	public synchronized void unshareDerivedFrom(@NonNull final String sourceSelectionId)
+	{
+		selectionsByKey.keySet().removeIf(key -> sourceSelectionId.equals(key.getSourceSelectionId()));
+	}
+
+	/**
+	 * Releases given selections.
+	 *
+	 * @param stale if true, the shared selections won't be given to any other view, even if they are still referenced
+	 * @return the IDs of the database selections which are no longer referenced and which shall be deleted
+	 */
+	public synchronized Set<String> release(@NonNull final Collection<ViewRowIdsOrderedSelection> selections, final boolean stale)
+	{
+		final ImmutableSet.Builder<String> selectionIdsToDelete = ImmutableSet.builder();
+		for (final ViewRowIdsOrderedSelection selection : selections)
+		{
+			if (selection.isInMemory())
+			{
+				continue;
+			}
+
+			final String selectionId = selection.getSelectionId();
+			final SharedSelection sharedSelection = selectionsBySelectionId.get(selectionId);
+			if (sharedSelection == null)
+			{
+				selectionIdsToDelete.add(selectionId);
+				unshareDerivedFrom(selectionId);
+				continue;
+			}
+
+			final SharedSelectionKey key = sharedSelection.getKey();
+			if (stale && key != null)
+			{
+				selectionsByKey.remove(key, sharedSelection);
+			}
+
+			if (sharedSelection.decrementReferences() <= 0)
+			{
+				if (key != null)
+				{
+					selectionsByKey.remove(key, sharedSelection);
+				}
+				selectionsBySelectionId.remove(selectionId);
+				selectionIdsToDelete.add(selectionId);
+				unshareDerivedFrom(selectionId);
+			}
+		}
+
+		return selectionIdsToDelete.build();
+	}
+
+	public synchronized int size()
+	{
+		return selectionsBySelectionId.size();
+	}
+
+	@Value
+	@Builder
+	public static final class SharedSelectionKey
+	{
+		/** The selection from which the ordered selection was copied */
+		@NonNull
+		private final String sourceSelectionId;
+
+		@NonNull
+		private final WindowId windowId;
+		private final ViewProfileId profileId;
+		@NonNull
+		private final JSONViewDataType viewType;
+
+		@NonNull
+		private final UserRolePermissionsKey permissionsKey;
+		private final int loggedUserId;
+		@NonNull
+		private final String adLanguage;
+		private final boolean applySecurityRestrictions;
+
+		@NonNull
+		private final ImmutableList<DocumentFilter> filters;
+		@NonNull
+		private final ImmutableList<DocumentQueryOrderBy> orderBys;
+	}
+
+	private static final class SharedSelection
+	{
+		/** null if the selection is not shared by key */
+		private final SharedSelectionKey key;
+		private final ViewRowIdsOrderedSelection selection;
+		private int references = 1;
+
+		private SharedSelection(@Nullable final SharedSelectionKey key, @NonNull final ViewRowIdsOrderedSelection selection)
+		{
+			this.key = key;
+			this.selection = selection;
+		}
+
+		@Nullable
+		public SharedSelectionKey getKey()
+		{
+			return key;
+		}
+
+		public ViewRowIdsOrderedSelection getSelection()
+		{
+			return selection;
+		}
+
+		public void incrementReferences()
+		{
+			references++;
+		}
+
+		public int decrementReferences()
+		{
+			references--;
+			return references;
+		}
+	}
+}
@@ -4,25 +4,36 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.model.PlainContextAware;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.document.filter.DocumentFilter;
@@ -39,6 +50,7 @@ import de.metas.ui.web.view.descriptor.SqlViewKeyColumnNamesMap;
 import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
 import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding.SqlViewRowFieldLoader;
 import de.metas.ui.web.view.descriptor.SqlViewSelectData;
+import de.metas.ui.web.view.descriptor.SqlViewSelectionQueryBuilder;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -77,6 +89,15 @@ class SqlViewDataRepository implements IViewDataRepository
 {
 	private static final Logger logger = LogManager.getLogger(SqlViewDataRepository.class);
 
+	/** How many rowIds to retrieve in one SQL query, see {@link #retrieveByIds(ViewEvaluationCtx, ViewId, DocumentIdsSelection)} */
+	private static final int RETRIEVE_BY_IDS_CHUNK_SIZE = 500;
+	private static final int FOR_EACH_ROW_FETCH_SIZE = 500;
+
+	/** If enabled, page and by-ID queries are selecting only the fields returned by {@link SqlViewBinding#getProjectionFieldNamesOrNull()} */
+	private static final String SYSCONFIG_UseProjection = "de.metas.ui.web.view.SqlViewDataRepository.UseProjection";
+	private static final boolean DEFAULT_UseProjection = false;
+
+	private final SqlViewBinding sqlBindings;
 	private final String tableName;
 	private final String tableAlias;
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
@@ -88,12 +109,16 @@ class SqlViewDataRepository implements IViewDataRepository
 
 	private final boolean hasIncludedRows;
 	private final ImmutableMap<String, SqlViewRowFieldLoader> rowFieldLoaders;
+	private final ImmutableSet<String> projectionFieldNames;
+	private final ImmutableMap<String, SqlViewRowFieldLoader> projectedRowFieldLoaders;
+	private final SqlViewRowLookupValuesBatchResolver lookupValuesBatchResolver;
 	private final ViewRowCustomizer rowCustomizer;
 
 	private final SqlDocumentFilterConverter filterConverters;
 
 	SqlViewDataRepository(@NonNull final SqlViewBinding sqlBindings)
 	{
+		this.sqlBindings = sqlBindings;
 		tableName = sqlBindings.getTableName();
 		tableAlias = sqlBindings.getTableAlias();
 		keyColumnNamesMap = sqlBindings.getSqlViewKeyColumnNamesMap();
@@ -107,6 +132,11 @@ class SqlViewDataRepository implements IViewDataRepository
 		this.rowFieldLoaders = sqlBindings.getFields()
 				.stream()
 				.collect(ImmutableMap.toImmutableMap(SqlViewRowFieldBinding::getFieldName, SqlViewRowFieldBinding::getFieldLoader));
+		this.projectionFieldNames = sqlViewSelect.isProjectionSupported() ? sqlBindings.getProjectionFieldNamesOrNull() : null;
+		this.projectedRowFieldLoaders = projectionFieldNames != null
+				? ImmutableMap.copyOf(Maps.filterKeys(rowFieldLoaders, projectionFieldNames::contains))
+				: rowFieldLoaders;
+		this.lookupValuesBatchResolver = SqlViewRowLookupValuesBatchResolver.ofFields(sqlBindings.getFields());
 		this.rowCustomizer = sqlBindings.getRowCustomizer();
 
 		this.filterConverters = SqlDocumentFilterConverters.createEntityBindingEffectiveConverter(sqlBindings);
@@ -121,6 +151,26 @@ class SqlViewDataRepository implements IViewDataRepository
 				.toString();
 	}
 
+	/**
+	 * @return the field names to be selected by page and by-ID queries or <code>null</code> if all fields shall be selected
+	 */
+	@Nullable
+	private ImmutableSet<String> getProjectionFieldNamesToUse()
+	{
+		if (projectionFieldNames == null)
+		{
+			return null;
+		}
+
+		final boolean useProjection = Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_UseProjection, DEFAULT_UseProjection);
+		return useProjection ? projectionFieldNames : null;
+	}
+
+	private Map<String, SqlViewRowFieldLoader> getRowFieldLoaders(@Nullable final Set<String> projection)
+	{
+		return projection != null ? projectedRowFieldLoaders : rowFieldLoaders;
+	}
+
 	@Override
 	public String getTableName()
 	{
@@ -211,10 +261,12 @@ class SqlViewDataRepository implements IViewDataRepository
 	@Override
 	public IViewRow retrieveById(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentId rowId)
 	{
+		final ImmutableSet<String> projection = getProjectionFieldNamesToUse();
 		final SqlAndParams sqlAndParams = sqlViewSelect.selectById()
 				.viewEvalCtx(viewEvalCtx)
 				.viewId(viewId)
 				.rowId(rowId)
+				.projectionFieldNames(projection)
 				.build();
 
 		PreparedStatement pstmt = null;
@@ -228,7 +280,7 @@ class SqlViewDataRepository implements IViewDataRepository
 
 			rs = pstmt.executeQuery();
 
-			final List<IViewRow> documents = loadViewRows(rs, viewEvalCtx, viewId, limit);
+			final List<IViewRow> documents = loadViewRows(rs, viewEvalCtx, viewId, limit, getRowFieldLoaders(projection));
 			if (documents.isEmpty())
 			{
 				throw new EntityNotFoundException("No document found for rowId=" + rowId);
@@ -254,16 +306,98 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	@Override
+	public List<IViewRow> retrieveByIds(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+		else if (rowIds.isAll())
+		{
+			throw new IllegalArgumentException("Retrieving ALL rows is not supported");
+		}
+
+		if (!sqlViewSelect.isSelectByIdsSupported())
+		{
+			return retrieveByIdsOneByOne(viewEvalCtx, viewId, rowIds);
+		}
+
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (final List<DocumentId> rowIdsChunk : Iterables.partition(rowIds.toSet(), RETRIEVE_BY_IDS_CHUNK_SIZE))
+		{
+			rows.addAll(retrieveByIdsChunk(viewEvalCtx, viewId, DocumentIdsSelection.of(rowIdsChunk)));
+		}
+		return rows.build();
+	}
+
+	private List<IViewRow> retrieveByIdsOneByOne(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+	{
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (final DocumentId rowId : rowIds.toSet())
+		{
+			try
+			{
+				rows.add(retrieveById(viewEvalCtx, viewId, rowId));
+			}
+			catch (final EntityNotFoundException ex)
+			{
+				logger.debug("Row {} not found in {}. Skipped", rowId, viewId);
+			}
+		}
+		return rows.build();
+	}
+
+	private List<IViewRow> retrieveByIdsChunk(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+	{
+		final ImmutableSet<String> projection = getProjectionFieldNamesToUse();
+		final SqlAndParams sqlAndParams = sqlViewSelect.selectByIds()
+				.viewEvalCtx(viewEvalCtx)
+				.viewId(viewId)
+				.rowIds(rowIds)
+				.projectionFieldNames(projection)
+				.build();
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+
+			rs = pstmt.executeQuery();
+			return loadViewRows(rs, viewEvalCtx, viewId, -1/* limit */, getRowFieldLoaders(projection));
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	private final ImmutableList<IViewRow> loadViewRows(final ResultSet rs,
 			final ViewEvaluationCtx viewEvalCtx,
 			final ViewId viewId,
 			final int limit) throws SQLException
+	{
+		return loadViewRows(rs, viewEvalCtx, viewId, limit, rowFieldLoaders);
+	}
+
+	private final ImmutableList<IViewRow> loadViewRows(final ResultSet rs,
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewId viewId,
+			final int limit,
+			final Map<String, SqlViewRowFieldLoader> fieldLoaders) throws SQLException
 	{
 		final Map<DocumentId, ViewRow.Builder> rowBuilders = new LinkedHashMap<>();
 		final Set<DocumentId> rootRowIds = new HashSet<>();
 		while (rs.next())
 		{
-			final ViewRow.Builder rowBuilder = loadViewRow(rs, viewId.getWindowId(), viewEvalCtx.getAdLanguage());
+			final ViewRow.Builder rowBuilder = loadViewRow(rs, viewId.getWindowId(), viewEvalCtx.getAdLanguage(), fieldLoaders);
 			if (rowBuilder == null)
 			{
 				continue;
@@ -284,6 +418,8 @@ class SqlViewDataRepository implements IViewDataRepository
 			}
 		}
 
+		completeViewRows(rowBuilders.values());
+
 		//
 		// Load lines
 		if (hasIncludedRows && !rootRowIds.isEmpty())
@@ -308,6 +444,15 @@ class SqlViewDataRepository implements IViewDataRepository
 	}
 
 	private ViewRow.Builder loadViewRow(final ResultSet rs, final WindowId windowId, final String adLanguage) throws SQLException
+	{
+		return loadViewRow(rs, windowId, adLanguage, rowFieldLoaders);
+	}
+
+	private ViewRow.Builder loadViewRow(
+			final ResultSet rs,
+			final WindowId windowId,
+			final String adLanguage,
+			final Map<String, SqlViewRowFieldLoader> fieldLoaders) throws SQLException
 	{
 		final boolean isRecordMissing = DisplayType.toBoolean(rs.getString(SqlViewSelectData.COLUMNNAME_IsRecordMissing));
 		if (isRecordMissing)
@@ -336,7 +481,7 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 		viewRowBuilder.setRowId(rowId);
 
-		for (final Map.Entry<String, SqlViewRowFieldLoader> fieldNameAndLoader : rowFieldLoaders.entrySet())
+		for (final Map.Entry<String, SqlViewRowFieldLoader> fieldNameAndLoader : fieldLoaders.entrySet())
 		{
 			final String fieldName = fieldNameAndLoader.getKey();
 			final SqlViewRowFieldLoader fieldLoader = fieldNameAndLoader.getValue();
@@ -344,12 +489,38 @@ class SqlViewDataRepository implements IViewDataRepository
 			viewRowBuilder.putFieldValue(fieldName, value);
 		}
 
+		return viewRowBuilder;
+	}
+
+	/**
+	 * Resolves the lookup values which were not loaded by SQL and applies the row customizer.
+	 */
+	private void completeViewRows(final Collection<ViewRow.Builder> rowBuilders)
+	{
+		if (!lookupValuesBatchResolver.isEmpty())
+		{
+			lookupValuesBatchResolver.resolve(rowBuilders);
+		}
+
 		if (rowCustomizer != null)
 		{
-			rowCustomizer.customizeViewRow(viewRowBuilder);
+			rowBuilders.forEach(rowCustomizer::customizeViewRow);
 		}
+	}
 
-		return viewRowBuilder;
+	/**
+	 * Completes given rows (see {@link #completeViewRows(Collection)}), passes them to given consumer and then clears the list.
+	 */
+	private void completeAndAcceptViewRows(final List<ViewRow.Builder> rowBuilders, final Consumer<IViewRow> consumer)
+	{
+		if (rowBuilders.isEmpty())
+		{
+			return;
+		}
+
+		completeViewRows(rowBuilders);
+		rowBuilders.forEach(rowBuilder -> consumer.accept(rowBuilder.build()));
+		rowBuilders.clear();
 	}
 
 	private DocumentId retrieveRowId(final ResultSet rs, final String adLanguage) throws SQLException
@@ -462,11 +633,18 @@ class SqlViewDataRepository implements IViewDataRepository
 		logger.debug("Using: {}", orderedSelection);
 
 		final ViewId viewId = orderedSelection.getViewId();
+		if (orderedSelection.isInMemory())
+		{
+			return retrievePageFromInMemorySelection(viewEvalCtx, orderedSelection, firstRow, pageLength);
+		}
+
+		final ImmutableSet<String> projection = getProjectionFieldNamesToUse();
 		final SqlAndParams sqlAndParams = sqlViewSelect.selectByPage()
 				.viewEvalCtx(viewEvalCtx)
 				.viewId(viewId)
 				.firstRowZeroBased(firstRow)
 				.pageLength(pageLength)
+				.projectionFieldNames(projection)
 				.build();
 
 		PreparedStatement pstmt = null;
@@ -478,7 +656,7 @@ class SqlViewDataRepository implements IViewDataRepository
 			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
 
 			rs = pstmt.executeQuery();
-			final List<IViewRow> page = loadViewRows(rs, viewEvalCtx, viewId, pageLength);
+			final List<IViewRow> page = loadViewRows(rs, viewEvalCtx, viewId, pageLength, getRowFieldLoaders(projection));
 			return page;
 		}
 		catch (final SQLException | DBException e)
@@ -492,6 +670,28 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	private List<IViewRow> retrievePageFromInMemorySelection(
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewRowIdsOrderedSelection orderedSelection,
+			final int firstRow,
+			final int pageLength)
+	{
+		final List<DocumentId> rowIds = orderedSelection.getInMemoryRowIdsPage(firstRow, pageLength);
+		if (rowIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final Map<DocumentId, IViewRow> rowsById = new HashMap<>(rowIds.size());
+		retrieveByIds(viewEvalCtx, orderedSelection.getViewId(), DocumentIdsSelection.of(rowIds))
+				.forEach(row -> rowsById.put(row.getId(), row));
+
+		return rowIds.stream()
+				.map(rowsById::get)
+				.filter(Predicates.notNull())
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	@Override
 	public List<DocumentId> retrieveRowIdsByPage(final ViewEvaluationCtx viewEvalCtx,
 			final ViewRowIdsOrderedSelection orderedSelection,
@@ -501,6 +701,11 @@ class SqlViewDataRepository implements IViewDataRepository
 		logger.debug("Getting page: firstRow={}, pageLength={} - {}", firstRow, pageLength, this);
 		logger.debug("Using: {}", orderedSelection);
 
+		if (orderedSelection.isInMemory())
+		{
+			return orderedSelection.getInMemoryRowIdsPage(firstRow, pageLength);
+		}
+
 		final ViewId viewId = orderedSelection.getViewId();
 		final SqlAndParams sqlAndParams = sqlViewSelect.selectRowIdsByPage()
 				.viewEvalCtx(viewEvalCtx)
@@ -544,6 +749,253 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	@Override
+	public void forEachRow(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewRowIdsOrderedSelection orderedSelection,
+			@NonNull final Consumer<IViewRow> consumer)
+	{
+		if (orderedSelection.isInMemory())
+		{
+			final long size = orderedSelection.getSize();
+			for (int firstRow = 0; firstRow < size; firstRow += FOR_EACH_ROW_FETCH_SIZE)
+			{
+				retrievePageFromInMemorySelection(viewEvalCtx, orderedSelection, firstRow, FOR_EACH_ROW_FETCH_SIZE)
+						.forEach(consumer);
+			}
+			return;
+		}
+
+		final ViewId viewId = orderedSelection.getViewId();
+		final SqlAndParams sqlAndParams = sqlViewSelect.selectByPage()
+				.viewEvalCtx(viewEvalCtx)
+				.viewId(viewId)
+				.firstRowZeroBased(0)
+				.pageLength(Integer.MAX_VALUE)
+				.build();
+
+		// NOTE: running in a transaction because the postgres JDBC driver respects the fetch size (i.e. uses a cursor) only when not in auto-commit mode
+		Services.get(ITrxManager.class).run(ITrx.TRXNAME_ThreadInherited, () -> {
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try
+			{
+				pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+				pstmt.setFetchSize(FOR_EACH_ROW_FETCH_SIZE);
+				DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+
+				rs = pstmt.executeQuery();
+
+				// Complete the rows chunk by chunk, so the lookup values are resolved by one call per chunk and not per row
+				final List<ViewRow.Builder> rowBuildersChunk = new ArrayList<>(FOR_EACH_ROW_FETCH_SIZE);
+				while (rs.next())
+				{
+					final ViewRow.Builder rowBuilder = loadViewRow(rs, viewId.getWindowId(), viewEvalCtx.getAdLanguage());
+					if (rowBuilder == null)
+					{
+						continue;
+					}
+
+					rowBuildersChunk.add(rowBuilder);
+					if (rowBuildersChunk.size() >= FOR_EACH_ROW_FETCH_SIZE)
+					{
+						completeAndAcceptViewRows(rowBuildersChunk, consumer);
+					}
+				}
+				completeAndAcceptViewRows(rowBuildersChunk, consumer);
+			}
+			catch (final SQLException | DBException e)
+			{
+				throw DBException.wrapIfNeeded(e)
+						.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+			}
+			finally
+			{
+				DB.close(rs, pstmt);
+			}
+		});
+	}
+
+	@Override
+	public ViewColumnAggregates retrieveColumnAggregates(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewRowIdsOrderedSelection selection,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final Map<String, DocumentFieldWidgetType> requestedWidgetTypesByFieldName)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ViewColumnAggregates.EMPTY;
+		}
+
+		// NOTE: we trust only our own widget types because those are the ones which are matching the SQL columns
+		final ImmutableMap<String, DocumentFieldWidgetType> widgetTypesToAggregate = requestedWidgetTypesByFieldName.keySet()
+				.stream()
+				.filter(widgetTypesByFieldName::containsKey)
+				.filter(fieldName -> ViewColumnAggregatesCalculator.isAggregatable(widgetTypesByFieldName.get(fieldName)))
+				.collect(ImmutableMap.toImmutableMap(fieldName -> fieldName, widgetTypesByFieldName::get));
+
+		//
+		// In case of grouping views, the selection is not 1:1 with our table's records,
+		// so we have to aggregate the rows
+		if (hasIncludedRows)
+		{
+			final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(widgetTypesToAggregate);
+			if (rowIds.isAll())
+			{
+				forEachRow(viewEvalCtx, selection, calculator::add);
+			}
+			else
+			{
+				retrieveByIds(viewEvalCtx, selection.getViewId(), rowIds).forEach(calculator::add);
+			}
+			return calculator.build();
+		}
+
+		final ImmutableList<String> fieldNames = widgetTypesToAggregate.keySet().asList();
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(sqlBindings)
+				.buildSqlAggregates(selection.getSelectionId(), rowIds, fieldNames);
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+			if (!rs.next())
+			{
+				return ViewColumnAggregates.EMPTY;
+			}
+
+			return retrieveColumnAggregates(rs, fieldNames);
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * Reads the aggregate columns of given fields, as built by {@link SqlViewSelectionQueryBuilder}.
+	 */
+	private ViewColumnAggregates retrieveColumnAggregates(final ResultSet rs, final List<String> fieldNames) throws SQLException
+	{
+		final long rowsCount = rs.getLong(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_RowsCount);
+		final ImmutableList.Builder<ViewColumnAggregate> columns = ImmutableList.builder();
+		for (int i = 0; i < fieldNames.size(); i++)
+		{
+			final String fieldName = fieldNames.get(i);
+			final DocumentFieldWidgetType widgetType = widgetTypesByFieldName.get(fieldName);
+			final boolean numeric = widgetType.isNumeric();
+			columns.add(ViewColumnAggregate.builder()
+					.fieldName(fieldName)
+					.widgetType(widgetType)
+					.count(rs.getLong(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_Count_Prefix + i))
+					.sum(numeric ? rs.getBigDecimal(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_Sum_Prefix + i) : null)
+					.min(numeric ? rs.getBigDecimal(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_Min_Prefix + i) : rs.getTimestamp(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_Min_Prefix + i))
+					.max(numeric ? rs.getBigDecimal(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_Max_Prefix + i) : rs.getTimestamp(SqlViewSelectionQueryBuilder.COLUMNNAME_Aggregates_Max_Prefix + i))
+					.build());
+		}
+
+		return ViewColumnAggregates.of(rowsCount, columns.build());
+	}
+
+	@Override
+	public ViewRowsGroupsPage retrieveGroupedRows(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewRowIdsOrderedSelection selection,
+			@NonNull final ViewGroupByRequest request)
+	{
+		final DocumentIdsSelection rowIds = request.getRowIds();
+		if (rowIds.isEmpty())
+		{
+			return ViewRowsGroupsPage.empty(request.getFirstRow());
+		}
+
+		final ImmutableList<String> groupByFieldNames = request.getGroupByFieldNames();
+		for (final String groupByFieldName : groupByFieldNames)
+		{
+			if (!widgetTypesByFieldName.containsKey(groupByFieldName))
+			{
+				throw new AdempiereException("Grouping by field " + groupByFieldName + " is not supported")
+						.setParameter("viewId", selection.getViewId());
+			}
+		}
+
+		//
+		// In case of grouping views, the selection is not 1:1 with our table's records,
+		// so we have to group the rows
+		if (hasIncludedRows)
+		{
+			final ViewRowsGroupsCalculator calculator = ViewRowsGroupsCalculator.of(request);
+			if (rowIds.isAll())
+			{
+				forEachRow(viewEvalCtx, selection, calculator::add);
+			}
+			else
+			{
+				retrieveByIds(viewEvalCtx, selection.getViewId(), rowIds).forEach(calculator::add);
+			}
+			return calculator.buildPage(request.getFirstRow(), request.getPageLength());
+		}
+
+		// NOTE: we trust only our own widget types because those are the ones which are matching the SQL columns
+		final ImmutableList<String> aggregatedFieldNames = request.getAggregatedWidgetTypesByFieldName()
+				.keySet()
+				.stream()
+				.filter(widgetTypesByFieldName::containsKey)
+				.filter(fieldName -> ViewColumnAggregatesCalculator.isAggregatable(widgetTypesByFieldName.get(fieldName)))
+				.collect(ImmutableList.toImmutableList());
+
+		final int firstRow = Math.max(request.getFirstRow(), 0);
+		final int pageLength = request.getPageLength() > 0 ? request.getPageLength() : 30;
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(sqlBindings)
+				.buildSqlGroupBy(viewEvalCtx, selection.getSelectionId(), rowIds, groupByFieldNames, aggregatedFieldNames, firstRow, pageLength);
+
+		final String adLanguage = viewEvalCtx.getAdLanguage();
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+
+			long groupsCount = 0;
+			final ImmutableList.Builder<ViewRowsGroup> groups = ImmutableList.builder();
+			while (rs.next())
+			{
+				groupsCount = rs.getLong(SqlViewSelectionQueryBuilder.COLUMNNAME_GroupBy_GroupsCount);
+
+				final ImmutableMap.Builder<String, Object> groupValues = ImmutableMap.builder();
+				for (final String groupByFieldName : groupByFieldNames)
+				{
+					final Object jsonValue = rowFieldLoaders.get(groupByFieldName).retrieveValueAsJson(rs, adLanguage);
+					groupValues.put(groupByFieldName, JSONNullValue.wrapIfNull(jsonValue));
+				}
+
+				groups.add(ViewRowsGroup.of(groupValues.build(), retrieveColumnAggregates(rs, aggregatedFieldNames)));
+			}
+
+			return ViewRowsGroupsPage.of(firstRow, groupsCount, groups.build());
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	private List<IViewRow> retrieveRowLines(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
 	{
 		logger.debug("Getting row lines: rowId={} - {}", rowIds, this);
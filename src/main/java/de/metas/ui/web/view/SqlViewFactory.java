@@ -12,6 +12,7 @@ import javax.annotation.Nullable;
 
 import org.adempiere.ad.expression.api.NullStringExpression;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.CCache;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import org.springframework.stereotype.Service;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 
 import de.metas.logging.LogManager;
@@ -40,16 +42,21 @@ import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.Values;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor.Characteristic;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.LookupDescriptor;
+import de.metas.ui.web.window.descriptor.LookupDescriptorProvider.LookupScope;
 import de.metas.ui.web.window.descriptor.factory.DocumentDescriptorFactory;
 import de.metas.ui.web.window.descriptor.sql.DocumentFieldValueLoader;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentEntityDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentFieldDataBindingDescriptor;
 import de.metas.ui.web.window.model.DocumentReference;
 import de.metas.ui.web.window.model.DocumentReferencesService;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
+import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
 import de.metas.util.Check;
+import de.metas.util.Services;
 import de.metas.util.time.SystemTime;
 import lombok.NonNull;
 import lombok.Value;
@@ -88,6 +95,16 @@ public class SqlViewFactory implements IViewFactory
 {
 	private static final Logger logger = LogManager.getLogger(SqlViewFactory.class);
 
+	/** See {@link ViewPagesPrefetchMode} */
+	private static final String SYSCONFIG_PagesPrefetchMode = "de.metas.ui.web.view.PagesPrefetchMode";
+
+	/**
+	 * If enabled, the displayed lookup values are not selected via one SQL subselect per row and column,
+	 * but they are resolved afterwards, for the whole page, using the lookup data source caches.
+	 * NOTE: it's applied when the view binding is created, so a cache reset is needed after changing it.
+	 */
+	private static final String SYSCONFIG_BatchLookupDisplayValues = "de.metas.ui.web.view.BatchLookupDisplayValues";
+
 	private final DocumentDescriptorFactory documentDescriptorFactory;
 	private final DocumentReferencesService documentReferencesService;
 
@@ -271,6 +288,20 @@ public class SqlViewFactory implements IViewFactory
 		return viewLayoutBuilder.build();
 	}
 
+	private static ViewPagesPrefetchMode getPagesPrefetchMode()
+	{
+		final String modeStr = Services.get(ISysConfigBL.class).getValue(SYSCONFIG_PagesPrefetchMode, ViewPagesPrefetchMode.NONE.name());
+		try
+		{
+			return ViewPagesPrefetchMode.valueOf(modeStr.trim());
+		}
+		catch (final IllegalArgumentException ex)
+		{
+			logger.warn("Invalid {}={}. Considering {}", SYSCONFIG_PagesPrefetchMode, modeStr, ViewPagesPrefetchMode.NONE);
+			return ViewPagesPrefetchMode.NONE;
+		}
+	}
+
 	@Override
 	public IView createView(final CreateViewRequest request)
 	{
@@ -293,7 +324,8 @@ public class SqlViewFactory implements IViewFactory
 				.addStickyFilters(request.getStickyFilters())
 				.addStickyFilter(extractReferencedDocumentFilter(windowId, request.getSingleReferencingDocumentPathOrNull()))
 				.viewInvalidationAdvisor(sqlViewBinding.getViewInvalidationAdvisor())
-				.applySecurityRestrictions(request.isApplySecurityRestrictions());
+				.applySecurityRestrictions(request.isApplySecurityRestrictions())
+				.setPagesPrefetchMode(getPagesPrefetchMode());
 
 		final DocumentFiltersList filters = request.getFilters();
 		if (filters.isJson())
@@ -401,10 +433,9 @@ public class SqlViewFactory implements IViewFactory
 		final WindowId windowId = key.getWindowId();
 		final DocumentEntityDescriptor entityDescriptor = documentDescriptorFactory.getDocumentEntityDescriptor(windowId);
 		final Set<String> displayFieldNames = entityDescriptor.getFieldNamesWithCharacteristic(key.getRequiredFieldCharacteristic());
-		final SqlDocumentEntityDataBindingDescriptor entityBinding = SqlDocumentEntityDataBindingDescriptor.cast(entityDescriptor.getDataBinding());
 		final DocumentFilterDescriptorsProvider filterDescriptors = entityDescriptor.getFilterDescriptors();
 
-		final SqlViewBinding.Builder builder = createBuilderForEntityBindingAndFieldNames(entityBinding, displayFieldNames)
+		final SqlViewBinding.Builder builder = createBuilderForEntityAndFieldNames(entityDescriptor, displayFieldNames)
 				.filterDescriptors(filterDescriptors)
 				.viewInvalidationAdvisor(getViewInvalidationAdvisor(windowId));
 
@@ -425,15 +456,19 @@ public class SqlViewFactory implements IViewFactory
 		return builder.build();
 	}
 
-	private SqlViewBinding.Builder createBuilderForEntityBindingAndFieldNames(
-			@NonNull final SqlDocumentEntityDataBindingDescriptor entityBinding,
+	private SqlViewBinding.Builder createBuilderForEntityAndFieldNames(
+			@NonNull final DocumentEntityDescriptor entityDescriptor,
 			@NonNull final Set<String> displayFieldNames)
 	{
+		final SqlDocumentEntityDataBindingDescriptor entityBinding = SqlDocumentEntityDataBindingDescriptor.cast(entityDescriptor.getDataBinding());
 		final SqlViewBinding.Builder builder = createBuilderForEntityBinding(entityBinding);
 
+		final boolean batchLookupDisplayValues = Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_BatchLookupDisplayValues, false);
 		entityBinding.getFields()
 				.stream()
-				.map(documentField -> createViewFieldBinding(documentField, displayFieldNames))
+				.map(documentField -> batchLookupDisplayValues
+						? createViewFieldBinding(documentField, displayFieldNames, getBatchLookupDataSourceOrNull(entityDescriptor, documentField, displayFieldNames))
+						: createViewFieldBinding(documentField, displayFieldNames))
 				.forEach(builder::field);
 		builder.displayFieldNames(displayFieldNames);
 		return builder;
@@ -454,6 +489,52 @@ public class SqlViewFactory implements IViewFactory
 		return createViewFieldBindingBuilder(documentField, availableDisplayColumnNames).build();
 	}
 
+	private static final SqlViewRowFieldBinding createViewFieldBinding(
+			@NonNull final SqlDocumentFieldDataBindingDescriptor documentField,
+			@NonNull final Collection<String> availableDisplayColumnNames,
+			@Nullable final LookupDataSource batchLookupDataSource)
+	{
+		if (batchLookupDataSource == null)
+		{
+			return createViewFieldBinding(documentField, availableDisplayColumnNames);
+		}
+
+		// Don't select the display column. The display value will be resolved using the batch lookup data source.
+		return createViewFieldBindingBuilder(documentField, ImmutableSet.of())
+				.batchLookupDataSource(batchLookupDataSource)
+				.build();
+	}
+
+	@Nullable
+	private static LookupDataSource getBatchLookupDataSourceOrNull(
+			@NonNull final DocumentEntityDescriptor entityDescriptor,
+			@NonNull final SqlDocumentFieldDataBindingDescriptor documentField,
+			@NonNull final Collection<String> displayFieldNames)
+	{
+		final String fieldName = documentField.getFieldName();
+		if (!documentField.isUsingDisplayColumn()
+				|| !displayFieldNames.contains(fieldName)
+				|| documentField.isKeyColumn()
+				|| !documentField.getWidgetType().isLookup())
+		{
+			return null;
+		}
+
+		final DocumentFieldDescriptor field = entityDescriptor.getFieldOrNull(fieldName);
+		if (field == null)
+		{
+			return null;
+		}
+
+		final LookupDescriptor lookupDescriptor = field.getLookupDescriptor(LookupScope.DocumentField);
+		if (lookupDescriptor == null)
+		{
+			return null;
+		}
+
+		return LookupDataSourceFactory.instance.getLookupDataSource(lookupDescriptor);
+	}
+
 	public static final SqlViewRowFieldBinding.SqlViewRowFieldBindingBuilder createViewFieldBindingBuilder(
 			@NonNull final SqlDocumentFieldDataBindingDescriptor documentField,
 			@NonNull final Collection<String> availableDisplayColumnNames)
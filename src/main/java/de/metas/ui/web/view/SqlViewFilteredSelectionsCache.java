@@ -0,0 +1,359 @@
+package de.metas.ui.web.view;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.service.ISysConfigBL;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
+import de.metas.ui.web.view.descriptor.SqlAndParams;
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import de.metas.util.Services;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Short lived cache of filtered view selections (i.e. the result of evaluating the filters of a view), to be copied by the new views which are
+ * using the same filters, security context and ordering, instead of evaluating the filters again.
+ *
+ * The cached selections are the database selections of the views which evaluated the filters. They are shared with those views using
+ * the reference counting of {@link SharedViewRowIdsOrderedSelections}, so a selection is deleted only after it was evicted from cache and its view was closed.
+ *
+ * NOTE: the cached selections are invalidated only when the records of the view's table are changed.
+ * If the view's where clause or the filters are using other tables (joins, sub queries), changes of those tables are not detected,
+ * so the cached selection might be outdated for at most the configured TTL.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+final class SqlViewFilteredSelectionsCache
+{
+	public static final SqlViewFilteredSelectionsCache instance = new SqlViewFilteredSelectionsCache();
+
+	private static final Logger logger = LogManager.getLogger(SqlViewFilteredSelectionsCache.class);
+
+	/** How long a filtered selection is reused. Zero or less disables the cache. */
+	private static final String SYSCONFIG_TTLSeconds = "de.metas.ui.web.view.FilteredSelectionsCache.TTLSeconds";
+	private static final int DEFAULT_TTLSeconds = 30;
+	private static final String SYSCONFIG_MaxSize = "de.metas.ui.web.view.FilteredSelectionsCache.MaxSize";
+	private static final int DEFAULT_MaxSize = 100;
+
+	private volatile Cache<FilteredSelectionKey, CachedSelection> _cache;
+	private volatile boolean _enabled = true;
+
+	private final AtomicLong countHits = new AtomicLong();
+	private final AtomicLong countMisses = new AtomicLong();
+	private final AtomicLong countInvalidated = new AtomicLong();
+
+	@VisibleForTesting
+	SqlViewFilteredSelectionsCache()
+	{
+	}
+
+	/** @return cache or <code>null</code> if the cache is disabled */
+	@Nullable
+	private Cache<FilteredSelectionKey, CachedSelection> getCacheOrNull()
+	{
+		if (!_enabled)
+		{
+			return null;
+		}
+
+		Cache<FilteredSelectionKey, CachedSelection> cache = _cache;
+		if (cache == null)
+		{
+			synchronized (this)
+			{
+				cache = _cache;
+				if (cache == null)
+				{
+					final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+					final int ttlSeconds = sysConfigBL.getIntValue(SYSCONFIG_TTLSeconds, DEFAULT_TTLSeconds);
+					if (ttlSeconds <= 0)
+					{
+						_enabled = false;
+						return null;
+					}
+
+					cache = _cache = CacheBuilder.newBuilder()
+							.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+							.maximumSize(sysConfigBL.getIntValue(SYSCONFIG_MaxSize, DEFAULT_MaxSize))
+							.removalListener(this::onRemoval)
+							.build();
+				}
+			}
+		}
+		return cache;
+	}
+
+	public boolean isEnabled()
+	{
+		return getCacheOrNull() != null;
+	}
+
+	private void onRemoval(final RemovalNotification<FilteredSelectionKey, CachedSelection> notification)
+	{
+		final CachedSelection cachedSelection = notification.getValue();
+		if (cachedSelection == null || !cachedSelection.markReleased())
+		{
+			return;
+		}
+
+		final ViewRowIdsOrderedSelection selection = cachedSelection.getSelection();
+		try
+		{
+			final Set<String> selectionIdsToDelete = SharedViewRowIdsOrderedSelections.instance.release(ImmutableList.of(selection), false);
+			if (!selectionIdsToDelete.isEmpty())
+			{
+				SqlViewSelectionToDeleteHelper.scheduleDeleteSelections(selectionIdsToDelete);
+			}
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed releasing {}. Ignored.", selection, ex);
+		}
+	}
+
+	/** @return the cached filtered selection, which shall only be copied, or <code>null</code> */
+	@Nullable
+	public ViewRowIdsOrderedSelection getOrNull(@NonNull final FilteredSelectionKey key)
+	{
+		final Cache<FilteredSelectionKey, CachedSelection> cache = getCacheOrNull();
+		if (cache == null)
+		{
+			return null;
+		}
+
+		final CachedSelection cachedSelection = cache.getIfPresent(key);
+		if (cachedSelection != null)
+		{
+			countHits.incrementAndGet();
+			return cachedSelection.getSelection();
+		}
+		else
+		{
+			countMisses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Keeps a reference to the given view selection, which was just created by evaluating the filters of given key.
+	 */
+	public void put(@NonNull final FilteredSelectionKey key, @NonNull final ViewRowIdsOrderedSelection selection)
+	{
+		final Cache<FilteredSelectionKey, CachedSelection> cache = getCacheOrNull();
+		if (cache == null)
+		{
+			return;
+		}
+
+		SharedViewRowIdsOrderedSelections.instance.retain(selection);
+		cache.put(key, new CachedSelection(selection));
+	}
+
+	/**
+	 * Invalidates the filtered selections which are based on given database selection (e.g. because the selection was changed by its view).
+	 */
+	public void invalidateBySelectionId(@NonNull final String selectionId)
+	{
+		invalidateBySelectionId(selectionId, false);
+	}
+
+	/**
+	 * Same as {@link #invalidateBySelectionId(String)} but the selection is not released, because it's deleted by its owner.
+	 */
+	public void forgetBySelectionId(@NonNull final String selectionId)
+	{
+		invalidateBySelectionId(selectionId, true);
+	}
+
+	private void invalidateBySelectionId(final String selectionId, final boolean forget)
+	{
+		final Cache<FilteredSelectionKey, CachedSelection> cache = _cache;
+		if (cache == null)
+		{
+			return;
+		}
+
+		final ImmutableSet.Builder<FilteredSelectionKey> keysToInvalidateBuilder = ImmutableSet.builder();
+		for (final Map.Entry<FilteredSelectionKey, CachedSelection> entry : cache.asMap().entrySet())
+		{
+			final CachedSelection cachedSelection = entry.getValue();
+			if (!selectionId.equals(cachedSelection.getSelection().getSelectionId()))
+			{
+				continue;
+			}
+
+			if (forget)
+			{
+				cachedSelection.markReleased();
+			}
+			keysToInvalidateBuilder.add(entry.getKey());
+		}
+
+		final Set<FilteredSelectionKey> keysToInvalidate = keysToInvalidateBuilder.build();
+		if (keysToInvalidate.isEmpty())
+		{
+			return;
+		}
+
+		cache.invalidateAll(keysToInvalidate);
+		countInvalidated.addAndGet(keysToInvalidate.size());
+	}
+
+	/**
+	 * Invalidates the filtered selections of the views which are based on any of given tables.
+	 */
+	public void invalidateByTableNames(@NonNull final Set<String> tableNames)
+	{
+		final Cache<FilteredSelectionKey, CachedSelection> cache = _cache;
+		if (cache == null || tableNames.isEmpty())
+		{
+			return;
+		}
+
+		final Set<FilteredSelectionKey> keysToInvalidate = cache.asMap()
+				.keySet()
+				.stream()
+				.filter(key -> tableNames.contains(key.getTableName()))
+				.collect(ImmutableSet.toImmutableSet());
+		if (keysToInvalidate.isEmpty())
+		{
+			return;
+		}
+
+		cache.invalidateAll(keysToInvalidate);
+		countInvalidated.addAndGet(keysToInvalidate.size());
+		logger.debug("Invalidated {} filtered selections for {}", keysToInvalidate.size(), tableNames);
+	}
+
+	public void invalidateAll()
+	{
+		final Cache<FilteredSelectionKey, CachedSelection> cache = _cache;
+		if (cache == null)
+		{
+			return;
+		}
+
+		countInvalidated.addAndGet(cache.size());
+		cache.invalidateAll();
+	}
+
+	public Map<String, Object> getStats()
+	{
+		final Cache<FilteredSelectionKey, CachedSelection> cache = _cache;
+		return ImmutableMap.<String, Object> builder()
+				.put("enabled", _enabled)
+				.put("size", cache != null ? cache.size() : 0)
+				.put("hits", countHits.get())
+				.put("misses", countMisses.get())
+				.put("invalidated", countInvalidated.get())
+				.build();
+	}
+
+	private static final class CachedSelection
+	{
+		private final ViewRowIdsOrderedSelection selection;
+		private final AtomicBoolean released = new AtomicBoolean(false);
+
+		private CachedSelection(@NonNull final ViewRowIdsOrderedSelection selection)
+		{
+			this.selection = selection;
+		}
+
+		public ViewRowIdsOrderedSelection getSelection()
+		{
+			return selection;
+		}
+
+		/** @return true if the selection was not already released */
+		public boolean markReleased()
+		{
+			return released.compareAndSet(false, true);
+		}
+	}
+
+	/**
+	 * Identifies the filtered selections which are interchangeable.
+	 *
+	 * Neither the logged user nor the role is part of the key, so the selections are shared between all users having the same data access.
+	 * The data access is identified by the evaluated security restrictions, which are applied when the selection is created.
+	 * The evaluated SQL where clause is part of the key too, because some filters are converted to SQL using values of the logged user.
+	 * Filters which are referencing the logged user as a context variable are not cached at all.
+	 *
+	 * NOTE: the filters are kept as a set because they are all AND-ed, so their order is not relevant.
+	 */
+	@Value
+	@Builder
+	public static class FilteredSelectionKey
+	{
+		/** compared by identity; the view bindings are created once per window and profile */
+		@NonNull
+		SqlViewBinding viewBinding;
+
+		/** the evaluated security restrictions; empty if they are not applied */
+		@NonNull
+		String sqlSecurityRestrictedSelect;
+		/** relevant for ordering by display values */
+		@NonNull
+		String adLanguage;
+		boolean applySecurityRestrictions;
+		int queryLimit;
+
+		@NonNull
+		ImmutableSet<DocumentFilter> filters;
+		@NonNull
+		SqlDocumentFilterConverterContext context;
+		/** the evaluated entity where clause and filters */
+		@NonNull
+		SqlAndParams sqlWhereClause;
+		@NonNull
+		ImmutableList<DocumentQueryOrderBy> orderBys;
+
+		public String getTableName()
+		{
+			return viewBinding.getTableName();
+		}
+	}
+}
@@ -3,24 +3,32 @@ package de.metas.ui.web.view;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.security.IUserRolePermissions;
 import org.adempiere.ad.security.IUserRolePermissionsDAO;
 import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.ad.security.permissions.WindowMaxQueryRecordsConstraint;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.adempiere.exceptions.DBException;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
+import de.metas.ui.web.view.SqlViewFilteredSelectionsCache.FilteredSelectionKey;
 import de.metas.ui.web.view.descriptor.SqlAndParams;
 import de.metas.ui.web.view.descriptor.SqlViewBinding;
 import de.metas.ui.web.view.descriptor.SqlViewKeyColumnNamesMap;
@@ -64,6 +72,13 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 
 	private static final Logger logger = LogManager.getLogger(SqlViewRowIdsOrderedSelectionFactory.class);
 
+	/**
+	 * Max selection size for which ordered selections (i.e. when user is sorting by some column) are kept in memory instead of being copied to database.
+	 * Set to zero to always copy them in database.
+	 */
+	private static final String SYSCONFIG_InMemoryOrderedSelectionMaxSize = "de.metas.ui.web.view.InMemoryOrderedSelection.MaxSize";
+	private static final int DEFAULT_InMemoryOrderedSelectionMaxSize = 20000;
+
 	private final SqlViewBinding viewBinding;
 
 	private SqlViewRowIdsOrderedSelectionFactory(@NonNull final SqlViewBinding viewBinding)
@@ -97,6 +112,27 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 				.or(WindowMaxQueryRecordsConstraint.DEFAULT)
 				.getMaxQueryRecordsPerRole();
 
+		//
+		// Try copying an already filtered selection
+		final FilteredSelectionKey filteredSelectionKey = createFilteredSelectionKeyOrNull(viewEvalCtx, filters, orderBys, applySecurityRestrictions, context, queryLimit);
+		if (filteredSelectionKey != null)
+		{
+			final ViewRowIdsOrderedSelection filteredSelection = SqlViewFilteredSelectionsCache.instance.getOrNull(filteredSelectionKey);
+			if (filteredSelection != null)
+			{
+				final Stopwatch stopwatch = Stopwatch.createStarted();
+				final int rowsCount = copySelection(viewEvalCtx, filteredSelection.getSelectionId(), viewId, orderBys);
+				logger.trace("Created selection {} by copying {}, rowsCount={}, duration={}", viewId, filteredSelection, rowsCount, stopwatch);
+
+				return ViewRowIdsOrderedSelection.builder()
+						.setViewId(viewId)
+						.setSize(rowsCount)
+						.setOrderBys(orderBys)
+						.setQueryLimit(queryLimit)
+						.build();
+			}
+		}
+
 		//
 		//
 		final SqlCreateSelection sqlCreates = newSqlViewSelectionQueryBuilder()
@@ -124,22 +160,102 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			logger.trace("Created selection {}, rowsCount={}, duration={}", viewId, rowsCount, stopwatch);
 		}
 
-		return ViewRowIdsOrderedSelection.builder()
+		final ViewRowIdsOrderedSelection selection = ViewRowIdsOrderedSelection.builder()
 				.setViewId(viewId)
 				.setSize(rowsCount)
 				.setOrderBys(orderBys)
 				.setQueryLimit(queryLimit)
 				.build();
+
+		//
+		// Share our selection with the next views which are using the same filters
+		if (filteredSelectionKey != null)
+		{
+			SqlViewFilteredSelectionsCache.instance.put(filteredSelectionKey, selection);
+		}
+
+		return selection;
+	}
+
+	/**
+	 * @return the key of the filtered selection or <code>null</code> if the filtered selection shall not be cached
+	 */
+	@Nullable
+	private FilteredSelectionKey createFilteredSelectionKeyOrNull(
+			final ViewEvaluationCtx viewEvalCtx,
+			final List<DocumentFilter> filters,
+			final List<DocumentQueryOrderBy> orderBys,
+			final boolean applySecurityRestrictions,
+			final SqlDocumentFilterConverterContext context,
+			final int queryLimit)
+	{
+		if (!SqlViewFilteredSelectionsCache.instance.isEnabled())
+		{
+			return null;
+		}
+
+		// If we are in a transaction, the filters might see not committed data
+		// and our selection might be rolled back, so it cannot be shared.
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		if (!trxManager.isNull(trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone)))
+		{
+			return null;
+		}
+
+		// If the where clause depends on the logged user, the selection cannot be shared with other users.
+		final SqlDocumentFilterConverterContext contextEffective = context != null ? context : SqlDocumentFilterConverterContext.EMPTY;
+		final SqlAndParams sqlWhereClause = newSqlViewSelectionQueryBuilder().buildSqlWhereClauseIfNotUserDependent(viewEvalCtx, filters, contextEffective);
+		if (sqlWhereClause == null)
+		{
+			return null;
+		}
+
+		final String sqlSecurityRestrictedSelect = newSqlViewSelectionQueryBuilder()
+				.applySecurityRestrictions(applySecurityRestrictions)
+				.buildSqlSecurityRestrictedSelect(viewEvalCtx);
+
+		return FilteredSelectionKey.builder()
+				.viewBinding(viewBinding)
+				.sqlSecurityRestrictedSelect(sqlSecurityRestrictedSelect)
+				.adLanguage(viewEvalCtx.getAdLanguage())
+				.applySecurityRestrictions(applySecurityRestrictions)
+				.queryLimit(queryLimit)
+				.filters(ImmutableSet.copyOf(filters))
+				.context(contextEffective)
+				.sqlWhereClause(sqlWhereClause)
+				.orderBys(ImmutableList.copyOf(orderBys))
+				.build();
 	}
 
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
 	{
+		if (isInMemoryOrderedSelectionAllowed(fromSelection))
+		{
+			return createInMemoryOrderedSelectionFromSelection(viewEvalCtx, fromSelection, orderBys);
+		}
+
 		final WindowId windowId = fromSelection.getWindowId();
 		final String fromSelectionId = fromSelection.getSelectionId();
 		final ViewId newViewId = ViewId.random(windowId);
 
-		final int rowsCount;
+		final int rowsCount = copySelection(viewEvalCtx, fromSelectionId, newViewId, orderBys);
+
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(newViewId)
+				.setSize(rowsCount)
+				.setOrderBys(orderBys)
+				.setQueryLimit(fromSelection.getQueryLimit())
+				.build();
+	}
+
+	/**
+	 * Copies the database selection <code>fromSelectionId</code> to <code>newViewId</code>'s selection, ordered by given order bys.
+	 *
+	 * @return rows count
+	 */
+	private int copySelection(final ViewEvaluationCtx viewEvalCtx, final String fromSelectionId, final ViewId newViewId, final List<DocumentQueryOrderBy> orderBys)
+	{
 		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder();
 		if (viewQueryBuilder.hasGroupingFields())
 		{
@@ -149,30 +265,99 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 			if (linesCount > 0)
 			{
 				final SqlAndParams sqlCreateSelection = viewQueryBuilder.buildSqlCreateSelectionFromSelectionLines(viewEvalCtx, newViewId, orderBys);
-				rowsCount = DB.executeUpdateEx(sqlCreateSelection.getSql(), sqlCreateSelection.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
+				return DB.executeUpdateEx(sqlCreateSelection.getSql(), sqlCreateSelection.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
 			}
 			else
 			{
-				rowsCount = 0;
+				return 0;
 			}
 		}
 		else
 		{
 			final SqlAndParams sqlCreateSelection = viewQueryBuilder.buildSqlCreateSelectionFromSelection(viewEvalCtx, newViewId, fromSelectionId, orderBys);
-			rowsCount = DB.executeUpdateEx(sqlCreateSelection.getSql(), sqlCreateSelection.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
+			return DB.executeUpdateEx(sqlCreateSelection.getSql(), sqlCreateSelection.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
 		}
+	}
 
-		return ViewRowIdsOrderedSelection.builder()
-				.setViewId(newViewId)
-				.setSize(rowsCount)
-				.setOrderBys(orderBys)
-				.setQueryLimit(fromSelection.getQueryLimit())
-				.build();
+	private boolean isInMemoryOrderedSelectionAllowed(final ViewRowIdsOrderedSelection fromSelection)
+	{
+		if (viewBinding.hasGroupingFields() || !viewBinding.getSqlViewKeyColumnNamesMap().isSingleIntKey())
+		{
+			return false;
+		}
+
+		final long size = fromSelection.getSize();
+		if (size < 0)
+		{
+			return false;
+		}
+
+		final int maxSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_InMemoryOrderedSelectionMaxSize, DEFAULT_InMemoryOrderedSelectionMaxSize);
+		return size <= maxSize;
+	}
+
+	/**
+	 * Creates an ordered selection by fetching only the row IDs of given selection, in the requested order, and keeping them in memory.
+	 * The database selection of <code>fromSelection</code> is still used to load the rows, so we don't have to copy it.
+	 */
+	private ViewRowIdsOrderedSelection createInMemoryOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
+	{
+		final SqlAndParams sqlAndParams = newSqlViewSelectionQueryBuilder().buildSqlSelectRowIdsOrderedFromSelection(viewEvalCtx, fromSelection.getSelectionId(), orderBys);
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+
+			int[] rowIds = new int[(int)Math.max(fromSelection.getSize(), 16)];
+			int rowsCount = 0;
+			while (rs.next())
+			{
+				if (rowsCount >= rowIds.length)
+				{
+					rowIds = Arrays.copyOf(rowIds, rowIds.length * 2);
+				}
+				rowIds[rowsCount] = rs.getInt(1);
+				rowsCount++;
+			}
+
+			logger.trace("Created in memory selection from {}, rowsCount={}, duration={}", fromSelection, rowsCount, stopwatch);
+
+			return ViewRowIdsOrderedSelection.builder()
+					.setViewId(fromSelection.getViewId())
+					.setSize(rowsCount)
+					.setOrderBys(orderBys)
+					.setQueryLimit(fromSelection.getQueryLimit())
+					.setInMemoryRowIds(Arrays.copyOf(rowIds, rowsCount))
+					.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private static void assertNotInMemory(final ViewRowIdsOrderedSelection selection)
+	{
+		if (selection.isInMemory())
+		{
+			throw new IllegalArgumentException("Changing in memory selections is not supported: " + selection);
+		}
 	}
 
 	@Override
 	public ViewRowIdsOrderedSelection addRowIdsToSelection(final ViewRowIdsOrderedSelection selection, final DocumentIdsSelection rowIds)
 	{
+		assertNotInMemory(selection);
+
 		if (rowIds.isEmpty())
 		{
 			// nothing changed
@@ -187,6 +372,8 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 		// Add
 		boolean hasChanges = false;
 		final String selectionId = selection.getSelectionId();
+		SqlViewFilteredSelectionsCache.instance.invalidateBySelectionId(selectionId);
+		SharedViewRowIdsOrderedSelections.instance.unshareDerivedFrom(selectionId);
 		// TODO: add all rowIds in one query!!! Not so urgent because usually there are added just a couple of rowIds, not much
 		for (final DocumentId rowId : rowIds.toSet())
 		{
@@ -218,6 +405,8 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 	@Override
 	public ViewRowIdsOrderedSelection removeRowIdsFromSelection(final ViewRowIdsOrderedSelection selection, final DocumentIdsSelection rowIds)
 	{
+		assertNotInMemory(selection);
+
 		if (rowIds.isEmpty())
 		{
 			// nothing changed
@@ -227,6 +416,9 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 		//
 		// Delete
 		{
+			SqlViewFilteredSelectionsCache.instance.invalidateBySelectionId(selection.getSelectionId());
+			SharedViewRowIdsOrderedSelections.instance.unshareDerivedFrom(selection.getSelectionId());
+
 			final SqlAndParams sqlDelete = newSqlViewSelectionQueryBuilder().buildSqlDeleteRowIdsFromSelection(selection.getSelectionId(), rowIds);
 			final int deleted = DB.executeUpdateEx(sqlDelete.getSql(), sqlDelete.getSqlParamsArray(), ITrx.TRXNAME_ThreadInherited);
 			if (deleted <= 0)
@@ -272,6 +464,10 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 		final String selectionId = viewId.getViewId();
 		final SqlViewSelectionQueryBuilder viewQueryBuilder = newSqlViewSelectionQueryBuilder();
 
+		// We are deleting the selection right now, so it shall no longer be shared
+		SqlViewFilteredSelectionsCache.instance.forgetBySelectionId(selectionId);
+		SharedViewRowIdsOrderedSelections.instance.forget(selectionId);
+
 		// Delete selection lines
 		{
 			final String sql = viewQueryBuilder.buildSqlDeleteSelectionLines(selectionId);
@@ -0,0 +1,125 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Resolves the display values of lookup fields for a bunch of rows at once,
+ * instead of selecting them via SQL for each row.
+ *
+ * @see SqlViewRowFieldBinding#getBatchLookupDataSource()
+ */
+final class SqlViewRowLookupValuesBatchResolver
+{
+	public static SqlViewRowLookupValuesBatchResolver ofFields(@NonNull final Collection<SqlViewRowFieldBinding> fields)
+	{
+		final ImmutableMap.Builder<String, LookupDataSource> lookupDataSourcesByFieldName = ImmutableMap.builder();
+		for (final SqlViewRowFieldBinding field : fields)
+		{
+			final LookupDataSource lookupDataSource = field.getBatchLookupDataSource();
+			if (lookupDataSource != null)
+			{
+				lookupDataSourcesByFieldName.put(field.getFieldName(), lookupDataSource);
+			}
+		}
+
+		return new SqlViewRowLookupValuesBatchResolver(lookupDataSourcesByFieldName.build());
+	}
+
+	private final ImmutableMap<String, LookupDataSource> lookupDataSourcesByFieldName;
+
+	private SqlViewRowLookupValuesBatchResolver(final ImmutableMap<String, LookupDataSource> lookupDataSourcesByFieldName)
+	{
+		this.lookupDataSourcesByFieldName = lookupDataSourcesByFieldName;
+	}
+
+	public boolean isEmpty()
+	{
+		return lookupDataSourcesByFieldName.isEmpty();
+	}
+
+	/**
+	 * Replaces the lookup values of given rows with the ones fetched from the lookup data sources.
+	 * For each lookup field, the distinct IDs are resolved by one call.
+	 */
+	public void resolve(@NonNull final Collection<ViewRow.Builder> rowBuilders)
+	{
+		if (rowBuilders.isEmpty())
+		{
+			return;
+		}
+
+		lookupDataSourcesByFieldName.forEach((fieldName, lookupDataSource) -> resolve(rowBuilders, fieldName, lookupDataSource));
+	}
+
+	private static void resolve(final Collection<ViewRow.Builder> rowBuilders, final String fieldName, final LookupDataSource lookupDataSource)
+	{
+		final Set<String> keys = new LinkedHashSet<>();
+		for (final ViewRow.Builder rowBuilder : rowBuilders)
+		{
+			final Object value = rowBuilder.getFieldValue(fieldName);
+			if (value instanceof JSONLookupValue)
+			{
+				keys.add(((JSONLookupValue)value).getKey());
+			}
+		}
+		if (keys.isEmpty())
+		{
+			return;
+		}
+
+		final LookupValuesList lookupValues = lookupDataSource.findByIds(keys);
+		final Map<String, JSONLookupValue> jsonLookupValuesByKey = new HashMap<>(lookupValues.getValues().size());
+		for (final LookupValue lookupValue : lookupValues)
+		{
+			jsonLookupValuesByKey.put(lookupValue.getIdAsString(), JSONLookupValue.ofLookupValue(lookupValue));
+		}
+
+		for (final ViewRow.Builder rowBuilder : rowBuilders)
+		{
+			final Object value = rowBuilder.getFieldValue(fieldName);
+			if (value instanceof JSONLookupValue)
+			{
+				final JSONLookupValue resolvedValue = jsonLookupValuesByKey.get(((JSONLookupValue)value).getKey());
+				if (resolvedValue != null)
+				{
+					rowBuilder.putFieldValue(fieldName, resolvedValue);
+				}
+			}
+		}
+	}
+}
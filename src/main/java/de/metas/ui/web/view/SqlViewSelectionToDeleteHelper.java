@@ -1,16 +1,27 @@
 package de.metas.ui.web.view;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+
 import de.metas.logging.LogManager;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelection;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelectionLine;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelection_ToDelete;
+import lombok.Value;
 import lombok.experimental.UtilityClass;
 
 /*
@@ -35,11 +46,28 @@ import lombok.experimental.UtilityClass;
  * #L%
  */
 
+/**
+ * Schedules view selections to be deleted and deletes them in background.
+ *
+ * The selections are deleted in bounded chunks, with pauses between them, in order to not lock the selection tables for a long time.
+ */
 @UtilityClass
 public class SqlViewSelectionToDeleteHelper
 {
 	private static final Logger logger = LogManager.getLogger(SqlViewSelectionToDeleteHelper.class);
 
+	private static final int SCHEDULE_BATCH_SIZE = 1000;
+	/** How many scheduled selections are deleted in one go */
+	private static final int SELECTIONS_PER_BATCH = 500;
+	public static final int DEFAULT_DeleteChunkSize = 10000;
+	public static final long DEFAULT_PauseBetweenChunksMillis = 200;
+
+	private static final AtomicLong totalRowsDeleted = new AtomicLong(0);
+	private static final AtomicLong totalSelectionsDeleted = new AtomicLong(0);
+	private static volatile long lastRunTimestamp = 0;
+	private static volatile long lastRunDurationMillis = 0;
+	private static volatile long lastRunRowsDeleted = 0;
+
 	public static void scheduleDeleteSelections(final Set<String> viewIds)
 	{
 		if (viewIds.isEmpty())
@@ -47,42 +75,48 @@ public class SqlViewSelectionToDeleteHelper
 			return;
 		}
 
-		final String sqlInsertInto = "INSERT INTO " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + "("
+		final String sql = "INSERT INTO " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + "("
 				+ I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID
-				+ ")";
+				+ ")"
+				+ " SELECT unnest(?::text[])";
 
-		StringBuilder sql = new StringBuilder();
-		sql.append(sqlInsertInto);
-		int counter = 0;
-		for (String viewId : viewIds)
+		for (final List<String> viewIdsBatch : Iterables.partition(viewIds, SCHEDULE_BATCH_SIZE))
 		{
-			counter++;
-			if (counter > 1)
-				sql.append(" UNION ");
-			sql.append("SELECT ");
-			sql.append(DB.TO_STRING(viewId));
+			DB.executeUpdateEx(sql, new Object[] { toSqlTextArray(viewIdsBatch) }, ITrx.TRXNAME_None);
+		}
+
+		logger.debug("{} view selections scheduled to be deleted", viewIds.size());
+	}
 
-			if (counter >= 1000)
+	/**
+	 * @return PostgreSQL array literal, e.g. <code>{"uuid1","uuid2"}</code>
+	 */
+	static String toSqlTextArray(final Collection<String> values)
+	{
+		final StringBuilder sql = new StringBuilder("{");
+		for (final String value : values)
+		{
+			if (sql.length() > 1)
 			{
-				DB.executeUpdateEx(sql.toString(), ITrx.TRXNAME_None);
-				sql = new StringBuilder();
-				sql.append(sqlInsertInto);
-				counter = 0;
+				sql.append(",");
 			}
+			sql.append("\"")
+					.append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+					.append("\"");
 		}
-		if (counter > 0)
-		{
-			DB.executeUpdateEx(sql.toString(), ITrx.TRXNAME_None);
-		}
-
-		logger.debug("{} view selections scheduled to be deleted");
+		return sql.append("}").toString();
 	}
 
 	public static void deleteScheduledSelectionsNoFail()
+	{
+		deleteScheduledSelectionsNoFail(DEFAULT_DeleteChunkSize, DEFAULT_PauseBetweenChunksMillis);
+	}
+
+	public static void deleteScheduledSelectionsNoFail(final int chunkSize, final long pauseBetweenChunksMillis)
 	{
 		try
 		{
-			deleteScheduledSelections();
+			deleteScheduledSelections(chunkSize, pauseBetweenChunksMillis);
 		}
 		catch (Throwable ex)
 		{
@@ -92,56 +126,190 @@ public class SqlViewSelectionToDeleteHelper
 
 	public static void deleteScheduledSelections()
 	{
-		//
-		// Tag scheduled IDs
-		final String executorId = UUID.randomUUID().toString();
+		deleteScheduledSelections(DEFAULT_DeleteChunkSize, DEFAULT_PauseBetweenChunksMillis);
+	}
+
+	public static void deleteScheduledSelections(final int chunkSize, final long pauseBetweenChunksMillis)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		long rowsDeleted = 0;
+		try
 		{
-			final String sql = "UPDATE " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " SET "
-					+ I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?"
-					+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL";
-			final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
-			if (count <= 0)
+			while (!Thread.currentThread().isInterrupted())
 			{
-				return;
+				//
+				// Tag a batch of scheduled IDs
+				final String executorId = UUID.randomUUID().toString();
+				final int selectionsCount = tagScheduledSelections(executorId);
+				if (selectionsCount <= 0)
+				{
+					break;
+				}
+
+				//
+				// Delete the rows of tagged selections.
+				// The scheduled selections are deleted only if all their rows were deleted,
+				// else they are untagged, so they will be picked up again by next run.
+				boolean completed = false;
+				try
+				{
+					final ChunkedDeleteResult linesResult = deleteTaggedRowsInChunks(I_T_WEBUI_ViewSelectionLine.Table_Name, I_T_WEBUI_ViewSelectionLine.COLUMNNAME_UUID, executorId, chunkSize, pauseBetweenChunksMillis);
+					rowsDeleted += linesResult.getRowsDeleted();
+					if (linesResult.isCompleted())
+					{
+						final ChunkedDeleteResult selectionsResult = deleteTaggedRowsInChunks(I_T_WEBUI_ViewSelection.Table_Name, I_T_WEBUI_ViewSelection.COLUMNNAME_UUID, executorId, chunkSize, pauseBetweenChunksMillis);
+						rowsDeleted += selectionsResult.getRowsDeleted();
+						if (selectionsResult.isCompleted())
+						{
+							deleteTaggedScheduledSelections(executorId);
+							completed = true;
+						}
+					}
+				}
+				finally
+				{
+					if (!completed)
+					{
+						untagScheduledSelections(executorId);
+					}
+				}
+
+				if (!completed)
+				{
+					break;
+				}
+
+				totalSelectionsDeleted.addAndGet(selectionsCount);
 			}
+		}
+		finally
+		{
+			stopwatch.stop();
+			totalRowsDeleted.addAndGet(rowsDeleted);
+			lastRunTimestamp = System.currentTimeMillis();
+			lastRunDurationMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+			lastRunRowsDeleted = rowsDeleted;
 
-			logger.trace("Tagged {} selectionIds to be deleted", count);
+			logger.debug("Deleted {} view selection rows in {}", rowsDeleted, stopwatch);
 		}
+	}
 
-		//
-		// Delete from T_WEBUI_ViewSelectionLine
+	private static int tagScheduledSelections(final String executorId)
+	{
+		final String sql = "UPDATE " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " SET "
+				+ I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?"
+				+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID + " IN ("
+				+ " SELECT " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID
+				+ " FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name
+				+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL"
+				+ " LIMIT ?"
+				+ ")"
+				+ " AND " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL"; // don't steal the rows tagged by a concurrent run (same View_UUID might be scheduled more than once)
+		final int count = DB.executeUpdateEx(sql, new Object[] { executorId, SELECTIONS_PER_BATCH }, ITrx.TRXNAME_None);
+		logger.trace("Tagged {} selectionIds to be deleted", count);
+		return count;
+	}
+
+	private static void untagScheduledSelections(final String executorId)
+	{
+		final String sql = "UPDATE " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " SET "
+				+ I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=NULL"
+				+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?";
+		final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
+		logger.trace("Untagged {} selectionIds because their deletion was not completed", count);
+	}
+
+	/**
+	 * Deletes the rows of the tagged selections from given table, at most <code>chunkSize</code> rows per statement.
+	 *
+	 * @return how many rows were deleted and if all rows were deleted (i.e. it was not interrupted)
+	 */
+	private static ChunkedDeleteResult deleteTaggedRowsInChunks(
+			final String tableName,
+			final String uuidColumnName,
+			final String executorId,
+			final int chunkSize,
+			final long pauseBetweenChunksMillis)
+	{
+		final String sql = "DELETE FROM " + tableName + " t "
+				+ "\n WHERE t.ctid = ANY(ARRAY("
+				+ "\n   SELECT t2.ctid FROM " + tableName + " t2 "
+				+ "\n   INNER JOIN " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " s ON (s." + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID + "=t2." + uuidColumnName + ")"
+				+ "\n   WHERE s." + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?"
+				+ "\n   LIMIT ?"
+				+ "\n ))";
+
+		long rowsDeleted = 0;
+		while (true)
 		{
-			final String sql = "DELETE FROM " + I_T_WEBUI_ViewSelectionLine.Table_Name + " t "
-					+ "\n WHERE EXISTS (SELECT 1 FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " s "
-					+ "\n       WHERE "
-					+ "\n           s." + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID + "=t." + I_T_WEBUI_ViewSelectionLine.COLUMNNAME_UUID
-					+ "\n           AND s." + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?"
-					+ "\n )";
-			final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
-			logger.trace("Deleted {} rows from {}", count, I_T_WEBUI_ViewSelectionLine.Table_Name);
+			final int count = DB.executeUpdateEx(sql, new Object[] { executorId, chunkSize }, ITrx.TRXNAME_None);
+			rowsDeleted += count;
+			logger.trace("Deleted {} rows from {}", count, tableName);
+
+			if (count < chunkSize)
+			{
+				return new ChunkedDeleteResult(rowsDeleted, true);
+			}
+			if (!pause(pauseBetweenChunksMillis))
+			{
+				return new ChunkedDeleteResult(rowsDeleted, false);
+			}
 		}
+	}
+
+	@Value
+	private static class ChunkedDeleteResult
+	{
+		long rowsDeleted;
+		boolean completed;
+	}
 
-		//
-		// Delete from T_WEBUI_ViewSelection
+	private static void deleteTaggedScheduledSelections(final String executorId)
+	{
+		final String sql = "DELETE FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name
+				+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?";
+		final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
+		logger.trace("Deleted {} rows from {}", count, I_T_WEBUI_ViewSelection_ToDelete.Table_Name);
+	}
+
+	/** @return false if interrupted */
+	private static boolean pause(final long millis)
+	{
+		if (millis <= 0)
 		{
-			final String sql = "DELETE FROM " + I_T_WEBUI_ViewSelection.Table_Name + " t "
-					+ "\n WHERE EXISTS (SELECT 1 FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name + " s "
-					+ "\n       WHERE "
-					+ "\n           s." + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_View_UUID + "=t." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID
-					+ "\n           AND s." + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?"
-					+ "\n )";
-			final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
-			logger.trace("Deleted {} rows from {}", count, I_T_WEBUI_ViewSelection.Table_Name);
+			return true;
 		}
 
-		//
-		// Delete scheduled IDs
+		try
 		{
-			final String sql = "DELETE FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name
-					+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + "=?";
-			final int count = DB.executeUpdateEx(sql, new Object[] { executorId }, ITrx.TRXNAME_None);
-			logger.trace("Deleted {} rows from {}", count, I_T_WEBUI_ViewSelection_ToDelete.Table_Name);
+			Thread.sleep(millis);
+			return true;
 		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	public static Map<String, Object> getStats()
+	{
+		final String sqlBacklog = "SELECT COUNT(1) FROM " + I_T_WEBUI_ViewSelection_ToDelete.Table_Name
+				+ " WHERE " + I_T_WEBUI_ViewSelection_ToDelete.COLUMNNAME_Executor_UUID + " IS NULL";
+		final int backlogSize = DB.getSQLValueEx(ITrx.TRXNAME_None, sqlBacklog);
+
+		final long durationMillis = lastRunDurationMillis;
+		final long rowsDeleted = lastRunRowsDeleted;
+		final long rowsDeletedPerSecond = durationMillis > 0 ? rowsDeleted * 1000 / durationMillis : rowsDeleted;
 
+		return ImmutableMap.<String, Object> builder()
+				.put("backlogSize", backlogSize)
+				.put("lastRunTimestamp", lastRunTimestamp > 0 ? new Date(lastRunTimestamp).toString() : "-")
+				.put("lastRunDurationMillis", durationMillis)
+				.put("lastRunRowsDeleted", rowsDeleted)
+				.put("lastRunRowsDeletedPerSecond", rowsDeletedPerSecond)
+				.put("totalRowsDeleted", totalRowsDeleted.get())
+				.put("totalSelectionsDeleted", totalSelectionsDeleted.get())
+				.build();
 	}
 }
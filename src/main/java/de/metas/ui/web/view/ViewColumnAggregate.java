@@ -0,0 +1,61 @@
+package de.metas.ui.web.view;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.annotation.Nullable;
+
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * SUM/MIN/MAX/COUNT of a numeric or date view column.
+ */
+@Value
+@Builder
+public class ViewColumnAggregate
+{
+	@NonNull
+	String fieldName;
+	@NonNull
+	DocumentFieldWidgetType widgetType;
+
+	/** number of rows which have a value for this column */
+	long count;
+
+	/** sum of values; {@code null} for date columns or if there were no values */
+	@Nullable
+	BigDecimal sum;
+
+	/** min value, i.e. {@link BigDecimal} or {@link Date}; {@code null} if there were no values */
+	@Nullable
+	Object min;
+
+	/** max value, i.e. {@link BigDecimal} or {@link Date}; {@code null} if there were no values */
+	@Nullable
+	Object max;
+}
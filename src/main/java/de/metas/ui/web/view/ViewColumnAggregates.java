@@ -0,0 +1,47 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Column aggregates computed over a view's rows (see {@link IView#getColumnAggregates(de.metas.ui.web.window.datatypes.DocumentIdsSelection, java.util.Map)}).
+ */
+@Value
+public class ViewColumnAggregates
+{
+	public static ViewColumnAggregates of(final long rowsCount, @NonNull final List<ViewColumnAggregate> columns)
+	{
+		return new ViewColumnAggregates(rowsCount, ImmutableList.copyOf(columns));
+	}
+
+	public static final ViewColumnAggregates EMPTY = new ViewColumnAggregates(0, ImmutableList.of());
+
+	long rowsCount;
+	ImmutableList<ViewColumnAggregate> columns;
+}
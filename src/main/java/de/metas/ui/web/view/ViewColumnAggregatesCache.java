@@ -0,0 +1,75 @@
+package de.metas.ui.web.view;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Caches the {@link ViewColumnAggregates} of a view until the view is invalidated (see {@link #clear()}).
+ */
+/* package */ final class ViewColumnAggregatesCache
+{
+	private final Cache<Key, ViewColumnAggregates> cache = CacheBuilder.newBuilder()
+			.maximumSize(10)
+			.build();
+
+	public ViewColumnAggregates getOrCompute(
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName,
+			@NonNull final Supplier<ViewColumnAggregates> loader)
+	{
+		try
+		{
+			return cache.get(new Key(rowIds, ImmutableMap.copyOf(widgetTypesByFieldName)), loader::get);
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause());
+		}
+	}
+
+	public void clear()
+	{
+		cache.invalidateAll();
+	}
+
+	@Value
+	private static class Key
+	{
+		DocumentIdsSelection rowIds;
+		ImmutableMap<String, DocumentFieldWidgetType> widgetTypesByFieldName;
+	}
+}
@@ -0,0 +1,154 @@
+package de.metas.ui.web.view;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.json.JSONDate;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.util.NumberUtils;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Computes {@link ViewColumnAggregates} in a single pass over view rows.
+ */
+/* package */ final class ViewColumnAggregatesCalculator
+{
+	public static boolean isAggregatable(@NonNull final DocumentFieldWidgetType widgetType)
+	{
+		return widgetType.isNumeric() || widgetType.isDateOrTime();
+	}
+
+	public static ViewColumnAggregatesCalculator of(@NonNull final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName)
+	{
+		return new ViewColumnAggregatesCalculator(widgetTypesByFieldName);
+	}
+
+	private final ImmutableList<ColumnAccumulator> accumulators;
+	private long rowsCount = 0;
+
+	private ViewColumnAggregatesCalculator(final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName)
+	{
+		accumulators = widgetTypesByFieldName.entrySet()
+				.stream()
+				.filter(e -> isAggregatable(e.getValue()))
+				.map(e -> new ColumnAccumulator(e.getKey(), e.getValue()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	public void add(@NonNull final IViewRow row)
+	{
+		rowsCount++;
+
+		final Map<String, Object> jsonValues = row.getFieldNameAndJsonValues();
+		for (final ColumnAccumulator accumulator : accumulators)
+		{
+			accumulator.add(jsonValues.get(accumulator.fieldName));
+		}
+	}
+
+	public ViewColumnAggregates build()
+	{
+		return ViewColumnAggregates.of(
+				rowsCount,
+				accumulators.stream()
+						.map(ColumnAccumulator::build)
+						.collect(ImmutableList.toImmutableList()));
+	}
+
+	private static final class ColumnAccumulator
+	{
+		private final String fieldName;
+		private final DocumentFieldWidgetType widgetType;
+		private final boolean date;
+
+		private long count = 0;
+		private BigDecimal sum = null;
+		private Comparable<Object> min = null;
+		private Comparable<Object> max = null;
+
+		private ColumnAccumulator(final String fieldName, final DocumentFieldWidgetType widgetType)
+		{
+			this.fieldName = fieldName;
+			this.widgetType = widgetType;
+			this.date = widgetType.isDateOrTime();
+		}
+
+		@SuppressWarnings("unchecked")
+		public void add(final Object jsonValue)
+		{
+			if (JSONNullValue.toNullIfInstance(jsonValue) == null)
+			{
+				return;
+			}
+
+			final Comparable<?> value;
+			if (date)
+			{
+				final Date dateValue = JSONDate.fromJson(jsonValue.toString(), widgetType);
+				if (dateValue == null)
+				{
+					return;
+				}
+				value = dateValue;
+			}
+			else
+			{
+				final BigDecimal numberValue = NumberUtils.asBigDecimal(jsonValue, null);
+				if (numberValue == null)
+				{
+					return;
+				}
+				value = numberValue;
+				sum = sum != null ? sum.add(numberValue) : numberValue;
+			}
+
+			count++;
+			if (min == null || min.compareTo(value) > 0)
+			{
+				min = (Comparable<Object>)value;
+			}
+			if (max == null || max.compareTo(value) < 0)
+			{
+				max = (Comparable<Object>)value;
+			}
+		}
+
+		public ViewColumnAggregate build()
+		{
+			return ViewColumnAggregate.builder()
+					.fieldName(fieldName)
+					.widgetType(widgetType)
+					.count(count)
+					.sum(sum)
+					.min(min)
+					.max(max)
+					.build();
+		}
+	}
+}
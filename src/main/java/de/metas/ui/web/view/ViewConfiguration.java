@@ -45,19 +45,29 @@ public class ViewConfiguration implements InitializingBean
 	@Value("${metasfresh.view.clearViewSelectionsRateInSeconds:1800}")
 	private int clearViewSelectionsRateInSeconds;
 
+	@Value("${metasfresh.view.clearViewSelectionsChunkSize:" + SqlViewSelectionToDeleteHelper.DEFAULT_DeleteChunkSize + "}")
+	private int clearViewSelectionsChunkSize;
+
+	@Value("${metasfresh.view.clearViewSelectionsPauseBetweenChunksMillis:" + SqlViewSelectionToDeleteHelper.DEFAULT_PauseBetweenChunksMillis + "}")
+	private long clearViewSelectionsPauseBetweenChunksMillis;
+
 	@Override
 	public void afterPropertiesSet() throws Exception
 	{
 		if (clearViewSelectionsRateInSeconds > 0)
 		{
 			final ScheduledExecutorService scheduledExecutor = viewMaintenanceScheduledExecutorService();
-			scheduledExecutor.scheduleAtFixedRate(
-					SqlViewSelectionToDeleteHelper::deleteScheduledSelectionsNoFail, // command, don't fail because on failure the task won't be re-scheduled so it's game over
+			final int chunkSize = clearViewSelectionsChunkSize;
+			final long pauseBetweenChunksMillis = clearViewSelectionsPauseBetweenChunksMillis;
+
+			// NOTE: using fixed delay because a run might take a while, because of the pauses between chunks
+			scheduledExecutor.scheduleWithFixedDelay(
+					() -> SqlViewSelectionToDeleteHelper.deleteScheduledSelectionsNoFail(chunkSize, pauseBetweenChunksMillis), // command, don't fail because on failure the task won't be re-scheduled so it's game over
 					clearViewSelectionsRateInSeconds, // initialDelay
-					clearViewSelectionsRateInSeconds, // period
+					clearViewSelectionsRateInSeconds, // delay
 					TimeUnit.SECONDS // timeUnit
 			);
-			logger.info("Clearing view selections each {} seconds", clearViewSelectionsRateInSeconds);
+			logger.info("Clearing view selections each {} seconds, using chunkSize={}, pauseBetweenChunksMillis={}", clearViewSelectionsRateInSeconds, chunkSize, pauseBetweenChunksMillis);
 		}
 	}
 
@@ -0,0 +1,128 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * The set of table names a view depends on, i.e. for which it wants to be notified via {@link IView#notifyRecordsChanged(TableRecordReferenceSet)}.
+ *
+ * Use {@link #ANY} if the view does not know (or does not want to declare) its dependencies.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@EqualsAndHashCode
+@ToString
+public final class ViewDependentTableNames
+{
+	public static final ViewDependentTableNames ANY = new ViewDependentTableNames(true, ImmutableSet.of());
+	public static final ViewDependentTableNames NONE = new ViewDependentTableNames(false, ImmutableSet.of());
+
+	public static ViewDependentTableNames of(final String... tableNames)
+	{
+		return of(ImmutableSet.copyOf(tableNames));
+	}
+
+	public static ViewDependentTableNames of(@NonNull final Collection<String> tableNames)
+	{
+		if (tableNames.isEmpty())
+		{
+			return NONE;
+		}
+		return new ViewDependentTableNames(false, ImmutableSet.copyOf(tableNames));
+	}
+
+	private final boolean any;
+	private final ImmutableSet<String> tableNames;
+
+	private ViewDependentTableNames(final boolean any, @NonNull final ImmutableSet<String> tableNames)
+	{
+		this.any = any;
+		this.tableNames = tableNames;
+	}
+
+	public boolean isAny()
+	{
+		return any;
+	}
+
+	/** @return the table names; shall not be called if {@link #isAny()} */
+	public ImmutableSet<String> getTableNames()
+	{
+		if (any)
+		{
+			throw new IllegalStateException("Table names are not available for " + this);
+		}
+		return tableNames;
+	}
+
+	public boolean isMatchingAnyOf(@NonNull final Set<String> tableNamesToMatch)
+	{
+		if (any)
+		{
+			return true;
+		}
+
+		for (final String tableName : tableNamesToMatch)
+		{
+			if (tableNames.contains(tableName))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public ViewDependentTableNames union(@NonNull final ViewDependentTableNames other)
+	{
+		if (any || other.any)
+		{
+			return ANY;
+		}
+		else if (other.tableNames.isEmpty() || tableNames.containsAll(other.tableNames))
+		{
+			return this;
+		}
+		else if (tableNames.isEmpty())
+		{
+			return other;
+		}
+		else
+		{
+			return new ViewDependentTableNames(false, ImmutableSet.<String> builder()
+					.addAll(tableNames)
+					.addAll(other.tableNames)
+					.build());
+		}
+	}
+}
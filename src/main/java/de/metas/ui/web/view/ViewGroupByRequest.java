@@ -0,0 +1,59 @@
+package de.metas.ui.web.view;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Ad-hoc grouping of view rows: one group per distinct combination of {@link #getGroupByFieldNames()} values,
+ * each group having the rows count and the aggregates of {@link #getAggregatedWidgetTypesByFieldName()}.
+ */
+@Value
+@Builder
+public class ViewGroupByRequest
+{
+	@NonNull
+	@Singular
+	ImmutableList<String> groupByFieldNames;
+
+	/** fields to aggregate; the ones which are neither numeric nor date are skipped */
+	@NonNull
+	@Singular("aggregatedField")
+	ImmutableMap<String, DocumentFieldWidgetType> aggregatedWidgetTypesByFieldName;
+
+	/** rows to group; {@link DocumentIdsSelection#ALL} means all view rows */
+	@NonNull
+	@Builder.Default
+	DocumentIdsSelection rowIds = DocumentIdsSelection.ALL;
+
+	int firstRow;
+	int pageLength;
+}
@@ -0,0 +1,278 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Loads the neighbor pages of a view in background, so that when the user scrolls, the next page is already in memory.
+ *
+ * The prefetching is done on a bounded, shared executor. If the executor is busy, prefetching is skipped.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public final class ViewPagesPrefetcher
+{
+	static ViewPagesPrefetcher newInstanceOrNull(@NonNull final ViewPagesPrefetchMode mode)
+	{
+		return mode != ViewPagesPrefetchMode.NONE ? new ViewPagesPrefetcher(mode) : null;
+	}
+
+	private static final Logger logger = LogManager.getLogger(ViewPagesPrefetcher.class);
+
+	private static final ThreadPoolExecutor executor = createExecutor();
+
+	/** How long an interactive request waits for an already running prefetch before loading the page by itself */
+	private static final long PREFETCH_WAIT_TIMEOUT_MILLIS = 200;
+
+	private static final AtomicLong countScheduled = new AtomicLong();
+	private static final AtomicLong countRejected = new AtomicLong();
+	private static final AtomicLong countHits = new AtomicLong();
+	private static final AtomicLong countWasted = new AtomicLong();
+
+	private final ViewPagesPrefetchMode mode;
+	private final Map<PageKey, Future<List<IViewRow>>> prefetchedPages = new ConcurrentHashMap<>();
+
+	private ViewPagesPrefetcher(@NonNull final ViewPagesPrefetchMode mode)
+	{
+		this.mode = mode;
+	}
+
+	private static ThreadPoolExecutor createExecutor()
+	{
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				2, // corePoolSize
+				2, // maximumPoolSize
+				60, TimeUnit.SECONDS, // keepAliveTime
+				new ArrayBlockingQueue<>(20), // workQueue
+				CustomizableThreadFactory.builder()
+						.setDaemon(true)
+						.setThreadNamePrefix("webui-views-prefetch")
+						.build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public static Map<String, Object> getStats()
+	{
+		return ImmutableMap.<String, Object> builder()
+				.put("scheduled", countScheduled.get())
+				.put("rejected", countRejected.get())
+				.put("hits", countHits.get())
+				.put("wasted", countWasted.get())
+				.put("activeThreads", executor.getActiveCount())
+				.put("queueSize", executor.getQueue().size())
+				.build();
+	}
+
+	/**
+	 * @return the prefetched page or null if the page was not prefetched or the prefetching failed
+	 */
+	@Nullable
+	public List<IViewRow> getPrefetchedPageOrNull(final ViewRowIdsOrderedSelection orderedSelection, final int firstRow, final int pageLength)
+	{
+		final Future<List<IViewRow>> future = prefetchedPages.remove(PageKey.of(orderedSelection, firstRow, pageLength));
+		if (future == null)
+		{
+			return null;
+		}
+
+		// If the prefetching was not started yet, don't let the interactive request wait behind the other queued prefetches
+		if (!future.isDone() && future instanceof Runnable && executor.remove((Runnable)future))
+		{
+			future.cancel(false);
+			countWasted.incrementAndGet();
+			return null;
+		}
+
+		try
+		{
+			final List<IViewRow> rows = future.get(PREFETCH_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			countHits.incrementAndGet();
+			return rows;
+		}
+		catch (final TimeoutException ex)
+		{
+			future.cancel(true);
+			countWasted.incrementAndGet();
+			logger.debug("Prefetching page took too long. Loading it directly");
+			return null;
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (final ExecutionException | CancellationException ex)
+		{
+			logger.debug("Prefetching page failed or was cancelled. Ignored", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Schedules loading the neighbor pages of given page.
+	 */
+	public void prefetchNeighborPages(
+			final ViewRowIdsOrderedSelection orderedSelection,
+			final int firstRow,
+			final int pageLength,
+			@NonNull final PageLoader pageLoader)
+	{
+		if (pageLength <= 0)
+		{
+			return;
+		}
+
+		final ImmutableList.Builder<PageKey> pagesToPrefetch = ImmutableList.builder();
+		final int nextFirstRow = firstRow + pageLength;
+		if (nextFirstRow < orderedSelection.getSize())
+		{
+			pagesToPrefetch.add(PageKey.of(orderedSelection, nextFirstRow, pageLength));
+		}
+		if (mode == ViewPagesPrefetchMode.NEXT_AND_PREVIOUS && firstRow > 0)
+		{
+			final int previousFirstRow = Math.max(firstRow - pageLength, 0);
+			pagesToPrefetch.add(PageKey.of(orderedSelection, previousFirstRow, firstRow - previousFirstRow));
+		}
+		final ImmutableList<PageKey> pageKeys = pagesToPrefetch.build();
+
+		// Pages which are not neighbors of current page are no longer useful
+		cancelAllExcept(pageKeys);
+
+		for (final PageKey pageKey : pageKeys)
+		{
+			prefetchPage(orderedSelection, pageKey, pageLoader);
+		}
+	}
+
+	private void prefetchPage(
+			final ViewRowIdsOrderedSelection orderedSelection,
+			final PageKey pageKey,
+			final PageLoader pageLoader)
+	{
+		if (prefetchedPages.containsKey(pageKey))
+		{
+			return;
+		}
+
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		try
+		{
+			final Future<List<IViewRow>> future = executor.submit(() -> {
+				try (final IAutoCloseable c = Env.switchContext(ctx))
+				{
+					return pageLoader.loadPage(orderedSelection, pageKey.getFirstRow(), pageKey.getPageLength());
+				}
+			});
+
+			if (prefetchedPages.putIfAbsent(pageKey, future) != null)
+			{
+				future.cancel(true);
+			}
+			else
+			{
+				countScheduled.incrementAndGet();
+			}
+		}
+		catch (final RejectedExecutionException ex)
+		{
+			countRejected.incrementAndGet();
+			logger.trace("Prefetching page skipped because the executor is busy: {}", pageKey);
+		}
+	}
+
+	/**
+	 * Cancels and forgets all prefetched pages.
+	 */
+	public void cancelAll()
+	{
+		cancelAllExcept(ImmutableList.of());
+	}
+
+	private void cancelAllExcept(final List<PageKey> pageKeysToKeep)
+	{
+		for (final PageKey pageKey : ImmutableList.copyOf(prefetchedPages.keySet()))
+		{
+			if (pageKeysToKeep.contains(pageKey))
+			{
+				continue;
+			}
+
+			final Future<List<IViewRow>> future = prefetchedPages.remove(pageKey);
+			if (future != null)
+			{
+				future.cancel(true);
+				countWasted.incrementAndGet();
+			}
+		}
+	}
+
+	@FunctionalInterface
+	public static interface PageLoader
+	{
+		List<IViewRow> loadPage(ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength);
+	}
+
+	@Value(staticConstructor = "of")
+	private static final class PageKey
+	{
+		private final String selectionId;
+		private final ImmutableList<DocumentQueryOrderBy> orderBys;
+		private final int firstRow;
+		private final int pageLength;
+
+		public static PageKey of(final ViewRowIdsOrderedSelection orderedSelection, final int firstRow, final int pageLength)
+		{
+			return of(orderedSelection.getSelectionId(), orderedSelection.getOrderBys(), firstRow, pageLength);
+		}
+	}
+}
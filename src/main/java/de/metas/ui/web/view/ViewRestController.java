@@ -3,9 +3,14 @@ package de.metas.ui.web.view;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.adempiere.exceptions.AdempiereException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.InputStreamResource;
@@ -34,21 +39,28 @@ import de.metas.ui.web.process.WebuiPreconditionsContext;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONDocumentActionsList;
 import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.view.ViewStreamingExporter.ExportFormat;
 import de.metas.ui.web.view.descriptor.ViewLayout;
 import de.metas.ui.web.view.json.JSONCreateViewRequest;
 import de.metas.ui.web.view.json.JSONFilterViewRequest;
+import de.metas.ui.web.view.json.JSONViewColumnAggregates;
 import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.view.json.JSONViewGroupByRequest;
 import de.metas.ui.web.view.json.JSONViewLayout;
 import de.metas.ui.web.view.json.JSONViewProfilesList;
 import de.metas.ui.web.view.json.JSONViewResult;
 import de.metas.ui.web.view.json.JSONViewRow;
+import de.metas.ui.web.view.json.JSONViewRowsGroupsPage;
 import de.metas.ui.web.window.controller.WindowRestController;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.datatypes.json.JSONZoomInto;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import de.metas.util.Check;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiParam;
 import lombok.Builder;
@@ -402,6 +414,88 @@ public class ViewRestController
 		return windowRestController.getDocumentFieldZoomInto(windowIdStr, rowId, fieldName);
 	}
 
+	/**
+	 * Computes SUM/MIN/MAX/COUNT for the numeric and date columns of the view, over all rows or over the given rows.
+	 */
+	@GetMapping("/{viewId}/aggregates")
+	public JSONViewColumnAggregates getColumnAggregates(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("viewId") final String viewIdStr,
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs; if not set, all rows are aggregated") final String selectedIdsListStr)
+	{
+		userSession.assertLoggedIn();
+
+		final ViewId viewId = ViewId.ofViewIdString(viewIdStr, WindowId.fromJson(windowIdStr));
+		final IView view = viewsRepo.getView(viewId);
+
+		final DocumentIdsSelection rowIds = Check.isEmpty(selectedIdsListStr, true)
+				? DocumentIdsSelection.ALL
+				: DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr);
+
+		final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName = getLayoutWidgetTypesByFieldName(viewId);
+		final ViewColumnAggregates aggregates = view.getColumnAggregates(rowIds, widgetTypesByFieldName);
+		return JSONViewColumnAggregates.of(aggregates);
+	}
+
+	/**
+	 * Groups the view rows by given fields and returns one page of groups, each having the rows count and the aggregates of the requested fields.
+	 */
+	@PostMapping("/{viewId}/groupBy")
+	public JSONViewRowsGroupsPage groupBy(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("viewId") final String viewIdStr,
+			@RequestBody final JSONViewGroupByRequest jsonRequest)
+	{
+		userSession.assertLoggedIn();
+
+		if (jsonRequest.getGroupByFieldNames().isEmpty())
+		{
+			throw new AdempiereException("No group by fields were specified");
+		}
+
+		final ViewId viewId = ViewId.ofViewIdString(viewIdStr, WindowId.fromJson(windowIdStr));
+		final IView view = viewsRepo.getView(viewId);
+
+		final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName = getLayoutWidgetTypesByFieldName(viewId);
+		final Map<String, DocumentFieldWidgetType> aggregatedWidgetTypesByFieldName;
+		if (jsonRequest.getAggregatedFieldNames().isEmpty())
+		{
+			aggregatedWidgetTypesByFieldName = widgetTypesByFieldName;
+		}
+		else
+		{
+			aggregatedWidgetTypesByFieldName = new LinkedHashMap<>();
+			jsonRequest.getAggregatedFieldNames()
+					.stream()
+					.filter(widgetTypesByFieldName::containsKey)
+					.forEach(fieldName -> aggregatedWidgetTypesByFieldName.put(fieldName, widgetTypesByFieldName.get(fieldName)));
+		}
+
+		final DocumentIdsSelection rowIds = jsonRequest.getSelectedIds().isEmpty()
+				? DocumentIdsSelection.ALL
+				: DocumentIdsSelection.ofStringSet(jsonRequest.getSelectedIds());
+
+		final ViewRowsGroupsPage page = view.getGroupedRows(ViewGroupByRequest.builder()
+				.groupByFieldNames(jsonRequest.getGroupByFieldNames())
+				.aggregatedWidgetTypesByFieldName(aggregatedWidgetTypesByFieldName)
+				.rowIds(rowIds)
+				.firstRow(jsonRequest.getFirstRow())
+				.pageLength(jsonRequest.getPageLength())
+				.build());
+		return JSONViewRowsGroupsPage.of(page);
+	}
+
+	private Map<String, DocumentFieldWidgetType> getLayoutWidgetTypesByFieldName(final ViewId viewId)
+	{
+		final ViewLayout layout = viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL);
+		final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName = new LinkedHashMap<>();
+		for (final DocumentLayoutElementDescriptor element : layout.getElements())
+		{
+			element.getFields().forEach(field -> widgetTypesByFieldName.putIfAbsent(field.getField(), element.getWidgetType()));
+		}
+		return widgetTypesByFieldName;
+	}
+
 	@GetMapping("/{viewId}/export/excel")
 	public ResponseEntity<Resource> exportToExcel(
 			@PathVariable("windowId") final String windowIdStr,
@@ -435,4 +529,60 @@ public class ViewRestController
 		final ResponseEntity<Resource> response = new ResponseEntity<>(new InputStreamResource(new FileInputStream(tmpFile)), headers, HttpStatus.OK);
 		return response;
 	}
+
+	/**
+	 * Streams the view rows as XLSX directly to the response. Unlike {@link #exportToExcel(String, String, String)}, there is no rows count limit.
+	 */
+	@GetMapping("/{viewId}/export/xlsx")
+	public void exportToXLSX(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("viewId") final String viewIdStr,
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr,
+			final HttpServletResponse response)
+			throws IOException
+	{
+		exportStreaming(windowIdStr, viewIdStr, selectedIdsListStr, ExportFormat.XLSX, response);
+	}
+
+	/**
+	 * Streams the view rows as CSV directly to the response. Unlike {@link #exportToExcel(String, String, String)}, there is no rows count limit.
+	 */
+	@GetMapping("/{viewId}/export/csv")
+	public void exportToCSV(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("viewId") final String viewIdStr,
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr,
+			final HttpServletResponse response)
+			throws IOException
+	{
+		exportStreaming(windowIdStr, viewIdStr, selectedIdsListStr, ExportFormat.CSV, response);
+	}
+
+	private void exportStreaming(
+			final String windowIdStr,
+			final String viewIdStr,
+			final String selectedIdsListStr,
+			final ExportFormat format,
+			final HttpServletResponse response) throws IOException
+	{
+		userSession.assertLoggedIn();
+
+		final ViewId viewId = ViewId.ofViewIdString(viewIdStr, WindowId.fromJson(windowIdStr));
+
+		final ViewStreamingExporter exporter = ViewStreamingExporter.builder()
+				.view(viewsRepo.getView(viewId))
+				.rowIds(DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr))
+				.layout(viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL))
+				.adLanguage(userSession.getAD_Language())
+				.format(format)
+				.build();
+
+		final String filename = exporter.getFilename();
+		response.setContentType(format.getContentType());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate, post-check=0, pre-check=0");
+
+		exporter.export(response.getOutputStream());
+		response.flushBuffer();
+	}
 }
@@ -0,0 +1,58 @@
+package de.metas.ui.web.view;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Helper used to estimate the heap size retained by an {@link IView} (see {@link IView#getApproximateRetainedSizeInBytes()}).
+ *
+ * The numbers are rough averages, they are only meant to let the views storage compare views between them.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public final class ViewRetainedSizes
+{
+	/** Approximate size of a view without any rows */
+	public static final long VIEW_BASE_SIZE_BYTES = 4 * 1024;
+
+	/** Approximate size of a view row (including its field values) */
+	public static final long AVERAGE_ROW_SIZE_BYTES = 2 * 1024;
+
+	/** Approximate size of a row ID kept in an <code>int[]</code> */
+	public static final long ROW_ID_SIZE_BYTES = 4;
+
+	public static long estimateForRowsCount(final long rowsCount)
+	{
+		return VIEW_BASE_SIZE_BYTES + Math.max(rowsCount, 0) * AVERAGE_ROW_SIZE_BYTES;
+	}
+
+	/** @return approximate size of the given number of row IDs kept in memory (e.g. in an in-memory ordered selection), excluding the view's base size */
+	public static long estimateForRowIdsCount(final long rowIdsCount)
+	{
+		return Math.max(rowIdsCount, 0) * ROW_ID_SIZE_BYTES;
+	}
+
+	private ViewRetainedSizes()
+	{
+	}
+}
@@ -1,5 +1,9 @@
 package de.metas.ui.web.view;
 
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 /*
  * #%L
  * metasfresh-webui-api
@@ -26,4 +30,14 @@ package de.metas.ui.web.view;
 public interface ViewRowCustomizer
 {
 	void customizeViewRow(ViewRow.Builder rowBuilder);
+
+	/**
+	 * @return the field names this customizer reads from the row builder, which therefore have to be loaded even if they are not displayed;
+	 *         <code>null</code> means unknown, in which case all fields will be loaded
+	 */
+	@Nullable
+	default Set<String> getRequiredFieldNames()
+	{
+		return null;
+	}
 }
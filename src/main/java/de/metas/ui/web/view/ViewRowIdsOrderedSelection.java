@@ -1,12 +1,15 @@
 package de.metas.ui.web.view;
 
+import java.util.Arrays;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 
+import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.util.Check;
@@ -50,11 +53,19 @@ public final class ViewRowIdsOrderedSelection
 	private final int queryLimit;
 	private final boolean queryLimitHit;
 
+	/**
+	 * Ordered row IDs, in case this selection is kept in memory instead of being stored in database.
+	 * In that case, {@link #getViewId()} is pointing to the database selection which contains the same rows.
+	 */
+	@Nullable
+	private final int[] inMemoryRowIds;
+
 	private ViewRowIdsOrderedSelection(final Builder builder)
 	{
 		super();
 		viewId = builder.getViewId();
-		size = builder.getSize();
+		inMemoryRowIds = builder.getInMemoryRowIds();
+		size = inMemoryRowIds != null ? inMemoryRowIds.length : builder.getSize();
 		orderBys = builder.getOrderBys();
 
 		queryLimit = builder.getQueryLimit();
@@ -69,6 +80,7 @@ public final class ViewRowIdsOrderedSelection
 				.add("viewId", viewId)
 				.add("size", size)
 				.add("orderBys", orderBys.isEmpty() ? null : orderBys)
+				.add("inMemory", inMemoryRowIds != null ? Boolean.TRUE : null)
 				.toString();
 	}
 	
@@ -78,7 +90,8 @@ public final class ViewRowIdsOrderedSelection
 				.setViewId(viewId)
 				.setSize(size)
 				.setOrderBys(orderBys)
-				.setQueryLimit(queryLimit);
+				.setQueryLimit(queryLimit)
+				.setInMemoryRowIds(inMemoryRowIds);
 	}
 
 	public ViewId getViewId()
@@ -116,6 +129,34 @@ public final class ViewRowIdsOrderedSelection
 		return queryLimitHit;
 	}
 
+	/**
+	 * @return true if the ordered row IDs are kept in memory, so paging does not need to query the database selection
+	 */
+	public boolean isInMemory()
+	{
+		return inMemoryRowIds != null;
+	}
+
+	/**
+	 * @return row IDs of given page, in selection's order
+	 */
+	public ImmutableList<DocumentId> getInMemoryRowIdsPage(final int firstRow, final int pageLength)
+	{
+		Check.assumeNotNull(inMemoryRowIds, "selection is in memory: {}", this);
+		Check.assume(firstRow >= 0, "firstRow >= 0 but it was {}", firstRow);
+		Check.assume(pageLength > 0, "pageLength > 0 but it was {}", pageLength);
+
+		final int fromIndex = Math.min(firstRow, inMemoryRowIds.length);
+		final int toIndex = (int)Math.min((long)firstRow + pageLength, inMemoryRowIds.length);
+
+		final ImmutableList.Builder<DocumentId> rowIds = ImmutableList.builder();
+		for (int i = fromIndex; i < toIndex; i++)
+		{
+			rowIds.add(DocumentId.of(inMemoryRowIds[i]));
+		}
+		return rowIds.build();
+	}
+
 	public static final class Builder
 	{
 		private ViewId viewId;
@@ -124,6 +165,8 @@ public final class ViewRowIdsOrderedSelection
 
 		private int queryLimit;
 
+		private int[] inMemoryRowIds;
+
 		private Builder()
 		{
 		}
@@ -178,6 +221,20 @@ public final class ViewRowIdsOrderedSelection
 			return queryLimit;
 		}
 
+		/**
+		 * @param inMemoryRowIds ordered row IDs; if set, the selection size will be the array's length
+		 */
+		public Builder setInMemoryRowIds(@Nullable final int[] inMemoryRowIds)
+		{
+			this.inMemoryRowIds = inMemoryRowIds != null ? Arrays.copyOf(inMemoryRowIds, inMemoryRowIds.length) : null;
+			return this;
+		}
+
+		private int[] getInMemoryRowIds()
+		{
+			return inMemoryRowIds;
+		}
+
 		private boolean isQueryLimitHit()
 		{
 			return queryLimit > 0
@@ -0,0 +1,48 @@
+package de.metas.ui.web.view;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * A group of view rows, as computed by {@link IView#getGroupedRows(ViewGroupByRequest)}.
+ */
+@Value
+public class ViewRowsGroup
+{
+	public static ViewRowsGroup of(@NonNull final Map<String, Object> groupValues, @NonNull final ViewColumnAggregates aggregates)
+	{
+		return new ViewRowsGroup(ImmutableMap.copyOf(groupValues), aggregates);
+	}
+
+	/** JSON values of the group by fields; <code>null</code> values are represented as {@link de.metas.ui.web.window.datatypes.json.JSONNullValue} */
+	ImmutableMap<String, Object> groupValues;
+
+	/** group's rows count and aggregates */
+	ViewColumnAggregates aggregates;
+}
@@ -0,0 +1,97 @@
+package de.metas.ui.web.view;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Groups view rows by hashing their group by values, computing the {@link ViewColumnAggregates} of each group in a single pass.
+ *
+ * The groups are returned in the order in which they were first encountered.
+ */
+/* package */ final class ViewRowsGroupsCalculator
+{
+	public static ViewRowsGroupsCalculator of(@NonNull final ViewGroupByRequest request)
+	{
+		return new ViewRowsGroupsCalculator(request.getGroupByFieldNames(), request.getAggregatedWidgetTypesByFieldName());
+	}
+
+	private final ImmutableList<String> groupByFieldNames;
+	private final ImmutableMap<String, DocumentFieldWidgetType> aggregatedWidgetTypesByFieldName;
+	private final LinkedHashMap<List<Object>, ViewColumnAggregatesCalculator> calculatorsByGroupKey = new LinkedHashMap<>();
+
+	private ViewRowsGroupsCalculator(
+			@NonNull final ImmutableList<String> groupByFieldNames,
+			@NonNull final ImmutableMap<String, DocumentFieldWidgetType> aggregatedWidgetTypesByFieldName)
+	{
+		this.groupByFieldNames = groupByFieldNames;
+		this.aggregatedWidgetTypesByFieldName = aggregatedWidgetTypesByFieldName;
+	}
+
+	public void add(@NonNull final IViewRow row)
+	{
+		final Map<String, Object> jsonValues = row.getFieldNameAndJsonValues();
+		final ImmutableList<Object> groupKey = groupByFieldNames.stream()
+				.map(fieldName -> JSONNullValue.wrapIfNull(jsonValues.get(fieldName)))
+				.collect(ImmutableList.toImmutableList());
+
+		calculatorsByGroupKey
+				.computeIfAbsent(groupKey, k -> ViewColumnAggregatesCalculator.of(aggregatedWidgetTypesByFieldName))
+				.add(row);
+	}
+
+	public ViewRowsGroupsPage buildPage(final int firstRow, final int pageLength)
+	{
+		final int groupsCount = calculatorsByGroupKey.size();
+		final int fromIndex = Math.min(firstRow >= 0 ? firstRow : 0, groupsCount);
+		final int toIndex = (int)Math.min((long)fromIndex + (pageLength > 0 ? pageLength : 30), groupsCount);
+
+		final ImmutableList<ViewRowsGroup> groups = calculatorsByGroupKey.entrySet()
+				.stream()
+				.skip(fromIndex)
+				.limit(toIndex - fromIndex)
+				.map(e -> ViewRowsGroup.of(toGroupValues(e.getKey()), e.getValue().build()))
+				.collect(ImmutableList.toImmutableList());
+
+		return ViewRowsGroupsPage.of(firstRow, groupsCount, groups);
+	}
+
+	private ImmutableMap<String, Object> toGroupValues(final List<Object> groupKey)
+	{
+		final ImmutableMap.Builder<String, Object> groupValues = ImmutableMap.builder();
+		for (int i = 0; i < groupByFieldNames.size(); i++)
+		{
+			groupValues.put(groupByFieldNames.get(i), groupKey.get(i));
+		}
+		return groupValues.build();
+	}
+}
@@ -0,0 +1,52 @@
+package de.metas.ui.web.view;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * One page of {@link ViewRowsGroup}s.
+ */
+@Value
+public class ViewRowsGroupsPage
+{
+	public static ViewRowsGroupsPage of(final int firstRow, final long groupsCount, @NonNull final List<ViewRowsGroup> groups)
+	{
+		return new ViewRowsGroupsPage(firstRow, groupsCount, ImmutableList.copyOf(groups));
+	}
+
+	public static ViewRowsGroupsPage empty(final int firstRow)
+	{
+		return new ViewRowsGroupsPage(firstRow, 0, ImmutableList.of());
+	}
+
+	int firstRow;
+	/** total number of groups, not only the ones from this page */
+	long groupsCount;
+	ImmutableList<ViewRowsGroup> groups;
+}
@@ -0,0 +1,401 @@
+package de.metas.ui.web.view;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.json.JSONDate;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import de.metas.util.NumberUtils;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports view rows directly to an output stream (e.g. the HTTP response), without keeping all rows or the whole document in memory.
+ * Compared to {@link ViewExcelExporter}, this one has no rows count limit and the memory consumption does not depend on the number of exported rows.
+ */
+/* package */ final class ViewStreamingExporter
+{
+	public enum ExportFormat
+	{
+		/** Office Open XML workbook, written using a sliding window of rows */
+		XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+		/** Comma separated values, UTF-8 encoded */
+		CSV("csv", "text/csv; charset=UTF-8");
+
+		@Getter
+		private final String fileExtension;
+		@Getter
+		private final String contentType;
+
+		ExportFormat(final String fileExtension, final String contentType)
+		{
+			this.fileExtension = fileExtension;
+			this.contentType = contentType;
+		}
+	}
+
+	/** Number of rows which are kept in memory by the XLSX writer; the older ones are flushed to disk */
+	private static final int XLSX_ROW_ACCESS_WINDOW_SIZE = 100;
+	/** Max rows per sheet (including the header row), see Excel specifications */
+	private static final int XLSX_MAX_ROWS_PER_SHEET = 1048576;
+	/** File name used when the view has no description */
+	private static final String DEFAULT_FILENAME = "report";
+
+	private final IView view;
+	private final DocumentIdsSelection rowIds;
+	private final String adLanguage;
+	private final ImmutableList<ExportColumn> columns;
+	private final ExportFormat format;
+
+	@Builder
+	private ViewStreamingExporter(
+			@NonNull final IView view,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final ViewLayout layout,
+			@NonNull final String adLanguage,
+			@NonNull final ExportFormat format)
+	{
+		if (rowIds.isEmpty())
+		{
+			throw new AdempiereException("@NoSelection@");
+		}
+
+		this.view = view;
+		this.rowIds = rowIds;
+		this.adLanguage = adLanguage;
+		this.columns = layout.getElements()
+				.stream()
+				.map(element -> ExportColumn.of(element, adLanguage))
+				.collect(ImmutableList.toImmutableList());
+		this.format = format;
+	}
+
+	/**
+	 * @return file name of the exported file, built from the view's description (e.g. "Sales Orders.xlsx")
+	 */
+	public String getFilename()
+	{
+		return buildFilename(view.getDescription().translate(adLanguage), format);
+	}
+
+	/**
+	 * @return given view description, stripped of the characters which are not safe in file names or in the Content-Disposition header, plus the format's file extension
+	 */
+	/* package */ static String buildFilename(@Nullable final String viewDescription, @NonNull final ExportFormat format)
+	{
+		final String name = viewDescription != null
+				? viewDescription.replaceAll("[^A-Za-z0-9 ._-]+", "_").trim()
+				: "";
+
+		return (name.isEmpty() ? DEFAULT_FILENAME : name) + "." + format.getFileExtension();
+	}
+
+	public void export(@NonNull final OutputStream out) throws IOException
+	{
+		try
+		{
+			if (format == ExportFormat.CSV)
+			{
+				exportToCSV(out);
+			}
+			else if (format == ExportFormat.XLSX)
+			{
+				exportToXLSX(out);
+			}
+			else
+			{
+				throw new AdempiereException("Export format not supported: " + format);
+			}
+		}
+		catch (final UncheckedIOException ex)
+		{
+			throw ex.getCause();
+		}
+	}
+
+	private void forEachRow(final Consumer<IViewRow> consumer)
+	{
+		if (rowIds.isAll())
+		{
+			view.forEachRow(consumer);
+		}
+		else
+		{
+			view.streamByIds(rowIds).forEach(consumer);
+		}
+	}
+
+	private void exportToCSV(final OutputStream out) throws IOException
+	{
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write('\uFEFF'); // BOM, so that Excel will properly detect the encoding
+
+		writeCSVLine(writer, columns.stream().map(ExportColumn::getCaption).collect(ImmutableList.toImmutableList()));
+
+		forEachRow(row -> {
+			final ImmutableList<String> values = columns.stream()
+					.map(column -> toCSVValue(column.getValue(row)))
+					.collect(ImmutableList.toImmutableList());
+			try
+			{
+				writeCSVLine(writer, values);
+			}
+			catch (final IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		});
+
+		writer.flush();
+	}
+
+	private static void writeCSVLine(final Writer writer, final List<String> values) throws IOException
+	{
+		boolean first = true;
+		for (final String value : values)
+		{
+			if (!first)
+			{
+				writer.write(',');
+			}
+			first = false;
+
+			writer.write(quoteCSVValue(value));
+		}
+		writer.write("\r\n");
+	}
+
+	private static String toCSVValue(final Object value)
+	{
+		if (value == null)
+		{
+			return "";
+		}
+		else if (value instanceof Date)
+		{
+			return JSONDate.toJson((Date)value);
+		}
+		else if (value instanceof BigDecimal)
+		{
+			return ((BigDecimal)value).toPlainString();
+		}
+		else
+		{
+			return value.toString();
+		}
+	}
+
+	/* package */ static String quoteCSVValue(final String value)
+	{
+		if (value == null || value.isEmpty())
+		{
+			return "";
+		}
+
+		final boolean needsQuoting = value.indexOf(',') >= 0
+				|| value.indexOf('"') >= 0
+				|| value.indexOf('\n') >= 0
+				|| value.indexOf('\r') >= 0;
+		if (!needsQuoting)
+		{
+			return value;
+		}
+
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private void exportToXLSX(final OutputStream out) throws IOException
+	{
+		final SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_ACCESS_WINDOW_SIZE);
+		try
+		{
+			workbook.setCompressTempFiles(true);
+			final XLSXSheetWriter sheetWriter = new XLSXSheetWriter(workbook);
+			forEachRow(sheetWriter::writeRow);
+
+			workbook.write(out);
+		}
+		finally
+		{
+			workbook.dispose(); // delete the temporary files
+		}
+	}
+
+	private final class XLSXSheetWriter
+	{
+		private final SXSSFWorkbook workbook;
+		private final CellStyle headerStyle;
+		private final CellStyle dateStyle;
+		private final CellStyle dateTimeStyle;
+
+		private Sheet sheet;
+		private int nextRowIndex;
+
+		private XLSXSheetWriter(final SXSSFWorkbook workbook)
+		{
+			this.workbook = workbook;
+
+			headerStyle = workbook.createCellStyle();
+			final Font headerFont = workbook.createFont();
+			headerFont.setBold(true);
+			headerStyle.setFont(headerFont);
+
+			dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+			dateTimeStyle = workbook.createCellStyle();
+			dateTimeStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+			newSheet();
+		}
+
+		private void newSheet()
+		{
+			sheet = workbook.createSheet();
+			sheet.createFreezePane(0, 1);
+			nextRowIndex = 0;
+
+			final Row headerRow = sheet.createRow(nextRowIndex++);
+			for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++)
+			{
+				final Cell cell = headerRow.createCell(columnIndex);
+				cell.setCellValue(columns.get(columnIndex).getCaption());
+				cell.setCellStyle(headerStyle);
+			}
+		}
+
+		public void writeRow(final IViewRow viewRow)
+		{
+			if (nextRowIndex >= XLSX_MAX_ROWS_PER_SHEET)
+			{
+				newSheet();
+			}
+
+			final Row row = sheet.createRow(nextRowIndex++);
+			for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++)
+			{
+				final ExportColumn column = columns.get(columnIndex);
+				final Object value = column.getValue(viewRow);
+				if (value == null)
+				{
+					continue;
+				}
+
+				final Cell cell = row.createCell(columnIndex);
+				if (value instanceof Date)
+				{
+					cell.setCellValue((Date)value);
+					cell.setCellStyle(column.getWidgetType() == DocumentFieldWidgetType.Date ? dateStyle : dateTimeStyle);
+				}
+				else if (value instanceof BigDecimal)
+				{
+					cell.setCellValue(((BigDecimal)value).doubleValue());
+				}
+				else if (value instanceof Boolean)
+				{
+					cell.setCellValue((Boolean)value);
+				}
+				else
+				{
+					cell.setCellValue(value.toString());
+				}
+			}
+		}
+	}
+
+	@Value
+	private static class ExportColumn
+	{
+		public static ExportColumn of(final DocumentLayoutElementDescriptor element, final String adLanguage)
+		{
+			return new ExportColumn(
+					element.getFields().iterator().next().getField(),
+					element.getCaption(adLanguage),
+					element.getWidgetType());
+		}
+
+		String fieldName;
+		String caption;
+		DocumentFieldWidgetType widgetType;
+
+		/** @return the value to be exported, i.e. {@link Date}, {@link BigDecimal}, {@link Boolean}, {@link String} or {@code null} */
+		public Object getValue(final IViewRow row)
+		{
+			final Object jsonValue = JSONNullValue.toNullIfInstance(row.getFieldNameAndJsonValues().get(fieldName));
+			if (jsonValue == null)
+			{
+				return null;
+			}
+			else if (widgetType.isDateOrTime())
+			{
+				return JSONDate.fromJson(jsonValue.toString(), widgetType);
+			}
+			else if (jsonValue instanceof JSONLookupValue)
+			{
+				return ((JSONLookupValue)jsonValue).getCaption();
+			}
+			else if (widgetType.isNumeric())
+			{
+				return NumberUtils.asBigDecimal(jsonValue, null);
+			}
+			else if (widgetType.isBoolean() && jsonValue instanceof Boolean)
+			{
+				return jsonValue;
+			}
+			else
+			{
+				return jsonValue.toString();
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package de.metas.ui.web.view;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Secondary index of {@link IView}s by the table names they depend on (see {@link IView#getDependentTableNames()}).
+ *
+ * Used by {@link IViewsIndexStorage} implementations to find out which views needs to be notified when some records were changed,
+ * without iterating all views.
+ *
+ * NOTE: the view's dependent table names are expected not to change during view's lifetime.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+final class ViewsByTableNameIndex
+{
+	private final ConcurrentHashMap<String, ConcurrentHashMap<ViewId, IView>> viewsByTableName = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<ViewId, IView> viewsDependingOnAnyTable = new ConcurrentHashMap<>();
+
+	public void add(@NonNull final IView view)
+	{
+		final ViewId viewId = view.getViewId();
+		final ViewDependentTableNames dependentTableNames = view.getDependentTableNames();
+		if (dependentTableNames.isAny())
+		{
+			viewsDependingOnAnyTable.put(viewId, view);
+		}
+		else
+		{
+			for (final String tableName : dependentTableNames.getTableNames())
+			{
+				viewsByTableName.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>())
+						.put(viewId, view);
+			}
+		}
+	}
+
+	/** Removes given view instance. If the index contains another view instance with the same viewId, that one will be preserved. */
+	public void remove(@NonNull final IView view)
+	{
+		final ViewId viewId = view.getViewId();
+		final ViewDependentTableNames dependentTableNames = view.getDependentTableNames();
+		if (dependentTableNames.isAny())
+		{
+			viewsDependingOnAnyTable.remove(viewId, view);
+		}
+		else
+		{
+			for (final String tableName : dependentTableNames.getTableNames())
+			{
+				final ConcurrentHashMap<ViewId, IView> views = viewsByTableName.get(tableName);
+				if (views != null)
+				{
+					views.remove(viewId, view);
+				}
+			}
+		}
+	}
+
+	/** @return views which depend on any of given table names, including the views which depend on any table */
+	public Stream<IView> streamByTableNames(@NonNull final Set<String> tableNames)
+	{
+		final Map<IView, Boolean> result = new IdentityHashMap<>();
+		viewsDependingOnAnyTable.values().forEach(view -> result.put(view, Boolean.TRUE));
+
+		for (final String tableName : tableNames)
+		{
+			final Map<ViewId, IView> views = viewsByTableName.get(tableName);
+			if (views != null)
+			{
+				views.values().forEach(view -> result.put(view, Boolean.TRUE));
+			}
+		}
+
+		return result.keySet().stream();
+	}
+}
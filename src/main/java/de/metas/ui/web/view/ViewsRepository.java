@@ -5,6 +5,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
@@ -13,6 +15,7 @@ import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.MutableInt;
+import org.adempiere.util.lang.impl.TableRecordReference;
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 import org.compiere.Adempiere;
 import org.compiere.util.DB;
@@ -26,6 +29,7 @@ import org.springframework.stereotype.Repository;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 
 import de.metas.logging.LogManager;
@@ -82,18 +86,31 @@ public class ViewsRepository implements IViewsRepository
 	private boolean truncateSelectionOnStartUp;
 
 	private final ImmutableMap<WindowId, IViewsIndexStorage> viewsIndexStorages;
-	private final IViewsIndexStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage();
+	private final IViewsIndexStorage defaultViewsIndexStorage;
+
+	private final AtomicLong notificationsDispatchedCount = new AtomicLong();
+	private final AtomicLong notificationsSkippedCount = new AtomicLong();
 
 	/**
 	 * 
 	 * @param neededForDBAccess not used in here, but we need to cause spring to initialize it <b>before</b> this component can be initialized.
 	 *            So, if you clean this up, please make sure that the webui-API still starts up ^^.
+	 * @param maxViewsWeightInMB memory budget for all views stored in default storage; zero or negative means no limit
+	 * @param maxViewsWeightPerUserInMB memory budget for the views of a single user stored in default storage; zero or negative means no limit
 	 */
 	public ViewsRepository(
 			@NonNull final Adempiere neededForDBAccess,
 			@NonNull final List<IViewFactory> viewFactories,
-			@NonNull final Optional<List<IViewsIndexStorage>> viewIndexStorages)
+			@NonNull final Optional<List<IViewsIndexStorage>> viewIndexStorages,
+			@Value("${metasfresh.webui.view.storage.maxWeightMB:-1}") final int maxViewsWeightInMB,
+			@Value("${metasfresh.webui.view.storage.maxWeightPerUserMB:-1}") final int maxViewsWeightPerUserInMB)
 	{
+		this.defaultViewsIndexStorage = DefaultViewsRepositoryStorage.builder()
+				.maxTotalWeightInBytes(maxViewsWeightInMB * 1024L * 1024L)
+				.maxWeightPerUserInBytes(maxViewsWeightPerUserInMB * 1024L * 1024L)
+				.build();
+		logger.info("Default views storage: maxWeightMB={}, maxWeightPerUserMB={}", maxViewsWeightInMB, maxViewsWeightPerUserInMB);
+
 		factories = createFactoriesMap(viewFactories);
 		factories.values().forEach(viewFactory -> viewFactory.setViewsRepository(this));
 		logger.info("Registered following view factories: {}", factories);
@@ -215,9 +232,14 @@ public class ViewsRepository implements IViewsRepository
 		return defaultViewsIndexStorage;
 	}
 
+	private Stream<IViewsIndexStorage> streamAllViewsIndexStorages()
+	{
+		return Streams.concat(viewsIndexStorages.values().stream(), Stream.of(defaultViewsIndexStorage));
+	}
+
 	private Stream<IView> streamAllViews()
 	{
-		return Streams.concat(viewsIndexStorages.values().stream(), Stream.of(defaultViewsIndexStorage))
+		return streamAllViewsIndexStorages()
 				.flatMap(IViewsIndexStorage::streamAllViews);
 	}
 
@@ -394,16 +416,46 @@ public class ViewsRepository implements IViewsRepository
 			return;
 		}
 
+		final Set<String> tableNames = Streams.stream(recordRefs)
+				.map(TableRecordReference::getTableName)
+				.collect(ImmutableSet.toImmutableSet());
+
+		SqlViewFilteredSelectionsCache.instance.invalidateByTableNames(tableNames);
+
 		try (final IAutoCloseable c = ViewChangesCollector.currentOrNewThreadLocalCollector())
 		{
+			long viewsCount = 0;
 			final MutableInt notifiedCount = MutableInt.zero();
-			streamAllViews()
-					.forEach(view -> {
-						view.notifyRecordsChanged(recordRefs);
-						notifiedCount.incrementAndGet();
-					});
+			for (final IViewsIndexStorage viewsIndexStorage : streamAllViewsIndexStorages().collect(ImmutableList.toImmutableList()))
+			{
+				viewsCount += viewsIndexStorage.size();
+
+				viewsIndexStorage.streamViewsByDependentTableNames(tableNames)
+						.forEach(view -> {
+							view.notifyRecordsChanged(recordRefs);
+							notifiedCount.incrementAndGet();
+						});
+			}
 
-			logger.debug("Notified {} views about changed records: {}", notifiedCount, recordRefs);
+			final long skippedCount = Math.max(viewsCount - notifiedCount.getValue(), 0);
+			notificationsDispatchedCount.addAndGet(notifiedCount.getValue());
+			notificationsSkippedCount.addAndGet(skippedCount);
+
+			logger.debug("Notified {} views (skipped {}) about changed records: {}", notifiedCount, skippedCount, recordRefs);
 		}
 	}
+
+	@Override
+	public Map<String, Object> getFilteredSelectionsCacheStats()
+	{
+		return SqlViewFilteredSelectionsCache.instance.getStats();
+	}
+
+	@Override
+	public Map<String, Object> getNotificationStats()
+	{
+		return ImmutableMap.of(
+				"notificationsDispatched", notificationsDispatchedCount.get(),
+				"notificationsSkipped", notificationsSkippedCount.get());
+	}
 }
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
+import de.metas.ui.web.document.filter.DocumentFilterParamDescriptor;
 import de.metas.ui.web.document.filter.NullDocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterDecorator;
@@ -75,6 +76,7 @@ public class SqlViewBinding implements SqlEntityBinding
 	private final IStringExpression sqlWhereClause;
 	private final List<SqlViewRowFieldLoader> rowFieldLoaders;
 	private final ViewRowCustomizer rowCustomizer;
+	private final ImmutableSet<String> projectionFieldNames;
 
 	private final ImmutableList<DocumentQueryOrderBy> defaultOrderBys;
 	private final OrderByFieldNameAliasMap orderByFieldNameAliasMap;
@@ -144,6 +146,8 @@ public class SqlViewBinding implements SqlEntityBinding
 		filterDescriptors = builder.getViewFilterDescriptors();
 		filterConverters = builder.buildViewFilterConverters();
 
+		projectionFieldNames = computeProjectionFieldNames(displayFieldNames, rowCustomizer, filterDescriptors, groupingBinding);
+
 		filterConverterDecorator = builder.sqlDocumentFilterConverterDecorator;
 
 		rowIdsConverter = builder.getRowIdsConverter();
@@ -151,6 +155,54 @@ public class SqlViewBinding implements SqlEntityBinding
 		viewInvalidationAdvisor = builder.getViewInvalidationAdvisor();
 	}
 
+	/**
+	 * @return the fields which need to be fetched when loading rows: key columns, displayed fields, fields required by row customizer and by filters;
+	 *         or <code>null</code> if all fields shall be fetched
+	 */
+	@Nullable
+	private ImmutableSet<String> computeProjectionFieldNames(
+			final Collection<String> displayFieldNames,
+			@Nullable final ViewRowCustomizer rowCustomizer,
+			final DocumentFilterDescriptorsProvider filterDescriptors,
+			@Nullable final SqlViewGroupingBinding groupingBinding)
+	{
+		if (groupingBinding != null)
+		{
+			return null;
+		}
+
+		final ImmutableSet.Builder<String> fieldNames = ImmutableSet.builder();
+		_fieldsByFieldName.values()
+				.stream()
+				.filter(field -> field.isKeyColumn() || keyColumnNamesMap.isKeyPartFieldName(field.getColumnName()))
+				.map(SqlViewRowFieldBinding::getFieldName)
+				.forEach(fieldNames::add);
+
+		fieldNames.addAll(displayFieldNames);
+
+		if (rowCustomizer != null)
+		{
+			final Set<String> rowCustomizerFieldNames = rowCustomizer.getRequiredFieldNames();
+			if (rowCustomizerFieldNames == null)
+			{
+				// row customizer did not tell us what it needs, so we have to fetch everything
+				return null;
+			}
+			fieldNames.addAll(rowCustomizerFieldNames);
+		}
+
+		filterDescriptors.getAll()
+				.stream()
+				.flatMap(filterDescriptor -> filterDescriptor.getParameters().stream())
+				.map(DocumentFilterParamDescriptor::getFieldName)
+				.forEach(fieldNames::add);
+
+		return fieldNames.build()
+				.stream()
+				.filter(_fieldsByFieldName::containsKey)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
 	@Override
 	public String toString() // NOTE: keep it short
 	{
@@ -218,6 +270,15 @@ public class SqlViewBinding implements SqlEntityBinding
 		return rowCustomizer;
 	}
 
+	/**
+	 * @return the fields to be selected when the view's rows are loaded by page or by ID; <code>null</code> means all fields
+	 */
+	@Nullable
+	public ImmutableSet<String> getProjectionFieldNamesOrNull()
+	{
+		return projectionFieldNames;
+	}
+
 	@Override
 	public DocumentFilterDescriptorsProvider getFilterDescriptors()
 	{
@@ -8,6 +8,7 @@ import org.adempiere.ad.expression.api.impl.ConstantStringExpression;
 
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.sql.SqlEntityFieldBinding;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.Value;
@@ -63,6 +64,12 @@ public class SqlViewRowFieldBinding implements SqlEntityFieldBinding
 
 	private final SqlViewRowFieldLoader fieldLoader;
 
+	/**
+	 * If set, the display value is not selected by SQL (see {@link #sqlSelectDisplayValue}) but it's resolved afterwards,
+	 * for all loaded rows at once, using this lookup.
+	 */
+	private final LookupDataSource batchLookupDataSource;
+
 	@Builder
 	private SqlViewRowFieldBinding(
 			@NonNull final String fieldName,
@@ -78,7 +85,8 @@ public class SqlViewRowFieldBinding implements SqlEntityFieldBinding
 			final boolean usingDisplayColumn, //
 			//
 			final IStringExpression sqlOrderBy,
-			@NonNull final SqlViewRowFieldLoader fieldLoader)
+			@NonNull final SqlViewRowFieldLoader fieldLoader,
+			final LookupDataSource batchLookupDataSource)
 	{
 		this.fieldName = fieldName;
 		this.columnName = columnName != null ? columnName : this.fieldName;
@@ -94,5 +102,6 @@ public class SqlViewRowFieldBinding implements SqlEntityFieldBinding
 
 		this.sqlOrderBy = sqlOrderBy != null ? sqlOrderBy : ConstantStringExpression.of(this.columnSql);
 		this.fieldLoader = fieldLoader;
+		this.batchLookupDataSource = batchLookupDataSource;
 	}
 }
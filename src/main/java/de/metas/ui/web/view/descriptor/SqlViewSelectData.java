@@ -3,14 +3,19 @@ package de.metas.ui.web.view.descriptor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.CompositeStringExpression;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelection;
 import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelectionLine;
@@ -21,6 +26,7 @@ import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.util.Check;
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -59,12 +65,22 @@ public class SqlViewSelectData
 
 	public static final String COLUMNNAME_IsRecordMissing = COLUMNNAME_Paging_Prefix + "IsRecordMissing";
 
+	private final String sqlTableName;
+	private final String sqlTableAlias;
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
+	private final ImmutableSet<String> displayFieldNames;
+	private final ImmutableList<SqlViewRowFieldBinding> allFields;
+	private final boolean projectionSupported;
+
+	private final IStringExpression _sqlSelect;
 	private final IStringExpression _sqlSelectByPage;
 	private final IStringExpression _sqlSelectRowIdsByPage;
 	private final IStringExpression _sqlSelectById;
 	private final IStringExpression _sqlSelectLines;
 
+	/** SQL templates which are selecting only a subset of fields, indexed by the projection's field names */
+	private final ConcurrentHashMap<ImmutableSet<String>, ProjectedSqlSelects> projectedSqlSelects = new ConcurrentHashMap<>();
+
 	@Builder
 	private SqlViewSelectData(
 			final String sqlTableName,
@@ -74,15 +90,17 @@ public class SqlViewSelectData
 			final Collection<SqlViewRowFieldBinding> allFields,
 			final SqlViewGroupingBinding groupingBinding)
 	{
+		this.sqlTableName = sqlTableName;
+		this.sqlTableAlias = sqlTableAlias;
 		this.keyColumnNamesMap = keyColumnNamesMap;
+		this.displayFieldNames = ImmutableSet.copyOf(displayFieldNames);
+		this.allFields = ImmutableList.copyOf(allFields);
+		this.projectionSupported = groupingBinding == null;
+
 		final IStringExpression sqlSelect = buildSqlSelect(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding);
+		_sqlSelect = sqlSelect;
 
-		_sqlSelectByPage = sqlSelect.toComposer()
-				.append("\n WHERE ")
-				// NOTE: already filtered by UUID
-				.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " BETWEEN ? AND ?")
-				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
-				.build();
+		_sqlSelectByPage = buildSqlSelectByPage(sqlSelect);
 
 		_sqlSelectRowIdsByPage = buildSqlSelect(
 				sqlTableName,
@@ -99,15 +117,7 @@ public class SqlViewSelectData
 						.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
 						.build();
 
-		_sqlSelectById = sqlSelect.toComposer()
-				.append("\n WHERE ")
-				// NOTE: already filtered by UUID
-				.append("\n")
-				.append(keyColumnNamesMap.getWebuiSelectionColumnNames()
-						.stream()
-						.map(keyColumnName -> COLUMNNAME_Paging_Prefix + keyColumnName + "=?")
-						.collect(Collectors.joining("\nAND ")))
-				.build();
+		_sqlSelectById = buildSqlSelectById(sqlSelect, keyColumnNamesMap);
 
 		if (groupingBinding != null)
 		{
@@ -119,9 +129,66 @@ public class SqlViewSelectData
 		}
 	}
 
-	private IStringExpression getSqlSelectByPage()
+	private static IStringExpression buildSqlSelectByPage(final IStringExpression sqlSelect)
+	{
+		return sqlSelect.toComposer()
+				.append("\n WHERE ")
+				// NOTE: already filtered by UUID
+				.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " BETWEEN ? AND ?")
+				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
+				.build();
+	}
+
+	private static IStringExpression buildSqlSelectById(final IStringExpression sqlSelect, final SqlViewKeyColumnNamesMap keyColumnNamesMap)
+	{
+		return sqlSelect.toComposer()
+				.append("\n WHERE ")
+				// NOTE: already filtered by UUID
+				.append("\n")
+				.append(keyColumnNamesMap.getWebuiSelectionColumnNames()
+						.stream()
+						.map(keyColumnName -> COLUMNNAME_Paging_Prefix + keyColumnName + "=?")
+						.collect(Collectors.joining("\nAND ")))
+				.build();
+	}
+
+	/**
+	 * @return true if the page and by-ID queries can be restricted to a given set of fields (i.e. the view is not grouping rows)
+	 */
+	public boolean isProjectionSupported()
+	{
+		return projectionSupported;
+	}
+
+	private ProjectedSqlSelects getProjectedSqlSelects(@NonNull final Set<String> projectionFieldNames)
+	{
+		Check.assume(projectionSupported, "projection is supported");
+		return projectedSqlSelects.computeIfAbsent(ImmutableSet.copyOf(projectionFieldNames), this::buildProjectedSqlSelects);
+	}
+
+	private ProjectedSqlSelects buildProjectedSqlSelects(final ImmutableSet<String> projectionFieldNames)
+	{
+		final List<String> keyColumnNames = keyColumnNamesMap.getKeyColumnNames();
+		final List<SqlViewRowFieldBinding> projectedFields = allFields.stream()
+				.filter(field -> keyColumnNames.contains(field.getColumnName()) || projectionFieldNames.contains(field.getFieldName()))
+				.collect(ImmutableList.toImmutableList());
+
+		final IStringExpression sqlSelect = buildSqlSelect_WithoutGrouping(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, projectedFields);
+		return ProjectedSqlSelects.builder()
+				.sqlSelect(sqlSelect)
+				.sqlSelectByPage(buildSqlSelectByPage(sqlSelect))
+				.sqlSelectById(buildSqlSelectById(sqlSelect, keyColumnNamesMap))
+				.build();
+	}
+
+	private IStringExpression getSqlSelect(@Nullable final Set<String> projectionFieldNames)
 	{
-		return _sqlSelectByPage;
+		return projectionFieldNames != null ? getProjectedSqlSelects(projectionFieldNames).getSqlSelect() : _sqlSelect;
+	}
+
+	private IStringExpression getSqlSelectByPage(@Nullable final Set<String> projectionFieldNames)
+	{
+		return projectionFieldNames != null ? getProjectedSqlSelects(projectionFieldNames).getSqlSelectByPage() : _sqlSelectByPage;
 	}
 
 	private IStringExpression getSqlSelectRowIdsByPage()
@@ -129,9 +196,9 @@ public class SqlViewSelectData
 		return _sqlSelectRowIdsByPage;
 	}
 
-	private IStringExpression getSqlSelectById()
+	private IStringExpression getSqlSelectById(@Nullable final Set<String> projectionFieldNames)
 	{
-		return _sqlSelectById;
+		return projectionFieldNames != null ? getProjectedSqlSelects(projectionFieldNames).getSqlSelectById() : _sqlSelectById;
 	}
 
 	private IStringExpression getSqlSelectLines()
@@ -179,8 +246,11 @@ public class SqlViewSelectData
 		final List<String> sqlSelectValuesList = new ArrayList<>();
 		final List<IStringExpression> sqlSelectDisplayNamesList = new ArrayList<>();
 		allFields.forEach(field -> {
-			// Collect the SQL select for internal value
-			// NOTE: we need to collect all fields because, even if the field is not needed it might be present in some where clause
+			// Collect the SQL select for internal value of each given field.
+			// NOTE: usually we get all fields here. We get only a subset when building a projected select (see buildProjectedSqlSelects),
+			// and that's safe because the key fields are always included and the WHERE clauses which are appended to this select
+			// (see buildSqlSelectByPage, buildSqlSelectById, selectByIdsBuilder) are referencing only the paging and key columns.
+			// The view filters, which might reference any column, are not applied here but when the selection is created.
 			sqlSelectValuesList.add(field.getSqlSelectValue());
 
 			// Collect the SQL select for displayed value,
@@ -375,12 +445,16 @@ public class SqlViewSelectData
 		return sql.build().caching();
 	}
 
+	/**
+	 * @param projectionFieldNames if not null, only those fields (and the key columns) will be selected
+	 */
 	@Builder(builderMethodName = "selectByPage", builderClassName = "SelectByPageBuilder")
 	private SqlAndParams selectByIdPageBuilder(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
 			@NonNull final ViewId viewId,
 			final int firstRowZeroBased,
-			final int pageLength)
+			final int pageLength,
+			@Nullable final Set<String> projectionFieldNames)
 	{
 		Check.assume(firstRowZeroBased >= 0, "firstRow >= 0 but it was {}", firstRowZeroBased);
 		Check.assume(pageLength > 0, "pageLength > 0 but it was {}", pageLength);
@@ -389,7 +463,7 @@ public class SqlViewSelectData
 		final int firstSeqNo = firstRowZeroBased + 1; // NOTE: firstRow is 0-based while SeqNo are 1-based
 		final int lastSeqNo = firstRowZeroBased + pageLength;
 
-		final IStringExpression sqlSelectByPage = getSqlSelectByPage();
+		final IStringExpression sqlSelectByPage = getSqlSelectByPage(projectionFieldNames);
 		final String sql = sqlSelectByPage.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
 		return SqlAndParams.of(sql, viewSelectionId, firstSeqNo, lastSeqNo);
 	}
@@ -413,18 +487,59 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, viewSelectionId, firstSeqNo, lastSeqNo);
 	}
 
+	/**
+	 * @param projectionFieldNames if not null, only those fields (and the key columns) will be selected
+	 */
 	@Builder(builderMethodName = "selectById", builderClassName = "SelectByIdBuilder")
 	private SqlAndParams selectByIdBuilder(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
 			@NonNull final ViewId viewId,
-			@NonNull final DocumentId rowId)
+			@NonNull final DocumentId rowId,
+			@Nullable final Set<String> projectionFieldNames)
 	{
 		final String viewSelectionId = viewId.getViewId();
-		final IStringExpression sqlSelectById = getSqlSelectById();
+		final IStringExpression sqlSelectById = getSqlSelectById(projectionFieldNames);
 		final String sql = sqlSelectById.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
 		return SqlAndParams.of(sql, viewSelectionId, rowId.toInt());
 	}
 
+	/**
+	 * Builds the SQL to select more rows at once. Only single key views are supported.
+	 *
+	 * @param projectionFieldNames if not null, only those fields (and the key columns) will be selected
+	 */
+	@Builder(builderMethodName = "selectByIds", builderClassName = "SelectByIdsBuilder")
+	private SqlAndParams selectByIdsBuilder(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewId viewId,
+			@NonNull final DocumentIdsSelection rowIds,
+			@Nullable final Set<String> projectionFieldNames)
+	{
+		Check.assume(keyColumnNamesMap.isSingleKey(), "selecting by multiple rowIds is supported only for single key views: {}", keyColumnNamesMap);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		sqlParams.add(viewId.getViewId());
+
+		final SqlAndParams sqlFilterByRowIds = keyColumnNamesMap.prepareSqlFilterByRowIds()
+				.sqlColumnPrefix(COLUMNNAME_Paging_Prefix)
+				.rowIds(rowIds)
+				.build();
+		final String sql = new StringBuilder()
+				.append(getSqlSelect(projectionFieldNames).evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail))
+				// NOTE: already filtered by UUID
+				.append("\n WHERE ")
+				.append("\n").append(sqlFilterByRowIds.getSql())
+				.toString();
+		sqlParams.addAll(sqlFilterByRowIds.getSqlParams());
+
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
+	public boolean isSelectByIdsSupported()
+	{
+		return keyColumnNamesMap.isSingleKey();
+	}
+
 	@Builder(builderMethodName = "selectIncludedLines", builderClassName = "SelectIncludedLinesBuilder")
 	private SqlAndParams selectIncludedLinesBuilder(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
@@ -450,4 +565,15 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, sqlParams);
 	}
 
+	@Value
+	@Builder
+	private static class ProjectedSqlSelects
+	{
+		@NonNull
+		IStringExpression sqlSelect;
+		@NonNull
+		IStringExpression sqlSelectByPage;
+		@NonNull
+		IStringExpression sqlSelectById;
+	}
 }
@@ -18,9 +18,12 @@ import org.adempiere.ad.expression.api.impl.ConstantStringExpression;
 import org.adempiere.ad.security.IUserRolePermissions;
 import org.adempiere.ad.security.impl.AccessSqlStringExpression;
 import org.adempiere.exceptions.AdempiereException;
+import org.compiere.util.CtxName;
 import org.compiere.util.DB;
+import org.compiere.util.Env;
 import org.slf4j.Logger;
 
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
@@ -77,6 +80,13 @@ public final class SqlViewSelectionQueryBuilder
 {
 	private static final transient Logger logger = LogManager.getLogger(SqlViewSelectionQueryBuilder.class);
 
+	public static final String COLUMNNAME_Aggregates_RowsCount = "RowsCount";
+	public static final String COLUMNNAME_Aggregates_Count_Prefix = "Count_";
+	public static final String COLUMNNAME_Aggregates_Sum_Prefix = "Sum_";
+	public static final String COLUMNNAME_Aggregates_Min_Prefix = "Min_";
+	public static final String COLUMNNAME_Aggregates_Max_Prefix = "Max_";
+	public static final String COLUMNNAME_GroupBy_GroupsCount = "GroupsCount";
+
 	private final SqlViewBinding _viewBinding;
 	private boolean applySecurityRestrictions = true;
 	private SqlDocumentFilterConverter _sqlDocumentFieldConverter; // lazy
@@ -451,6 +461,61 @@ public final class SqlViewSelectionQueryBuilder
 		return SqlAndParams.of(sqlCreateSelectionFromLines, sqlCreateSelectionFromLinesParams);
 	}
 
+	/**
+	 * Builds and evaluates the security restrictions exactly as they are applied when creating a selection.
+	 * <p>
+	 * The result depends only on the effective data access of the given context (e.g. accessible clients and organizations, record access rules),
+	 * so two contexts having the same result are seeing the same rows.
+	 *
+	 * @return evaluated security restricted SQL select of the view's table or empty string if security restrictions are not applied
+	 */
+	public String buildSqlSecurityRestrictedSelect(@NonNull final ViewEvaluationCtx viewEvalCtx)
+	{
+		if (!applySecurityRestrictions)
+		{
+			return "";
+		}
+
+		final String sqlTableAlias = getTableAlias();
+		return IStringExpression.composer()
+				.append("SELECT 1 FROM ").append(getTableName()).append(" ").append(sqlTableAlias)
+				.append(" WHERE 1=1 ")
+				.wrap(securityRestrictionsWrapper(sqlTableAlias))
+				.build()
+				.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+	}
+
+	/**
+	 * Builds and evaluates the SQL WHERE clause (entity where clause and filters) exactly as it's used when creating a selection.
+	 *
+	 * @return SQL where clause or <code>null</code> if it's referencing the logged user as a context variable
+	 */
+	@Nullable
+	public SqlAndParams buildSqlWhereClauseIfNotUserDependent(
+			final ViewEvaluationCtx viewEvalCtx,
+			final List<DocumentFilter> filters,
+			final SqlDocumentFilterConverterContext context)
+	{
+		final SqlParamsCollector sqlParams = SqlParamsCollector.newInstance();
+		final IStringExpression sqlWhereClause = buildSqlWhereClause(sqlParams, filters, SqlOptions.usingTableAlias(getTableAlias()), context);
+		if (sqlWhereClause == null || sqlWhereClause.isNullExpression())
+		{
+			return SqlAndParams.of("");
+		}
+
+		final boolean userDependent = sqlWhereClause.getParameters()
+				.stream()
+				.map(CtxName::getName)
+				.anyMatch(Env.CTXNAME_AD_User_ID::equals);
+		if (userDependent)
+		{
+			return null;
+		}
+
+		final String sql = sqlWhereClause.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		return SqlAndParams.of(sql, sqlParams.toList());
+	}
+
 	private final IStringExpression buildSqlWhereClause(final SqlParamsCollector sqlParams,
 			@Nullable final List<DocumentFilter> filters,
 			final SqlOptions sqlOpts,
@@ -501,60 +566,9 @@ public final class SqlViewSelectionQueryBuilder
 		final String sqlTableAlias = getTableAlias();
 		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
 
-		final List<DocumentQueryOrderBy> orderBysEffective = orderBys.stream()
-				.flatMap(this::flatMapEffectiveFieldNames)
-				.collect(ImmutableList.toImmutableList());
-		final String sqlOrderBys = replaceTableNameWithTableAlias(
-				SqlDocumentOrderByBuilder.newInstance(fieldName -> ConstantStringExpression.of(sqlTableAlias + "." + fieldName))
-						.buildSqlOrderBy(orderBysEffective)
-						.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail));
-
-		//
-		// Build the table we will join.
-		// In case we are ordering by some virtual columns we shall build an INLINE view which contains those virtual columns.
-		// Else, we will just simply join by table name.
-		final String sqlSourceTable;
-		{
-			final boolean isOrderBySomeVirtualColumns = orderBysEffective.stream()
-					.anyMatch(orderBy -> isVirtualColumn(orderBy.getFieldName()));
-
-			if (isOrderBySomeVirtualColumns)
-			{
-				final StringBuilder sqlKeyColumnNames = new StringBuilder();
-				for (final String keyColumnName : keyColumnNamesMap.getKeyColumnNames())
-				{
-					if (sqlKeyColumnNames.length() > 0)
-					{
-						sqlKeyColumnNames.append("\n, ");
-					}
-					sqlKeyColumnNames.append(getColumnSql(keyColumnName)).append(" AS ").append(keyColumnName);
-				}
-
-				final StringBuilder sqlSourceTableBuilder = new StringBuilder();
-				sqlSourceTableBuilder.append("SELECT ").append(sqlKeyColumnNames);
-
-				orderBysEffective.forEach(orderBy -> {
-					final String fieldName = orderBy.getFieldName();
-					if (isVirtualColumn(fieldName))
-					{
-						final String columnSql = getColumnSql(fieldName);
-						sqlSourceTableBuilder.append("\n, (").append(columnSql).append(") AS ").append(fieldName);
-					}
-					else
-					{
-						sqlSourceTableBuilder.append("\n, ").append(fieldName);
-					}
-				});
-
-				sqlSourceTableBuilder.append("\n FROM ").append(getTableName());
-
-				sqlSourceTable = sqlSourceTableBuilder.insert(0, "(").append(")").toString();
-			}
-			else
-			{
-				sqlSourceTable = getTableName();
-			}
-		}
+		final List<DocumentQueryOrderBy> orderBysEffective = toEffectiveOrderBys(orderBys);
+		final String sqlOrderBys = buildSqlOrderBys(viewEvalCtx, orderBysEffective);
+		final String sqlSourceTable = buildSqlSourceTable(orderBysEffective);
 
 		//
 		// INSERT INTO T_WEBUI_ViewSelection (UUID, Line, Keys)
@@ -586,6 +600,100 @@ public final class SqlViewSelectionQueryBuilder
 		return SqlAndParams.of(sql, newViewId.getViewId(), fromSelectionId);
 	}
 
+	private List<DocumentQueryOrderBy> toEffectiveOrderBys(final List<DocumentQueryOrderBy> orderBys)
+	{
+		return orderBys.stream()
+				.flatMap(this::flatMapEffectiveFieldNames)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private String buildSqlOrderBys(final ViewEvaluationCtx viewEvalCtx, final List<DocumentQueryOrderBy> orderBysEffective)
+	{
+		final String sqlTableAlias = getTableAlias();
+		return replaceTableNameWithTableAlias(
+				SqlDocumentOrderByBuilder.newInstance(fieldName -> ConstantStringExpression.of(sqlTableAlias + "." + fieldName))
+						.buildSqlOrderBy(orderBysEffective)
+						.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail));
+	}
+
+	/**
+	 * Build the table we will join.
+	 * In case we are ordering by some virtual columns we shall build an INLINE view which contains those virtual columns.
+	 * Else, we will just simply join by table name.
+	 */
+	private String buildSqlSourceTable(final List<DocumentQueryOrderBy> orderBysEffective)
+	{
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		final boolean isOrderBySomeVirtualColumns = orderBysEffective.stream()
+				.anyMatch(orderBy -> isVirtualColumn(orderBy.getFieldName()));
+		if (!isOrderBySomeVirtualColumns)
+		{
+			return getTableName();
+		}
+
+		final StringBuilder sqlKeyColumnNames = new StringBuilder();
+		for (final String keyColumnName : keyColumnNamesMap.getKeyColumnNames())
+		{
+			if (sqlKeyColumnNames.length() > 0)
+			{
+				sqlKeyColumnNames.append("\n, ");
+			}
+			sqlKeyColumnNames.append(getColumnSql(keyColumnName)).append(" AS ").append(keyColumnName);
+		}
+
+		final StringBuilder sqlSourceTableBuilder = new StringBuilder();
+		sqlSourceTableBuilder.append("SELECT ").append(sqlKeyColumnNames);
+
+		orderBysEffective.forEach(orderBy -> {
+			final String fieldName = orderBy.getFieldName();
+			if (isVirtualColumn(fieldName))
+			{
+				final String columnSql = getColumnSql(fieldName);
+				sqlSourceTableBuilder.append("\n, (").append(columnSql).append(") AS ").append(fieldName);
+			}
+			else
+			{
+				sqlSourceTableBuilder.append("\n, ").append(fieldName);
+			}
+		});
+
+		sqlSourceTableBuilder.append("\n FROM ").append(getTableName());
+
+		return sqlSourceTableBuilder.insert(0, "(").append(")").toString();
+	}
+
+	/**
+	 * @return
+	 *
+	 *         <pre>
+	 * SELECT sel.IntKey1 FROM T_WEBUI_ViewSelection sel LEFT OUTER JOIN ourTable WHERE sel.UUID=[fromUUID] ORDER BY ...
+	 *         </pre>
+	 *
+	 *         i.e. the SQL which fetches only the row IDs of an existing selection, in the requested order.
+	 */
+	public SqlAndParams buildSqlSelectRowIdsOrderedFromSelection(
+			final ViewEvaluationCtx viewEvalCtx,
+			final String fromSelectionId,
+			final List<DocumentQueryOrderBy> orderBys)
+	{
+		final String sqlTableAlias = getTableAlias();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		final List<DocumentQueryOrderBy> orderBysEffective = toEffectiveOrderBys(orderBys);
+		final String sqlOrderBys = buildSqlOrderBys(viewEvalCtx, orderBysEffective);
+		final String sqlSourceTable = buildSqlSourceTable(orderBysEffective);
+		final String sqlJoinCondition = keyColumnNamesMap.getSqlJoinCondition(sqlTableAlias, "sel");
+
+		final String sql = "SELECT sel." + keyColumnNamesMap.getSingleWebuiSelectionColumnName()
+				+ "\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel"
+				+ "\n LEFT OUTER JOIN " + sqlSourceTable + " " + sqlTableAlias + " ON (" + sqlJoinCondition + ")"
+				+ "\n WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?" // fromUUID
+				+ "\n ORDER BY " + (Check.isEmpty(sqlOrderBys, true) ? "sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_Line : sqlOrderBys);
+
+		return SqlAndParams.of(sql, fromSelectionId);
+	}
+
 	/**
 	 * @return
 	 *
@@ -760,6 +868,154 @@ public final class SqlViewSelectionQueryBuilder
 		}
 	}
 
+	/**
+	 * @return
+	 *
+	 *         <pre>
+	 * SELECT COUNT(1) AS RowsCount, COUNT(field0) AS Count_0, SUM(field0) AS Sum_0, MIN(field0) AS Min_0, MAX(field0) AS Max_0, ...
+	 * FROM T_WEBUI_ViewSelection sel INNER JOIN ourTable ON (...) WHERE sel.UUID=[selectionId] AND [rowIds]
+	 *         </pre>
+	 *
+	 *         i.e. the SQL which computes the aggregates of given fields, where the field index is used as column name suffix.
+	 *         The SUM column is present only for numeric fields.
+	 */
+	public SqlAndParams buildSqlAggregates(
+			@NonNull final String selectionId,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final List<String> fieldNames)
+	{
+		Check.assume(!rowIds.isEmpty(), "rowIds is not empty");
+
+		final String sqlTableName = getTableName();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		final StringBuilder sql = new StringBuilder("SELECT ");
+		appendSqlSelectAggregates(sql, fieldNames);
+
+		sql.append("\n FROM ").append(I_T_WEBUI_ViewSelection.Table_Name).append(" sel")
+				.append("\n INNER JOIN ").append(sqlTableName).append(" ON (").append(keyColumnNamesMap.getSqlJoinCondition(sqlTableName, "sel")).append(")")
+				.append("\n WHERE sel.").append(I_T_WEBUI_ViewSelection.COLUMNNAME_UUID).append("=?");
+
+		final SqlAndParams sqlAndParams = SqlAndParams.of(sql.toString(), selectionId);
+		if (rowIds.isAll())
+		{
+			return sqlAndParams;
+		}
+
+		return sqlAndParams.append(" AND (")
+				.append(keyColumnNamesMap.prepareSqlFilterByRowIds()
+						.sqlColumnPrefix("sel.")
+						.rowIds(rowIds)
+						.build())
+				.append(")");
+	}
+
+	private void appendSqlSelectAggregates(final StringBuilder sql, final List<String> fieldNames)
+	{
+		sql.append("COUNT(1) AS ").append(COLUMNNAME_Aggregates_RowsCount);
+		for (int i = 0; i < fieldNames.size(); i++)
+		{
+			final SqlViewRowFieldBinding field = _viewBinding.getFieldByFieldName(fieldNames.get(i));
+			final String columnSql = "(" + field.getColumnSql() + ")";
+
+			sql.append("\n, COUNT(").append(columnSql).append(") AS ").append(COLUMNNAME_Aggregates_Count_Prefix).append(i);
+			if (field.getWidgetType().isNumeric())
+			{
+				sql.append("\n, SUM(").append(columnSql).append(") AS ").append(COLUMNNAME_Aggregates_Sum_Prefix).append(i);
+			}
+			sql.append("\n, MIN(").append(columnSql).append(") AS ").append(COLUMNNAME_Aggregates_Min_Prefix).append(i);
+			sql.append("\n, MAX(").append(columnSql).append(") AS ").append(COLUMNNAME_Aggregates_Max_Prefix).append(i);
+		}
+	}
+
+	/**
+	 * @return
+	 *
+	 *         <pre>
+	 * SELECT grp.*, [groupBy display values], COUNT(1) OVER () AS GroupsCount
+	 * FROM (
+	 *   SELECT [groupBy values], COUNT(1) AS RowsCount, [aggregates like in {@link #buildSqlAggregates(String, DocumentIdsSelection, List)}]
+	 *   FROM T_WEBUI_ViewSelection sel INNER JOIN ourTable ON (...) WHERE sel.UUID=[selectionId] AND [rowIds]
+	 *   GROUP BY [groupBy columns]
+	 * ) grp
+	 * ORDER BY [groupBy columns]
+	 * OFFSET [firstRow] LIMIT [pageLength]
+	 *         </pre>
+	 *
+	 *         i.e. the SQL which returns one page of groups, together with the total number of groups.
+	 */
+	public SqlAndParams buildSqlGroupBy(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final String selectionId,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final List<String> groupByFieldNames,
+			@NonNull final List<String> aggregatedFieldNames,
+			final int firstRow,
+			final int pageLength)
+	{
+		Check.assume(!rowIds.isEmpty(), "rowIds is not empty");
+		Check.assumeNotEmpty(groupByFieldNames, "groupByFieldNames is not empty");
+
+		final String sqlTableName = getTableName();
+		final String sqlTableAlias = getTableAlias();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+
+		final List<String> sqlSelectValues = new ArrayList<>();
+		final List<IStringExpression> sqlSelectDisplayValues = new ArrayList<>();
+		final List<String> sqlGroupBys = new ArrayList<>();
+		final List<String> sqlOrderBys = new ArrayList<>();
+		for (final String groupByFieldName : groupByFieldNames)
+		{
+			final SqlViewRowFieldBinding field = _viewBinding.getFieldByFieldName(groupByFieldName);
+			sqlSelectValues.add(field.getSqlSelectValue());
+			sqlGroupBys.add(field.getColumnSql());
+			sqlOrderBys.add(sqlTableAlias + "." + field.getColumnName());
+			if (field.isUsingDisplayColumn())
+			{
+				sqlSelectDisplayValues.add(field.getSqlSelectDisplayValue());
+			}
+		}
+
+		final StringBuilder sqlInnerSelect = new StringBuilder("SELECT ")
+				.append(Joiner.on("\n, ").join(sqlSelectValues))
+				.append("\n, ");
+		appendSqlSelectAggregates(sqlInnerSelect, aggregatedFieldNames);
+
+		final CompositeStringExpression.Builder sqlOuterSelect = IStringExpression.composer()
+				.append("SELECT ").append(sqlTableAlias).append(".*");
+		if (!sqlSelectDisplayValues.isEmpty())
+		{
+			sqlOuterSelect.append("\n, ").appendAllJoining("\n, ", sqlSelectDisplayValues);
+		}
+		sqlOuterSelect.append("\n, COUNT(1) OVER () AS " + COLUMNNAME_GroupBy_GroupsCount);
+
+		final String sql = sqlOuterSelect.build().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail)
+				+ "\n FROM ("
+				+ "\n " + sqlInnerSelect
+				+ "\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel"
+				+ "\n INNER JOIN " + sqlTableName + " ON (" + keyColumnNamesMap.getSqlJoinCondition(sqlTableName, "sel") + ")"
+				+ "\n WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?";
+
+		SqlAndParams sqlAndParams = SqlAndParams.of(sql, selectionId);
+		if (!rowIds.isAll())
+		{
+			sqlAndParams = sqlAndParams.append(" AND (")
+					.append(keyColumnNamesMap.prepareSqlFilterByRowIds()
+							.sqlColumnPrefix("sel.")
+							.rowIds(rowIds)
+							.build())
+					.append(")");
+		}
+
+		return sqlAndParams
+				.append("\n GROUP BY " + Joiner.on(", ").join(sqlGroupBys)
+						+ "\n ) " + sqlTableAlias
+						+ "\n ORDER BY " + Joiner.on(", ").join(sqlOrderBys)
+						+ "\n OFFSET ? LIMIT ?",
+						Math.max(firstRow, 0),
+						pageLength);
+	}
+
 	public String buildSqlDeleteSelection(@NonNull final String selectionId)
 	{
 		return "DELETE FROM " + I_T_WEBUI_ViewSelection.Table_Name
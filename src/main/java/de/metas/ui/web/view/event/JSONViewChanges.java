@@ -1,6 +1,7 @@
 package de.metas.ui.web.view.event;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
@@ -8,7 +9,9 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 
+import de.metas.ui.web.view.json.JSONViewRow;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
 
@@ -40,7 +43,13 @@ public final class JSONViewChanges implements Serializable
 {
 	public static JSONViewChanges of(final ViewChanges changes)
 	{
-		return new JSONViewChanges(changes);
+		final List<JSONViewRow> changedRows = null;
+		return new JSONViewChanges(changes, changedRows);
+	}
+
+	public static JSONViewChanges ofChangesAndRows(final ViewChanges changes, final List<JSONViewRow> changedRows)
+	{
+		return new JSONViewChanges(changes, changedRows);
 	}
 
 	@JsonProperty("viewId")
@@ -56,7 +65,12 @@ public final class JSONViewChanges implements Serializable
 	@JsonInclude(JsonInclude.Include.NON_EMPTY)
 	private final Set<String> changedIds;
 
-	private JSONViewChanges(final ViewChanges changes)
+	/** The already loaded changed rows (a subset of {@link #changedIds}), so the frontend doesn't have to fetch them again */
+	@JsonProperty("changedRows")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final List<JSONViewRow> changedRows;
+
+	private JSONViewChanges(final ViewChanges changes, final List<JSONViewRow> changedRows)
 	{
 		super();
 
@@ -68,17 +82,20 @@ public final class JSONViewChanges implements Serializable
 		{
 			fullyChanged = Boolean.TRUE;
 			this.changedIds = null;
+			this.changedRows = null;
 		}
 		else if (changedRowIds.isEmpty())
 		{
 			// TODO: shall we throw an exception in this case? ...because basically it's not valid!
 			fullyChanged = null;
 			changedIds = null;
+			this.changedRows = null;
 		}
 		else
 		{
 			fullyChanged = Boolean.FALSE;
 			this.changedIds = changedRowIds.toJsonSet();
+			this.changedRows = changedRows != null && !changedRows.isEmpty() ? ImmutableList.copyOf(changedRows) : null;
 		}
 	}
 
@@ -91,6 +108,7 @@ public final class JSONViewChanges implements Serializable
 				.add("windowId", windowId)
 				.add("fullyChanged", fullyChanged)
 				.add("changedIds", changedIds)
+				.add("changedRowsCount", changedRows != null ? changedRows.size() : null)
 				.toString();
 	}
 
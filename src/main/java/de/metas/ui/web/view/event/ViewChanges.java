@@ -49,7 +49,13 @@ public class ViewChanges
 	{
 		if (changes.isFullyChanged())
 		{
-			fullyChanged = true;
+			setFullyChanged();
+		}
+
+		// Don't collect rowIds if this was already flagged as fully changed.
+		if (fullyChanged)
+		{
+			return;
 		}
 
 		if (changes.changedRowIds != null && !changes.changedRowIds.isEmpty())
@@ -81,6 +87,13 @@ public class ViewChanges
 	public void setFullyChanged()
 	{
 		fullyChanged = true;
+		changedRowIds = null;
+	}
+
+	/** @return how many rows were changed; not relevant if {@link #isFullyChanged()} */
+	public int getChangedRowsCount()
+	{
+		return changedRowIds != null ? changedRowIds.size() : 0;
 	}
 
 	public boolean isFullyChanged()
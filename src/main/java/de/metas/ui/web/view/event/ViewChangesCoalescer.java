@@ -0,0 +1,167 @@
+package de.metas.ui.web.view.event;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.view.ViewId;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Coalesces the changes of a view which are flushed during a short time window (e.g. by the many small transactions of a mass update),
+ * so that at most one websocket event per view and time window is sent.
+ *
+ * If the number of coalesced changed rows exceeds a threshold, the view is notified as fully changed instead.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+final class ViewChangesCoalescer
+{
+	private static final Logger logger = LogManager.getLogger(ViewChangesCoalescer.class);
+
+	/** Time window in which the changes of a view are coalesced. Zero or less means the changes are sent right away. */
+	private static final String SYSCONFIG_WindowMillis = "de.metas.ui.web.view.event.ViewChangesCoalescer.WindowMillis";
+	private static final int DEFAULT_WindowMillis = 250;
+
+	/** Above this number of changed rows, the view is notified as fully changed */
+	private static final String SYSCONFIG_FullyChangedThreshold = "de.metas.ui.web.view.event.ViewChangesCoalescer.FullyChangedThreshold";
+	private static final int DEFAULT_FullyChangedThreshold = 1000;
+
+	private final BiConsumer<ViewChanges, String> sender;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+			CustomizableThreadFactory.builder()
+					.setDaemon(true)
+					.setThreadNamePrefix("webui-views-changes-coalescer")
+					.build());
+
+	private final ConcurrentHashMap<ViewId, PendingViewChanges> pendingChangesByViewId = new ConcurrentHashMap<>();
+
+	/**
+	 * @param sender sends the (coalesced) view changes, using the given AD_Language
+	 */
+	ViewChangesCoalescer(@NonNull final BiConsumer<ViewChanges, String> sender)
+	{
+		this.sender = sender;
+	}
+
+	public void enqueue(@NonNull final ViewChanges changes, final String adLanguage)
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final int windowMillis = sysConfigBL.getIntValue(SYSCONFIG_WindowMillis, DEFAULT_WindowMillis);
+		final int fullyChangedThreshold = sysConfigBL.getIntValue(SYSCONFIG_FullyChangedThreshold, DEFAULT_FullyChangedThreshold);
+
+		if (windowMillis <= 0)
+		{
+			promoteToFullyChangedIfNeeded(changes, fullyChangedThreshold);
+			sender.accept(changes, adLanguage);
+			return;
+		}
+
+		final ViewId viewId = changes.getViewId();
+		final AtomicBoolean scheduleSend = new AtomicBoolean(false);
+		pendingChangesByViewId.compute(viewId, (k, pendingChanges) -> {
+			if (pendingChanges == null)
+			{
+				pendingChanges = new PendingViewChanges(viewId);
+				scheduleSend.set(true);
+			}
+
+			pendingChanges.collect(changes, adLanguage);
+			promoteToFullyChangedIfNeeded(pendingChanges.getChanges(), fullyChangedThreshold);
+			return pendingChanges;
+		});
+
+		if (scheduleSend.get())
+		{
+			scheduler.schedule(() -> sendPendingChanges(viewId), windowMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static void promoteToFullyChangedIfNeeded(final ViewChanges changes, final int fullyChangedThreshold)
+	{
+		if (fullyChangedThreshold > 0
+				&& !changes.isFullyChanged()
+				&& changes.getChangedRowsCount() > fullyChangedThreshold)
+		{
+			changes.setFullyChanged();
+		}
+	}
+
+	private void sendPendingChanges(final ViewId viewId)
+	{
+		// NOTE: after this point, new changes of this view are collected and scheduled again
+		final PendingViewChanges pendingChanges = pendingChangesByViewId.remove(viewId);
+		if (pendingChanges == null)
+		{
+			return;
+		}
+
+		try
+		{
+			sender.accept(pendingChanges.getChanges(), pendingChanges.getAdLanguage());
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed sending {}. Ignored.", pendingChanges.getChanges(), ex);
+		}
+	}
+
+	private static final class PendingViewChanges
+	{
+		private final ViewChanges changes;
+		private String adLanguage;
+
+		private PendingViewChanges(final ViewId viewId)
+		{
+			changes = new ViewChanges(viewId);
+		}
+
+		public void collect(final ViewChanges changesToCollect, final String adLanguage)
+		{
+			changes.collectFrom(changesToCollect);
+			this.adLanguage = adLanguage;
+		}
+
+		public ViewChanges getChanges()
+		{
+			return changes;
+		}
+
+		public String getAdLanguage()
+		{
+			return adLanguage;
+		}
+	}
+}
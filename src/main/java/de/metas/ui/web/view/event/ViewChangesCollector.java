@@ -4,25 +4,34 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.Adempiere;
+import org.compiere.util.Env;
 import org.compiere.util.Util;
 import org.slf4j.Logger;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.view.IView;
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import de.metas.ui.web.view.IViewsRepository;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
 import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.json.JSONViewRow;
 import de.metas.ui.web.websocket.WebSocketConfig;
+import de.metas.ui.web.websocket.WebSocketSubscriptionLanguages;
 import de.metas.ui.web.websocket.WebsocketSender;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
@@ -128,9 +137,33 @@ public class ViewChangesCollector implements IAutoCloseable
 	private static final transient ThreadLocal<ViewChangesCollector> THREADLOCAL = new ThreadLocal<>();
 	private static final String TRXPROPERTY_Name = ViewChangesCollector.class.getName();
 
-	@Autowired
-	@Lazy
-	private WebsocketSender websocketSender;
+	/**
+	 * If enabled, the changed rows are loaded once, when flushing to websocket, and their field values are sent together with the changed row IDs,
+	 * so the subscribed clients don't have to fetch them one by one.
+	 */
+	private static final String SYSCONFIG_PushChangedRows = "de.metas.ui.web.view.event.PushChangedRows";
+	/** Above this number of changed rows, only the row IDs are sent, because loading the rows would be more expensive than letting the clients fetch the visible ones */
+	private static final String SYSCONFIG_PushChangedRows_MaxRows = "de.metas.ui.web.view.event.PushChangedRows.MaxRows";
+	private static final int DEFAULT_PushChangedRows_MaxRows = 100;
+
+	/**
+	 * If enabled, each collector captures the stack traces of its creation and closing, which are reported when the collector is used after it was closed.
+	 * Capturing stack traces is expensive, so this is meant only for debugging.
+	 */
+	private static final AtomicBoolean captureStackTraces = new AtomicBoolean(false);
+
+	// NOTE: resolved once and shared by all instances, because collectors are created very often (e.g. for each transaction)
+	private static final Supplier<WebsocketSender> websocketSenderSupplier = Suppliers.memoize(() -> Adempiere.getBean(WebsocketSender.class));
+	private static final Supplier<IViewsRepository> viewsRepositorySupplier = Suppliers.memoize(() -> Adempiere.getBean(IViewsRepository.class));
+	private static final Supplier<WebSocketSubscriptionLanguages> subscriptionLanguagesSupplier = Suppliers.memoize(() -> Adempiere.getBean(WebSocketSubscriptionLanguages.class));
+
+	private static final ViewChangesCoalescer coalescer = new ViewChangesCoalescer(ViewChangesCollector::sendToWebsocket);
+
+	public static void setCaptureStackTraces(final boolean enabled)
+	{
+		captureStackTraces.set(enabled);
+		logger.info("Capturing collectors' stack traces: {}", enabled);
+	}
 
 	private final boolean autoflush;
 
@@ -147,11 +180,9 @@ public class ViewChangesCollector implements IAutoCloseable
 
 	private ViewChangesCollector(final boolean autoflush)
 	{
-		Adempiere.autowire(this);
-
 		this.autoflush = autoflush;
 
-		this.createdStackTrace = Util.dumpStackTraceToString(new Exception());
+		this.createdStackTrace = captureStackTraces.get() ? Util.dumpStackTraceToString(new Exception()) : null;
 	}
 
 	@Override
@@ -164,7 +195,7 @@ public class ViewChangesCollector implements IAutoCloseable
 			return;
 		}
 
-		closedStackTrace = Util.dumpStackTraceToString(new Exception());
+		closedStackTrace = captureStackTraces.get() ? Util.dumpStackTraceToString(new Exception()) : null;
 
 		flush();
 	}
@@ -178,6 +209,11 @@ public class ViewChangesCollector implements IAutoCloseable
 	{
 		if (closed.get())
 		{
+			if (createdStackTrace == null && closedStackTrace == null)
+			{
+				throw new IllegalStateException("Collector " + this + " was already closed"
+						+ "\n\nHINT: enable capturing the stack traces in order to see where the collector was created and closed");
+			}
 			throw new IllegalStateException("Collector " + this + " was already closed"
 					+ "\n\nCreated stacktrace: " + createdStackTrace
 					+ "\n\nClosed stacktrace: " + closedStackTrace);
@@ -262,10 +298,85 @@ public class ViewChangesCollector implements IAutoCloseable
 		else
 		{
 			logger.trace("Flushing {} to websocket", this);
+			final String adLanguage = Env.getAD_Language(Env.getCtx());
 			changesList.stream()
 					.filter(ViewChanges::hasChanges)
-					.map(JSONViewChanges::of)
-					.forEach(this::sendToWebsocket);
+					.forEach(changes -> coalescer.enqueue(changes, adLanguage));
+		}
+	}
+
+	private static void sendToWebsocket(final ViewChanges changes, final String adLanguage)
+	{
+		final boolean pushChangedRows = Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_PushChangedRows, false);
+		final JSONViewChanges jsonChangeEvent = pushChangedRows ? toJSONViewChangesWithRows(changes, adLanguage) : JSONViewChanges.of(changes);
+		sendToWebsocket(jsonChangeEvent);
+	}
+
+	/**
+	 * Loads the changed rows once and includes them in the websocket event, which is sent once per view topic, no matter how many clients are subscribed.
+	 * The changed rows which are no longer part of the view are sent only as changed row IDs.
+	 * <p>
+	 * The rows are rendered in the language of the view topic's subscribers.
+	 * If the subscribers are using different languages, only the changed row IDs are sent, because a topic broadcast cannot carry a different payload for each subscriber.
+	 */
+	private static JSONViewChanges toJSONViewChangesWithRows(final ViewChanges changes, final String fallbackAdLanguage)
+	{
+		final DocumentIdsSelection changedRowIds = changes.getChangedRowIds();
+		if (changedRowIds.isAll() || changedRowIds.isEmpty())
+		{
+			return JSONViewChanges.of(changes);
+		}
+
+		final String adLanguage = getSubscribersADLanguageOrNull(changes.getViewId(), fallbackAdLanguage);
+		if (adLanguage == null)
+		{
+			return JSONViewChanges.of(changes);
+		}
+
+		final int maxRows = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_PushChangedRows_MaxRows, DEFAULT_PushChangedRows_MaxRows);
+		if (changedRowIds.size() > maxRows)
+		{
+			return JSONViewChanges.of(changes);
+		}
+
+		try
+		{
+			final IView view = viewsRepositorySupplier.get().getViewIfExists(changes.getViewId());
+			if (view == null)
+			{
+				return JSONViewChanges.of(changes);
+			}
+
+			final List<? extends IViewRow> changedRows = view.streamByIds(changedRowIds).collect(ImmutableList.toImmutableList());
+			final IViewRowOverrides rowOverrides = ViewRowOverridesHelper.getViewRowOverrides(view);
+			return JSONViewChanges.ofChangesAndRows(changes, JSONViewRow.ofViewRows(changedRows, rowOverrides, adLanguage));
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed loading the changed rows of {}. Sending only the changed row IDs.", changes, ex);
+			return JSONViewChanges.of(changes);
+		}
+	}
+
+	/**
+	 * @return the language shared by all subscribers of given view's topic, <code>fallbackAdLanguage</code> if the subscribers are not known or <code>null</code> if they are using different languages
+	 */
+	private static String getSubscribersADLanguageOrNull(final ViewId viewId, final String fallbackAdLanguage)
+	{
+		final String topicName = WebSocketConfig.buildViewNotificationsTopicName(viewId.getViewId());
+		final Set<String> subscribedLanguages = subscriptionLanguagesSupplier.get().getSubscribedLanguages(topicName);
+		if (subscribedLanguages.isEmpty())
+		{
+			return fallbackAdLanguage;
+		}
+		else if (subscribedLanguages.size() == 1)
+		{
+			return subscribedLanguages.iterator().next();
+		}
+		else
+		{
+			logger.debug("Subscribers of {} are using different languages {}. Sending only the changed row IDs.", topicName, subscribedLanguages);
+			return null;
 		}
 	}
 
@@ -291,12 +402,12 @@ public class ViewChangesCollector implements IAutoCloseable
 		return changesList;
 	}
 
-	private void sendToWebsocket(final JSONViewChanges jsonChangeEvent)
+	private static void sendToWebsocket(final JSONViewChanges jsonChangeEvent)
 	{
 		final String endpoint = WebSocketConfig.buildViewNotificationsTopicName(jsonChangeEvent.getViewId());
 		try
 		{
-			websocketSender.convertAndSend(endpoint, jsonChangeEvent);
+			websocketSenderSupplier.get().convertAndSend(endpoint, jsonChangeEvent);
 			logger.debug("Send to websocket {}: {}", endpoint, jsonChangeEvent);
 		}
 		catch (final Exception ex)
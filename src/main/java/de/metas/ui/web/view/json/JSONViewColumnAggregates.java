@@ -0,0 +1,99 @@
+package de.metas.ui.web.view.json;
+
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.ViewColumnAggregate;
+import de.metas.ui.web.view.ViewColumnAggregates;
+import de.metas.ui.web.window.datatypes.json.JSONDate;
+import de.metas.ui.web.window.datatypes.json.JSONLayoutWidgetType;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+public class JSONViewColumnAggregates
+{
+	public static JSONViewColumnAggregates of(final ViewColumnAggregates aggregates)
+	{
+		return new JSONViewColumnAggregates(aggregates);
+	}
+
+	@JsonProperty("rowsCount")
+	private final long rowsCount;
+	@JsonProperty("columns")
+	private final List<JSONViewColumnAggregate> columns;
+
+	private JSONViewColumnAggregates(@NonNull final ViewColumnAggregates aggregates)
+	{
+		rowsCount = aggregates.getRowsCount();
+		columns = aggregates.getColumns()
+				.stream()
+				.map(JSONViewColumnAggregate::new)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+	@Value
+	public static class JSONViewColumnAggregate
+	{
+		@JsonProperty("fieldName")
+		private final String fieldName;
+		@JsonProperty("widgetType")
+		private final JSONLayoutWidgetType widgetType;
+		@JsonProperty("count")
+		private final long count;
+		@JsonProperty("sum")
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		private final Object sum;
+		@JsonProperty("min")
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		private final Object min;
+		@JsonProperty("max")
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		private final Object max;
+
+		private JSONViewColumnAggregate(@NonNull final ViewColumnAggregate aggregate)
+		{
+			fieldName = aggregate.getFieldName();
+			widgetType = JSONLayoutWidgetType.fromNullable(aggregate.getWidgetType());
+			count = aggregate.getCount();
+			sum = aggregate.getSum();
+			min = toJsonValue(aggregate.getMin());
+			max = toJsonValue(aggregate.getMax());
+		}
+
+		private static Object toJsonValue(final Object value)
+		{
+			return value instanceof Date ? JSONDate.toJson((Date)value) : value;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package de.metas.ui.web.view.json;
+
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+public class JSONViewGroupByRequest
+{
+	@JsonProperty("groupBy")
+	private final List<String> groupByFieldNames;
+
+	/** fields to aggregate; if empty, all numeric and date fields of the view will be aggregated */
+	@JsonProperty("aggregates")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final List<String> aggregatedFieldNames;
+
+	/** rows to group; if empty, all view rows will be grouped */
+	@JsonProperty("selectedIds")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final Set<String> selectedIds;
+
+	@JsonProperty("firstRow")
+	private final int firstRow;
+	@JsonProperty("pageLength")
+	private final int pageLength;
+
+	@JsonCreator
+	private JSONViewGroupByRequest(
+			@JsonProperty("groupBy") final List<String> groupByFieldNames,
+			@JsonProperty("aggregates") final List<String> aggregatedFieldNames,
+			@JsonProperty("selectedIds") final Set<String> selectedIds,
+			@JsonProperty("firstRow") final int firstRow,
+			@JsonProperty("pageLength") final int pageLength)
+	{
+		this.groupByFieldNames = groupByFieldNames != null ? ImmutableList.copyOf(groupByFieldNames) : ImmutableList.of();
+		this.aggregatedFieldNames = aggregatedFieldNames != null ? ImmutableList.copyOf(aggregatedFieldNames) : ImmutableList.of();
+		this.selectedIds = selectedIds != null ? ImmutableSet.copyOf(selectedIds) : ImmutableSet.of();
+		this.firstRow = firstRow;
+		this.pageLength = pageLength;
+	}
+}
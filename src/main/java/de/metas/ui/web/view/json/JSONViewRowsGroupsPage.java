@@ -0,0 +1,79 @@
+package de.metas.ui.web.view.json;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.ViewRowsGroup;
+import de.metas.ui.web.view.ViewRowsGroupsPage;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+public class JSONViewRowsGroupsPage
+{
+	public static JSONViewRowsGroupsPage of(final ViewRowsGroupsPage page)
+	{
+		return new JSONViewRowsGroupsPage(page);
+	}
+
+	@JsonProperty("firstRow")
+	private final int firstRow;
+	@JsonProperty("groupsCount")
+	private final long groupsCount;
+	@JsonProperty("groups")
+	private final List<JSONViewRowsGroup> groups;
+
+	private JSONViewRowsGroupsPage(@NonNull final ViewRowsGroupsPage page)
+	{
+		firstRow = page.getFirstRow();
+		groupsCount = page.getGroupsCount();
+		groups = page.getGroups()
+				.stream()
+				.map(JSONViewRowsGroup::new)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+	@Value
+	public static class JSONViewRowsGroup
+	{
+		@JsonProperty("values")
+		private final Map<String, Object> values;
+		@JsonProperty("aggregates")
+		private final JSONViewColumnAggregates aggregates;
+
+		private JSONViewRowsGroup(@NonNull final ViewRowsGroup group)
+		{
+			values = group.getGroupValues();
+			aggregates = JSONViewColumnAggregates.of(group.getAggregates());
+		}
+	}
+}
@@ -14,6 +14,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.support.ChannelInterceptorAdapter;
@@ -170,6 +171,18 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 		return extractSimpHeaderAsString(event, "simpSessionId");
 	}
 
+	private static final String extractSimpSubscriptionId(final AbstractSubProtocolEvent event)
+	{
+		return extractSimpHeaderAsString(event, "simpSubscriptionId");
+	}
+
+	private static final String extractSessionADLanguage(final AbstractSubProtocolEvent event)
+	{
+		final Map<String, Object> sessionAttributes = SimpMessageHeaderAccessor.getSessionAttributes(event.getMessage().getHeaders());
+		final Object adLanguageObj = sessionAttributes == null ? null : sessionAttributes.get(WebSocketSubscriptionLanguages.SESSION_ATTRIBUTE_AD_Language);
+		return adLanguageObj == null ? null : adLanguageObj.toString();
+	}
+
 	private static final String extractSimpHeaderAsString(final AbstractSubProtocolEvent event, final String name)
 	{
 		final Object simpDestinationObj = event.getMessage().getHeaders().get(name);
@@ -225,6 +238,9 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 				return false;
 			}
 
+			// remember the language, so that the events which are broadcast to this session's topics can be rendered accordingly
+			attributes.put(WebSocketSubscriptionLanguages.SESSION_ATTRIBUTE_AD_Language, userSession.getAD_Language());
+
 			return true;
 		}
 
@@ -240,6 +256,8 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 	{
 		@Autowired
 		private WebSocketProducersRegistry websocketProducersRegistry;
+		@Autowired
+		private WebSocketSubscriptionLanguages subscriptionLanguages;
 
 		@Override
 		public void onApplicationEvent(final SessionSubscribeEvent event)
@@ -247,6 +265,7 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 			final String simpSessionId = extractSimpSessionId(event);
 			final String simpDestination = extractSimpDestination(event);
 			websocketProducersRegistry.onTopicSubscribed(simpSessionId, simpDestination);
+			subscriptionLanguages.onTopicSubscribed(simpSessionId, extractSimpSubscriptionId(event), simpDestination, extractSessionADLanguage(event));
 
 			logger.info("Subscribed to simpDestination={} [ simpSessionId={} ]", simpDestination, simpSessionId);
 		}
@@ -257,6 +276,8 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 	{
 		@Autowired
 		private WebSocketProducersRegistry websocketProducersRegistry;
+		@Autowired
+		private WebSocketSubscriptionLanguages subscriptionLanguages;
 
 		@Override
 		public void onApplicationEvent(final SessionUnsubscribeEvent event)
@@ -264,6 +285,7 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 			final String simpSessionId = extractSimpSessionId(event);
 			final String simpDestination = extractSimpDestination(event);
 			websocketProducersRegistry.onTopicUnsubscribed(simpSessionId, simpDestination);
+			subscriptionLanguages.onTopicUnsubscribed(simpSessionId, extractSimpSubscriptionId(event));
 
 			logger.info("Unsubscribed from simpDestination={} [ simpSessionId={} ]", simpDestination != null ? simpDestination : "<null>", simpSessionId);
 		}
@@ -274,12 +296,15 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 	{
 		@Autowired
 		private WebSocketProducersRegistry websocketProducersRegistry;
+		@Autowired
+		private WebSocketSubscriptionLanguages subscriptionLanguages;
 
 		@Override
 		public void onApplicationEvent(final SessionDisconnectEvent event)
 		{
 			final String sessionId = event.getSessionId();
 			websocketProducersRegistry.onSessionDisconnect(sessionId);
+			subscriptionLanguages.onSessionDisconnect(sessionId);
 		}
 	}
 }
@@ -0,0 +1,128 @@
+package de.metas.ui.web.websocket;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps track of the language of each websocket session and of the topics it is subscribed to.
+ * <p>
+ * Events which are broadcast to a topic are rendered only once, so this index tells the producers in which language(s) the current subscribers of a topic expect them.
+ * The language is the one of the user session at the time the websocket connection was established.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class WebSocketSubscriptionLanguages
+{
+	/** Websocket session attribute in which the handshake stores the user session's language */
+	public static final String SESSION_ATTRIBUTE_AD_Language = "AD_Language";
+
+	private final ConcurrentHashMap<String, SessionSubscriptions> subscriptionsBySessionId = new ConcurrentHashMap<>();
+
+	public void onTopicSubscribed(final String sessionId, final String subscriptionId, final String topicName, final String adLanguage)
+	{
+		if (sessionId == null || subscriptionId == null || topicName == null || adLanguage == null)
+		{
+			return;
+		}
+
+		subscriptionsBySessionId.compute(sessionId, (k, existingSessionSubscriptions) -> {
+			final SessionSubscriptions sessionSubscriptions = existingSessionSubscriptions != null ? existingSessionSubscriptions : new SessionSubscriptions(adLanguage);
+			sessionSubscriptions.subscribe(subscriptionId, topicName);
+			return sessionSubscriptions;
+		});
+	}
+
+	public void onTopicUnsubscribed(final String sessionId, final String subscriptionId)
+	{
+		if (sessionId == null || subscriptionId == null)
+		{
+			return;
+		}
+
+		subscriptionsBySessionId.computeIfPresent(sessionId, (k, sessionSubscriptions) -> sessionSubscriptions.unsubscribe(subscriptionId) ? null : sessionSubscriptions);
+	}
+
+	public void onSessionDisconnect(final String sessionId)
+	{
+		if (sessionId == null)
+		{
+			return;
+		}
+
+		subscriptionsBySessionId.remove(sessionId);
+	}
+
+	/** @return the languages of the sessions which are currently subscribed to given topic; empty if there are no (known) subscribers */
+	public Set<String> getSubscribedLanguages(@NonNull final String topicName)
+	{
+		return subscriptionsBySessionId.values()
+				.stream()
+				.filter(sessionSubscriptions -> sessionSubscriptions.isSubscribedTo(topicName))
+				.map(SessionSubscriptions::getAdLanguage)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	private static final class SessionSubscriptions
+	{
+		private final String adLanguage;
+		private final Map<String, String> topicNamesBySubscriptionId = new ConcurrentHashMap<>();
+
+		private SessionSubscriptions(@NonNull final String adLanguage)
+		{
+			this.adLanguage = adLanguage;
+		}
+
+		public String getAdLanguage()
+		{
+			return adLanguage;
+		}
+
+		public void subscribe(final String subscriptionId, final String topicName)
+		{
+			topicNamesBySubscriptionId.put(subscriptionId, topicName);
+		}
+
+		/** @return true if there are no subscriptions left */
+		public boolean unsubscribe(final String subscriptionId)
+		{
+			topicNamesBySubscriptionId.remove(subscriptionId);
+			return topicNamesBySubscriptionId.isEmpty();
+		}
+
+		public boolean isSubscribedTo(final String topicName)
+		{
+			return topicNamesBySubscriptionId.containsValue(topicName);
+		}
+	}
+}
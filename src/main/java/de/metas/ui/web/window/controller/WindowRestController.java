@@ -203,14 +203,32 @@ public class WindowRestController
 			@PathVariable("tabId") final String tabIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
 			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
-			@RequestParam(name = "orderBy", required = false) final String orderBysListStr)
+			@RequestParam(name = "orderBy", required = false) final String orderBysListStr,
+			@RequestParam(name = "firstRow", required = false, defaultValue = "0") @ApiParam("first row to fetch (zero based); considered only if pageLength is set") final int firstRow,
+			@RequestParam(name = "pageLength", required = false, defaultValue = "0") @ApiParam("how many rows to fetch; if not set, all rows are fetched") final int pageLength)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentId documentId = DocumentId.of(documentIdStr);
 		final DetailId tabId = DetailId.fromJson(tabIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentId, tabId);
 		final List<DocumentQueryOrderBy> orderBys = DocumentQueryOrderBy.parseOrderBysList(orderBysListStr);
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, firstRow, pageLength);
+	}
+
+	@GetMapping("/{windowId}/{documentId}/{tabId}/count")
+	public int getIncludedDocumentsCount(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable("documentId") final String documentIdStr,
+			@PathVariable("tabId") final String tabIdStr)
+	{
+		userSession.assertLoggedIn();
+
+		final WindowId windowId = WindowId.fromJson(windowIdStr);
+		final DocumentId documentId = DocumentId.of(documentIdStr);
+		final DetailId tabId = DetailId.fromJson(tabIdStr);
+		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentId, tabId);
+
+		return documentCollection.forRootDocumentReadonly(documentPath, rootDocument -> rootDocument.getIncludedDocumentsCount(tabId));
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}/{rowId}")
@@ -230,6 +248,13 @@ public class WindowRestController
 	}
 
 	private List<JSONDocument> getData(final DocumentPath documentPath, final String fieldsListStr, final boolean advanced, final List<DocumentQueryOrderBy> orderBys)
+	{
+		final int firstRow = 0;
+		final int pageLength = 0; // no paging
+		return getData(documentPath, fieldsListStr, advanced, orderBys, firstRow, pageLength);
+	}
+
+	private List<JSONDocument> getData(final DocumentPath documentPath, final String fieldsListStr, final boolean advanced, final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
 	{
 		userSession.assertLoggedIn();
 
@@ -244,6 +269,10 @@ public class WindowRestController
 			{
 				documents = ImmutableList.of(rootDocument);
 			}
+			else if (documentPath.isAnyIncludedDocument() && pageLength > 0)
+			{
+				documents = rootDocument.getIncludedDocumentsPage(documentPath.getDetailId(), orderBys, Math.max(firstRow, 0), pageLength).toList();
+			}
 			else if (documentPath.isAnyIncludedDocument())
 			{
 				documents = rootDocument.getIncludedDocuments(documentPath.getDetailId(), orderBys).toList();
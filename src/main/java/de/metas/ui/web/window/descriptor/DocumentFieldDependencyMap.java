@@ -8,11 +8,14 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
 
+import lombok.Value;
+
 /*
  * #%L
  * metasfresh-webui-api
@@ -82,10 +85,17 @@ public final class DocumentFieldDependencyMap
 	/** Map: "dependency type" to "depends on field name" to list of "dependent field name" */
 	private final ImmutableMap<DependencyType, Multimap<String, String>> type2name2dependencies;
 
+	/**
+	 * Map: "depends on field name" to list of "dependent field name and dependency type".
+	 * The list is ordered by dependency type and has no duplicates, so on field change we do only one lookup.
+	 */
+	private final ImmutableListMultimap<String, FieldDependency> name2dependencies;
+
 	private DocumentFieldDependencyMap(final Builder builder)
 	{
 		super();
 		type2name2dependencies = builder.getType2Name2DependenciesMap();
+		name2dependencies = compile(type2name2dependencies);
 	}
 
 	/** Empty constructor */
@@ -93,6 +103,24 @@ public final class DocumentFieldDependencyMap
 	{
 		super();
 		type2name2dependencies = ImmutableMap.of();
+		name2dependencies = ImmutableListMultimap.of();
+	}
+
+	private static ImmutableListMultimap<String, FieldDependency> compile(final ImmutableMap<DependencyType, Multimap<String, String>> type2name2dependencies)
+	{
+		final ImmutableListMultimap.Builder<String, FieldDependency> builder = ImmutableListMultimap.builder();
+		for (final DependencyType dependencyType : DependencyType.values())
+		{
+			final Multimap<String, String> name2dependencies = type2name2dependencies.get(dependencyType);
+			if (name2dependencies == null || name2dependencies.isEmpty())
+			{
+				continue;
+			}
+
+			name2dependencies.forEach((dependsOnFieldName, dependentFieldName) -> builder.put(dependsOnFieldName, new FieldDependency(dependentFieldName, dependencyType)));
+		}
+
+		return builder.build();
 	}
 
 	@Override
@@ -129,21 +157,19 @@ public final class DocumentFieldDependencyMap
 
 	public void consumeForChangedFieldName(final String changedFieldName, final IDependencyConsumer consumer)
 	{
-		for (final DependencyType dependencyType : DependencyType.values())
+		for (final FieldDependency dependency : name2dependencies.get(changedFieldName))
 		{
-			final Multimap<String, String> name2dependencies = type2name2dependencies.get(dependencyType);
-			if (name2dependencies == null || name2dependencies.isEmpty())
-			{
-				continue;
-			}
-
-			for (final String dependentFieldName : name2dependencies.get(changedFieldName))
-			{
-				consumer.consume(dependentFieldName, dependencyType);
-			}
+			consumer.consume(dependency.getDependentFieldName(), dependency.getDependencyType());
 		}
 	}
 
+	@Value
+	private static final class FieldDependency
+	{
+		String dependentFieldName;
+		DependencyType dependencyType;
+	}
+
 	//
 	//
 	//
@@ -81,6 +81,8 @@ public final class DocumentFieldDescriptor
 	/** Is this the key field ? */
 	private final boolean key;
 	private final boolean calculated;
+	/** Shall the value be re-queried after save, because it might be changed by database (e.g. virtual columns, columns maintained by triggers) */
+	private final boolean refreshAfterSave;
 
 	@Getter
 	private final boolean parentLink;
@@ -149,6 +151,7 @@ public final class DocumentFieldDescriptor
 
 		key = builder.isKey();
 		calculated = builder.isCalculated();
+		refreshAfterSave = builder.isRefreshAfterSave();
 
 		parentLink = builder.parentLink;
 		parentLinkFieldName = builder.parentLinkFieldName;
@@ -238,6 +241,11 @@ public final class DocumentFieldDescriptor
 		return calculated;
 	}
 
+	public boolean isRefreshAfterSave()
+	{
+		return refreshAfterSave;
+	}
+
 	public DocumentFieldWidgetType getWidgetType()
 	{
 		return widgetType;
@@ -405,6 +413,7 @@ public final class DocumentFieldDescriptor
 		private boolean virtualField;
 		private Optional<IDocumentFieldValueProvider> virtualFieldValueProvider = Optional.empty();
 		private boolean calculated;
+		private boolean refreshAfterSave;
 
 		private DocumentFieldWidgetType _widgetType;
 		private WidgetSize _widgetSize;
@@ -622,6 +631,22 @@ public final class DocumentFieldDescriptor
 			return calculated;
 		}
 
+		public Builder setRefreshAfterSave(final boolean refreshAfterSave)
+		{
+			assertNotBuilt();
+			this.refreshAfterSave = refreshAfterSave;
+			return this;
+		}
+
+		private boolean isRefreshAfterSave()
+		{
+			if (isVirtualField())
+			{
+				return true;
+			}
+			return refreshAfterSave;
+		}
+
 		public Builder setWidgetType(final DocumentFieldWidgetType widgetType)
 		{
 			assertNotBuilt();
@@ -437,6 +437,7 @@ import lombok.NonNull;
 				.setValueClass(fieldBinding.getValueClass())
 				.setVirtualField(fieldBinding.isVirtualColumn())
 				.setCalculated(gridFieldVO.isCalculated())
+				.setRefreshAfterSave(gridFieldVO.isCalculated())
 				//
 				.setDefaultValueExpression(defaultValueExpression)
 				//
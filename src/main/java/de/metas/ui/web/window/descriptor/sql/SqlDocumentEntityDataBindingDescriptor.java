@@ -7,6 +7,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
 
 import org.adempiere.ad.expression.api.ICachedStringExpression;
 import org.adempiere.ad.expression.api.IExpressionFactory;
@@ -22,6 +25,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.ui.web.window.descriptor.DetailId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDataBindingDescriptor;
@@ -85,6 +89,7 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 	private final String sqlParentLinkColumnName;
 
 	private final ICachedStringExpression sqlSelectAllFrom;
+	private final ConcurrentHashMap<ImmutableSet<String>, ICachedStringExpression> sqlSelectAllFromByDisplayFieldNames = new ConcurrentHashMap<>();
 	private final ICachedStringExpression sqlWhereClause;
 	private final List<DocumentQueryOrderBy> defaultOrderBys;
 
@@ -190,6 +195,71 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 		return sqlSelectAllFrom;
 	}
 
+	/**
+	 * @param displayFieldNames fields for which the display columns shall be selected
+	 * @return SELECT ... FROM ..., same as {@link #getSqlSelectAllFrom()} but selecting the display columns only for given fields
+	 */
+	public IStringExpression getSqlSelectAllFrom(@NonNull final ImmutableSet<String> displayFieldNames)
+	{
+		return sqlSelectAllFromByDisplayFieldNames.computeIfAbsent(displayFieldNames, k -> buildSqlSelect(sqlTableName, sqlTableAlias, getFields(), displayFieldNames).caching());
+	}
+
+	/**
+	 * @param displayFieldNames fields for which the display columns shall be selected; <code>null</code> means all fields
+	 * @return SELECT ... FROM ....
+	 */
+	private static IStringExpression buildSqlSelect(
+			final String sqlTableName,
+			final String sqlTableAlias,
+			final Collection<SqlDocumentFieldDataBindingDescriptor> fields,
+			@Nullable final ImmutableSet<String> displayFieldNames)
+	{
+		if (fields.isEmpty())
+		{
+			Check.fail("No SQL fields found for {}", sqlTableName);
+		}
+
+		final List<String> sqlSelectValuesList = new ArrayList<>(fields.size());
+		final List<IStringExpression> sqlSelectDisplayNamesList = new ArrayList<>(fields.size());
+		for (final SqlDocumentFieldDataBindingDescriptor sqlField : fields)
+		{
+			//
+			// Value column
+			final String sqlSelectValue = sqlField.getSqlSelectValue();
+			sqlSelectValuesList.add(sqlSelectValue);
+
+			//
+			// Display column, if any
+			if (sqlField.isUsingDisplayColumn()
+					&& (displayFieldNames == null || displayFieldNames.contains(sqlField.getFieldName())))
+			{
+				final IStringExpression sqlSelectDisplayValue = sqlField.getSqlSelectDisplayValue();
+				sqlSelectDisplayNamesList.add(sqlSelectDisplayValue);
+			}
+		}
+
+		final IStringExpression sqlInnerExpr = IStringExpression.composer()
+				.append("SELECT ")
+				.append("\n ").append(Joiner.on("\n, ").join(sqlSelectValuesList))
+				.append("\n FROM ").append(sqlTableName)
+				.wrap(AccessSqlStringExpression.wrapper(sqlTableName, IUserRolePermissions.SQL_FULLYQUALIFIED, IUserRolePermissions.SQL_RO)) // security
+				.build();
+
+		final CompositeStringExpression.Builder sqlBuilder = IStringExpression.composer()
+				.append("SELECT ")
+				.append("\n").append(sqlTableAlias).append(".*"); // Value fields
+
+		// DisplayName fields
+		if (!sqlSelectDisplayNamesList.isEmpty())
+		{
+			sqlBuilder.append("\n, ").appendAllJoining("\n, ", sqlSelectDisplayNamesList);
+		}
+
+		sqlBuilder.append("\n FROM (").append(sqlInnerExpr).append(") ").append(sqlTableAlias); // FROM
+
+		return sqlBuilder.build();
+	}
+
 	@Override
 	public IStringExpression getSqlWhereClause()
 	{
@@ -288,58 +358,7 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 		private void buildSqlSelects()
 		{
 			final Collection<SqlDocumentFieldDataBindingDescriptor> fields = getFieldsByFieldName().values();
-			if (fields.isEmpty())
-			{
-				Check.fail("No SQL fields found; this={}", this);
-			}
-
-			final List<String> sqlSelectValuesList = new ArrayList<>(fields.size());
-			final List<IStringExpression> sqlSelectDisplayNamesList = new ArrayList<>(fields.size());
-			for (final SqlDocumentFieldDataBindingDescriptor sqlField : fields)
-			{
-				//
-				// Value column
-				final String sqlSelectValue = sqlField.getSqlSelectValue();
-				sqlSelectValuesList.add(sqlSelectValue);
-
-				//
-				// Display column, if any
-				if (sqlField.isUsingDisplayColumn())
-				{
-					final IStringExpression sqlSelectDisplayValue = sqlField.getSqlSelectDisplayValue();
-					sqlSelectDisplayNamesList.add(sqlSelectDisplayValue);
-				}
-			}
-
-			//
-			_sqlSelectAll = buildSqlSelect(sqlSelectValuesList, sqlSelectDisplayNamesList);
-		}
-
-		private final IStringExpression buildSqlSelect(final List<String> sqlSelectValuesList, final List<IStringExpression> sqlSelectDisplayNamesList)
-		{
-			final String sqlTableName = getTableName();
-			final String sqlTableAlias = getTableAlias();
-
-			final IStringExpression sqlInnerExpr = IStringExpression.composer()
-					.append("SELECT ")
-					.append("\n ").append(Joiner.on("\n, ").join(sqlSelectValuesList))
-					.append("\n FROM ").append(sqlTableName)
-					.wrap(AccessSqlStringExpression.wrapper(sqlTableName, IUserRolePermissions.SQL_FULLYQUALIFIED, IUserRolePermissions.SQL_RO)) // security
-					.build();
-
-			final CompositeStringExpression.Builder sqlBuilder = IStringExpression.composer()
-					.append("SELECT ")
-					.append("\n").append(sqlTableAlias).append(".*"); // Value fields
-
-			// DisplayName fields
-			if (!sqlSelectDisplayNamesList.isEmpty())
-			{
-				sqlBuilder.append("\n, ").appendAllJoining("\n, ", sqlSelectDisplayNamesList);
-			}
-
-			sqlBuilder.append("\n FROM (").append(sqlInnerExpr).append(") ").append(sqlTableAlias); // FROM
-
-			return sqlBuilder.build();
+			_sqlSelectAll = buildSqlSelect(getTableName(), getTableAlias(), fields, null);
 		}
 
 		private IStringExpression getSqlWhereClauseExpression()
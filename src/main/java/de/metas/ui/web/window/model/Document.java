@@ -301,7 +301,10 @@ public final class Document
 		{
 			Preconditions.checkNotNull(parentDocumentCopy, "parentDocumentCopy");
 			_parentDocument = parentDocumentCopy;
-			parentReadonly = parentDocumentCopy.getReadonly();
+			// NOTE: take over the parent readonly status which was used to compute our "readonly",
+			// so a later change of the parent's readonly status is propagated by setParentReadonly
+			// (this matters when included documents are copied lazily, i.e. after the parent copy was already changed)
+			parentReadonly = from.parentReadonly;
 			readonly = from.readonly;
 		}
 		else
@@ -924,6 +927,19 @@ public final class Document
 		return fieldsByName.keySet();
 	}
 
+	/**
+	 * @return a rough estimation of how much memory this document retains, i.e. the number of its fields plus the fields of the included documents which are kept in memory
+	 */
+	public int estimateWeight()
+	{
+		int weight = fieldsByName.size();
+		for (final IIncludedDocumentsCollection includedDocumentsCollection : includedDocuments.values())
+		{
+			weight += includedDocumentsCollection.estimateLoadedDocumentsWeight();
+		}
+		return weight;
+	}
+
 	public boolean hasField(final String fieldName)
 	{
 		return fieldsByName.containsKey(fieldName);
@@ -1241,14 +1257,10 @@ public final class Document
 
 		final String triggeringFieldName = null; // N/A
 
-		// Document level properties (e.g. docuemnt readonly)
-		for (final String documentFieldName : DocumentFieldDependencyMap.DOCUMENT_ALL_FIELDS)
-		{
-			for (final DependencyType triggeringDependencyType : DocumentFieldDependencyMap.DEPENDENCYTYPES_DocumentLevel)
-			{
-				updateOnDependencyChanged(documentFieldName, (IDocumentField)null, triggeringFieldName, triggeringDependencyType);
-			}
-		}
+		// Document level properties (e.g. document readonly).
+		// NOTE: we are not propagating the readonly flag to fields because all fields are updated right below,
+		// else each field's readonly logic would be evaluated twice.
+		readonly = computeReadonly();
 
 		// Fields
 		for (final IDocumentField documentField : getFields())
@@ -1496,6 +1508,18 @@ public final class Document
 		return includedDocuments.getDocuments(orderBys);
 	}
 
+	public OrderedDocumentsList getIncludedDocumentsPage(final DetailId detailId, final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		final IIncludedDocumentsCollection includedDocuments = getIncludedDocumentsCollection(detailId);
+		return includedDocuments.getDocumentsPage(orderBys, firstRow, pageLength);
+	}
+
+	public int getIncludedDocumentsCount(final DetailId detailId)
+	{
+		final IIncludedDocumentsCollection includedDocuments = getIncludedDocumentsCollection(detailId);
+		return includedDocuments.getDocumentsCount();
+	}
+
 	public void assertNewDocumentAllowed(final DetailId detailId)
 	{
 		getIncludedDocumentsCollection(detailId).assertNewDocumentAllowed();
@@ -1552,6 +1576,11 @@ public final class Document
 		return isActiveField != null ? isActiveField.getValueAsBoolean() : true; // active if field not found (shall not happen)
 	}
 
+	/* package */ DocumentReadonly getParentReadonly()
+	{
+		return parentReadonly;
+	}
+
 	/* package */ void setParentReadonly(@NonNull final DocumentReadonly parentReadonly)
 	{
 		final DocumentReadonly parentReadonlyOld = this.parentReadonly;
@@ -1,11 +1,17 @@
 package de.metas.ui.web.window.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -31,13 +37,17 @@ import org.compiere.util.Evaluatee;
 import org.compiere.util.Evaluatees;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.adempiere.report.jasper.OutputType;
@@ -52,9 +62,11 @@ import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.controller.DocumentPermissionsHelper;
 import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.DocumentType;
 import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DetailId;
 import de.metas.ui.web.window.descriptor.DocumentDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
 import de.metas.ui.web.window.descriptor.factory.DocumentDescriptorFactory;
@@ -68,7 +80,6 @@ import de.metas.util.Services;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NonNull;
-import lombok.Value;
 
 /*
  * #%L
@@ -106,12 +117,21 @@ public class DocumentCollection
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
 
-	private final Cache<DocumentKey, Document> rootDocuments = CacheBuilder.newBuilder().build();
+	/** Readonly copies of the root documents */
+	private final RootDocumentsCache rootDocuments;
 
 	private final ConcurrentHashMap<String, Set<WindowId>> tableName2windowIds = new ConcurrentHashMap<>();
 
-	/* package */ DocumentCollection()
+	/**
+	 * @param rootDocumentsMaxWeight maximum estimated weight (i.e. number of fields) of all cached root documents; zero or negative means no limit
+	 * @param rootDocumentsExpireAfterAccessMinutes how long a root document which was not accessed is kept in cache; zero or negative means forever
+	 */
+	/* package */ DocumentCollection(
+			@Value("${metasfresh.webui.documents.cache.maxWeight:500000}") final long rootDocumentsMaxWeight,
+			@Value("${metasfresh.webui.documents.cache.expireAfterAccessMinutes:60}") final int rootDocumentsExpireAfterAccessMinutes)
 	{
+		rootDocuments = new RootDocumentsCache(rootDocumentsMaxWeight, rootDocumentsExpireAfterAccessMinutes);
+		logger.info("Root documents cache: maxWeight={}, expireAfterAccessMinutes={}", rootDocumentsMaxWeight, rootDocumentsExpireAfterAccessMinutes);
 	}
 
 	public DocumentDescriptorFactory getDocumentDescriptorFactory()
@@ -189,21 +209,17 @@ public class DocumentCollection
 
 	private Document getOrLoadDocument(@NonNull final DocumentKey documentKey)
 	{
-		try
-		{
-			return rootDocuments.get(documentKey, () -> {
+		return rootDocuments.getOrLoad(documentKey, this::loadRootDocument);
+	}
 
-				final Document rootDocument = retrieveRootDocumentFromRepository(documentKey)
-						.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+	/** Retrieves the root document from repository and returns its readonly copy */
+	private Document loadRootDocument(@NonNull final DocumentKey documentKey)
+	{
+		final Document rootDocument = retrieveRootDocumentFromRepository(documentKey)
+				.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
 
-				addToTableName2WindowIdsCache(rootDocument.getEntityDescriptor());
-				return rootDocument;
-			});
-		}
-		catch (final ExecutionException e)
-		{
-			throw AdempiereException.wrapIfNeeded(e);
-		}
+		addToTableName2WindowIdsCache(rootDocument.getEntityDescriptor());
+		return rootDocument;
 	}
 
 	public <R> R forRootDocumentReadonly(@NonNull final DocumentPath documentPath, final Function<Document, R> rootDocumentProcessor)
@@ -263,8 +279,11 @@ public class DocumentCollection
 		else
 		{
 			rootDocumentKey = DocumentKey.ofRootDocumentPath(rootDocumentPathOrNew);
-			lockHolder = getOrLoadDocument(rootDocumentKey);
 			isNewRootDocument = false;
+
+			// Make sure the document is not evicted while we are changing it,
+			// else a concurrent request would load another instance, which has another lock.
+			lockHolder = rootDocuments.pinForWriting(rootDocumentKey, this::loadRootDocument);
 		}
 
 		try (final IAutoCloseable writeLock = lockHolder.lockForWriting())
@@ -291,7 +310,7 @@ public class DocumentCollection
 			// Commit or remove it from cache if deleted
 			if (rootDocument.isDeleted())
 			{
-				rootDocuments.invalidate(rootDocumentKey);
+				rootDocuments.remove(rootDocumentKey);
 				changesCollector.collectDeleted(rootDocument.getDocumentPath());
 			}
 			else
@@ -302,6 +321,13 @@ public class DocumentCollection
 			// Return the result
 			return result;
 		}
+		finally
+		{
+			if (!isNewRootDocument)
+			{
+				rootDocuments.unpinForWriting(rootDocumentKey);
+			}
+		}
 	}
 
 	/**
@@ -361,9 +387,15 @@ public class DocumentCollection
 
 	public void cacheReset()
 	{
-		// TODO: invalidate only those which are: 1. NOT new; 2. NOT currently editing
-		rootDocuments.invalidateAll();
-		rootDocuments.cleanUp();
+		rootDocuments.reset();
+	}
+
+	/**
+	 * @return root documents cache statistics (hits, misses, evictions etc)
+	 */
+	public Map<String, Object> getCacheStats()
+	{
+		return rootDocuments.getStats();
 	}
 
 	private void commitRootDocument(@NonNull final Document rootDocument)
@@ -441,6 +473,23 @@ public class DocumentCollection
 		});
 	}
 
+	private void deleteIncludedDocuments(
+			final DocumentPath rootDocumentPath,
+			final DetailId detailId,
+			final DocumentIdsSelection rowIds,
+			final IDocumentChangesCollector changesCollector)
+	{
+		if (rootDocumentPath.isNewDocument())
+		{
+			throw new InvalidDocumentPathException(rootDocumentPath);
+		}
+
+		forRootDocumentWritable(rootDocumentPath, changesCollector, rootDocument -> {
+			rootDocument.deleteIncludedDocuments(detailId, rowIds);
+			return null; // nothing to return
+		});
+	}
+
 	private void assertDeleteDocumentAllowed(final DocumentEntityDescriptor entityDescriptor)
 	{
 		final Evaluatee evalCtx = Evaluatees.mapBuilder()
@@ -455,14 +504,50 @@ public class DocumentCollection
 		}
 	}
 
+	/**
+	 * Deletes given documents.
+	 *
+	 * The included documents of the same root document and tab are deleted together, so they are deleted from repository in one go (see {@link DocumentsRepository#deleteAll(java.util.Collection)}).
+	 */
 	public void deleteAll(final List<DocumentPath> documentPaths, final IDocumentChangesCollector changesCollector)
 	{
 		// FIXME: i think we shall refactor this method and make sure that "deleteAll" is atomic
 
-		for (final DocumentPath documentPath : documentPaths)
+		final List<DocumentPath> otherDocumentPaths = new ArrayList<>();
+		final Map<IncludedDocumentsKey, Set<DocumentId>> rowIdsByIncludedDocumentsKey = groupRowIdsByIncludedDocumentsKey(documentPaths, otherDocumentPaths);
+
+		for (final DocumentPath documentPath : otherDocumentPaths)
 		{
 			delete(documentPath, changesCollector);
 		}
+
+		rowIdsByIncludedDocumentsKey.forEach((key, rowIds) -> deleteIncludedDocuments(key.getRootDocumentPath(), key.getDetailId(), DocumentIdsSelection.of(rowIds), changesCollector));
+	}
+
+	/**
+	 * Groups the row IDs of given included documents paths by root document and tab.
+	 *
+	 * @param outOtherDocumentPaths collects the paths which cannot be grouped (e.g. root documents)
+	 */
+	@VisibleForTesting
+	static Map<IncludedDocumentsKey, Set<DocumentId>> groupRowIdsByIncludedDocumentsKey(
+			final List<DocumentPath> documentPaths,
+			final List<DocumentPath> outOtherDocumentPaths)
+	{
+		final Map<IncludedDocumentsKey, Set<DocumentId>> rowIdsByIncludedDocumentsKey = new LinkedHashMap<>();
+		for (final DocumentPath documentPath : documentPaths)
+		{
+			if (documentPath.hasIncludedDocuments() && !documentPath.getRowIds().isAll())
+			{
+				rowIdsByIncludedDocumentsKey.computeIfAbsent(IncludedDocumentsKey.of(documentPath), key -> new LinkedHashSet<>())
+						.addAll(documentPath.getRowIds().toSet());
+			}
+			else
+			{
+				outOtherDocumentPaths.add(documentPath);
+			}
+		}
+		return rowIdsByIncludedDocumentsKey;
 	}
 
 	public TableRecordReference getTableRecordReference(final DocumentPath documentPath)
@@ -777,7 +862,7 @@ public class DocumentCollection
 	}
 
 	@Immutable
-	@Value
+	@lombok.Value
 	@Builder
 	public static final class DocumentPrint
 	{
@@ -790,7 +875,8 @@ public class DocumentCollection
 	}
 
 	@Immutable
-	private static final class DocumentKey
+	@VisibleForTesting
+	static final class DocumentKey
 	{
 		public static final DocumentKey of(final Document document)
 		{
@@ -884,4 +970,268 @@ public class DocumentCollection
 			return DocumentPath.rootDocumentPath(documentType, documentTypeId, documentId);
 		}
 	} // DocumentKey
+
+	/**
+	 * Cache of readonly root documents, bounded by their estimated weight (see {@link Document#estimateWeight()}).
+	 * <p>
+	 * New documents which were not saved yet and documents which are currently checked out for writing are pinned, i.e. they are not evicted.
+	 * New documents are pinned because the cache is the only place where they exist.
+	 * Documents checked out for writing are pinned because they are also the lock holders: if such a document were evicted, a concurrent request would load another instance, which has another lock.
+	 */
+	@VisibleForTesting
+	static final class RootDocumentsCache
+	{
+		private final long maxWeight;
+		private final int expireAfterAccessMinutes;
+		private final Cache<DocumentKey, Document> documents;
+		private final ConcurrentHashMap<DocumentKey, PinnedRootDocument> pinnedDocuments = new ConcurrentHashMap<>();
+
+		/**
+		 * @param maxWeight maximum estimated weight (i.e. number of fields) of all cached root documents; zero or negative means no limit
+		 * @param expireAfterAccessMinutes how long a root document which was not accessed is kept in cache; zero or negative means forever
+		 */
+		RootDocumentsCache(final long maxWeight, final int expireAfterAccessMinutes)
+		{
+			this.maxWeight = maxWeight;
+			this.expireAfterAccessMinutes = expireAfterAccessMinutes;
+
+			final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+					.recordStats();
+			if (maxWeight > 0)
+			{
+				cacheBuilder
+						.maximumWeight(maxWeight)
+						.weigher((documentKey, document) -> 1 + ((Document)document).estimateWeight());
+			}
+			if (expireAfterAccessMinutes > 0)
+			{
+				cacheBuilder.expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES);
+			}
+			documents = cacheBuilder.build();
+		}
+
+		public Document getOrLoad(@NonNull final DocumentKey documentKey, @NonNull final Function<DocumentKey, Document> loader)
+		{
+			final PinnedRootDocument pinnedDocument = pinnedDocuments.get(documentKey);
+			if (pinnedDocument != null)
+			{
+				return pinnedDocument.getDocument();
+			}
+
+			return getOrLoadNotPinned(documentKey, loader);
+		}
+
+		private Document getOrLoadNotPinned(final DocumentKey documentKey, final Function<DocumentKey, Document> loader)
+		{
+			try
+			{
+				return documents.get(documentKey, () -> loader.apply(documentKey));
+			}
+			catch (final ExecutionException e)
+			{
+				throw AdempiereException.wrapIfNeeded(e);
+			}
+		}
+
+		@Nullable
+		public Document getIfPresent(@NonNull final DocumentKey documentKey)
+		{
+			final PinnedRootDocument pinnedDocument = pinnedDocuments.get(documentKey);
+			if (pinnedDocument != null)
+			{
+				return pinnedDocument.getDocument();
+			}
+			return documents.getIfPresent(documentKey);
+		}
+
+		/**
+		 * Adds the given readonly root document to cache. New documents which were not saved yet are pinned.
+		 */
+		public void put(@NonNull final DocumentKey documentKey, @NonNull final Document document)
+		{
+			if (document.isNew())
+			{
+				pinnedDocuments.compute(documentKey, (key, pinnedDocument) -> {
+					final PinnedRootDocument pinnedDocumentEffective = pinnedDocument != null ? pinnedDocument : new PinnedRootDocument();
+					pinnedDocumentEffective.setDocument(document);
+					pinnedDocumentEffective.setNotSaved(true);
+					return pinnedDocumentEffective;
+				});
+				documents.invalidate(documentKey);
+			}
+			else
+			{
+				documents.put(documentKey, document);
+				pinnedDocuments.computeIfPresent(documentKey, (key, pinnedDocument) -> {
+					pinnedDocument.setDocument(document);
+					pinnedDocument.setNotSaved(false);
+					return pinnedDocument.isPinned() ? pinnedDocument : null;
+				});
+			}
+		}
+
+		public void remove(@NonNull final DocumentKey documentKey)
+		{
+			documents.invalidate(documentKey);
+			pinnedDocuments.remove(documentKey);
+		}
+
+		/** Invalidates the given document, unless it's pinned */
+		public void invalidate(@NonNull final DocumentKey documentKey)
+		{
+			documents.invalidate(documentKey);
+		}
+
+		/** Invalidates the given documents, except the pinned ones */
+		public void invalidateAll(@NonNull final Collection<DocumentKey> documentKeys)
+		{
+			documents.invalidateAll(documentKeys);
+		}
+
+		/**
+		 * Pins the given document for writing, loading it if needed.
+		 * <p>
+		 * The lookup and the pinning are done atomically, so the document cannot be evicted in between.
+		 *
+		 * @return the pinned document
+		 */
+		public Document pinForWriting(@NonNull final DocumentKey documentKey, @NonNull final Function<DocumentKey, Document> loader)
+		{
+			final PinnedRootDocument pinned = pinnedDocuments.compute(documentKey, (key, pinnedDocument) -> {
+				final PinnedRootDocument pinnedDocumentEffective;
+				if (pinnedDocument != null)
+				{
+					pinnedDocumentEffective = pinnedDocument;
+				}
+				else
+				{
+					pinnedDocumentEffective = new PinnedRootDocument();
+					pinnedDocumentEffective.setDocument(getOrLoadNotPinned(key, loader));
+				}
+				pinnedDocumentEffective.incrementWritersCount();
+				return pinnedDocumentEffective;
+			});
+			return pinned.getDocument();
+		}
+
+		public void unpinForWriting(@NonNull final DocumentKey documentKey)
+		{
+			pinnedDocuments.computeIfPresent(documentKey, (key, pinnedDocument) -> {
+				pinnedDocument.decrementWritersCount();
+				return pinnedDocument.isPinned() ? pinnedDocument : null;
+			});
+		}
+
+		@VisibleForTesting
+		boolean isPinned(@NonNull final DocumentKey documentKey)
+		{
+			return pinnedDocuments.containsKey(documentKey);
+		}
+
+		/**
+		 * Invalidates all documents. The pinned documents (new or currently editing) are kept, except the new ones which were abandoned.
+		 */
+		public void reset()
+		{
+			documents.invalidateAll();
+			documents.cleanUp();
+			removeAbandonedPinnedDocuments();
+		}
+
+		private void removeAbandonedPinnedDocuments()
+		{
+			if (expireAfterAccessMinutes <= 0)
+			{
+				return;
+			}
+
+			final long minLastAccessMillis = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(expireAfterAccessMinutes);
+			for (final DocumentKey documentKey : ImmutableSet.copyOf(pinnedDocuments.keySet()))
+			{
+				pinnedDocuments.computeIfPresent(documentKey, (key, pinnedDocument) -> pinnedDocument.isAbandoned(minLastAccessMillis) ? null : pinnedDocument);
+			}
+		}
+
+		public Map<String, Object> getStats()
+		{
+			final CacheStats stats = documents.stats();
+			return ImmutableMap.<String, Object> builder()
+					.put("size", documents.size())
+					.put("pinned", pinnedDocuments.size())
+					.put("maxWeight", maxWeight)
+					.put("expireAfterAccessMinutes", expireAfterAccessMinutes)
+					.put("hits", stats.hitCount())
+					.put("misses", stats.missCount())
+					.put("evictions", stats.evictionCount())
+					.put("loadAverageMillis", TimeUnit.NANOSECONDS.toMillis((long)stats.averageLoadPenalty()))
+					.build();
+		}
+	}
+
+	/**
+	 * A root document which shall not be evicted from cache.
+	 */
+	private static final class PinnedRootDocument
+	{
+		private volatile Document document;
+		private volatile long lastAccessMillis;
+		/** true if the document is new and it was not saved yet */
+		private boolean notSaved;
+		/** how many requests are currently checking out this document for writing */
+		private int writersCount;
+
+		public Document getDocument()
+		{
+			lastAccessMillis = System.currentTimeMillis();
+			return document;
+		}
+
+		public void setDocument(@NonNull final Document document)
+		{
+			this.document = document;
+			lastAccessMillis = System.currentTimeMillis();
+		}
+
+		public void setNotSaved(final boolean notSaved)
+		{
+			this.notSaved = notSaved;
+		}
+
+		public void incrementWritersCount()
+		{
+			writersCount++;
+		}
+
+		public void decrementWritersCount()
+		{
+			writersCount = Math.max(writersCount - 1, 0);
+		}
+
+		public boolean isPinned()
+		{
+			return notSaved || writersCount > 0;
+		}
+
+		/** @return true if it's a new document which was not changed nor accessed since given time */
+		public boolean isAbandoned(final long minLastAccessMillis)
+		{
+			return writersCount <= 0 && lastAccessMillis < minLastAccessMillis;
+		}
+	}
+
+	/** Identifies the included documents of a given tab of a given root document */
+	@lombok.Value(staticConstructor = "of")
+	@VisibleForTesting
+	static final class IncludedDocumentsKey
+	{
+		static IncludedDocumentsKey of(final DocumentPath includedDocumentsPath)
+		{
+			return of(includedDocumentsPath.getRootDocumentPath(), includedDocumentsPath.getDetailId());
+		}
+
+		@NonNull
+		DocumentPath rootDocumentPath;
+		@NonNull
+		DetailId detailId;
+	}
 }
@@ -130,10 +130,16 @@ public final class DocumentQueryOrderBy
 	public <T> Comparator<T> asComparator(final FieldValueExtractor<T> fieldValueExtractor)
 	{
 		final Function<T, Object> keyExtractor = obj -> fieldValueExtractor.getFieldValue(obj, fieldName);
-		Comparator<? super Object> keyComparator = ValueComparator.ofAscendingAndNullsLast(ascending, nullsLast);
+		Comparator<? super Object> keyComparator = getValueComparator();
 		return Comparator.comparing(keyExtractor, keyComparator);
 	}
 
+	/** @return comparator of this field's values, respecting ascending and nulls last flags */
+	Comparator<Object> getValueComparator()
+	{
+		return ValueComparator.ofAscendingAndNullsLast(ascending, nullsLast);
+	}
+
 	@FunctionalInterface
 	public static interface FieldValueExtractor<T>
 	{
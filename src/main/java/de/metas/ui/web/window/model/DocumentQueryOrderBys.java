@@ -1,9 +1,15 @@
 package de.metas.ui.web.window.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
 
 import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy.FieldValueExtractor;
 import lombok.NonNull;
 
@@ -45,4 +51,81 @@ public class DocumentQueryOrderBys
 				.reduce(Comparator::thenComparing)
 				.orElse(noopComparator);
 	}
+
+	/**
+	 * Sorts given rows.
+	 *
+	 * Compared to sorting with {@link #asComparator(List)}, the sort values are extracted only once per row
+	 * and the non comparable values (e.g. lookup values) are converted to string upfront,
+	 * so comparing two rows does not go through the rows' JSON values maps.
+	 *
+	 * @return rows sorted by given order bys; the sorting is stable
+	 */
+	public static <T extends IViewRow> ImmutableList<T> sortRows(@NonNull final Collection<T> rows, @NonNull final List<DocumentQueryOrderBy> orderBys)
+	{
+		if (orderBys.isEmpty() || rows.size() <= 1)
+		{
+			return ImmutableList.copyOf(rows);
+		}
+
+		final int sortValuesCount = orderBys.size();
+		final List<RowSortKey<T>> sortKeys = new ArrayList<>(rows.size());
+		for (final T row : rows)
+		{
+			final Map<String, Object> jsonValues = row.getFieldNameAndJsonValues();
+			final Object[] sortValues = new Object[sortValuesCount];
+			for (int i = 0; i < sortValuesCount; i++)
+			{
+				sortValues[i] = toSortValue(jsonValues.get(orderBys.get(i).getFieldName()));
+			}
+			sortKeys.add(new RowSortKey<>(row, sortValues));
+		}
+
+		final List<Comparator<Object>> valueComparators = orderBys.stream()
+				.map(DocumentQueryOrderBy::getValueComparator)
+				.collect(ImmutableList.toImmutableList());
+		sortKeys.sort((sortKey1, sortKey2) -> {
+			for (int i = 0; i < sortValuesCount; i++)
+			{
+				final int cmp = valueComparators.get(i).compare(sortKey1.sortValues[i], sortKey2.sortValues[i]);
+				if (cmp != 0)
+				{
+					return cmp;
+				}
+			}
+			return 0;
+		});
+
+		return sortKeys.stream()
+				.map(sortKey -> sortKey.row)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static Object toSortValue(final Object jsonValue)
+	{
+		if (jsonValue == null || jsonValue instanceof JSONNullValue)
+		{
+			return null;
+		}
+		else if (jsonValue instanceof Comparable)
+		{
+			return jsonValue;
+		}
+		else
+		{
+			return jsonValue.toString();
+		}
+	}
+
+	private static final class RowSortKey<T>
+	{
+		private final T row;
+		private final Object[] sortValues;
+
+		private RowSortKey(final T row, final Object[] sortValues)
+		{
+			this.row = row;
+			this.sortValues = sortValues;
+		}
+	}
 }
@@ -1,5 +1,7 @@
 package de.metas.ui.web.window.model;
 
+import java.util.Collection;
+
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
 
@@ -67,7 +69,20 @@ public interface DocumentsRepository
 
 	void delete(Document document);
 
+	/**
+	 * Deletes given documents, which shall be of the same entity.
+	 *
+	 * Implementations might do this more efficiently than deleting them one by one.
+	 */
+	default void deleteAll(final Collection<Document> documents)
+	{
+		documents.forEach(this::delete);
+	}
+
 	String retrieveVersion(DocumentEntityDescriptor entityDescriptor, int documentIdAsInt);
 
 	int retrieveLastLineNo(DocumentQuery query);
+
+	/** @return how many documents are matching given query (paging is not considered) */
+	int retrieveCount(DocumentQuery query);
 }
@@ -5,15 +5,16 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.adempiere.ad.expression.api.LogicExpressionResult;
 import org.compiere.util.Evaluatee;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -24,6 +25,7 @@ import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
 import de.metas.ui.web.window.exceptions.DocumentNotFoundException;
 import de.metas.ui.web.window.model.Document.CopyMode;
 import de.metas.ui.web.window.model.Document.OnValidStatusChanged;
+import de.metas.util.Check;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
@@ -64,7 +66,7 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	private final Document parentDocument;
 	private final DetailId detailId;
 	private final DocumentPath parentDocumentPath;;
-	private final LinkedHashMap<DocumentId, Document> _documentsWithChanges;
+	private final LinkedHashMap<DocumentId, ChangedDocument> _documentsWithChanges;
 
 	private final IncludedDocumentsCollectionActions actions;
 	private final ActionsContext actionsContext = new ActionsContext();
@@ -98,7 +100,7 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		detailId = from.detailId;
 		entityDescriptor = from.entityDescriptor;
 
-		_documentsWithChanges = new LinkedHashMap<>(Maps.transformValues(from._documentsWithChanges, includedDocumentOrig -> includedDocumentOrig.copy(parentDocumentCopy, copyMode)));
+		_documentsWithChanges = from.copyDocumentsWithChanges(parentDocumentCopy, copyMode);
 
 		actions = from.actions.copy();
 		parentReadonly = from.parentReadonly;
@@ -120,30 +122,48 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		parentDocument.assertWritable();
 	}
 
-	private final void addChangedDocument(final Document document)
+	private final synchronized LinkedHashMap<DocumentId, ChangedDocument> copyDocumentsWithChanges(final Document parentDocumentCopy, final CopyMode copyMode)
+	{
+		final LinkedHashMap<DocumentId, ChangedDocument> documentsWithChangesCopy = new LinkedHashMap<>(_documentsWithChanges.size());
+		_documentsWithChanges.forEach((documentId, changedDocument) -> documentsWithChangesCopy.put(documentId, changedDocument.copy(parentDocumentCopy, copyMode)));
+		return documentsWithChangesCopy;
+	}
+
+	private final synchronized void addChangedDocument(final Document document)
 	{
 		final DocumentId documentId = document.getDocumentId();
-		_documentsWithChanges.put(documentId, document);
+		_documentsWithChanges.put(documentId, ChangedDocument.ofDocument(document));
 	}
 
-	private final void forgetChangedDocument(final DocumentId documentId)
+	private final synchronized void forgetChangedDocument(final DocumentId documentId)
 	{
 		_documentsWithChanges.remove(documentId);
 	}
 
-	private final Collection<Document> getChangedDocuments()
+	/** @return changed documents, without copying them; the documents shall be used only for reading */
+	private final List<Document> getChangedDocumentsForReading()
 	{
-		return _documentsWithChanges.values();
+		return getInnerDocumentsWithChanges()
+				.values()
+				.stream()
+				.map(ChangedDocument::peekDocument)
+				.collect(ImmutableList.toImmutableList());
 	}
 
 	private final Document getChangedDocumentOrNull(final DocumentId documentId)
 	{
-		return _documentsWithChanges.get(documentId);
+		final ChangedDocument changedDocument;
+		synchronized (this)
+		{
+			changedDocument = _documentsWithChanges.get(documentId);
+		}
+		return changedDocument != null ? changedDocument.getDocument(parentDocument) : null;
 	}
 
-	private final Map<DocumentId, Document> getInnerDocumentsWithChanges()
+	/** @return a snapshot of the documents with changes */
+	private final synchronized LinkedHashMap<DocumentId, ChangedDocument> getInnerDocumentsWithChanges()
 	{
-		return _documentsWithChanges;
+		return new LinkedHashMap<>(_documentsWithChanges);
 	}
 
 	@Override
@@ -161,10 +181,13 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	@Override
 	public OrderedDocumentsList getDocuments(final List<DocumentQueryOrderBy> orderBys)
 	{
-		final Map<DocumentId, Document> documentsWithChanges = new LinkedHashMap<>(getInnerDocumentsWithChanges());
+		final LinkedHashMap<DocumentId, ChangedDocument> documentsWithChanges = getInnerDocumentsWithChanges();
 		final OrderedDocumentsList documents = DocumentQuery.builder(entityDescriptor)
 				.setParentDocument(parentDocument)
-				.setExistingDocumentsSupplier(documentsWithChanges::remove)
+				.setExistingDocumentsSupplier(documentId -> {
+					final ChangedDocument changedDocument = documentsWithChanges.remove(documentId);
+					return changedDocument != null ? changedDocument.getDocument(parentDocument) : null;
+				})
 				.setChangesCollector(NullDocumentChangesCollector.instance)
 				.setOrderBys(orderBys)
 				.retriveDocuments();
@@ -173,7 +196,10 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		// i.e. those documents which are new and never saved in database.
 		if (!documentsWithChanges.isEmpty())
 		{
-			documents.addDocuments(documentsWithChanges.values());
+			documents.addDocuments(documentsWithChanges.values()
+					.stream()
+					.map(changedDocument -> changedDocument.getDocument(parentDocument))
+					.collect(ImmutableList.toImmutableList()));
 		}
 
 		staled = false;
@@ -181,6 +207,90 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		return documents;
 	}
 
+	@Override
+	public OrderedDocumentsList getDocumentsPage(final List<DocumentQueryOrderBy> orderBys, final int firstRow, final int pageLength)
+	{
+		Check.assume(firstRow >= 0, "firstRow >= 0 but it was {}", firstRow);
+		Check.assume(pageLength > 0, "pageLength > 0 but it was {}", pageLength);
+
+		final LinkedHashMap<DocumentId, ChangedDocument> documentsWithChanges = getInnerDocumentsWithChanges();
+		final OrderedDocumentsList documents = DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setExistingDocumentsSupplier(documentId -> {
+					final ChangedDocument changedDocument = documentsWithChanges.remove(documentId);
+					return changedDocument != null ? changedDocument.getDocument(parentDocument) : null;
+				})
+				.setChangesCollector(NullDocumentChangesCollector.instance)
+				.setOrderBys(orderBys)
+				.setFirstRow(firstRow)
+				.setPageLength(pageLength)
+				.retriveDocuments();
+
+		// Add the documents which are new and never saved in database, if they are on this page.
+		// NOTE: the remaining documents with changes which are not new are on other pages.
+		final int countLoaded = documents.size();
+		if (countLoaded < pageLength)
+		{
+			final List<ChangedDocument> newDocuments = documentsWithChanges.values()
+					.stream()
+					.filter(changedDocument -> changedDocument.peekDocument().isNew())
+					.collect(ImmutableList.toImmutableList());
+			if (!newDocuments.isEmpty())
+			{
+				// The database rows are ending on this page, unless the page is empty and it's not the first one
+				final int countInDatabase = countLoaded > 0 || firstRow == 0 ? firstRow + countLoaded : retrieveCountInDatabase();
+
+				documents.addDocuments(getNewDocumentsOnPage(newDocuments, countInDatabase, firstRow, pageLength)
+						.stream()
+						.map(changedDocument -> changedDocument.getDocument(parentDocument))
+						.collect(ImmutableList.toImmutableList()));
+			}
+		}
+
+		// NOTE: don't reset the staled flag because only one page was loaded
+
+		return documents;
+	}
+
+	/**
+	 * The documents which are new and never saved in database are considered to be after the last database row.
+	 *
+	 * @return the new documents which are on given page
+	 */
+	@VisibleForTesting
+	static <T> List<T> getNewDocumentsOnPage(final List<T> newDocuments, final int countInDatabase, final int firstRow, final int pageLength)
+	{
+		final int fromIndex = Math.max(firstRow - countInDatabase, 0);
+		final int toIndex = Math.min(firstRow + pageLength - countInDatabase, newDocuments.size());
+		if (fromIndex >= toIndex)
+		{
+			return ImmutableList.of();
+		}
+
+		return newDocuments.subList(fromIndex, toIndex);
+	}
+
+	private int retrieveCountInDatabase()
+	{
+		return DocumentQuery.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setChangesCollector(NullDocumentChangesCollector.instance)
+				.retrieveCount();
+	}
+
+	@Override
+	public int getDocumentsCount()
+	{
+		final int countInDatabase = retrieveCountInDatabase();
+
+		final long countNew = getChangedDocumentsForReading()
+				.stream()
+				.filter(Document::isNew)
+				.count();
+
+		return countInDatabase + (int)countNew;
+	}
+
 	@Override
 	public Document getDocumentById(final DocumentId documentId)
 	{
@@ -232,7 +342,17 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 			parentDocument.getChangesCollector().collectStaleDetailId(parentDocumentPath, detailId);
 		}
 
-		getChangedDocuments().forEach(changedDocument -> changedDocument.setParentReadonly(parentReadonlyNew));
+		for (final ChangedDocument changedDocument : getInnerDocumentsWithChanges().values())
+		{
+			// A not yet copied document which was computed for the same parent readonly status does not need to be copied:
+			// the copy will inherit a consistent readonly status.
+			if (changedDocument.isNotCopiedAndHasParentReadonly(parentReadonlyNew))
+			{
+				continue;
+			}
+
+			changedDocument.getDocument(parentDocument).setParentReadonly(parentReadonlyNew);
+		}
 	}
 
 	@Override
@@ -286,17 +406,22 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		{
 			final Document document = getDocumentById(documentId);
 			// assertDeleteDocumentAllowed(document);
+			deletedDocuments.add(document);
+		}
 
-			// Delete it from underlying repository (if it's present there)
-			if (!document.isNew())
-			{
-				document.deleteFromRepository();
-			}
+		// Delete them from underlying repository (if they are present there), all together
+		final List<Document> documentsToDeleteFromRepository = deletedDocuments.stream()
+				.filter(document -> !document.isNew())
+				.collect(ImmutableList.toImmutableList());
+		if (!documentsToDeleteFromRepository.isEmpty())
+		{
+			entityDescriptor.getDataBinding().getDocumentsRepository().deleteAll(documentsToDeleteFromRepository);
+		}
 
+		for (final Document document : deletedDocuments)
+		{
 			document.markAsDeleted();
-			forgetChangedDocument(documentId);
-
-			deletedDocuments.add(document);
+			forgetChangedDocument(document.getDocumentId());
 		}
 
 		// FIXME: workaround until https://github.com/metasfresh/metasfresh-webui-api/issues/19 is implemented
@@ -311,8 +436,15 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	@Override
 	public DocumentValidStatus checkAndGetValidStatus(final OnValidStatusChanged onValidStatusChanged)
 	{
-		for (final Document document : getChangedDocuments())
+		for (final ChangedDocument changedDocument : getInnerDocumentsWithChanges().values())
 		{
+			// A not yet copied document which is known to be valid would be valid after copying too, so don't copy it just for checking.
+			if (changedDocument.isNotCopiedAndValid())
+			{
+				continue;
+			}
+
+			final Document document = changedDocument.getDocument(parentDocument);
 			final DocumentValidStatus validState = document.checkAndGetValidStatus(onValidStatusChanged);
 			if (!validState.isValid())
 			{
@@ -327,7 +459,7 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	@Override
 	public boolean hasChangesRecursivelly()
 	{
-		return getChangedDocuments()
+		return getChangedDocumentsForReading()
 				.stream()
 				.anyMatch(document -> document.hasChangesRecursivelly());
 	}
@@ -337,8 +469,16 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	{
 		final Set<DocumentId> savedOrDeletedDocumentIds = new HashSet<>();
 
-		for (final Document document : getChangedDocuments())
+		for (final ChangedDocument changedDocument : getInnerDocumentsWithChanges().values())
 		{
+			// A not yet copied document without changes would not be saved, so just forget it, without copying it.
+			if (changedDocument.isNotCopiedAndHasNoChanges())
+			{
+				savedOrDeletedDocumentIds.add(changedDocument.peekDocument().getDocumentId());
+				continue;
+			}
+
+			final Document document = changedDocument.getDocument(parentDocument);
 			final DocumentSaveStatus saveStatus = document.saveIfHasChanges();
 			if (saveStatus.isSaved())
 			{
@@ -395,6 +535,17 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		return staled;
 	}
 
+	@Override
+	public int estimateLoadedDocumentsWeight()
+	{
+		int weight = 0;
+		for (final Document document : getChangedDocumentsForReading())
+		{
+			weight += document.estimateWeight();
+		}
+		return weight;
+	}
+
 	@Override
 	public int getNextLineNo()
 	{
@@ -440,7 +591,8 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		@Override
 		public Collection<Document> getIncludedDocuments()
 		{
-			return getChangedDocuments();
+			// NOTE: the included documents are only checked (new, save status), so there is no need to copy them
+			return getChangedDocumentsForReading();
 		}
 
 		@Override
@@ -461,4 +613,139 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 			parentDocument.getChangesCollector().collectAllowDelete(parentDocumentPath, detailId, allowDelete);
 		}
 	}
+
+	/**
+	 * A changed included document which is copied only when it's first accessed (copy-on-access).
+	 *
+	 * When the collection is copied (i.e. on document check-out/check-in), readonly documents are not copied right away
+	 * but referenced together with the copy modes which shall be applied.
+	 * Because readonly documents are not changed anymore, the copy is the same no matter when it's done.
+	 * Writable documents are copied right away, because they might be changed after.
+	 * <p>
+	 * Once copied, the source document is no longer referenced. Else each copy would keep the previous generation of its parent document in memory, which is keeping its own copy source and so on.
+	 */
+	@VisibleForTesting
+	static final class ChangedDocument
+	{
+		public static ChangedDocument ofDocument(@NonNull final Document document)
+		{
+			return new ChangedDocument(document, null, ImmutableList.of());
+		}
+
+		/** the copied document or null if it was not copied yet */
+		private Document document;
+		/** readonly document to be copied on first access; null after it was copied */
+		private Document copyFrom;
+		private ImmutableList<CopyMode> copyModes;
+
+		private ChangedDocument(final Document document, final Document copyFrom, final ImmutableList<CopyMode> copyModes)
+		{
+			this.document = document;
+			this.copyFrom = copyFrom;
+			this.copyModes = copyModes;
+		}
+
+		@Override
+		public synchronized String toString()
+		{
+			return MoreObjects.toStringHelper(this)
+					.omitNullValues()
+					.add("document", document)
+					.add("copyFrom", copyFrom)
+					.add("copyModes", copyModes.isEmpty() ? null : copyModes)
+					.toString();
+		}
+
+		public synchronized ChangedDocument copy(final Document parentDocumentCopy, final CopyMode copyMode)
+		{
+			if (document == null)
+			{
+				return new ChangedDocument(null, copyFrom, appendCopyMode(copyModes, copyMode));
+			}
+			else if (document.isWritable())
+			{
+				return ofDocument(document.copy(parentDocumentCopy, copyMode));
+			}
+			else
+			{
+				return new ChangedDocument(null, document, ImmutableList.of(copyMode));
+			}
+		}
+
+		/**
+		 * Collapses the copy modes chain, to make sure it does not grow on each check-out/check-in.
+		 *
+		 * A check-in copy takes over the current valid and save status and the field values, so all copy modes before it does not matter.
+		 * A check-out copy takes over the "on checkout" status, so only the last check-in before it matters.
+		 */
+		@VisibleForTesting
+		static ImmutableList<CopyMode> appendCopyMode(final ImmutableList<CopyMode> copyModes, final CopyMode copyMode)
+		{
+			if (copyMode == CopyMode.CheckInReadonly)
+			{
+				return ImmutableList.of(CopyMode.CheckInReadonly);
+			}
+			else if (copyModes.contains(CopyMode.CheckInReadonly))
+			{
+				return ImmutableList.of(CopyMode.CheckInReadonly, copyMode);
+			}
+			else
+			{
+				return ImmutableList.of(copyMode);
+			}
+		}
+
+		public synchronized Document getDocument(final Document parentDocument)
+		{
+			if (document == null)
+			{
+				Document documentCopy = copyFrom;
+				for (final CopyMode copyMode : copyModes)
+				{
+					documentCopy = documentCopy.copy(parentDocument, copyMode);
+				}
+				document = documentCopy;
+
+				// release the copy source (see class javadoc)
+				copyFrom = null;
+				copyModes = ImmutableList.of();
+			}
+			return document;
+		}
+
+		/** @return the document if it was copied, else the document which will be copied; in both cases the result shall be used only for reading */
+		public synchronized Document peekDocument()
+		{
+			return document != null ? document : copyFrom;
+		}
+
+		public synchronized boolean isCopied()
+		{
+			return document != null;
+		}
+
+		@VisibleForTesting
+		synchronized Document getCopyFromOrNull()
+		{
+			return copyFrom;
+		}
+
+		/** @return true if the document was not copied yet and it's known to be valid, so it would be valid after copying too */
+		public synchronized boolean isNotCopiedAndValid()
+		{
+			return document == null && copyFrom.getValidStatus().isValid();
+		}
+
+		/** @return true if the document was not copied yet and it has no changes, so it would have no changes after copying either */
+		public synchronized boolean isNotCopiedAndHasNoChanges()
+		{
+			return document == null && !copyFrom.hasChangesRecursivelly();
+		}
+
+		/** @return true if the document was not copied yet and its copy would inherit given parent readonly status */
+		public synchronized boolean isNotCopiedAndHasParentReadonly(final DocumentReadonly parentReadonly)
+		{
+			return document == null && Objects.equals(copyFrom.getParentReadonly(), parentReadonly);
+		}
+	}
 }
@@ -40,6 +40,17 @@ public interface IIncludedDocumentsCollection
 
 	OrderedDocumentsList getDocuments(List<DocumentQueryOrderBy> orderBys);
 
+	/**
+	 * Loads only the documents from given page.
+	 *
+	 * @param firstRow first row to be loaded (zero based)
+	 * @param pageLength how many rows to load
+	 */
+	OrderedDocumentsList getDocumentsPage(List<DocumentQueryOrderBy> orderBys, int firstRow, int pageLength);
+
+	/** @return how many documents are in this collection, including the new ones which were not saved yet */
+	int getDocumentsCount();
+
 	Document getDocumentById(DocumentId documentId);
 
 	void updateStatusFromParent();
@@ -74,6 +85,14 @@ public interface IIncludedDocumentsCollection
 
 	int getNextLineNo();
 
+	/**
+	 * @return estimated weight of the included documents which are currently kept in memory (see {@link Document#estimateWeight()})
+	 */
+	default int estimateLoadedDocumentsWeight()
+	{
+		return 0;
+	}
+
 	default void onChildSaved(final Document document)
 	{
 		// nothing
@@ -6,10 +6,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.CompositeStringExpression;
+import org.adempiere.ad.expression.api.impl.ConstantStringExpression;
 import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.ad.security.impl.AccessSqlStringExpression;
 import org.adempiere.exceptions.AdempiereException;
@@ -22,6 +24,7 @@ import org.compiere.util.Evaluatees;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
@@ -102,6 +105,9 @@ public class SqlDocumentQueryBuilder
 	private int firstRow;
 	private int pageLength;
 
+	/** fields for which the display columns shall be selected; null means all fields */
+	private ImmutableSet<String> displayFieldNames = null;
+
 	//
 	// Built values
 	private IPair<IStringExpression, List<Object>> _sqlWhereAndParams;
@@ -259,6 +265,33 @@ public class SqlDocumentQueryBuilder
 		return sql.toString();
 	}
 
+	/**
+	 * @return SQL to count the documents matched by this query (paging is not considered).
+	 *         The same security restrictions as for loading the documents are applied.
+	 */
+	public String getSqlCount(final List<Object> outSqlParams)
+	{
+		final CompositeStringExpression.Builder sqlBuilder = IStringExpression.composer()
+				.append("SELECT COUNT(1) FROM (")
+				.append(entityBinding.getSqlSelectAllFrom(ImmutableSet.of())); // no display columns needed
+
+		final IPair<IStringExpression, List<Object>> sqlWhereClauseAndParams = getSqlWhereAndParams();
+		final IStringExpression sqlWhereClause = sqlWhereClauseAndParams.getLeft();
+		if (!sqlWhereClause.isNullExpression())
+		{
+			sqlBuilder.append("\n WHERE ").append(sqlWhereClause);
+		}
+
+		sqlBuilder.append("\n) t");
+
+		final String sql = sqlBuilder.build().evaluate(getEvaluationContext(), OnVariableNotFound.Fail);
+		if (!sqlWhereClause.isNullExpression())
+		{
+			outSqlParams.addAll(sqlWhereClauseAndParams.getRight());
+		}
+		return sql;
+	}
+
 	/**
 	 * @return SQL to fully load the documents matched by this query.
 	 */
@@ -309,12 +342,28 @@ public class SqlDocumentQueryBuilder
 
 		//
 		// ORDER BY
-		if (isSorting())
 		{
-			final IStringExpression sqlOrderBy = getSqlOrderByEffective();
-			if (sqlOrderBy != null && !sqlOrderBy.isNullExpression())
+			final List<IStringExpression> sqlOrderBys = new ArrayList<>();
+			if (isSorting())
+			{
+				final IStringExpression sqlOrderBy = getSqlOrderByEffective();
+				if (sqlOrderBy != null && !sqlOrderBy.isNullExpression())
+				{
+					sqlOrderBys.add(sqlOrderBy);
+				}
+			}
+
+			// When paging, order by key columns last, else the ordering is not deterministic
+			// and rows could be duplicated or skipped between pages.
+			if (isPaging())
+			{
+				entityBinding.getKeyFields()
+						.forEach(keyField -> sqlOrderBys.add(ConstantStringExpression.of(keyField.getColumnName())));
+			}
+
+			if (!sqlOrderBys.isEmpty())
 			{
-				sqlBuilder.append("\n ORDER BY ").append(sqlOrderBy);
+				sqlBuilder.append("\n ORDER BY ").appendAllJoining(", ", sqlOrderBys);
 			}
 		}
 
@@ -342,7 +391,8 @@ public class SqlDocumentQueryBuilder
 
 	private IStringExpression getSqlSelectFrom()
 	{
-		return entityBinding.getSqlSelectAllFrom();
+		final ImmutableSet<String> displayFieldNames = getDisplayFieldNames();
+		return displayFieldNames != null ? entityBinding.getSqlSelectAllFrom(displayFieldNames) : entityBinding.getSqlSelectAllFrom();
 	}
 
 	private String getSqlWhere(final List<Object> sqlParams)
@@ -539,6 +589,11 @@ public class SqlDocumentQueryBuilder
 		return !noSorting;
 	}
 
+	private boolean isPaging()
+	{
+		return getFirstRow() > 0 || getPageLength() > 0;
+	}
+
 	public boolean isNoSorting()
 	{
 		return noSorting;
@@ -580,6 +635,22 @@ public class SqlDocumentQueryBuilder
 		return pageLength;
 	}
 
+	/**
+	 * Select the display columns only for given fields.
+	 * The values of the other lookup fields cannot be fetched from the resulting SQL.
+	 */
+	public SqlDocumentQueryBuilder setDisplayFieldNames(final Set<String> displayFieldNames)
+	{
+		this.displayFieldNames = displayFieldNames != null ? ImmutableSet.copyOf(displayFieldNames) : null;
+		_sqlAndParams = null;
+		return this;
+	}
+
+	private ImmutableSet<String> getDisplayFieldNames()
+	{
+		return displayFieldNames;
+	}
+
 	/** @return map of (keyColumnName, value) pairs */
 	public static Map<String, Object> extractComposedKey(final DocumentId recordId, final List<? extends SqlEntityFieldBinding> keyFields)
 	{
@@ -6,13 +6,19 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.cache.IModelCacheInvalidationService;
@@ -24,6 +30,7 @@ import org.adempiere.exceptions.DBException;
 import org.adempiere.exceptions.DBMoreThenOneRecordsFoundException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.PlainContextAware;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.model.PO;
 import org.compiere.model.POInfo;
@@ -31,8 +38,11 @@ import org.compiere.util.DB;
 import org.compiere.util.TimeUtil;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
@@ -61,6 +71,7 @@ import de.metas.ui.web.window.model.IDocumentFieldView;
 import de.metas.ui.web.window.model.OrderedDocumentsList;
 import de.metas.ui.web.window.model.lookup.LabelsLookup;
 import de.metas.util.Check;
+import de.metas.util.GuavaCollectors;
 import de.metas.util.Services;
 import lombok.NonNull;
 
@@ -101,9 +112,24 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 
 	private static final String VERSION_DEFAULT = "0";
 
+	/**
+	 * If enabled, after save the document is refreshed from the saved PO's values
+	 * and only the fields flagged with {@link DocumentFieldDescriptor#isRefreshAfterSave()} are re-queried (if any).
+	 */
+	private static final String SYSCONFIG_ReuseSavedValues = "de.metas.ui.web.window.model.sql.SqlDocumentsRepository.ReuseSavedValues";
+	private static final boolean DEFAULT_ReuseSavedValues = false;
+
 	private int loadLimitWarn = 100;
 	private int loadLimitMax = 300;
 
+	//
+	// Save statistics
+	private final AtomicLong savesCount = new AtomicLong();
+	/** PO loads, PO saves, after save actions (e.g. labels) and refresh queries; each of them might issue more than one JDBC statement */
+	private final AtomicLong saveRepositoryOperationsCount = new AtomicLong();
+	private final AtomicLong saveRefreshQueriesCount = new AtomicLong();
+	private final AtomicLong saveRefreshQueriesSkippedCount = new AtomicLong();
+
 	private SqlDocumentsRepository()
 	{
 		super();
@@ -135,6 +161,26 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		logger.warn("Changed LoadLimitWarn: {} -> {}", loadLimitMaxOld, this.loadLimitMax);
 	}
 
+	/**
+	 * @return save statistics.
+	 *         NOTE: "repositoryOperations" counts the operations issued by this repository (PO load, PO save, after save actions, refresh query),
+	 *         and not the actual JDBC statements, which also include the ones issued internally by the PO or by model interceptors.
+	 */
+	public Map<String, Object> getSaveStats()
+	{
+		return ImmutableMap.of(
+				"saves", savesCount.get(),
+				"repositoryOperations", saveRepositoryOperationsCount.get(),
+				"refreshQueries", saveRefreshQueriesCount.get(),
+				"refreshQueriesSkipped", saveRefreshQueriesSkippedCount.get(),
+				"reuseSavedValues", isReuseSavedValues());
+	}
+
+	private static boolean isReuseSavedValues()
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_ReuseSavedValues, DEFAULT_ReuseSavedValues);
+	}
+
 	private static DocumentId retrieveNextDocumentId(final DocumentEntityDescriptor entityDescriptor)
 	{
 		final SqlDocumentEntityDataBindingDescriptor dataBinding = SqlDocumentEntityDataBindingDescriptor.cast(entityDescriptor.getDataBinding());
@@ -423,12 +469,125 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		}
 	}
 
+	/**
+	 * Provides the values of a document which was just saved, using the saved PO's values.
+	 *
+	 * The values of the fields which were queried again are taken from the given query result.
+	 * If the PO's value is the same as the document's current value, the current value is kept (so we don't have to load the display value of lookups again).
+	 * The fields which are not stored in a PO column (e.g. labels, which are saved after the PO) keep their current value, which is the one that was just saved.
+	 */
+	private static final class SavedPODocumentValuesSupplier implements DocumentValuesSupplier
+	{
+		private final Document document;
+		private final DocumentId documentId;
+		private final PO po;
+		private final DocumentValuesSupplier queriedValuesSupplier;
+		private final ImmutableSet<String> queriedFieldNames;
+
+		public SavedPODocumentValuesSupplier(
+				@NonNull final Document document,
+				@NonNull final DocumentId documentId,
+				@NonNull final PO po,
+				@Nullable final DocumentValuesSupplier queriedValuesSupplier,
+				@NonNull final ImmutableSet<String> queriedFieldNames)
+		{
+			this.document = document;
+			this.documentId = documentId;
+			this.po = po;
+			this.queriedValuesSupplier = queriedValuesSupplier;
+			this.queriedFieldNames = queriedValuesSupplier != null ? queriedFieldNames : ImmutableSet.of();
+		}
+
+		@Override
+		public DocumentId getDocumentId()
+		{
+			return documentId;
+		}
+
+		@Override
+		public String getVersion()
+		{
+			if (queriedValuesSupplier != null)
+			{
+				return queriedValuesSupplier.getVersion();
+			}
+
+			final DocumentFieldDescriptor versionField = document.getEntityDescriptor().getFieldOrNull(SqlDocumentEntityDataBindingDescriptor.FIELDNAME_Version);
+			if (versionField == null || po.getPOInfo().getColumnIndex(SqlDocumentEntityDataBindingDescriptor.FIELDNAME_Version) < 0)
+			{
+				return VERSION_DEFAULT;
+			}
+
+			final Instant versionDate = TimeUtil.asInstant(po.get_Value(SqlDocumentEntityDataBindingDescriptor.FIELDNAME_Version));
+			return versionDate == null ? VERSION_DEFAULT : String.valueOf(versionDate.toEpochMilli());
+		}
+
+		@Override
+		public Object getValue(final DocumentFieldDescriptor fieldDescriptor)
+		{
+			final String fieldName = fieldDescriptor.getFieldName();
+			if (queriedFieldNames.contains(fieldName))
+			{
+				return queriedValuesSupplier.getValue(fieldDescriptor);
+			}
+
+			final SqlDocumentFieldDataBindingDescriptor fieldDataBinding = SqlDocumentFieldDataBindingDescriptor.castOrNull(fieldDescriptor.getDataBinding());
+			if (fieldDataBinding == null)
+			{
+				return NO_VALUE;
+			}
+
+			final IDocumentFieldView documentField = document.getFieldViewOrNull(fieldName);
+			final POInfo poInfo = po.getPOInfo();
+			final String columnName = fieldDataBinding.getColumnName();
+			final int poColumnIndex = poInfo.getColumnIndex(columnName);
+			if (poColumnIndex < 0)
+			{
+				return getValueAfterSave(documentField, columnName, null, null);
+			}
+
+			return getValueAfterSave(documentField, columnName, poInfo.getColumnClass(poColumnIndex), po.get_Value(poColumnIndex));
+		}
+	}
+
+	/**
+	 * @param poColumnClass the class of the saved PO's column or <code>null</code> if the field is not stored in a PO column
+	 * @param poValue the saved PO's value
+	 * @return the value of given document field after it was saved
+	 */
+	@VisibleForTesting
+	static Object getValueAfterSave(
+			@Nullable final IDocumentFieldView documentField,
+			@NonNull final String columnName,
+			@Nullable final Class<?> poColumnClass,
+			@Nullable final Object poValue)
+	{
+		if (poColumnClass == null)
+		{
+			// The field was saved separately (e.g. labels), so its current value is the saved one.
+			// NOTE: returning NO_VALUE would keep the field flagged as changed, so it would be saved again on each save.
+			return documentField != null ? documentField.getValue() : DocumentValuesSupplier.NO_VALUE;
+		}
+
+		if (documentField != null)
+		{
+			final Object fieldValueConv = convertValueToPO(documentField.getValue(), columnName, documentField.getWidgetType(), poColumnClass);
+			if (poFieldValueEqual(fieldValueConv, poValue))
+			{
+				return documentField.getValue();
+			}
+		}
+
+		// NOTE: the document field will convert it, e.g. will fetch the lookup value by ID
+		return poValue;
+	}
+
 	@Override
 	public void refresh(final Document document)
 	{
 		assertThisRepository(document.getEntityDescriptor());
 
-		final RefreshResult result = refresh(document, document.getDocumentId());
+		final RefreshResult result = refresh(document, document.getDocumentId(), null, null);
 		switch (result)
 		{
 			case MISSING:
@@ -445,9 +604,17 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		OK, MISSING
 	}
 
-	private RefreshResult refresh(@NonNull final Document document, @NonNull final DocumentId documentId)
+	/**
+	 * @param fieldNamesToQuery fields to be fetched from database; <code>null</code> means all fields
+	 * @param savedPO PO which was just saved and which will provide the values of the fields which are not queried
+	 */
+	private RefreshResult refresh(
+			@NonNull final Document document,
+			@NonNull final DocumentId documentId,
+			@Nullable final ImmutableSet<String> fieldNamesToQuery,
+			@Nullable final PO savedPO)
 	{
-		logger.debug("Refreshing: {}, using ID={}", document, documentId);
+		logger.debug("Refreshing: {}, using ID={}, fieldNamesToQuery={}", document, documentId, fieldNamesToQuery);
 		if (documentId.isNew())
 		{
 			throw new AdempiereException("Invalid documentId to refresh: " + documentId);
@@ -459,6 +626,10 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 				.build();
 
 		final SqlDocumentQueryBuilder sqlBuilder = SqlDocumentQueryBuilder.of(query);
+		if (fieldNamesToQuery != null)
+		{
+			sqlBuilder.setDisplayFieldNames(fieldNamesToQuery);
+		}
 		final List<Object> sqlParams = new ArrayList<>();
 		final String sql = sqlBuilder.getSql(sqlParams);
 		final String adLanguage = sqlBuilder.getAD_Language();
@@ -473,7 +644,16 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			rs = pstmt.executeQuery();
 			if (rs.next())
 			{
-				final ResultSetDocumentValuesSupplier fieldValueSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs);
+				final ResultSetDocumentValuesSupplier resultSetValuesSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs);
+				final DocumentValuesSupplier fieldValueSupplier;
+				if (savedPO != null)
+				{
+					fieldValueSupplier = new SavedPODocumentValuesSupplier(document, documentId, savedPO, resultSetValuesSupplier, fieldNamesToQuery);
+				}
+				else
+				{
+					fieldValueSupplier = resultSetValuesSupplier;
+				}
 				document.refreshFromSupplier(fieldValueSupplier);
 			}
 			else
@@ -508,34 +688,19 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 
 		// Runnables to be executed after the PO is saved
 		final List<Runnable> afterSaveRunnables = new ArrayList<>();
+		int operationsCount = 0;
 
 		//
 		// Load the PO / Create new PO instance
+		if (!document.isNew())
+		{
+			operationsCount++;
+		}
 		final PO po = retrieveOrCreatePO(document);
 
 		//
 		// Set values to PO
-		final boolean isNew = document.isNew();
-		boolean changes = false;
-		for (final IDocumentFieldView documentField : document.getFieldViews())
-		{
-			if (!isNew && !documentField.hasChangesToSave())
-			{
-				logger.trace("Skip setting PO value because document field has no changes: {}", documentField);
-				continue;
-			}
-
-			if (DocumentFieldWidgetType.Labels == documentField.getWidgetType())
-			{
-				// save labels after PO is saved because we want to make sure it's not new (so we can link to it)
-				afterSaveRunnables.add(() -> saveLabels(document, documentField));
-			}
-
-			if (setPOValue(po, documentField))
-			{
-				changes = true;
-			}
-		}
+		final boolean changes = setPOValues(po, document, afterSaveRunnables);
 
 		//
 		// Save the PO
@@ -546,6 +711,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			// Actual save
 			// TODO: advice the PO to not reload after save.
 			InterfaceWrapperHelper.save(po);
+			operationsCount++;
 			document.markAsNotNew();
 			needsRefresh = true;
 		}
@@ -559,6 +725,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		if (!afterSaveRunnables.isEmpty())
 		{
 			afterSaveRunnables.forEach(r -> r.run());
+			operationsCount += afterSaveRunnables.size();
 			needsRefresh = true;
 		}
 
@@ -569,13 +736,41 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		{
 			final SqlDocumentEntityDataBindingDescriptor dataBinding = document.getEntityDescriptor().getDataBinding(SqlDocumentEntityDataBindingDescriptor.class);
 			final DocumentId idNew = extractDocumentId(po, dataBinding);
-			final RefreshResult refreshResult = refresh(document, idNew);
+			final RefreshResult refreshResult;
+			if (isReuseSavedValues())
+			{
+				final ImmutableSet<String> fieldNamesToQuery = getFieldNamesToRefreshAfterSave(document.getEntityDescriptor());
+				if (fieldNamesToQuery.isEmpty())
+				{
+					// Nothing could be changed by database, so there is no need to query it
+					document.refreshFromSupplier(new SavedPODocumentValuesSupplier(document, idNew, po, null, fieldNamesToQuery));
+					refreshResult = RefreshResult.OK;
+					saveRefreshQueriesSkippedCount.incrementAndGet();
+				}
+				else
+				{
+					refreshResult = refresh(document, idNew, fieldNamesToQuery, po);
+					operationsCount++;
+					saveRefreshQueriesCount.incrementAndGet();
+				}
+			}
+			else
+			{
+				refreshResult = refresh(document, idNew, null, null);
+				operationsCount++;
+				saveRefreshQueriesCount.incrementAndGet();
+			}
+
 			if (refreshResult == RefreshResult.MISSING)
 			{
 				deleted = true;
 			}
 		}
 
+		savesCount.incrementAndGet();
+		saveRepositoryOperationsCount.addAndGet(operationsCount);
+		logger.debug("Saved {} using {} repository operations", document, operationsCount);
+
 		//
 		// Notify the parent document that one of it's children were saved
 		if (!document.isRootDocument())
@@ -587,6 +782,58 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return deleted ? SaveResult.DELETED : SaveResult.SAVED;
 	}
 
+	private static void assertSameEntity(final Document document, final DocumentEntityDescriptor entityDescriptor)
+	{
+		if (document.getEntityDescriptor() != entityDescriptor)
+		{
+			throw new IllegalArgumentException("All documents shall be of " + entityDescriptor + " but " + document + " is not");
+		}
+	}
+
+	/**
+	 * Sets the document field values to PO. For not new documents, only the changed fields are set.
+	 *
+	 * @param afterSaveRunnables collects what shall be executed after the PO is saved (e.g. saving the labels)
+	 * @return true if PO was really changed
+	 */
+	private static boolean setPOValues(final PO po, final Document document, final List<Runnable> afterSaveRunnables)
+	{
+		final boolean isNew = document.isNew();
+		boolean changes = false;
+		for (final IDocumentFieldView documentField : document.getFieldViews())
+		{
+			if (!isNew && !documentField.hasChangesToSave())
+			{
+				logger.trace("Skip setting PO value because document field has no changes: {}", documentField);
+				continue;
+			}
+
+			if (DocumentFieldWidgetType.Labels == documentField.getWidgetType())
+			{
+				// save labels after PO is saved because we want to make sure it's not new (so we can link to it)
+				afterSaveRunnables.add(() -> saveLabels(document, documentField));
+			}
+
+			if (setPOValue(po, documentField))
+			{
+				changes = true;
+			}
+		}
+
+		return changes;
+	}
+
+	/** @return the fields which might be changed by database when saving, so they have to be re-queried */
+	private static ImmutableSet<String> getFieldNamesToRefreshAfterSave(final DocumentEntityDescriptor entityDescriptor)
+	{
+		return entityDescriptor.getFields()
+				.stream()
+				.filter(DocumentFieldDescriptor::isRefreshAfterSave)
+				.filter(field -> SqlDocumentFieldDataBindingDescriptor.castOrNull(field.getDataBinding()) != null)
+				.map(DocumentFieldDescriptor::getFieldName)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
 	private DocumentId extractDocumentId(final PO po, SqlDocumentEntityDataBindingDescriptor dataBinding)
 	{
 		if (dataBinding.isSingleKey())
@@ -638,16 +885,19 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			throw new DBException("No PO found for " + document);
 		}
 
-		//
-		//
+		preparePOForChanging(po, document);
+
+		return po;
+	}
+
+	private static void preparePOForChanging(final PO po, final Document document)
+	{
 		po.set_ManualUserAction(document.getWindowNo());
 		InterfaceWrapperHelper.ATTR_ReadOnlyColumnCheckDisabled.setValue(po, true); // allow changing any columns
 
 		//
 		final TableRecordReference rootRecordReference = extractRootRecordReference(document);
 		IModelCacheInvalidationService.ATTR_RootRecordReference.setValue(po, rootRecordReference);
-
-		return po;
 	}
 
 	private static final TableRecordReference extractRootRecordReference(final Document includedDocument)
@@ -876,6 +1126,85 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		InterfaceWrapperHelper.delete(po);
 	}
 
+	/**
+	 * Deletes given documents.
+	 *
+	 * The POs are loaded using one query, but they are deleted one by one, to make sure the model interceptors are called.
+	 * Documents with composed primary keys are deleted one by one.
+	 */
+	@Override
+	public void deleteAll(@NonNull final Collection<Document> documents)
+	{
+		if (documents.isEmpty())
+		{
+			return;
+		}
+		else if (documents.size() == 1)
+		{
+			delete(documents.iterator().next());
+			return;
+		}
+
+		Services.get(ITrxManager.class).assertThreadInheritedTrxExists();
+
+		final DocumentEntityDescriptor entityDescriptor = documents.iterator().next().getEntityDescriptor();
+		assertThisRepository(entityDescriptor);
+
+		final SqlDocumentEntityDataBindingDescriptor dataBinding = SqlDocumentEntityDataBindingDescriptor.cast(entityDescriptor.getDataBinding());
+		if (!dataBinding.isSingleKey())
+		{
+			documents.forEach(this::delete);
+			return;
+		}
+
+		final Map<Integer, Document> documentsById = new LinkedHashMap<>();
+		for (final Document document : documents)
+		{
+			assertSameEntity(document, entityDescriptor);
+			DocumentPermissionsHelper.assertCanEdit(document, UserSession.getCurrentPermissions());
+			if (document.isNew())
+			{
+				throw new IllegalArgumentException("Cannot delete new document: " + document);
+			}
+
+			documentsById.put(document.getDocumentIdAsInt(), document);
+		}
+
+		final Map<Integer, PO> posById = retrievePOsById(dataBinding, documentsById.keySet());
+		for (final Map.Entry<Integer, Document> e : documentsById.entrySet())
+		{
+			final Document document = e.getValue();
+			final PO po = posById.get(e.getKey());
+			if (po == null)
+			{
+				throw new DBException("No PO found for " + document);
+			}
+
+			preparePOForChanging(po, document);
+			InterfaceWrapperHelper.delete(po);
+		}
+	}
+
+	/**
+	 * Loads the POs of given IDs using one query. Only entities with a single primary key are supported.
+	 */
+	private static Map<Integer, PO> retrievePOsById(final SqlDocumentEntityDataBindingDescriptor dataBinding, final Set<Integer> ids)
+	{
+		if (ids.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final String keyColumnName = dataBinding.getKeyFields().get(0).getColumnName();
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(dataBinding.getTableName(), PlainContextAware.newWithThreadInheritedTrx())
+				.addInArrayFilter(keyColumnName, ids)
+				.create()
+				.list(PO.class)
+				.stream()
+				.collect(GuavaCollectors.toImmutableMapByKey(PO::get_ID));
+	}
+
 	@Override
 	public String retrieveVersion(final DocumentEntityDescriptor entityDescriptor, final int documentIdAsInt)
 	{
@@ -903,6 +1232,21 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sql, sqlParams);
 	}
 
+	@Override
+	public int retrieveCount(final DocumentQuery query)
+	{
+		logger.debug("Retrieving count: query={}", query);
+
+		final DocumentEntityDescriptor entityDescriptor = query.getEntityDescriptor();
+		assertThisRepository(entityDescriptor);
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final SqlDocumentQueryBuilder sqlBuilder = SqlDocumentQueryBuilder.of(query);
+		final String sql = sqlBuilder.getSqlCount(sqlParams);
+
+		return DB.getSQLValueEx(ITrx.TRXNAME_ThreadInherited, sql, sqlParams);
+	}
+
 	private static final void saveLabels(final Document document, final IDocumentFieldView documentField)
 	{
 		final LabelsLookup lookup = LabelsLookup.cast(documentField.getDescriptor().getLookupDescriptor(LookupScope.DocumentField));
@@ -0,0 +1,141 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ImmutableRowsIndexTest
+{
+	@Value
+	@Builder
+	private static class TestRow implements IViewRow
+	{
+		@NonNull
+		DocumentId id;
+		@NonNull
+		List<TestRow> includedRows;
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return null;
+		}
+
+		@Override
+		public Map<String, Object> getFieldNameAndJsonValues()
+		{
+			return ImmutableMap.of();
+		}
+	}
+
+	private static TestRow row(final int id, final TestRow... includedRows)
+	{
+		return TestRow.builder()
+				.id(DocumentId.of(id))
+				.includedRows(ImmutableList.copyOf(includedRows))
+				.build();
+	}
+
+	@Test
+	public void indexesTopLevelAndIncludedRows()
+	{
+		final TestRow row11 = row(11, row(111), row(112));
+		final TestRow row1 = row(1, row11, row(12));
+		final TestRow row2 = row(2);
+
+		final ImmutableRowsIndex<TestRow> index = ImmutableRowsIndex.of(ImmutableList.of(row1, row2));
+
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.getTopLevelRows()).containsExactly(row1, row2);
+		assertThat(index.getDocumentId2AllRows().keySet())
+				.containsExactly(DocumentId.of(1), DocumentId.of(11), DocumentId.of(111), DocumentId.of(112), DocumentId.of(12), DocumentId.of(2));
+		assertThat(index.getById(DocumentId.of(112)).getId()).isEqualTo(DocumentId.of(112));
+		assertThat(index.getByIdOrNull(DocumentId.of(999))).isNull();
+	}
+
+	@Test(expected = EntityNotFoundException.class)
+	public void getById_notFound()
+	{
+		ImmutableRowsIndex.<TestRow> empty().getById(DocumentId.of(1));
+	}
+
+	@Test
+	public void sameResultAsExtractingAllRowsOnEachCall()
+	{
+		final ImmutableList.Builder<TestRow> topLevelRows = ImmutableList.builder();
+		for (int i = 1; i <= 10000; i++)
+		{
+			final int id = i * 100;
+			topLevelRows.add(row(id, row(id + 1, row(id + 2)), row(id + 3)));
+		}
+
+		final ImmutableRowsIndex<TestRow> index = ImmutableRowsIndex.of(topLevelRows.build());
+
+		assertThat(index.getDocumentId2AllRows()).hasSize(40000);
+		assertThat(index.getDocumentId2AllRows())
+				.isEqualTo(ImmutableRowsIndex.extractAllRows(index.getTopLevelRows()));
+		assertThat(index.getDocumentId2AllRows()).isSameAs(index.getDocumentId2AllRows());
+	}
+
+	@Test
+	public void replacingRows()
+	{
+		final TestRow row1 = row(1);
+		final TestRow row2 = row(2, row(21));
+		final TestRow row3 = row(3);
+		final ImmutableRowsIndex<TestRow> index = ImmutableRowsIndex.of(ImmutableList.of(row1, row2, row3));
+
+		final TestRow row2Reloaded = row(2, row(22));
+		final TestRow row4 = row(4);
+		final ImmutableRowsIndex<TestRow> newIndex = index.replacingRows(
+				ImmutableSet.of(DocumentId.of(1), DocumentId.of(2), DocumentId.of(4)),
+				ImmutableList.of(row4, row2Reloaded));
+
+		assertThat(newIndex.getTopLevelRows()).containsExactly(row2Reloaded, row3, row4);
+		assertThat(newIndex.getDocumentId2AllRows().keySet())
+				.containsExactly(DocumentId.of(2), DocumentId.of(22), DocumentId.of(3), DocumentId.of(4));
+		assertThat(index.getTopLevelRows()).containsExactly(row1, row2, row3);
+	}
+}
@@ -0,0 +1,194 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
+import de.metas.ui.web.view.SqlViewFilteredSelectionsCache.FilteredSelectionKey;
+import de.metas.ui.web.view.descriptor.SqlAndParams;
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewFilteredSelectionsCacheTest
+{
+	@Mocked
+	private SqlViewBinding viewBinding;
+	@Mocked
+	private SqlViewSelectionToDeleteHelper selectionToDeleteHelper;
+
+	private SqlViewFilteredSelectionsCache cache;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		cache = new SqlViewFilteredSelectionsCache();
+	}
+
+	private FilteredSelectionKey key(final String sqlSecurityRestrictedSelect)
+	{
+		return FilteredSelectionKey.builder()
+				.viewBinding(viewBinding)
+				.sqlSecurityRestrictedSelect(sqlSecurityRestrictedSelect)
+				.adLanguage("de_DE")
+				.applySecurityRestrictions(true)
+				.queryLimit(1000)
+				.filters(ImmutableSet.of())
+				.context(SqlDocumentFilterConverterContext.EMPTY)
+				.sqlWhereClause(SqlAndParams.of("DocStatus=?", "CO"))
+				.orderBys(ImmutableList.of())
+				.build();
+	}
+
+	private static ViewRowIdsOrderedSelection newSelection()
+	{
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(ViewId.random(WindowId.of(123)))
+				.setSize(10)
+				.build();
+	}
+
+	@Test
+	public void getOrNull_missThenHit()
+	{
+		assertThat(cache.getOrNull(key("SEC1"))).isNull();
+
+		final ViewRowIdsOrderedSelection selection = newSelection();
+		cache.put(key("SEC1"), selection);
+
+		assertThat(cache.getOrNull(key("SEC1"))).isSameAs(selection);
+		assertThat(cache.getStats())
+				.containsEntry("hits", 1L)
+				.containsEntry("misses", 1L);
+	}
+
+	@Test
+	public void getOrNull_differentDataAccess_isNotShared()
+	{
+		cache.put(key("SEC1"), newSelection());
+
+		assertThat(cache.getOrNull(key("SEC2"))).isNull();
+	}
+
+	@Test
+	public void invalidateByTableNames()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			viewBinding.getTableName(); result = "C_Order"; minTimes = 0;
+		}};	// @formatter:on
+
+		final ViewRowIdsOrderedSelection selection = newSelection();
+		cache.put(key("SEC1"), selection);
+
+		cache.invalidateByTableNames(ImmutableSet.of("C_BPartner"));
+		assertThat(cache.getOrNull(key("SEC1"))).isSameAs(selection);
+
+		cache.invalidateByTableNames(ImmutableSet.of("C_Order"));
+		assertThat(cache.getOrNull(key("SEC1"))).isNull();
+		assertThat(cache.getStats()).containsEntry("invalidated", 1L);
+	}
+
+	@Test
+	public void invalidateBySelectionId()
+	{
+		final ViewRowIdsOrderedSelection selection1 = newSelection();
+		cache.put(key("SEC1"), selection1);
+		final ViewRowIdsOrderedSelection selection2 = newSelection();
+		cache.put(key("SEC2"), selection2);
+
+		cache.invalidateBySelectionId(selection1.getSelectionId());
+
+		assertThat(cache.getOrNull(key("SEC1"))).isNull();
+		assertThat(cache.getOrNull(key("SEC2"))).isSameAs(selection2);
+	}
+
+	@Test
+	public void selectionIsDeletedWhenEvictedAfterItsViewReleasedIt()
+	{
+		final ViewRowIdsOrderedSelection selection = newSelection();
+		cache.put(key("SEC1"), selection);
+
+		// the view which created the selection is closed, but the cache is still referencing the selection
+		assertThat(SharedViewRowIdsOrderedSelections.instance.release(ImmutableList.of(selection), false)).isEmpty();
+
+		cache.invalidateAll();
+
+		// @formatter:off
+		new Verifications()
+		{{
+			SqlViewSelectionToDeleteHelper.scheduleDeleteSelections(ImmutableSet.of(selection.getSelectionId())); times = 1;
+		}};	// @formatter:on
+	}
+
+	@Test
+	public void selectionIsDeletedByItsViewWhenEvictedBefore()
+	{
+		final ViewRowIdsOrderedSelection selection = newSelection();
+		cache.put(key("SEC1"), selection);
+
+		cache.invalidateAll();
+
+		// @formatter:off
+		new Verifications()
+		{{
+			SqlViewSelectionToDeleteHelper.scheduleDeleteSelections(withInstanceOf(Set.class)); times = 0;
+		}};	// @formatter:on
+
+		assertThat(SharedViewRowIdsOrderedSelections.instance.release(ImmutableList.of(selection), false))
+				.containsExactly(selection.getSelectionId());
+	}
+
+	@Test
+	public void forgetBySelectionId_doesNotReleaseTheSelection()
+	{
+		final ViewRowIdsOrderedSelection selection = newSelection();
+		cache.put(key("SEC1"), selection);
+
+		// the owner is deleting the selection right now
+		cache.forgetBySelectionId(selection.getSelectionId());
+		SharedViewRowIdsOrderedSelections.instance.forget(selection.getSelectionId());
+
+		assertThat(cache.getOrNull(key("SEC1"))).isNull();
+
+		// @formatter:off
+		new Verifications()
+		{{
+			SqlViewSelectionToDeleteHelper.scheduleDeleteSelections(withInstanceOf(Set.class)); times = 0;
+		}};	// @formatter:on
+	}
+}
@@ -0,0 +1,162 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewRowLookupValuesBatchResolverTest
+{
+	@Mocked
+	private LookupDataSource bpartnerLookup;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	private static SqlViewRowFieldBinding field(final String fieldName, final LookupDataSource batchLookupDataSource)
+	{
+		return SqlViewRowFieldBinding.builder()
+				.fieldName(fieldName)
+				.widgetType(DocumentFieldWidgetType.Lookup)
+				.fieldLoader((rs, adLanguage) -> null)
+				.batchLookupDataSource(batchLookupDataSource)
+				.build();
+	}
+
+	private static ViewRow.Builder row(final String fieldName, final Object value)
+	{
+		return ViewRow.builder(WindowId.of(123))
+				.putFieldValue(fieldName, value);
+	}
+
+	private static String caption(final ViewRow.Builder row, final String fieldName)
+	{
+		return ((JSONLookupValue)row.getFieldValue(fieldName)).getCaption();
+	}
+
+	@Test
+	public void isEmpty_whenNoFieldIsResolvedInBatch()
+	{
+		final SqlViewRowLookupValuesBatchResolver resolver = SqlViewRowLookupValuesBatchResolver.ofFields(ImmutableList.of(field("C_BPartner_ID", null)));
+		assertThat(resolver.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void resolve_distinctKeysUsingOneCall()
+	{
+		new Expectations()
+		{
+			{
+				bpartnerLookup.findByIds((Collection<?>)any);
+				result = LookupValuesList.fromCollection(ImmutableList.of(
+						IntegerLookupValue.of(1, "Partner 1"),
+						IntegerLookupValue.of(2, "Partner 2")));
+			}
+		};
+
+		final SqlViewRowLookupValuesBatchResolver resolver = SqlViewRowLookupValuesBatchResolver.ofFields(ImmutableList.of(field("C_BPartner_ID", bpartnerLookup)));
+		assertThat(resolver.isEmpty()).isFalse();
+
+		final ViewRow.Builder row1 = row("C_BPartner_ID", JSONLookupValue.of(1, "?"));
+		final ViewRow.Builder row2 = row("C_BPartner_ID", JSONLookupValue.of(2, "?"));
+		final ViewRow.Builder row3 = row("C_BPartner_ID", JSONLookupValue.of(1, "?"));
+		final ViewRow.Builder rowWithoutValue = row("C_BPartner_ID", null);
+		resolver.resolve(ImmutableList.of(row1, row2, row3, rowWithoutValue));
+
+		assertThat(caption(row1, "C_BPartner_ID")).isEqualTo("Partner 1");
+		assertThat(caption(row2, "C_BPartner_ID")).isEqualTo("Partner 2");
+		assertThat(caption(row3, "C_BPartner_ID")).isEqualTo("Partner 1");
+		assertThat(rowWithoutValue.getFieldValue("C_BPartner_ID")).isNull();
+
+		new Verifications()
+		{
+			{
+				final List<Collection<?>> keysList = new ArrayList<>();
+				bpartnerLookup.findByIds(withCapture(keysList));
+				times = 1;
+
+				assertThat(keysList.get(0)).containsExactly("1", "2");
+			}
+		};
+	}
+
+	@Test
+	public void resolve_keepsValueWhenKeyWasNotFound()
+	{
+		new Expectations()
+		{
+			{
+				bpartnerLookup.findByIds((Collection<?>)any);
+				result = LookupValuesList.fromCollection(ImmutableList.of(IntegerLookupValue.of(1, "Partner 1")));
+			}
+		};
+
+		final SqlViewRowLookupValuesBatchResolver resolver = SqlViewRowLookupValuesBatchResolver.ofFields(ImmutableList.of(field("C_BPartner_ID", bpartnerLookup)));
+
+		final ViewRow.Builder row1 = row("C_BPartner_ID", JSONLookupValue.of(1, "?"));
+		final ViewRow.Builder row2 = row("C_BPartner_ID", JSONLookupValue.of(2, "Loaded by SQL"));
+		resolver.resolve(ImmutableList.of(row1, row2));
+
+		assertThat(caption(row1, "C_BPartner_ID")).isEqualTo("Partner 1");
+		assertThat(caption(row2, "C_BPartner_ID")).isEqualTo("Loaded by SQL");
+	}
+
+	@Test
+	public void resolve_noCallWhenThereAreNoKeys()
+	{
+		final SqlViewRowLookupValuesBatchResolver resolver = SqlViewRowLookupValuesBatchResolver.ofFields(ImmutableList.of(field("C_BPartner_ID", bpartnerLookup)));
+		resolver.resolve(ImmutableList.of());
+		resolver.resolve(ImmutableList.of(row("C_BPartner_ID", null)));
+
+		new Verifications()
+		{
+			{
+				bpartnerLookup.findByIds((Collection<?>)any);
+				times = 0;
+			}
+		};
+	}
+}
@@ -0,0 +1,45 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewSelectionToDeleteHelperTest
+{
+	@Test
+	public void toSqlTextArray()
+	{
+		assertThat(SqlViewSelectionToDeleteHelper.toSqlTextArray(ImmutableList.of())).isEqualTo("{}");
+		assertThat(SqlViewSelectionToDeleteHelper.toSqlTextArray(ImmutableList.of("123-A", "123-B"))).isEqualTo("{\"123-A\",\"123-B\"}");
+	}
+
+	@Test
+	public void toSqlTextArray_escapeQuotes()
+	{
+		assertThat(SqlViewSelectionToDeleteHelper.toSqlTextArray(ImmutableList.of("a\"b", "c\\d"))).isEqualTo("{\"a\\\"b\",\"c\\\\d\"}");
+	}
+}
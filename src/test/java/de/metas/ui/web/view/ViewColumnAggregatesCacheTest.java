@@ -0,0 +1,85 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewColumnAggregatesCacheTest
+{
+	private final AtomicInteger loadsCount = new AtomicInteger();
+
+	private Supplier<ViewColumnAggregates> loader()
+	{
+		return () -> ViewColumnAggregates.of(loadsCount.incrementAndGet(), ImmutableList.of());
+	}
+
+	@Test
+	public void sameRequest_isLoadedOnce()
+	{
+		final ViewColumnAggregatesCache cache = new ViewColumnAggregatesCache();
+		final ImmutableMap<String, DocumentFieldWidgetType> fields = ImmutableMap.of("Amount", DocumentFieldWidgetType.Amount);
+
+		final ViewColumnAggregates aggregates1 = cache.getOrCompute(DocumentIdsSelection.ALL, fields, loader());
+		final ViewColumnAggregates aggregates2 = cache.getOrCompute(DocumentIdsSelection.ALL, ImmutableMap.copyOf(fields), loader());
+
+		assertThat(aggregates2).isSameAs(aggregates1);
+		assertThat(loadsCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void differentRowIdsOrFields_areLoadedSeparately()
+	{
+		final ViewColumnAggregatesCache cache = new ViewColumnAggregatesCache();
+		final ImmutableMap<String, DocumentFieldWidgetType> fields = ImmutableMap.of("Amount", DocumentFieldWidgetType.Amount);
+
+		cache.getOrCompute(DocumentIdsSelection.ALL, fields, loader());
+		cache.getOrCompute(DocumentIdsSelection.ofIntSet(ImmutableList.of(1, 2)), fields, loader());
+		cache.getOrCompute(DocumentIdsSelection.ALL, ImmutableMap.of("Qty", DocumentFieldWidgetType.Quantity), loader());
+
+		assertThat(loadsCount.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void clear()
+	{
+		final ViewColumnAggregatesCache cache = new ViewColumnAggregatesCache();
+		final ImmutableMap<String, DocumentFieldWidgetType> fields = ImmutableMap.of("Amount", DocumentFieldWidgetType.Amount);
+
+		cache.getOrCompute(DocumentIdsSelection.ALL, fields, loader());
+		cache.clear();
+		cache.getOrCompute(DocumentIdsSelection.ALL, fields, loader());
+
+		assertThat(loadsCount.get()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,175 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.json.JSONDate;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewColumnAggregatesCalculatorTest
+{
+	@Value
+	private static class TestRow implements IViewRow
+	{
+		@NonNull
+		DocumentId id;
+		@NonNull
+		Map<String, Object> fieldNameAndJsonValues;
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return null;
+		}
+	}
+
+	private static TestRow row(final int id, final String fieldName, final Object jsonValue)
+	{
+		final Map<String, Object> values = new HashMap<>();
+		if (jsonValue != null)
+		{
+			values.put(fieldName, jsonValue);
+		}
+		return new TestRow(DocumentId.of(id), values);
+	}
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void isAggregatable()
+	{
+		assertThat(ViewColumnAggregatesCalculator.isAggregatable(DocumentFieldWidgetType.Amount)).isTrue();
+		assertThat(ViewColumnAggregatesCalculator.isAggregatable(DocumentFieldWidgetType.Quantity)).isTrue();
+		assertThat(ViewColumnAggregatesCalculator.isAggregatable(DocumentFieldWidgetType.Date)).isTrue();
+		assertThat(ViewColumnAggregatesCalculator.isAggregatable(DocumentFieldWidgetType.Text)).isFalse();
+		assertThat(ViewColumnAggregatesCalculator.isAggregatable(DocumentFieldWidgetType.YesNo)).isFalse();
+	}
+
+	@Test
+	public void numericColumn()
+	{
+		final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(ImmutableMap.of("Amount", DocumentFieldWidgetType.Amount));
+		calculator.add(row(1, "Amount", new BigDecimal("10")));
+		calculator.add(row(2, "Amount", new BigDecimal("-5")));
+		calculator.add(row(3, "Amount", "7.5"));
+		calculator.add(row(4, "Amount", null));
+		calculator.add(row(5, "Amount", JSONNullValue.instance));
+
+		final ViewColumnAggregates aggregates = calculator.build();
+		assertThat(aggregates.getRowsCount()).isEqualTo(5);
+		assertThat(aggregates.getColumns()).hasSize(1);
+
+		final ViewColumnAggregate amount = aggregates.getColumns().get(0);
+		assertThat(amount.getFieldName()).isEqualTo("Amount");
+		assertThat(amount.getWidgetType()).isEqualTo(DocumentFieldWidgetType.Amount);
+		assertThat(amount.getCount()).isEqualTo(3);
+		assertThat(amount.getSum()).isEqualByComparingTo("12.5");
+		assertThat((BigDecimal)amount.getMin()).isEqualByComparingTo("-5");
+		assertThat((BigDecimal)amount.getMax()).isEqualByComparingTo("10");
+	}
+
+	@Test
+	public void dateColumn()
+	{
+		final String date1 = JSONDate.toJson(LocalDate.of(2018, 10, 1));
+		final String date2 = JSONDate.toJson(LocalDate.of(2018, 10, 15));
+		final String date3 = JSONDate.toJson(LocalDate.of(2018, 9, 20));
+
+		final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(ImmutableMap.of("DateOrdered", DocumentFieldWidgetType.Date));
+		calculator.add(row(1, "DateOrdered", date1));
+		calculator.add(row(2, "DateOrdered", date2));
+		calculator.add(row(3, "DateOrdered", date3));
+		calculator.add(row(4, "DateOrdered", null));
+
+		final ViewColumnAggregate dateOrdered = calculator.build().getColumns().get(0);
+		assertThat(dateOrdered.getCount()).isEqualTo(3);
+		assertThat(dateOrdered.getSum()).isNull();
+		assertThat(dateOrdered.getMin()).isEqualTo(JSONDate.fromJson(date3, DocumentFieldWidgetType.Date));
+		assertThat(dateOrdered.getMax()).isEqualTo(JSONDate.fromJson(date2, DocumentFieldWidgetType.Date));
+	}
+
+	@Test
+	public void nonAggregatableColumnsAreSkipped()
+	{
+		final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(ImmutableMap.of(
+				"Description", DocumentFieldWidgetType.Text,
+				"Qty", DocumentFieldWidgetType.Quantity));
+		calculator.add(new TestRow(DocumentId.of(1), ImmutableMap.of("Description", "some text", "Qty", new BigDecimal("2"))));
+
+		final ViewColumnAggregates aggregates = calculator.build();
+		assertThat(aggregates.getColumns())
+				.extracting(ViewColumnAggregate::getFieldName)
+				.containsExactly("Qty");
+	}
+
+	@Test
+	public void noValues()
+	{
+		final ViewColumnAggregatesCalculator calculator = ViewColumnAggregatesCalculator.of(ImmutableMap.of("Amount", DocumentFieldWidgetType.Amount));
+		calculator.add(row(1, "Amount", null));
+
+		final ViewColumnAggregates aggregates = calculator.build();
+		assertThat(aggregates.getRowsCount()).isEqualTo(1);
+
+		final ViewColumnAggregate amount = aggregates.getColumns().get(0);
+		assertThat(amount.getCount()).isEqualTo(0);
+		assertThat(amount.getSum()).isNull();
+		assertThat(amount.getMin()).isNull();
+		assertThat(amount.getMax()).isNull();
+	}
+
+	@Test
+	public void noRows()
+	{
+		final ViewColumnAggregates aggregates = ViewColumnAggregatesCalculator.of(ImmutableMap.of("Amount", DocumentFieldWidgetType.Amount)).build();
+		assertThat(aggregates.getRowsCount()).isEqualTo(0);
+		assertThat(aggregates.getColumns().get(0).getCount()).isEqualTo(0);
+	}
+}
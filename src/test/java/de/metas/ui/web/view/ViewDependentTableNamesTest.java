@@ -0,0 +1,66 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewDependentTableNamesTest
+{
+	@Test
+	public void any_isMatchingEverything()
+	{
+		assertThat(ViewDependentTableNames.ANY.isMatchingAnyOf(ImmutableSet.of("C_Order"))).isTrue();
+		assertThat(ViewDependentTableNames.ANY.isMatchingAnyOf(ImmutableSet.of())).isTrue();
+	}
+
+	@Test
+	public void none_isMatchingNothing()
+	{
+		assertThat(ViewDependentTableNames.NONE.isMatchingAnyOf(ImmutableSet.of("C_Order"))).isFalse();
+		assertThat(ViewDependentTableNames.of(ImmutableSet.of())).isSameAs(ViewDependentTableNames.NONE);
+	}
+
+	@Test
+	public void isMatchingAnyOf()
+	{
+		final ViewDependentTableNames tableNames = ViewDependentTableNames.of("C_Order", "C_OrderLine");
+		assertThat(tableNames.isMatchingAnyOf(ImmutableSet.of("C_OrderLine", "M_Product"))).isTrue();
+		assertThat(tableNames.isMatchingAnyOf(ImmutableSet.of("M_Product"))).isFalse();
+	}
+
+	@Test
+	public void union()
+	{
+		final ViewDependentTableNames order = ViewDependentTableNames.of("C_Order");
+		final ViewDependentTableNames orderLine = ViewDependentTableNames.of("C_OrderLine");
+
+		assertThat(order.union(orderLine).getTableNames()).containsOnly("C_Order", "C_OrderLine");
+		assertThat(order.union(ViewDependentTableNames.NONE)).isSameAs(order);
+		assertThat(ViewDependentTableNames.NONE.union(order)).isSameAs(order);
+		assertThat(order.union(ViewDependentTableNames.ANY)).isSameAs(ViewDependentTableNames.ANY);
+	}
+}
@@ -0,0 +1,69 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowIdsOrderedSelectionTest
+{
+	private static ViewRowIdsOrderedSelection inMemorySelection(final int... rowIds)
+	{
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(ViewId.random(WindowId.of(123)))
+				.setInMemoryRowIds(rowIds)
+				.build();
+	}
+
+	@Test
+	public void inMemory_sizeIsTakenFromRowIds()
+	{
+		final ViewRowIdsOrderedSelection selection = inMemorySelection(5, 3, 9);
+		assertThat(selection.isInMemory()).isTrue();
+		assertThat(selection.getSize()).isEqualTo(3);
+	}
+
+	@Test
+	public void inMemory_getPage()
+	{
+		final ViewRowIdsOrderedSelection selection = inMemorySelection(5, 3, 9, 1, 7);
+
+		assertThat(selection.getInMemoryRowIdsPage(0, 2)).containsExactly(DocumentId.of(5), DocumentId.of(3));
+		assertThat(selection.getInMemoryRowIdsPage(3, 10)).containsExactly(DocumentId.of(1), DocumentId.of(7));
+		assertThat(selection.getInMemoryRowIdsPage(10, 10)).isEmpty();
+	}
+
+	@Test
+	public void inMemory_rowIdsAreCopied()
+	{
+		final int[] rowIds = { 1, 2 };
+		final ViewRowIdsOrderedSelection selection = inMemorySelection(rowIds);
+		rowIds[0] = 100;
+
+		assertThat(selection.getInMemoryRowIdsPage(0, 1)).containsExactly(DocumentId.of(1));
+	}
+}
@@ -0,0 +1,131 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowsGroupsCalculatorTest
+{
+	@Value
+	private static class TestRow implements IViewRow
+	{
+		@NonNull
+		DocumentId id;
+		@NonNull
+		Map<String, Object> fieldNameAndJsonValues;
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return null;
+		}
+	}
+
+	private static TestRow row(final int id, final String bpartner, final String amount)
+	{
+		final ImmutableMap.Builder<String, Object> values = ImmutableMap.builder();
+		if (bpartner != null)
+		{
+			values.put("C_BPartner_ID", bpartner);
+		}
+		values.put("Amount", new BigDecimal(amount));
+		return new TestRow(DocumentId.of(id), values.build());
+	}
+
+	private static ViewRowsGroupsCalculator newCalculator()
+	{
+		return ViewRowsGroupsCalculator.of(ViewGroupByRequest.builder()
+				.groupByFieldName("C_BPartner_ID")
+				.aggregatedField("Amount", DocumentFieldWidgetType.Amount)
+				.aggregatedField("Description", DocumentFieldWidgetType.Text)
+				.build());
+	}
+
+	@Test
+	public void groupsInEncounterOrder()
+	{
+		final ViewRowsGroupsCalculator calculator = newCalculator();
+		calculator.add(row(1, "bp1", "10"));
+		calculator.add(row(2, "bp2", "5"));
+		calculator.add(row(3, "bp1", "-3"));
+		calculator.add(row(4, null, "7"));
+
+		final ViewRowsGroupsPage page = calculator.buildPage(0, 10);
+
+		assertThat(page.getGroupsCount()).isEqualTo(3);
+		assertThat(page.getGroups()).hasSize(3);
+
+		final ViewRowsGroup bp1 = page.getGroups().get(0);
+		assertThat(bp1.getGroupValues()).containsEntry("C_BPartner_ID", "bp1");
+		assertThat(bp1.getAggregates().getRowsCount()).isEqualTo(2);
+		assertThat(bp1.getAggregates().getColumns()).hasSize(1); // only Amount is aggregatable
+
+		final ViewColumnAggregate amount = bp1.getAggregates().getColumns().get(0);
+		assertThat(amount.getFieldName()).isEqualTo("Amount");
+		assertThat(amount.getCount()).isEqualTo(2);
+		assertThat(amount.getSum()).isEqualByComparingTo("7");
+		assertThat((BigDecimal)amount.getMin()).isEqualByComparingTo("-3");
+		assertThat((BigDecimal)amount.getMax()).isEqualByComparingTo("10");
+
+		assertThat(page.getGroups().get(1).getGroupValues()).containsEntry("C_BPartner_ID", "bp2");
+		assertThat(page.getGroups().get(2).getGroupValues()).containsEntry("C_BPartner_ID", JSONNullValue.instance);
+	}
+
+	@Test
+	public void paging()
+	{
+		final ViewRowsGroupsCalculator calculator = newCalculator();
+		for (int i = 1; i <= 10; i++)
+		{
+			calculator.add(row(i, "bp" + i, "1"));
+		}
+
+		final ViewRowsGroupsPage page = calculator.buildPage(8, 5);
+
+		assertThat(page.getFirstRow()).isEqualTo(8);
+		assertThat(page.getGroupsCount()).isEqualTo(10);
+		assertThat(page.getGroups())
+				.extracting(group -> group.getGroupValues().get("C_BPartner_ID"))
+				.containsExactly("bp9", "bp10");
+	}
+}
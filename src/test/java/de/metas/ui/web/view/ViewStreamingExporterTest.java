@@ -0,0 +1,221 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.i18n.ImmutableTranslatableString;
+import de.metas.ui.web.view.ViewStreamingExporter.ExportFormat;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
+import lombok.NonNull;
+import lombok.Value;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewStreamingExporterTest
+{
+	@Value
+	private static class TestRow implements IViewRow
+	{
+		@NonNull
+		DocumentId id;
+		@NonNull
+		Map<String, Object> fieldNameAndJsonValues;
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return null;
+		}
+	}
+
+	@Mocked
+	private IView view;
+	@Mocked
+	private ViewLayout layout;
+
+	private final TestRow row1 = new TestRow(DocumentId.of(1), ImmutableMap.of(
+			"DocumentNo", "SO-1",
+			"C_BPartner_ID", JSONLookupValue.of(10, "Partner, Inc."),
+			"GrandTotal", "10.50"));
+	private final TestRow row2 = new TestRow(DocumentId.of(2), ImmutableMap.of(
+			"DocumentNo", "SO-2"));
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	private static DocumentLayoutElementDescriptor element(final String fieldName, final String caption, final DocumentFieldWidgetType widgetType)
+	{
+		return DocumentLayoutElementDescriptor.builder()
+				.setCaption(caption)
+				.setWidgetType(widgetType)
+				.addField(DocumentLayoutElementFieldDescriptor.builder(fieldName))
+				.build();
+	}
+
+	private void setupViewAndLayout()
+	{
+		new Expectations()
+		{
+			{
+				layout.getElements();
+				result = ImmutableList.of(
+						element("DocumentNo", "Document No", DocumentFieldWidgetType.Text),
+						element("C_BPartner_ID", "Partner", DocumentFieldWidgetType.Lookup),
+						element("GrandTotal", "Grand Total", DocumentFieldWidgetType.Amount));
+				minTimes = 0;
+
+				view.forEachRow((Consumer<IViewRow>)any);
+				result = new Delegate<Void>()
+				{
+					@SuppressWarnings("unused")
+					void forEachRow(final Consumer<IViewRow> consumer)
+					{
+						consumer.accept(row1);
+						consumer.accept(row2);
+					}
+				};
+				minTimes = 0;
+
+				view.streamByIds(DocumentIdsSelection.of(ImmutableList.of(DocumentId.of(2))));
+				result = ImmutableList.of(row2).stream();
+				minTimes = 0;
+			}
+		};
+	}
+
+	private ViewStreamingExporter newExporter(final DocumentIdsSelection rowIds, final ExportFormat format)
+	{
+		return ViewStreamingExporter.builder()
+				.view(view)
+				.rowIds(rowIds)
+				.layout(layout)
+				.adLanguage("en_US")
+				.format(format)
+				.build();
+	}
+
+	private String exportToCSV(final DocumentIdsSelection rowIds) throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		newExporter(rowIds, ExportFormat.CSV).export(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void exportToCSV_allRows() throws IOException
+	{
+		setupViewAndLayout();
+
+		assertThat(exportToCSV(DocumentIdsSelection.ALL)).isEqualTo("\uFEFF"
+				+ "Document No,Partner,Grand Total\r\n"
+				+ "SO-1,\"Partner, Inc.\",10.50\r\n"
+				+ "SO-2,,\r\n");
+	}
+
+	@Test
+	public void exportToCSV_selectedRows() throws IOException
+	{
+		setupViewAndLayout();
+
+		assertThat(exportToCSV(DocumentIdsSelection.of(ImmutableList.of(DocumentId.of(2))))).isEqualTo("\uFEFF"
+				+ "Document No,Partner,Grand Total\r\n"
+				+ "SO-2,,\r\n");
+	}
+
+	@Test
+	public void exportToXLSX() throws IOException
+	{
+		setupViewAndLayout();
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		newExporter(DocumentIdsSelection.ALL, ExportFormat.XLSX).export(out);
+
+		// XLSX files are ZIP archives
+		assertThat(out.toByteArray()).startsWith((byte)'P', (byte)'K');
+	}
+
+	@Test
+	public void getFilename()
+	{
+		new Expectations()
+		{
+			{
+				view.getDescription();
+				result = ImmutableTranslatableString.constant("Sales Orders");
+			}
+		};
+
+		assertThat(newExporter(DocumentIdsSelection.ALL, ExportFormat.XLSX).getFilename()).isEqualTo("Sales Orders.xlsx");
+	}
+
+	@Test
+	public void buildFilename()
+	{
+		assertThat(ViewStreamingExporter.buildFilename("Sales Orders", ExportFormat.CSV)).isEqualTo("Sales Orders.csv");
+		assertThat(ViewStreamingExporter.buildFilename("In/Out \"2018\"", ExportFormat.CSV)).isEqualTo("In_Out _2018_.csv");
+		assertThat(ViewStreamingExporter.buildFilename("", ExportFormat.XLSX)).isEqualTo("report.xlsx");
+		assertThat(ViewStreamingExporter.buildFilename(null, ExportFormat.XLSX)).isEqualTo("report.xlsx");
+	}
+
+	@Test
+	public void quoteCSVValue()
+	{
+		assertThat(ViewStreamingExporter.quoteCSVValue(null)).isEqualTo("");
+		assertThat(ViewStreamingExporter.quoteCSVValue("")).isEqualTo("");
+		assertThat(ViewStreamingExporter.quoteCSVValue("plain text")).isEqualTo("plain text");
+		assertThat(ViewStreamingExporter.quoteCSVValue("a,b")).isEqualTo("\"a,b\"");
+		assertThat(ViewStreamingExporter.quoteCSVValue("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+		assertThat(ViewStreamingExporter.quoteCSVValue("line1\nline2")).isEqualTo("\"line1\nline2\"");
+	}
+}
@@ -0,0 +1,101 @@
+package de.metas.ui.web.view.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewSelectionQueryBuilder_buildSqlAggregates_Test
+{
+	private SqlViewBinding viewBinding;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		viewBinding = SqlViewBinding.builder()
+				.tableName("C_Order")
+				.field(field("C_Order_ID", DocumentFieldWidgetType.Integer, true))
+				.field(field("GrandTotal", DocumentFieldWidgetType.Amount, false))
+				.field(field("DateOrdered", DocumentFieldWidgetType.Date, false))
+				.displayFieldNames("GrandTotal", "DateOrdered")
+				.build();
+	}
+
+	private static SqlViewRowFieldBinding field(final String fieldName, final DocumentFieldWidgetType widgetType, final boolean keyColumn)
+	{
+		return SqlViewRowFieldBinding.builder()
+				.fieldName(fieldName)
+				.widgetType(widgetType)
+				.keyColumn(keyColumn)
+				.fieldLoader((rs, adLanguage) -> null)
+				.build();
+	}
+
+	private String selectionColumnName()
+	{
+		return viewBinding.getSqlViewKeyColumnNamesMap().getSingleWebuiSelectionColumnName();
+	}
+
+	@Test
+	public void allRows()
+	{
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(viewBinding)
+				.buildSqlAggregates("selectionId", DocumentIdsSelection.ALL, ImmutableList.of("GrandTotal", "DateOrdered"));
+
+		assertThat(sqlAndParams.getSql()).isEqualTo("SELECT COUNT(1) AS RowsCount"
+				+ "\n, COUNT((GrandTotal)) AS Count_0"
+				+ "\n, SUM((GrandTotal)) AS Sum_0"
+				+ "\n, MIN((GrandTotal)) AS Min_0"
+				+ "\n, MAX((GrandTotal)) AS Max_0"
+				+ "\n, COUNT((DateOrdered)) AS Count_1"
+				+ "\n, MIN((DateOrdered)) AS Min_1"
+				+ "\n, MAX((DateOrdered)) AS Max_1"
+				+ "\n FROM T_WEBUI_ViewSelection sel"
+				+ "\n INNER JOIN C_Order ON (C_Order.C_Order_ID=sel." + selectionColumnName() + ")"
+				+ "\n WHERE sel.UUID=?");
+		assertThat(sqlAndParams.getSqlParams()).containsExactly("selectionId");
+	}
+
+	@Test
+	public void someRows()
+	{
+		final SqlAndParams sqlAndParams = SqlViewSelectionQueryBuilder.newInstance(viewBinding)
+				.buildSqlAggregates("selectionId", DocumentIdsSelection.ofIntSet(ImmutableList.of(10, 20)), ImmutableList.of("GrandTotal"));
+
+		assertThat(sqlAndParams.getSql())
+				.startsWith("SELECT COUNT(1) AS RowsCount")
+				.contains("\n WHERE sel.UUID=? AND (sel." + selectionColumnName() + " ")
+				.endsWith(")");
+		assertThat(sqlAndParams.getSqlParams()).startsWith("selectionId");
+	}
+}
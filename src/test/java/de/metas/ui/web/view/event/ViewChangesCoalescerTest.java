@@ -0,0 +1,98 @@
+package de.metas.ui.web.view.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewChangesCoalescerTest
+{
+	private final List<ViewChanges> sentChanges = new CopyOnWriteArrayList<>();
+	private CountDownLatch sentLatch;
+	private ViewChangesCoalescer coalescer;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		sentLatch = new CountDownLatch(1);
+		coalescer = new ViewChangesCoalescer((changes, adLanguage) -> {
+			sentChanges.add(changes);
+			sentLatch.countDown();
+		});
+	}
+
+	private static ViewChanges rowsChanged(final ViewId viewId, final int fromRowId, final int toRowId)
+	{
+		final ViewChanges changes = new ViewChanges(viewId);
+		for (int rowId = fromRowId; rowId <= toRowId; rowId++)
+		{
+			changes.addChangedRowId(DocumentId.of(rowId));
+		}
+		return changes;
+	}
+
+	@Test
+	public void changesOfSameViewAreSentOnce() throws Exception
+	{
+		final ViewId viewId = ViewId.random(WindowId.of(123));
+		coalescer.enqueue(rowsChanged(viewId, 1, 2), "de_DE");
+		coalescer.enqueue(rowsChanged(viewId, 2, 3), "de_DE");
+		coalescer.enqueue(rowsChanged(viewId, 10, 10), "de_DE");
+
+		assertThat(sentLatch.await(5, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(300); // make sure nothing else is sent
+
+		assertThat(sentChanges).hasSize(1);
+		assertThat(sentChanges.get(0).getChangedRowIds().toSet())
+				.containsOnly(DocumentId.of(1), DocumentId.of(2), DocumentId.of(3), DocumentId.of(10));
+	}
+
+	@Test
+	public void tooManyChangedRowsArePromotedToFullyChanged() throws Exception
+	{
+		final ViewId viewId = ViewId.random(WindowId.of(123));
+		coalescer.enqueue(rowsChanged(viewId, 1, 800), "de_DE");
+		coalescer.enqueue(rowsChanged(viewId, 801, 1600), "de_DE");
+
+		assertThat(sentLatch.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(sentChanges).hasSize(1);
+		assertThat(sentChanges.get(0).isFullyChanged()).isTrue();
+		assertThat(sentChanges.get(0).getChangedRowIds()).isEqualTo(DocumentIdsSelection.ALL);
+	}
+}
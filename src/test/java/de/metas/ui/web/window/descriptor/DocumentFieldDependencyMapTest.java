@@ -0,0 +1,76 @@
+package de.metas.ui.web.window.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.descriptor.DocumentFieldDependencyMap.DependencyType;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentFieldDependencyMapTest
+{
+	private static List<String> consumeForChangedFieldName(final DocumentFieldDependencyMap dependencies, final String changedFieldName)
+	{
+		final List<String> result = new ArrayList<>();
+		dependencies.consumeForChangedFieldName(changedFieldName, (dependentFieldName, dependencyType) -> result.add(dependencyType + ":" + dependentFieldName));
+		return result;
+	}
+
+	@Test
+	public void consumeForChangedFieldName_orderedByDependencyType()
+	{
+		final DocumentFieldDependencyMap dependencies = DocumentFieldDependencyMap.builder()
+				.add("Price", ImmutableList.of("M_Product_ID"), DependencyType.FieldValue)
+				.add("C_UOM_ID", ImmutableList.of("M_Product_ID"), DependencyType.LookupValues)
+				.add("Discount", ImmutableList.of("M_Product_ID", "Qty"), DependencyType.ReadonlyLogic)
+				.build();
+
+		assertThat(consumeForChangedFieldName(dependencies, "M_Product_ID"))
+				.containsExactly("ReadonlyLogic:Discount", "LookupValues:C_UOM_ID", "FieldValue:Price");
+		assertThat(consumeForChangedFieldName(dependencies, "Qty"))
+				.containsExactly("ReadonlyLogic:Discount");
+		assertThat(consumeForChangedFieldName(dependencies, "Description"))
+				.isEmpty();
+	}
+
+	@Test
+	public void consumeForChangedFieldName_noDuplicates()
+	{
+		final DocumentFieldDependencyMap dependencies1 = DocumentFieldDependencyMap.builder()
+				.add("Discount", ImmutableList.of("M_Product_ID"), DependencyType.DisplayLogic)
+				.build();
+		final DocumentFieldDependencyMap dependencies = DocumentFieldDependencyMap.builder()
+				.add(dependencies1)
+				.add("Discount", ImmutableList.of("M_Product_ID"), DependencyType.DisplayLogic)
+				.build();
+
+		assertThat(consumeForChangedFieldName(dependencies, "M_Product_ID"))
+				.containsExactly("DisplayLogic:Discount");
+	}
+}
@@ -0,0 +1,82 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DetailId;
+import de.metas.ui.web.window.model.DocumentCollection.IncludedDocumentsKey;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentCollectionTest
+{
+	private static final WindowId WINDOW_ID = WindowId.of(123);
+
+	private static DocumentPath includedDocumentsPath(final String documentId, final String detailId, final String rowIds)
+	{
+		return DocumentPath.builder()
+				.setDocumentType(WINDOW_ID)
+				.setDocumentId(documentId)
+				.setDetailId(detailId)
+				.setRowIdsList(rowIds)
+				.build();
+	}
+
+	private static IncludedDocumentsKey includedDocumentsKey(final int documentId, final int detailId)
+	{
+		return IncludedDocumentsKey.of(DocumentPath.rootDocumentPath(WINDOW_ID, documentId), DetailId.fromAD_Tab_ID(detailId));
+	}
+
+	@Test
+	public void groupRowIdsByIncludedDocumentsKey()
+	{
+		final DocumentPath rootDocumentPath = DocumentPath.rootDocumentPath(WINDOW_ID, 1);
+
+		final List<DocumentPath> otherDocumentPaths = new ArrayList<>();
+		final Map<IncludedDocumentsKey, Set<DocumentId>> rowIdsByKey = DocumentCollection.groupRowIdsByIncludedDocumentsKey(
+				ImmutableList.of(
+						includedDocumentsPath("1", "10", "101,102"),
+						includedDocumentsPath("1", "20", "201"),
+						rootDocumentPath,
+						includedDocumentsPath("1", "10", "103"),
+						includedDocumentsPath("2", "10", "104")),
+				otherDocumentPaths);
+
+		assertThat(otherDocumentPaths).containsExactly(rootDocumentPath);
+		assertThat(rowIdsByKey).hasSize(3);
+		assertThat(rowIdsByKey.get(includedDocumentsKey(1, 10))).containsOnly(DocumentId.of(101), DocumentId.of(102), DocumentId.of(103));
+		assertThat(rowIdsByKey.get(includedDocumentsKey(1, 20))).containsExactly(DocumentId.of(201));
+		assertThat(rowIdsByKey.get(includedDocumentsKey(2, 10))).containsExactly(DocumentId.of(104));
+	}
+}
@@ -0,0 +1,237 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.model.DocumentCollection.DocumentKey;
+import de.metas.ui.web.window.model.DocumentCollection.RootDocumentsCache;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentCollection_RootDocumentsCache_Test
+{
+	private static final DocumentKey KEY = DocumentKey.of(WindowId.of(123), DocumentId.of(1));
+
+	private static final int MAX_WEIGHT = 1000;
+	private static final int EXPIRE_AFTER_ACCESS_MINUTES = 60;
+
+	@Mocked
+	private Document smallDocument;
+	@Mocked
+	private Document heavyDocument;
+	@Mocked
+	private Document newDocument;
+
+	private final AtomicInteger loadsCount = new AtomicInteger();
+
+	private void setupDocuments()
+	{
+		new Expectations()
+		{
+			{
+				smallDocument.estimateWeight();
+				result = 10;
+				minTimes = 0;
+				smallDocument.isNew();
+				result = false;
+				minTimes = 0;
+
+				// heavier than the whole cache, so it's evicted right away, unless pinned
+				heavyDocument.estimateWeight();
+				result = MAX_WEIGHT + 1;
+				minTimes = 0;
+				heavyDocument.isNew();
+				result = false;
+				minTimes = 0;
+
+				newDocument.isNew();
+				result = true;
+				minTimes = 0;
+			}
+		};
+	}
+
+	private Function<DocumentKey, Document> loader(final Document document)
+	{
+		return key -> {
+			loadsCount.incrementAndGet();
+			return document;
+		};
+	}
+
+	@Test
+	public void getOrLoad_loadsOnce()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		assertThat(cache.getOrLoad(KEY, loader(smallDocument))).isSameAs(smallDocument);
+		assertThat(cache.getOrLoad(KEY, loader(smallDocument))).isSameAs(smallDocument);
+		assertThat(loadsCount.get()).isEqualTo(1);
+		assertThat(cache.isPinned(KEY)).isFalse();
+	}
+
+	@Test
+	public void getOrLoad_evictsDocumentsHeavierThanMaxWeight()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		cache.getOrLoad(KEY, loader(heavyDocument));
+		assertThat(cache.getIfPresent(KEY)).isNull();
+
+		cache.getOrLoad(KEY, loader(heavyDocument));
+		assertThat(loadsCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void getOrLoad_noMaxWeight()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(0, 0);
+
+		cache.getOrLoad(KEY, loader(heavyDocument));
+		assertThat(cache.getIfPresent(KEY)).isSameAs(heavyDocument);
+		assertThat(cache.getStats())
+				.containsEntry("maxWeight", 0L)
+				.containsEntry("expireAfterAccessMinutes", 0);
+	}
+
+	@Test
+	public void pinForWriting_documentIsNotEvictedUntilUnpinned()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		assertThat(cache.pinForWriting(KEY, loader(heavyDocument))).isSameAs(heavyDocument);
+		assertThat(cache.isPinned(KEY)).isTrue();
+
+		// evicted from cache, but pinned
+		assertThat(cache.getOrLoad(KEY, loader(smallDocument))).isSameAs(heavyDocument);
+		assertThat(cache.getIfPresent(KEY)).isSameAs(heavyDocument);
+		assertThat(loadsCount.get()).isEqualTo(1);
+
+		cache.unpinForWriting(KEY);
+		assertThat(cache.isPinned(KEY)).isFalse();
+		assertThat(cache.getOrLoad(KEY, loader(smallDocument))).isSameAs(smallDocument);
+		assertThat(loadsCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void pinForWriting_concurrentWriters()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		assertThat(cache.pinForWriting(KEY, loader(heavyDocument))).isSameAs(heavyDocument);
+		assertThat(cache.pinForWriting(KEY, loader(smallDocument))).isSameAs(heavyDocument);
+		assertThat(loadsCount.get()).isEqualTo(1);
+
+		cache.unpinForWriting(KEY);
+		assertThat(cache.isPinned(KEY)).isTrue();
+
+		cache.unpinForWriting(KEY);
+		assertThat(cache.isPinned(KEY)).isFalse();
+	}
+
+	@Test
+	public void pinForWriting_notPinnedIfLoadingFails()
+	{
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		final Throwable ex = catchThrowable(() -> cache.pinForWriting(KEY, key -> {
+			throw new IllegalStateException("loading failed");
+		}));
+
+		assertThat(ex).isNotNull();
+		assertThat(cache.isPinned(KEY)).isFalse();
+	}
+
+	@Test
+	public void put_newDocumentIsPinnedUntilSaved()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		cache.put(KEY, newDocument);
+		assertThat(cache.isPinned(KEY)).isTrue();
+		assertThat(cache.getIfPresent(KEY)).isSameAs(newDocument);
+
+		cache.put(KEY, smallDocument);
+		assertThat(cache.isPinned(KEY)).isFalse();
+		assertThat(cache.getIfPresent(KEY)).isSameAs(smallDocument);
+	}
+
+	@Test
+	public void put_savedDocumentStaysPinnedWhileCheckedOutForWriting()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		cache.pinForWriting(KEY, loader(smallDocument));
+		cache.put(KEY, heavyDocument);
+		assertThat(cache.isPinned(KEY)).isTrue();
+		assertThat(cache.getIfPresent(KEY)).isSameAs(heavyDocument);
+
+		cache.unpinForWriting(KEY);
+		assertThat(cache.isPinned(KEY)).isFalse();
+	}
+
+	@Test
+	public void reset_keepsPinnedDocuments()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+		final DocumentKey otherKey = DocumentKey.of(WindowId.of(123), DocumentId.of(2));
+
+		cache.pinForWriting(KEY, loader(smallDocument));
+		cache.getOrLoad(otherKey, loader(smallDocument));
+
+		cache.reset();
+
+		assertThat(cache.getIfPresent(KEY)).isSameAs(smallDocument);
+		assertThat(cache.getIfPresent(otherKey)).isNull();
+	}
+
+	@Test
+	public void remove_unpinsTheDocument()
+	{
+		setupDocuments();
+		final RootDocumentsCache cache = new RootDocumentsCache(MAX_WEIGHT, EXPIRE_AFTER_ACCESS_MINUTES);
+
+		cache.put(KEY, newDocument);
+		cache.remove(KEY);
+
+		assertThat(cache.isPinned(KEY)).isFalse();
+		assertThat(cache.getIfPresent(KEY)).isNull();
+	}
+}
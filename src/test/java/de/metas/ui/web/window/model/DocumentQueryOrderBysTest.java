@@ -0,0 +1,125 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentQueryOrderBysTest
+{
+	@Value
+	private static class TestRow implements IViewRow
+	{
+		@NonNull
+		DocumentId id;
+		@NonNull
+		Map<String, Object> fieldNameAndJsonValues;
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return null;
+		}
+	}
+
+	private static TestRow row(final int id, final Object name, final Object qty)
+	{
+		final Map<String, Object> values = new HashMap<>();
+		values.put("Name", name);
+		values.put("Qty", qty);
+		return new TestRow(DocumentId.of(id), values);
+	}
+
+	private static List<DocumentId> sortedIds(final List<TestRow> rows, final List<DocumentQueryOrderBy> orderBys)
+	{
+		final ImmutableList<DocumentId> ids = DocumentQueryOrderBys.sortRows(rows, orderBys)
+				.stream()
+				.map(TestRow::getId)
+				.collect(ImmutableList.toImmutableList());
+
+		final ImmutableList<DocumentId> idsUsingComparator = rows.stream()
+				.sorted(DocumentQueryOrderBys.asComparator(orderBys))
+				.map(TestRow::getId)
+				.collect(ImmutableList.toImmutableList());
+		assertThat(ids).isEqualTo(idsUsingComparator);
+
+		return ids;
+	}
+
+	@Test
+	public void sortRows_sameAsComparator()
+	{
+		final List<TestRow> rows = ImmutableList.of(
+				row(1, "b", 10),
+				row(2, "a", JSONNullValue.instance),
+				row(3, "b", 5),
+				row(4, null, 7),
+				row(5, "a", 3));
+
+		assertThat(sortedIds(rows, ImmutableList.of(DocumentQueryOrderBy.byFieldName("Name"), DocumentQueryOrderBy.byFieldName("Qty", false))))
+				.containsExactly(DocumentId.of(5), DocumentId.of(2), DocumentId.of(1), DocumentId.of(3), DocumentId.of(4));
+
+		assertThat(sortedIds(rows, ImmutableList.of(DocumentQueryOrderBy.byFieldName("Qty"))))
+				.containsExactly(DocumentId.of(5), DocumentId.of(3), DocumentId.of(4), DocumentId.of(1), DocumentId.of(2));
+	}
+
+	@Test
+	public void sortRows_lookupValues()
+	{
+		final List<TestRow> rows = ImmutableList.of(
+				row(1, JSONLookupValue.of("2", "Z"), 1),
+				row(2, JSONLookupValue.of("1", "A"), 1));
+
+		sortedIds(rows, ImmutableList.of(DocumentQueryOrderBy.byFieldName("Name")));
+	}
+
+	@Test
+	public void sortRows_noOrderBys_keepsOrder()
+	{
+		final List<TestRow> rows = ImmutableList.of(row(3, "c", 1), row(1, "a", 2), row(2, "b", 3));
+
+		assertThat(sortedIds(rows, ImmutableList.of()))
+				.containsExactly(DocumentId.of(3), DocumentId.of(1), DocumentId.of(2));
+	}
+}
@@ -0,0 +1,80 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HighVolumeReadWriteIncludedDocumentsCollectionTest
+{
+	private static final List<String> NEW_DOCUMENTS = ImmutableList.of("new1", "new2", "new3");
+
+	@Test
+	public void getNewDocumentsOnPage_pageBeforeLastDatabaseRow()
+	{
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 25, 10, 10))
+				.isEmpty();
+	}
+
+	@Test
+	public void getNewDocumentsOnPage_pageWithLastDatabaseRow()
+	{
+		// database rows 20..24 are on this page, so we have room for all new documents
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 25, 20, 10))
+				.containsExactly("new1", "new2", "new3");
+
+		// database rows 20..28 are on this page, so only one new document fits
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 29, 20, 10))
+				.containsExactly("new1");
+	}
+
+	@Test
+	public void getNewDocumentsOnPage_newDocumentsSplitAcrossPages()
+	{
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 29, 30, 10))
+				.containsExactly("new2", "new3");
+	}
+
+	@Test
+	public void getNewDocumentsOnPage_pagePastTheEnd()
+	{
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 25, 30, 10))
+				.isEmpty();
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 0, 10, 10))
+				.isEmpty();
+	}
+
+	@Test
+	public void getNewDocumentsOnPage_noDatabaseRows()
+	{
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 0, 0, 2))
+				.containsExactly("new1", "new2");
+		assertThat(HighVolumeReadWriteIncludedDocumentsCollection.getNewDocumentsOnPage(NEW_DOCUMENTS, 0, 2, 2))
+				.containsExactly("new3");
+	}
+}
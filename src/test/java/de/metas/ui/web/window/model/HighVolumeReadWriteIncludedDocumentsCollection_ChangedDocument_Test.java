@@ -0,0 +1,212 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.HighVolumeReadWriteIncludedDocumentsCollection.ChangedDocument;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HighVolumeReadWriteIncludedDocumentsCollection_ChangedDocument_Test
+{
+	@Mocked
+	private Document parentDocument;
+	@Mocked
+	private Document document;
+	@Mocked
+	private Document documentCopy1;
+	@Mocked
+	private Document documentCopy2;
+
+	private ChangedDocument readonlyChangedDocumentCopy()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			document.isWritable(); result = false; minTimes = 0;
+		}};	// @formatter:on
+
+		return ChangedDocument.ofDocument(document).copy(parentDocument, CopyMode.CheckInReadonly);
+	}
+
+	@Test
+	public void copy_readonlyDocument_isCopiedOnFirstAccess()
+	{
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy();
+		assertThat(changedDocument.isCopied()).isFalse();
+		assertThat(changedDocument.peekDocument()).isSameAs(document);
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.copy(parentDocument, CopyMode.CheckInReadonly); result = documentCopy1; times = 1;
+		}};	// @formatter:on
+
+		assertThat(changedDocument.getDocument(parentDocument)).isSameAs(documentCopy1);
+		assertThat(changedDocument.getDocument(parentDocument)).isSameAs(documentCopy1);
+		assertThat(changedDocument.isCopied()).isTrue();
+		assertThat(changedDocument.peekDocument()).isSameAs(documentCopy1);
+	}
+
+	@Test
+	public void copy_readonlyDocument_sourceIsReleasedAfterCopying()
+	{
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy();
+		assertThat(changedDocument.getCopyFromOrNull()).isSameAs(document);
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.copy(parentDocument, CopyMode.CheckInReadonly); result = documentCopy1;
+		}};	// @formatter:on
+
+		changedDocument.getDocument(parentDocument);
+		assertThat(changedDocument.getCopyFromOrNull())
+				.as("the copy source (and so its parent document) shall no longer be referenced")
+				.isNull();
+	}
+
+	@Test
+	public void copy_writableDocument_isCopiedRightAway()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			document.isWritable(); result = true;
+			document.copy(parentDocument, CopyMode.CheckOutWritable); result = documentCopy1;
+		}};	// @formatter:on
+
+		final ChangedDocument changedDocument = ChangedDocument.ofDocument(document).copy(parentDocument, CopyMode.CheckOutWritable);
+		assertThat(changedDocument.isCopied()).isTrue();
+		assertThat(changedDocument.peekDocument()).isSameAs(documentCopy1);
+		assertThat(changedDocument.getCopyFromOrNull()).isNull();
+	}
+
+	@Test
+	public void copy_notCopiedDocument_appliesTheCopyModesOnFirstAccess()
+	{
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy()
+				.copy(parentDocument, CopyMode.CheckOutWritable);
+		assertThat(changedDocument.isCopied()).isFalse();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.copy(parentDocument, CopyMode.CheckInReadonly); result = documentCopy1;
+			documentCopy1.copy(parentDocument, CopyMode.CheckOutWritable); result = documentCopy2;
+		}};	// @formatter:on
+
+		assertThat(changedDocument.getDocument(parentDocument)).isSameAs(documentCopy2);
+	}
+
+	@Test
+	public void appendCopyMode_collapsesTheCopyModesChain()
+	{
+		assertThat(ChangedDocument.appendCopyMode(ImmutableList.of(), CopyMode.CheckOutWritable))
+				.containsExactly(CopyMode.CheckOutWritable);
+		assertThat(ChangedDocument.appendCopyMode(ImmutableList.of(CopyMode.CheckOutWritable), CopyMode.CheckInReadonly))
+				.containsExactly(CopyMode.CheckInReadonly);
+		assertThat(ChangedDocument.appendCopyMode(ImmutableList.of(CopyMode.CheckInReadonly), CopyMode.CheckOutWritable))
+				.containsExactly(CopyMode.CheckInReadonly, CopyMode.CheckOutWritable);
+		assertThat(ChangedDocument.appendCopyMode(ImmutableList.of(CopyMode.CheckInReadonly, CopyMode.CheckOutWritable), CopyMode.CheckOutWritable))
+				.containsExactly(CopyMode.CheckInReadonly, CopyMode.CheckOutWritable);
+	}
+
+	@Test
+	public void isNotCopiedAndValid()
+	{
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.getValidStatus(); returns(DocumentValidStatus.documentValid(), DocumentValidStatus.invalidIncludedDocument());
+		}};	// @formatter:on
+
+		assertThat(changedDocument.isNotCopiedAndValid()).isTrue();
+		assertThat(changedDocument.isNotCopiedAndValid()).isFalse();
+	}
+
+	@Test
+	public void isNotCopiedAndHasNoChanges()
+	{
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.hasChangesRecursivelly(); returns(false, true);
+		}};	// @formatter:on
+
+		assertThat(changedDocument.isNotCopiedAndHasNoChanges()).isTrue();
+		assertThat(changedDocument.isNotCopiedAndHasNoChanges()).isFalse();
+	}
+
+	@Test
+	public void isNotCopiedAndHasParentReadonly()
+	{
+		final DocumentReadonly parentReadonly = DocumentReadonly.NOT_READONLY;
+		final DocumentReadonly parentReadonlyProcessed = DocumentReadonly.builder().parentActive(true).active(true).processed(true).build();
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.getParentReadonly(); result = parentReadonly;
+		}};	// @formatter:on
+
+		assertThat(changedDocument.isNotCopiedAndHasParentReadonly(parentReadonly)).isTrue();
+		assertThat(changedDocument.isNotCopiedAndHasParentReadonly(parentReadonlyProcessed)).isFalse();
+	}
+
+	@Test
+	public void copiedDocument_isNeverSkipped()
+	{
+		final ChangedDocument changedDocument = readonlyChangedDocumentCopy();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.copy(parentDocument, CopyMode.CheckInReadonly); result = documentCopy1;
+		}};	// @formatter:on
+		changedDocument.getDocument(parentDocument);
+
+		assertThat(changedDocument.isNotCopiedAndValid()).isFalse();
+		assertThat(changedDocument.isNotCopiedAndHasNoChanges()).isFalse();
+		assertThat(changedDocument.isNotCopiedAndHasParentReadonly(DocumentReadonly.NOT_READONLY)).isFalse();
+
+		// @formatter:off
+		new Verifications()
+		{{
+			documentCopy1.getValidStatus(); times = 0;
+			documentCopy1.hasChangesRecursivelly(); times = 0;
+		}};	// @formatter:on
+	}
+}
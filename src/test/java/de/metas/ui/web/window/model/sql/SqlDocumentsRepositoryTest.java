@@ -0,0 +1,97 @@
+package de.metas.ui.web.window.model.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.StringLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.Document.DocumentValuesSupplier;
+import de.metas.ui.web.window.model.IDocumentFieldView;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlDocumentsRepositoryTest
+{
+	@Mocked
+	private IDocumentFieldView documentField;
+
+	private void givenDocumentField(final DocumentFieldWidgetType widgetType, final Object value)
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			documentField.getWidgetType(); result = widgetType; minTimes = 0;
+			documentField.getValue(); result = value; minTimes = 0;
+		}};	// @formatter:on
+	}
+
+	@Test
+	public void getValueAfterSave_fieldWithoutPOColumn_keepsCurrentValue()
+	{
+		final LookupValuesList labels = LookupValuesList.fromNullable(StringLookupValue.of("L1", "Label 1"));
+		givenDocumentField(DocumentFieldWidgetType.Labels, labels);
+
+		assertThat(SqlDocumentsRepository.getValueAfterSave(documentField, "Labels", null, null))
+				.as("labels are saved separately, so the current value is the saved one")
+				.isSameAs(labels);
+	}
+
+	@Test
+	public void getValueAfterSave_fieldWithoutPOColumn_noDocumentField()
+	{
+		assertThat(SqlDocumentsRepository.getValueAfterSave(null, "Labels", null, null))
+				.isSameAs(DocumentValuesSupplier.NO_VALUE);
+	}
+
+	@Test
+	public void getValueAfterSave_poValueNotChanged_keepsCurrentValue()
+	{
+		final IntegerLookupValue currentValue = IntegerLookupValue.of(10, "Ten");
+		givenDocumentField(DocumentFieldWidgetType.Lookup, currentValue);
+
+		assertThat(SqlDocumentsRepository.getValueAfterSave(documentField, "C_BPartner_ID", Integer.class, 10))
+				.as("the current lookup value shall be kept, so its display name doesn't have to be loaded again")
+				.isSameAs(currentValue);
+	}
+
+	@Test
+	public void getValueAfterSave_poValueChanged_returnsPOValue()
+	{
+		givenDocumentField(DocumentFieldWidgetType.Text, "before save");
+
+		assertThat(SqlDocumentsRepository.getValueAfterSave(documentField, "Description", String.class, "changed by model interceptor"))
+				.isEqualTo("changed by model interceptor");
+	}
+
+	@Test
+	public void getValueAfterSave_noDocumentField_returnsPOValue()
+	{
+		assertThat(SqlDocumentsRepository.getValueAfterSave(null, "Description", String.class, "saved"))
+				.isEqualTo("saved");
+	}
+}